@@ -23,15 +23,18 @@ import com.alibaba.cloud.ai.mcp.gateway.core.McpGatewayToolsInitializer;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.properties.NacosMcpGatewayProperties;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.provider.NacosMcpAsyncGatewayToolsProvider;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.provider.NacosMcpSyncGatewayToolsProvider;
+import com.alibaba.cloud.ai.mcp.gateway.nacos.session.NacosMcpGatewaySessionPool;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.tools.NacosMcpGatewayToolsInitializer;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.watcher.NacosMcpGatewayToolsWatcher;
 import com.alibaba.cloud.ai.mcp.nacos.NacosMcpProperties;
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
 import com.alibaba.nacos.api.exception.NacosException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -81,6 +84,16 @@ public class NacosMcpGatewayAutoConfiguration {
 				nacosMcpGatewayProperties);
 	}
 
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean(NacosMcpGatewaySessionPool.class)
+	@ConditionalOnProperty(prefix = "spring.ai.alibaba.mcp.gateway.nacos.session-pool", name = "enabled",
+			havingValue = "true", matchIfMissing = true)
+	public NacosMcpGatewaySessionPool nacosMcpGatewaySessionPool(NacosMcpOperationService nacosMcpOperationService,
+			NacosMcpGatewayProperties nacosMcpGatewayProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+		return new NacosMcpGatewaySessionPool(nacosMcpOperationService, nacosMcpGatewayProperties.getSessionPool(),
+				meterRegistry.getIfAvailable());
+	}
+
 	@Bean
 	@ConditionalOnBean(McpAsyncServer.class)
 	@ConditionalOnMissingBean(McpGatewayToolManager.class)
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.autoconfigure.memory;
 
+import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0WriteBehindQueue;
 import com.alibaba.cloud.ai.memory.mem0.core.Mem0MemoryStore;
 import com.alibaba.cloud.ai.memory.mem0.core.Mem0ServiceClient;
 import org.slf4j.Logger;
@@ -22,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -54,4 +56,24 @@ public class Mem0ChatMemoryAutoConfiguration {
 		return Mem0MemoryStore.builder(client).build();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = Mem0ChatMemoryProperties.MEM0_PREFIX + ".write-behind", name = "enabled",
+			havingValue = "true")
+	public Mem0WriteBehindQueue mem0WriteBehindQueue(Mem0ChatMemoryProperties properties,
+			VectorStore mem0MemoryStore) {
+		Mem0ChatMemoryProperties.WriteBehind writeBehind = properties.getWriteBehind();
+		// closed by the container on shutdown, which flushes the queued memories
+		return Mem0WriteBehindQueue.builder(mem0MemoryStore)
+			.capacity(writeBehind.getCapacity())
+			.maxBatchSize(writeBehind.getMaxBatchSize())
+			.workers(writeBehind.getWorkers())
+			.maxAttempts(writeBehind.getMaxAttempts())
+			.initialBackoff(writeBehind.getInitialBackoff())
+			.maxBackoff(writeBehind.getMaxBackoff())
+			.enqueueTimeout(writeBehind.getEnqueueTimeout())
+			.shutdownTimeout(writeBehind.getShutdownTimeout())
+			.build();
+	}
+
 }
@@ -15,10 +15,13 @@
  */
 package com.alibaba.cloud.ai.autoconfigure.memory;
 
+import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0WriteBehindQueue;
 import com.alibaba.cloud.ai.memory.mem0.core.Mem0Client;
 import com.alibaba.cloud.ai.memory.mem0.core.Mem0Server;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = Mem0ChatMemoryProperties.MEM0_PREFIX)
 public class Mem0ChatMemoryProperties {
 
@@ -28,6 +31,8 @@ public class Mem0ChatMemoryProperties {
 
 	private Mem0Server server;
 
+	private WriteBehind writeBehind = new WriteBehind();
+
 	public Mem0Client getClient() {
 		return client;
 	}
@@ -44,4 +49,109 @@ public class Mem0ChatMemoryProperties {
 		this.server = server;
 	}
 
+	public WriteBehind getWriteBehind() {
+		return writeBehind;
+	}
+
+	public void setWriteBehind(WriteBehind writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+
+	/**
+	 * Write memories to Mem0 on background threads, see {@link Mem0WriteBehindQueue}.
+	 */
+	public static class WriteBehind {
+
+		private boolean enabled = false;
+
+		private int capacity = 10_000;
+
+		private int maxBatchSize = 32;
+
+		private int workers = 4;
+
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofMillis(500);
+
+		private Duration maxBackoff = Duration.ofSeconds(10);
+
+		private Duration enqueueTimeout = Duration.ofSeconds(1);
+
+		private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public int getMaxBatchSize() {
+			return maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		public int getWorkers() {
+			return workers;
+		}
+
+		public void setWorkers(int workers) {
+			this.workers = workers;
+		}
+
+		public int getMaxAttempts() {
+			return maxAttempts;
+		}
+
+		public void setMaxAttempts(int maxAttempts) {
+			this.maxAttempts = maxAttempts;
+		}
+
+		public Duration getInitialBackoff() {
+			return initialBackoff;
+		}
+
+		public void setInitialBackoff(Duration initialBackoff) {
+			this.initialBackoff = initialBackoff;
+		}
+
+		public Duration getMaxBackoff() {
+			return maxBackoff;
+		}
+
+		public void setMaxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+		}
+
+		public Duration getEnqueueTimeout() {
+			return enqueueTimeout;
+		}
+
+		public void setEnqueueTimeout(Duration enqueueTimeout) {
+			this.enqueueTimeout = enqueueTimeout;
+		}
+
+		public Duration getShutdownTimeout() {
+			return shutdownTimeout;
+		}
+
+		public void setShutdownTimeout(Duration shutdownTimeout) {
+			this.shutdownTimeout = shutdownTimeout;
+		}
+
+	}
+
 }
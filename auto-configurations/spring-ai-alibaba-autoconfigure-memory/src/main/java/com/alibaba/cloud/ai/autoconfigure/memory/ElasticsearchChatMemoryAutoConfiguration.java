@@ -101,7 +101,13 @@ public class ElasticsearchChatMemoryAutoConfiguration {
 		// Create the transport and client
 		ElasticsearchTransport transport = new RestClientTransport(restClientBuilder.build(), new JacksonJsonpMapper());
 		ElasticsearchClient elasticsearchClient = new ElasticsearchClient(transport);
-		return new ElasticsearchChatMemoryRepository(elasticsearchClient);
+		return ElasticsearchChatMemoryRepository.builder()
+			.client(elasticsearchClient)
+			.readYourWrites(properties.isReadYourWrites())
+			.writeBehind(properties.getWriteBehind().isEnabled())
+			.writeBehindMaxOperations(properties.getWriteBehind().getMaxOperations())
+			.writeBehindFlushInterval(properties.getWriteBehind().getFlushInterval())
+			.build();
 	}
 
 }
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.autoconfigure.memory;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,6 +74,17 @@ public class ElasticsearchChatMemoryProperties {
 	 */
 	private String scheme = "http";
 
+	/**
+	 * Wait for a refresh on writes, so that they are visible to searches such as the
+	 * conversation listing before they return. Reads of a conversation never need it.
+	 */
+	private boolean readYourWrites = false;
+
+	/**
+	 * Buffering of the writes in a bulk ingester.
+	 */
+	private WriteBehind writeBehind = new WriteBehind();
+
 	public String getHost() {
 		return host;
 	}
@@ -145,4 +157,63 @@ public class ElasticsearchChatMemoryProperties {
 		this.scheme = scheme;
 	}
 
+	public boolean isReadYourWrites() {
+		return readYourWrites;
+	}
+
+	public void setReadYourWrites(final boolean readYourWrites) {
+		this.readYourWrites = readYourWrites;
+	}
+
+	public WriteBehind getWriteBehind() {
+		return writeBehind;
+	}
+
+	public void setWriteBehind(final WriteBehind writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+
+	public static class WriteBehind {
+
+		/**
+		 * Buffer the writes instead of sending a bulk request per save
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of buffered operations that triggers a flush
+		 */
+		private int maxOperations = 1000;
+
+		/**
+		 * Maximum time the writes stay buffered
+		 */
+		private Duration flushInterval = Duration.ofSeconds(1);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(final boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxOperations() {
+			return maxOperations;
+		}
+
+		public void setMaxOperations(final int maxOperations) {
+			this.maxOperations = maxOperations;
+		}
+
+		public Duration getFlushInterval() {
+			return flushInterval;
+		}
+
+		public void setFlushInterval(final Duration flushInterval) {
+			this.flushInterval = flushInterval;
+		}
+
+	}
+
 }
@@ -51,7 +51,8 @@ public class MemcachedChatMemoryAutoConfiguration {
 		MemcachedClient memcachedClient = new MemcachedClient(
 				new InetSocketAddress(properties.getHost(), properties.getPort()));
 		logger.info("Configuring Memcached chat memory repository");
-		return new MemcachedChatMemoryRepository(new MemcachedService(memcachedClient));
+		return new MemcachedChatMemoryRepository(new MemcachedService(memcachedClient), properties.getIndexShards(),
+				properties.getConversationTtl());
 	}
 
 }
@@ -15,8 +15,11 @@
  */
 package com.alibaba.cloud.ai.autoconfigure.memory;
 
+import com.alibaba.cloud.ai.memory.memcached.MemcachedChatMemoryRepository;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * auth: dahua
  */
@@ -29,6 +32,17 @@ public class MemcachedChatMemoryProperties {
 
 	private int port = 11211;
 
+	/**
+	 * Number of keys the conversation index is spread over. It must not change once
+	 * conversations are stored.
+	 */
+	private int indexShards = MemcachedChatMemoryRepository.DEFAULT_INDEX_SHARDS;
+
+	/**
+	 * How long a conversation is kept after its last save, unset to keep it.
+	 */
+	private Duration conversationTtl;
+
 	public String getHost() {
 		return host;
 	}
@@ -45,4 +59,20 @@ public class MemcachedChatMemoryProperties {
 		this.port = port;
 	}
 
+	public int getIndexShards() {
+		return indexShards;
+	}
+
+	public void setIndexShards(int indexShards) {
+		this.indexShards = indexShards;
+	}
+
+	public Duration getConversationTtl() {
+		return conversationTtl;
+	}
+
+	public void setConversationTtl(Duration conversationTtl) {
+		this.conversationTtl = conversationTtl;
+	}
+
 }
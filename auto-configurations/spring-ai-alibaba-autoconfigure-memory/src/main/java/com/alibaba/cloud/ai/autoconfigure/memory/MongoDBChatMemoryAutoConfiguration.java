@@ -52,6 +52,8 @@ public class MongoDBChatMemoryAutoConfiguration {
 			.databaseName(properties.getDatabaseName())
 			.userName(properties.getUserName())
 			.password(properties.getPassword())
+			.layout(properties.getLayout())
+			.conversationTtl(properties.getConversationTtl())
 			.build();
 	}
 
@@ -16,8 +16,11 @@
 
 package com.alibaba.cloud.ai.autoconfigure.memory;
 
+import com.alibaba.cloud.ai.memory.mongodb.MongoDBChatMemoryRepository;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for mongodb chat memory.
  */
@@ -56,6 +59,17 @@ public class MongoDBChatMemoryProperties {
 	 */
 	private String databaseName = "spring_ai";
 
+	/**
+	 * mongodb storage layout, a document per message or per conversation.
+	 */
+	private MongoDBChatMemoryRepository.Layout layout = MongoDBChatMemoryRepository.Layout.MESSAGE;
+
+	/**
+	 * how long a conversation is kept after its last update, with the conversation
+	 * layout.
+	 */
+	private Duration conversationTtl;
+
 	public String getHost() {
 		return host;
 	}
@@ -104,4 +118,20 @@ public class MongoDBChatMemoryProperties {
 		this.databaseName = databaseName;
 	}
 
+	public MongoDBChatMemoryRepository.Layout getLayout() {
+		return layout;
+	}
+
+	public void setLayout(MongoDBChatMemoryRepository.Layout layout) {
+		this.layout = layout;
+	}
+
+	public Duration getConversationTtl() {
+		return conversationTtl;
+	}
+
+	public void setConversationTtl(Duration conversationTtl) {
+		this.conversationTtl = conversationTtl;
+	}
+
 }
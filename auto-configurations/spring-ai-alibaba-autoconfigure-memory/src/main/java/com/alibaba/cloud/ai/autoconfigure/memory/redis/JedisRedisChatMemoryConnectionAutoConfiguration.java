@@ -71,6 +71,9 @@ public class JedisRedisChatMemoryConnectionAutoConfiguration
 			.timeout(standaloneConfiguration.timeout())
             .database(standaloneConfiguration.database())
             .keyPrefix(standaloneConfiguration.keyPrefix())
+            .incremental(standaloneConfiguration.incremental())
+            .conversationTtl(standaloneConfiguration.conversationTtl())
+            .indexSweepInterval(standaloneConfiguration.indexSweepInterval())
 			.sslBundles(standaloneConfiguration.sslBundles())
 			.useSsl(standaloneConfiguration.ssl().isEnabled())
 			.bundle(standaloneConfiguration.ssl().getBundle())
@@ -88,6 +91,9 @@ public class JedisRedisChatMemoryConnectionAutoConfiguration
 			.timeout(clusterConfiguration.timeout())
             .maxRedirects(clusterConfiguration.maxRedirects())
             .keyPrefix(clusterConfiguration.keyPrefix())
+            .incremental(clusterConfiguration.incremental())
+            .conversationTtl(clusterConfiguration.conversationTtl())
+            .indexSweepInterval(clusterConfiguration.indexSweepInterval())
 			.sslBundles(clusterConfiguration.sslBundles())
 			.useSsl(clusterConfiguration.ssl().isEnabled())
 			.bundle(clusterConfiguration.ssl().getBundle())
@@ -110,7 +110,8 @@ public abstract class RedisChatMemoryConnectionAutoConfiguration<T extends ChatM
 		RedisMemoryConnectionDetails.Standalone standalone = connectionDetails.getStandalone();
 		return new RedisChatMemoryStandalone(standalone.getHost(), standalone.getPort(),
 				connectionDetails.getUsername(), connectionDetails.getPassword(), properties.getTimeout(),
-                standalone.getDatabase(), properties.getKeyPrefix(), properties.getSsl(), sslBundles);
+                standalone.getDatabase(), properties.getKeyPrefix(), properties.isIncremental(),
+				properties.getConversationTtl(), properties.getIndexSweepInterval(), properties.getSsl(), sslBundles);
 	}
 
 	/**
@@ -123,7 +124,8 @@ public abstract class RedisChatMemoryConnectionAutoConfiguration<T extends ChatM
 		}
 		List<String> nodes = getNodes(connectionDetails.getCluster());
 		return new RedisChatMemoryCluster(nodes, properties.getCluster().getMaxRedirects(), connectionDetails.getUsername(),
-				connectionDetails.getPassword(), properties.getTimeout(), properties.getKeyPrefix(), properties.getSsl(), sslBundles);
+				connectionDetails.getPassword(), properties.getTimeout(), properties.getKeyPrefix(), properties.isIncremental(),
+				properties.getConversationTtl(), properties.getIndexSweepInterval(), properties.getSsl(), sslBundles);
 	}
 
 	/**
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.autoconfigure.memory.redis;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -66,6 +67,24 @@ public class RedisChatMemoryProperties {
      */
     private String keyPrefix;
 
+	/**
+	 * Append only the messages added since the last save instead of rewriting the whole
+	 * conversation on every save.
+	 */
+	private boolean incremental = false;
+
+	/**
+	 * How long a conversation is kept after its last save. Conversations never expire
+	 * when not set.
+	 */
+	private Duration conversationTtl;
+
+	/**
+	 * How often conversations idle for longer than the TTL are removed from the
+	 * conversation index.
+	 */
+	private Duration indexSweepInterval = Duration.ofMinutes(1);
+
 	/**
 	 * Type of client to use. By default, auto-detected according to the classpath.
 	 */
@@ -134,6 +153,30 @@ public class RedisChatMemoryProperties {
         this.keyPrefix = keyPrefix;
     }
 
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public Duration getConversationTtl() {
+		return conversationTtl;
+	}
+
+	public void setConversationTtl(Duration conversationTtl) {
+		this.conversationTtl = conversationTtl;
+	}
+
+	public Duration getIndexSweepInterval() {
+		return indexSweepInterval;
+	}
+
+	public void setIndexSweepInterval(Duration indexSweepInterval) {
+		this.indexSweepInterval = indexSweepInterval;
+	}
+
     public int getDatabase() {
         return database;
     }
@@ -71,6 +71,9 @@ public class RedissonRedisChatMemoryConnectionAutoConfiguration
 			.timeout(standaloneConfiguration.timeout())
             .database(standaloneConfiguration.database())
             .keyPrefix(standaloneConfiguration.keyPrefix())
+            .incremental(standaloneConfiguration.incremental())
+            .conversationTtl(standaloneConfiguration.conversationTtl())
+            .indexSweepInterval(standaloneConfiguration.indexSweepInterval())
 			.sslBundles(standaloneConfiguration.sslBundles())
 			.useSsl(standaloneConfiguration.ssl().isEnabled())
 			.bundle(standaloneConfiguration.ssl().getBundle())
@@ -87,6 +90,9 @@ public class RedissonRedisChatMemoryConnectionAutoConfiguration
 			.password(clusterConfiguration.password())
 			.timeout(clusterConfiguration.timeout())
             .keyPrefix(clusterConfiguration.keyPrefix())
+            .incremental(clusterConfiguration.incremental())
+            .conversationTtl(clusterConfiguration.conversationTtl())
+            .indexSweepInterval(clusterConfiguration.indexSweepInterval())
 			.sslBundles(clusterConfiguration.sslBundles())
 			.useSsl(clusterConfiguration.ssl().isEnabled())
 			.bundle(clusterConfiguration.ssl().getBundle())
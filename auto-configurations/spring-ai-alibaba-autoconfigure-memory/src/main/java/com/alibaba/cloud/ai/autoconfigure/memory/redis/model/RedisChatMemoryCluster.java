@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.autoconfigure.memory.redis.model;
 import com.alibaba.cloud.ai.autoconfigure.memory.redis.RedisChatMemoryProperties;
 import org.springframework.boot.ssl.SslBundles;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -27,6 +28,8 @@ import java.util.List;
  * @since 2025/7/30 21:33
  */
 public record RedisChatMemoryCluster(List<String> nodeAddresses, int maxRedirects, String username, String password,
-									 int timeout, String keyPrefix, RedisChatMemoryProperties.Ssl ssl, SslBundles sslBundles) {
+									 int timeout, String keyPrefix, boolean incremental, Duration conversationTtl,
+									 Duration indexSweepInterval, RedisChatMemoryProperties.Ssl ssl,
+									 SslBundles sslBundles) {
 
 }
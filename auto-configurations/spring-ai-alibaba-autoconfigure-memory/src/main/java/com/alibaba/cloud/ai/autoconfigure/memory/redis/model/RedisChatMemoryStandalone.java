@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.autoconfigure.memory.redis.model;
 import com.alibaba.cloud.ai.autoconfigure.memory.redis.RedisChatMemoryProperties;
 import org.springframework.boot.ssl.SslBundles;
 
+import java.time.Duration;
+
 /**
  * Configuration for Redis Memory using Redis Standalone
  *
@@ -25,6 +27,8 @@ import org.springframework.boot.ssl.SslBundles;
  * @since 2025/7/30 21:32
  */
 public record RedisChatMemoryStandalone(String hostName, int port, String username, String password,
-										int timeout, int database, String keyPrefix, RedisChatMemoryProperties.Ssl ssl, SslBundles sslBundles) {
+										int timeout, int database, String keyPrefix, boolean incremental, Duration conversationTtl,
+										Duration indexSweepInterval, RedisChatMemoryProperties.Ssl ssl,
+										SslBundles sslBundles) {
 
 }
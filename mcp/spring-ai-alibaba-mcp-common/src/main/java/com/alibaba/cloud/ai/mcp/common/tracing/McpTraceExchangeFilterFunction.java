@@ -21,89 +21,146 @@ import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
 import reactor.core.publisher.Mono;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
+/**
+ * Propagates the current trace of a Micrometer style tracer ({@code currentSpan()},
+ * {@code context()}, {@code traceId()}, {@code spanId()}) to outbound MCP requests.
+ *
+ * <p>
+ * The tracer is only known as {@link Object}, so the accessors are looked up
+ * reflectively, but only once: {@code currentSpan()} when the filter is created, the
+ * span and context accessors once per implementation class. Requests only invoke the
+ * resolved method handles.
+ */
 public class McpTraceExchangeFilterFunction implements ExchangeFilterFunction {
 
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	// Stands in for an accessor the type does not have
+	private static final MethodHandle MISSING = MethodHandles
+		.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+
+	private static final ClassValue<MethodHandle> CONTEXT = accessors("context");
+
+	private static final ClassValue<MethodHandle> TRACE_ID = accessors("traceId");
+
+	private static final ClassValue<MethodHandle> SPAN_ID = accessors("spanId");
+
 	private final Object tracer;
 
+	private final MethodHandle currentSpan;
+
 	public McpTraceExchangeFilterFunction(Object tracer) {
 		this.tracer = tracer;
+		this.currentSpan = tracer != null ? findAccessor(tracer.getClass(), "currentSpan") : MISSING;
 	}
 
 	@Override
 	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
 		// If there is no tracer, execute the request directly
-		if (tracer == null) {
+		if (currentSpan == MISSING) {
 			return next.exchange(request);
 		}
 
+		String traceId;
+		String spanId;
 		try {
-
-			Object span = getCurrentSpan();
-			if (span != null) {
-				String traceId = getTraceId(span);
-				String spanId = getSpanId(span);
-
-				if (traceId != null && spanId != null) {
-
-					ClientRequest enrichedRequest = ClientRequest.from(request)
-						.header("X-Trace-Id", traceId)
-						.header("X-Span-Id", spanId)
-						.header("X-Request-ID", traceId)
-
-						.header("traceparent", buildTraceparent(traceId, spanId))
-						.build();
-					return next.exchange(enrichedRequest);
-				}
+			Object span = (Object) currentSpan.invokeExact(tracer);
+			if (span == null) {
+				return next.exchange(request);
 			}
+			Object context = (Object) CONTEXT.get(span.getClass()).invokeExact(span);
+			if (context == null) {
+				return next.exchange(request);
+			}
+			traceId = (String) (Object) TRACE_ID.get(context.getClass()).invokeExact(context);
+			spanId = (String) (Object) SPAN_ID.get(context.getClass()).invokeExact(context);
+		}
+		catch (Throwable e) {
 			return next.exchange(request);
 		}
-		catch (Exception e) {
-
+		if (traceId == null || spanId == null) {
 			return next.exchange(request);
 		}
+
+		String traceparent = buildTraceparent(traceId, spanId);
+		ClientRequest enrichedRequest = ClientRequest.from(request).headers(headers -> {
+			headers.add("X-Trace-Id", traceId);
+			headers.add("X-Span-Id", spanId);
+			headers.add("X-Request-ID", traceId);
+			headers.add("traceparent", traceparent);
+		}).build();
+		return next.exchange(enrichedRequest);
 	}
 
-	private Object getCurrentSpan() {
-		if (tracer == null) {
-			return null;
-		}
-		try {
-			Method currentSpanMethod = tracer.getClass().getMethod("currentSpan");
-			return currentSpanMethod.invoke(tracer);
-		}
-		catch (Exception e) {
-			return null;
-		}
+	private static String buildTraceparent(String traceId, String spanId) {
+		return "00-" + traceId + "-" + spanId + "-01";
 	}
 
-	private String getTraceId(Object span) {
+	private static ClassValue<MethodHandle> accessors(String name) {
+		return new ClassValue<>() {
+			@Override
+			protected MethodHandle computeValue(Class<?> type) {
+				return findAccessor(type, name);
+			}
+		};
+	}
+
+	/**
+	 * Resolve a public no-arg method of the type to a handle of type
+	 * {@code (Object)Object}, or {@link #MISSING}.
+	 */
+	private static MethodHandle findAccessor(Class<?> type, String name) {
 		try {
-			Method contextMethod = span.getClass().getMethod("context");
-			Object context = contextMethod.invoke(span);
-			Method traceIdMethod = context.getClass().getMethod("traceId");
-			return (String) traceIdMethod.invoke(context);
+			Method method = publicDeclaration(type, type.getMethod(name));
+			if (method == null) {
+				return MISSING;
+			}
+			return MethodHandles.publicLookup().unreflect(method).asType(ACCESSOR_TYPE);
 		}
-		catch (Exception e) {
-			return null;
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			return MISSING;
 		}
 	}
 
-	private String getSpanId(Object span) {
-		try {
-			Method contextMethod = span.getClass().getMethod("context");
-			Object context = contextMethod.invoke(span);
-			Method spanIdMethod = context.getClass().getMethod("spanId");
-			return (String) spanIdMethod.invoke(context);
+	/**
+	 * Implementations are often package-private classes; find the declaration of the
+	 * method in a public supertype so that it can be invoked from here.
+	 */
+	private static Method publicDeclaration(Class<?> type, Method method) {
+		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return method;
 		}
-		catch (Exception e) {
-			return null;
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			Method declared = declaredInPublicType(current, method.getName());
+			if (declared != null) {
+				return declared;
+			}
 		}
+		return null;
 	}
 
-	private String buildTraceparent(String traceId, String spanId) {
-		return String.format("00-%s-%s-01", traceId, spanId);
+	private static Method declaredInPublicType(Class<?> type, String name) {
+		if (Modifier.isPublic(type.getModifiers())) {
+			try {
+				return type.getDeclaredMethod(name);
+			}
+			catch (NoSuchMethodException e) {
+				// keep looking in the interfaces
+			}
+		}
+		for (Class<?> candidate : type.getInterfaces()) {
+			Method declared = declaredInPublicType(candidate, name);
+			if (declared != null) {
+				return declared;
+			}
+		}
+		return null;
 	}
 
 }
@@ -34,6 +34,12 @@ public class NacosMcpClientProperties {
 
 	private boolean lazyInit = false;
 
+	/**
+	 * Serve the cached tool catalog of async clients while it is refreshed in the
+	 * background instead of waiting for the refresh.
+	 */
+	private boolean toolCacheStaleWhileRevalidate = false;
+
     public Map<String, NacosConfig> getConfigs() {
         return configs;
     }
@@ -46,6 +52,14 @@ public class NacosMcpClientProperties {
 		this.lazyInit = lazyInit;
 	}
 
+	public boolean isToolCacheStaleWhileRevalidate() {
+		return toolCacheStaleWhileRevalidate;
+	}
+
+	public void setToolCacheStaleWhileRevalidate(boolean toolCacheStaleWhileRevalidate) {
+		this.toolCacheStaleWhileRevalidate = toolCacheStaleWhileRevalidate;
+	}
+
     public record NacosConfig(String namespace, String serverAddr, String username, String password, String accessKey, String secretKey,
                                      String endpoint) {
     }
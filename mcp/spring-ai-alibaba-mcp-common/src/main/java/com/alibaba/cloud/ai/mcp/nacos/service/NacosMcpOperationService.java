@@ -26,28 +26,49 @@ import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
 import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
 import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.Event;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.maintainer.client.ai.AiMaintainerFactory;
 import com.alibaba.nacos.maintainer.client.ai.AiMaintainerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Operations on MCP servers registered in Nacos.
+ *
+ * <p>
+ * Besides the direct maintainer/naming/config calls, the service keeps local snapshots
+ * for the per-request paths: MCP server details
+ * ({@link #getServerDetailSnapshot(String)}), healthy instances of the services behind
+ * MCP servers ({@link #selectEndpoint(McpServiceRef)}) and referenced configs
+ * ({@link #getConfigSnapshot(String, String)}). Instances and configs are pushed by
+ * Nacos subscriptions, server details are refreshed by the scheduled poll. Reads never
+ * lock and keep serving the last-known snapshot while Nacos is unavailable.
+ *
  * @author Sunrisea
  */
-public class NacosMcpOperationService {
+public class NacosMcpOperationService implements DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(NacosMcpOperationService.class);
 
@@ -61,13 +82,23 @@ public class NacosMcpOperationService {
 
 	private final Map<String, List<NacosMcpSubscriber>> subscribers;
 
+	private final Map<String, McpServerDetailInfo> serverDetailSnapshots = new ConcurrentHashMap<>();
+
+	private final Map<String, InstanceSnapshot> instanceSnapshots = new ConcurrentHashMap<>();
+
+	private final Map<String, EventListener> instanceListeners = new ConcurrentHashMap<>();
+
+	private final Map<String, ConfigSnapshot> configSnapshots = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService executorService;
+
 	public NacosMcpOperationService(Properties nacosProperties) throws NacosException {
 		this.aiMaintainerService = AiMaintainerFactory.createAiMaintainerService(nacosProperties);
 		this.namingService = NacosFactory.createNamingService(nacosProperties);
 		this.configService = NacosFactory.createConfigService(nacosProperties);
 		this.namespace = nacosProperties.getProperty(PropertyKeyConst.NAMESPACE, "public");
 		this.subscribers = new ConcurrentHashMap<>();
-		ScheduledExecutorService executorService = new ScheduledThreadPoolExecutor(1, r -> {
+		this.executorService = new ScheduledThreadPoolExecutor(1, r -> {
 			Thread t = new Thread(r);
 			t.setName("nacos-mcp-operation-service");
 			t.setDaemon(true);
@@ -81,13 +112,43 @@ public class NacosMcpOperationService {
 		return configService;
 	}
 
+	/**
+	 * Stop the scheduled poll and remove the naming and config listeners of the
+	 * snapshots.
+	 */
+	@Override
+	public void destroy() {
+		executorService.shutdownNow();
+		List<String> keys;
+		synchronized (instanceListeners) {
+			keys = new ArrayList<>(instanceListeners.keySet());
+		}
+		for (String key : keys) {
+			String[] groupAndService = key.split("@@", 2);
+			unsubscribeInstances(groupAndService[0], groupAndService[1]);
+		}
+		synchronized (this) {
+			configSnapshots.forEach((key, snapshot) -> {
+				String[] dataIdAndGroup = key.split("@@", 2);
+				configService.removeListener(dataIdAndGroup[0], dataIdAndGroup[1], snapshot.listener);
+			});
+			configSnapshots.clear();
+		}
+	}
+
 	private void getServerChange() {
-		for (Map.Entry<String, List<NacosMcpSubscriber>> entry : subscribers.entrySet()) {
-			String mcpNameAndVersion = entry.getKey();
-			List<NacosMcpSubscriber> nacosMcpSubscribers = entry.getValue();
+		Set<String> mcpNameAndVersions = new HashSet<>(subscribers.keySet());
+		mcpNameAndVersions.addAll(serverDetailSnapshots.keySet());
+		for (String mcpNameAndVersion : mcpNameAndVersions) {
 			try {
 				McpServerDetailInfo mcpServerDetailInfo = this.getServerDetail(mcpNameAndVersion);
 				if (mcpServerDetailInfo == null) {
+					serverDetailSnapshots.remove(mcpNameAndVersion);
+					continue;
+				}
+				serverDetailSnapshots.computeIfPresent(mcpNameAndVersion, (k, v) -> mcpServerDetailInfo);
+				List<NacosMcpSubscriber> nacosMcpSubscribers = subscribers.get(mcpNameAndVersion);
+				if (nacosMcpSubscribers == null) {
 					continue;
 				}
 				for (NacosMcpSubscriber nacosMcpSubscriber : nacosMcpSubscribers) {
@@ -95,6 +156,7 @@ public class NacosMcpOperationService {
 				}
 			}
 			catch (Exception e) {
+				// The snapshot keeps the last-known detail until Nacos answers again
 				logger.error("getServerChange error", e);
 			}
 		}
@@ -113,7 +175,10 @@ public class NacosMcpOperationService {
 		String exportPath = mcpServerDetailInfo.getRemoteServerConfig().getExportPath();
 		String protocol = mcpServerDetailInfo.getProtocol();
 		String realVersion = mcpServerDetailInfo.getVersionDetail().getVersion();
-		return new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath, protocol, realVersion);
+		NacosMcpServerEndpoint serverEndpoint = new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath, protocol,
+				realVersion);
+		serverEndpoint.setServiceRef(mcpServerDetailInfo.getRemoteServerConfig().getServiceRef());
+		return serverEndpoint;
 	}
 
 	public NacosMcpServerEndpoint getServerEndpoint(String mcpName, String version) throws NacosException {
@@ -128,7 +193,10 @@ public class NacosMcpOperationService {
 		String exportPath = mcpServerDetailInfo.getRemoteServerConfig().getExportPath();
 		String protocol = mcpServerDetailInfo.getProtocol();
 		String realVersion = mcpServerDetailInfo.getVersionDetail().getVersion();
-		return new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath, protocol, realVersion);
+		NacosMcpServerEndpoint serverEndpoint = new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath, protocol,
+				realVersion);
+		serverEndpoint.setServiceRef(mcpServerDetailInfo.getRemoteServerConfig().getServiceRef());
+		return serverEndpoint;
 	}
 
 	public McpServerDetailInfo getServerDetail(String mcpNameAndVersion) throws NacosException {
@@ -148,6 +216,28 @@ public class NacosMcpOperationService {
 		return aiMaintainerService.getMcpServerDetail(this.namespace, mcpName, version);
 	}
 
+	/**
+	 * Get the server detail from the local snapshot. The first read of a server fetches
+	 * it from Nacos; afterwards the scheduled poll refreshes it in the background.
+	 * @param mcpNameAndVersion server name, optionally suffixed with "::version"
+	 * @return the last-known server detail, null if the server does not exist
+	 * @throws NacosException if the first fetch fails
+	 */
+	public McpServerDetailInfo getServerDetailSnapshot(String mcpNameAndVersion) throws NacosException {
+		if (mcpNameAndVersion == null) {
+			throw new IllegalArgumentException("mcpNameAndVersion must not be null");
+		}
+		McpServerDetailInfo snapshot = serverDetailSnapshots.get(mcpNameAndVersion);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		McpServerDetailInfo mcpServerDetailInfo = this.getServerDetail(mcpNameAndVersion);
+		if (mcpServerDetailInfo != null) {
+			serverDetailSnapshots.put(mcpNameAndVersion, mcpServerDetailInfo);
+		}
+		return mcpServerDetailInfo;
+	}
+
 	public McpServerDetailInfo getServerDetail(String mcpName, String version) throws NacosException {
 		if (mcpName == null || version == null) {
 			throw new IllegalArgumentException("mcpName must not be null");
@@ -162,18 +252,230 @@ public class NacosMcpOperationService {
 		this.subscribers.computeIfAbsent(mcpNameAndVersion, k -> new ArrayList<>()).add(nacosMcpSubscriber);
 	}
 
+	/**
+	 * Select a healthy endpoint of the service, weighted by instance weight. The
+	 * selection runs on the local instance snapshot, which is kept up to date by a
+	 * naming subscription created on the first call for the service.
+	 * @param mcpServiceRef the service reference
+	 * @return the selected endpoint
+	 * @throws NacosException if no healthy instance is available
+	 */
 	public McpEndpointInfo selectEndpoint(McpServiceRef mcpServiceRef) throws NacosException {
 		if (mcpServiceRef == null) {
 			throw new IllegalArgumentException("mcpServiceRef must not be null");
 		}
-		Instance instance = namingService.selectOneHealthyInstance(mcpServiceRef.getServiceName(),
-				mcpServiceRef.getGroupName());
+		InstanceSnapshot snapshot = instanceSnapshots.get(instanceKey(mcpServiceRef));
+		if (snapshot == null) {
+			snapshot = subscribeInstances(mcpServiceRef);
+		}
+		Instance instance = snapshot.select();
+		if (instance == null) {
+			// Nothing healthy in the snapshot, let Nacos decide (throws if none)
+			instance = namingService.selectOneHealthyInstance(mcpServiceRef.getServiceName(),
+					mcpServiceRef.getGroupName());
+		}
 		McpEndpointInfo mcpEndpointInfo = new McpEndpointInfo();
 		mcpEndpointInfo.setAddress(instance.getIp());
 		mcpEndpointInfo.setPort(instance.getPort());
 		return mcpEndpointInfo;
 	}
 
+	/**
+	 * Whether {@link #selectEndpoint(McpServiceRef)} can be answered from the local
+	 * snapshot without a call to Nacos: the snapshot exists and has a selectable
+	 * instance.
+	 */
+	public boolean canSelectFromSnapshot(McpServiceRef mcpServiceRef) {
+		if (mcpServiceRef == null) {
+			return false;
+		}
+		InstanceSnapshot snapshot = instanceSnapshots.get(instanceKey(mcpServiceRef));
+		return snapshot != null && snapshot.instances.length > 0;
+	}
+
+	/**
+	 * Weights of the selectable instances of the service, keyed by {@code ip:port}.
+	 * Served from the local instance snapshot, subscribing on the first call.
+	 * @param mcpServiceRef the service reference
+	 * @return instance weights, empty if the service has no selectable instance
+	 * @throws NacosException if the instances cannot be fetched
+	 */
+	public Map<String, Double> getInstanceWeights(McpServiceRef mcpServiceRef) throws NacosException {
+		if (mcpServiceRef == null) {
+			throw new IllegalArgumentException("mcpServiceRef must not be null");
+		}
+		InstanceSnapshot snapshot = instanceSnapshots.get(instanceKey(mcpServiceRef));
+		if (snapshot == null) {
+			snapshot = subscribeInstances(mcpServiceRef);
+		}
+		return snapshot.weights();
+	}
+
+	/**
+	 * Weights of the selectable instances of the service, keyed by {@code ip:port},
+	 * read from the local instance snapshot only. Never calls Nacos, so it is safe on
+	 * event loop and notification threads.
+	 * @param mcpServiceRef the service reference
+	 * @return instance weights, null if the service has no snapshot yet
+	 */
+	public Map<String, Double> getInstanceWeightsSnapshot(McpServiceRef mcpServiceRef) {
+		if (mcpServiceRef == null) {
+			return null;
+		}
+		InstanceSnapshot snapshot = instanceSnapshots.get(instanceKey(mcpServiceRef));
+		return snapshot == null ? null : snapshot.weights();
+	}
+
+	private InstanceSnapshot subscribeInstances(McpServiceRef mcpServiceRef) throws NacosException {
+		String key = instanceKey(mcpServiceRef);
+		synchronized (instanceListeners) {
+			InstanceSnapshot existing = instanceSnapshots.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			if (!instanceListeners.containsKey(key)) {
+				EventListener listener = new EventListener() {
+					@Override
+					public void onEvent(Event event) {
+						// A push racing with unsubscribeInstances must not bring back a
+						// snapshot that no listener keeps up to date
+						if (event instanceof NamingEvent namingEvent && instanceListeners.get(key) == this) {
+							instanceSnapshots.put(key, InstanceSnapshot.of(namingEvent.getInstances()));
+						}
+					}
+				};
+				namingService.subscribe(mcpServiceRef.getServiceName(), mcpServiceRef.getGroupName(), listener);
+				instanceListeners.put(key, listener);
+			}
+			List<Instance> instances = namingService.selectInstances(mcpServiceRef.getServiceName(),
+					mcpServiceRef.getGroupName(), true);
+			// A push may have arrived in the meantime, it is at least as recent
+			instanceSnapshots.putIfAbsent(key, InstanceSnapshot.of(instances));
+			return instanceSnapshots.get(key);
+		}
+	}
+
+	/**
+	 * Drop the instance snapshot of a service that is no longer used and unsubscribe its
+	 * naming listener. A later {@link #selectEndpoint(McpServiceRef)} subscribes again.
+	 * @param mcpServiceRef the service reference
+	 */
+	public void unsubscribeInstances(McpServiceRef mcpServiceRef) {
+		if (mcpServiceRef != null) {
+			unsubscribeInstances(mcpServiceRef.getGroupName(), mcpServiceRef.getServiceName());
+		}
+	}
+
+	private void unsubscribeInstances(String groupName, String serviceName) {
+		String key = instanceKey(groupName, serviceName);
+		EventListener listener;
+		synchronized (instanceListeners) {
+			listener = instanceListeners.remove(key);
+			instanceSnapshots.remove(key);
+		}
+		if (listener == null) {
+			return;
+		}
+		try {
+			namingService.unsubscribe(serviceName, groupName, listener);
+		}
+		catch (NacosException e) {
+			logger.warn("Failed to unsubscribe instances of service {}", key, e);
+		}
+	}
+
+	private static String instanceKey(McpServiceRef mcpServiceRef) {
+		return instanceKey(mcpServiceRef.getGroupName(), mcpServiceRef.getServiceName());
+	}
+
+	private static String instanceKey(String groupName, String serviceName) {
+		return groupName + "@@" + serviceName;
+	}
+
+	/**
+	 * Keep a local snapshot of the config, updated by a config listener. Subscriptions
+	 * are reference counted; each call must be paired with
+	 * {@link #unsubscribeConfig(String, String)}.
+	 * @param dataId config data id
+	 * @param group config group
+	 * @throws NacosException if the config cannot be fetched
+	 */
+	public synchronized void subscribeConfig(String dataId, String group) throws NacosException {
+		String key = configKey(dataId, group);
+		ConfigSnapshot snapshot = configSnapshots.get(key);
+		if (snapshot != null) {
+			snapshot.references++;
+			return;
+		}
+		ConfigSnapshot created = new ConfigSnapshot();
+		created.listener = new AbstractListener() {
+			@Override
+			public void receiveConfigInfo(String configInfo) {
+				created.content = configInfo;
+			}
+		};
+		try {
+			created.content = configService.getConfigAndSignListener(dataId, group, 3000, created.listener);
+		}
+		catch (NacosException e) {
+			configService.removeListener(dataId, group, created.listener);
+			throw e;
+		}
+		created.references = 1;
+		configSnapshots.put(key, created);
+	}
+
+	public synchronized void unsubscribeConfig(String dataId, String group) {
+		String key = configKey(dataId, group);
+		ConfigSnapshot snapshot = configSnapshots.get(key);
+		if (snapshot == null || --snapshot.references > 0) {
+			return;
+		}
+		configSnapshots.remove(key);
+		configService.removeListener(dataId, group, snapshot.listener);
+	}
+
+	/**
+	 * Get the config content, from the local snapshot when the config is subscribed.
+	 * @param dataId config data id
+	 * @param group config group
+	 * @return the config content, null if it does not exist
+	 * @throws NacosException if the config is not subscribed and cannot be fetched
+	 */
+	public String getConfigSnapshot(String dataId, String group) throws NacosException {
+		ConfigSnapshot snapshot = configSnapshots.get(configKey(dataId, group));
+		if (snapshot != null) {
+			return snapshot.content;
+		}
+		return configService.getConfig(dataId, group, 3000);
+	}
+
+	private static String configKey(String dataId, String group) {
+		return dataId + "@@" + group;
+	}
+
+	/**
+	 * Subscribe to instance changes of the service backing an MCP server.
+	 * @param mcpServiceRef the service reference
+	 * @param listener listener notified with the current instances on every change
+	 * @throws NacosException if the subscription fails
+	 */
+	public void subscribeServiceInstances(McpServiceRef mcpServiceRef, EventListener listener)
+			throws NacosException {
+		if (mcpServiceRef == null || listener == null) {
+			throw new IllegalArgumentException("mcpServiceRef and listener must not be null");
+		}
+		namingService.subscribe(mcpServiceRef.getServiceName(), mcpServiceRef.getGroupName(), listener);
+	}
+
+	public void unsubscribeServiceInstances(McpServiceRef mcpServiceRef, EventListener listener)
+			throws NacosException {
+		if (mcpServiceRef == null || listener == null) {
+			throw new IllegalArgumentException("mcpServiceRef and listener must not be null");
+		}
+		namingService.unsubscribe(mcpServiceRef.getServiceName(), mcpServiceRef.getGroupName(), listener);
+	}
+
 	public String createMcpServer(String mcpName, McpServerBasicInfo serverSpec, McpToolSpecification toolSpec,
 			McpEndpointSpec endpointSpec) throws NacosException {
 		endpointSpec.getData().put("namespaceId", this.namespace);
@@ -190,4 +492,72 @@ public class NacosMcpOperationService {
 		this.namingService.registerInstance(serviceName, groupName, instance);
 	}
 
+	/**
+	 * Immutable view of the selectable instances of a service, with cumulative weights
+	 * for weighted random selection.
+	 */
+	private static final class InstanceSnapshot {
+
+		private final Instance[] instances;
+
+		private final double[] cumulativeWeights;
+
+		private InstanceSnapshot(Instance[] instances, double[] cumulativeWeights) {
+			this.instances = instances;
+			this.cumulativeWeights = cumulativeWeights;
+		}
+
+		static InstanceSnapshot of(List<Instance> all) {
+			List<Instance> selectable = new ArrayList<>();
+			if (all != null) {
+				for (Instance instance : all) {
+					if (instance.isHealthy() && instance.isEnabled() && instance.getWeight() > 0) {
+						selectable.add(instance);
+					}
+				}
+			}
+			Instance[] instances = selectable.toArray(new Instance[0]);
+			double[] cumulativeWeights = new double[instances.length];
+			double total = 0;
+			for (int i = 0; i < instances.length; i++) {
+				total += instances[i].getWeight();
+				cumulativeWeights[i] = total;
+			}
+			return new InstanceSnapshot(instances, cumulativeWeights);
+		}
+
+		Map<String, Double> weights() {
+			Map<String, Double> weights = new HashMap<>(instances.length * 2);
+			for (Instance instance : instances) {
+				weights.put(instance.getIp() + ":" + instance.getPort(), instance.getWeight());
+			}
+			return weights;
+		}
+
+		Instance select() {
+			int size = instances.length;
+			if (size == 0) {
+				return null;
+			}
+			if (size == 1) {
+				return instances[0];
+			}
+			double random = ThreadLocalRandom.current().nextDouble(cumulativeWeights[size - 1]);
+			int index = Arrays.binarySearch(cumulativeWeights, random);
+			index = index >= 0 ? index + 1 : -index - 1;
+			return instances[Math.min(index, size - 1)];
+		}
+
+	}
+
+	private static final class ConfigSnapshot {
+
+		private volatile String content;
+
+		private AbstractListener listener;
+
+		private int references;
+
+	}
+
 }
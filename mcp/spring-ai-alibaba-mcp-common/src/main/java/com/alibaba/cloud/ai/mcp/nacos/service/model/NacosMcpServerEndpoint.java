@@ -17,6 +17,7 @@
 package com.alibaba.cloud.ai.mcp.nacos.service.model;
 
 import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
 
 import java.util.List;
 
@@ -33,6 +34,11 @@ public class NacosMcpServerEndpoint {
 
 	private String version;
 
+	/**
+	 * Nacos service behind the endpoints, null when unknown.
+	 */
+	private McpServiceRef serviceRef;
+
 	public NacosMcpServerEndpoint(List<McpEndpointInfo> mcpEndpointInfoList, String exportPath, String protocol,
 			String version) {
 		this.mcpEndpointInfoList = mcpEndpointInfoList;
@@ -73,4 +79,12 @@ public class NacosMcpServerEndpoint {
 		this.version = version;
 	}
 
+	public McpServiceRef getServiceRef() {
+		return serviceRef;
+	}
+
+	public void setServiceRef(McpServiceRef serviceRef) {
+		this.serviceRef = serviceRef;
+	}
+
 }
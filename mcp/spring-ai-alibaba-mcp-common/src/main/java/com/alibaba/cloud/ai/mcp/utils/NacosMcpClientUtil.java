@@ -16,8 +16,13 @@
 
 package com.alibaba.cloud.ai.mcp.utils;
 
+import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
+import com.alibaba.cloud.ai.mcp.nacos.service.model.NacosMcpServerEndpoint;
 import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author zhuoguang
  */
@@ -40,4 +45,31 @@ public class NacosMcpClientUtil {
 		return protocol;
 	}
 
+	/**
+	 * Nacos instance weights of the endpoints of a server, keyed by
+	 * {@link #getMcpEndpointInfoId(McpEndpointInfo, String)}, read from the local
+	 * instance snapshot without calling Nacos. Endpoints without a known weight are left
+	 * out.
+	 * @return the weights, null if the instances of the server are not subscribed yet
+	 */
+	public static Map<String, Double> getMcpEndpointWeights(NacosMcpOperationService nacosMcpOperationService,
+			NacosMcpServerEndpoint serverEndpoint) {
+		Map<String, Double> weights = new HashMap<>();
+		if (serverEndpoint == null || serverEndpoint.getServiceRef() == null) {
+			return weights;
+		}
+		Map<String, Double> instanceWeights = nacosMcpOperationService
+			.getInstanceWeightsSnapshot(serverEndpoint.getServiceRef());
+		if (instanceWeights == null) {
+			return null;
+		}
+		for (McpEndpointInfo mcpEndpointInfo : serverEndpoint.getMcpEndpointInfoList()) {
+			Double weight = instanceWeights.get(mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort());
+			if (weight != null) {
+				weights.put(getMcpEndpointInfoId(mcpEndpointInfo, serverEndpoint.getExportPath()), weight);
+			}
+		}
+		return weights;
+	}
+
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.mcp.common.tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@link McpTraceExchangeFilterFunction} compared with the
+ * previous implementation that looked up every accessor reflectively on each request,
+ * with tracing enabled and disabled.
+ *
+ * <p>
+ * Not run by the build; run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class McpTraceExchangeFilterFunctionBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean tracing;
+
+	private final ClientRequest request = ClientRequest.create(HttpMethod.POST, URI.create("http://127.0.0.1/mcp"))
+		.build();
+
+	// The exchange itself is free, only the work of the filter is measured
+	private final ExchangeFunction next = request -> Mono.empty();
+
+	private ExchangeFilterFunction reflective;
+
+	private ExchangeFilterFunction resolved;
+
+	@Setup
+	public void setUp() {
+		Object tracer = tracing ? new Tracer() : null;
+		reflective = new ReflectiveTraceExchangeFilterFunction(tracer);
+		resolved = new McpTraceExchangeFilterFunction(tracer);
+	}
+
+	@Benchmark
+	public Mono<ClientResponse> reflective() {
+		return reflective.filter(request, next);
+	}
+
+	@Benchmark
+	public Mono<ClientResponse> resolved() {
+		return resolved.filter(request, next);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(McpTraceExchangeFilterFunctionBenchmark.class.getSimpleName()).build())
+			.run();
+	}
+
+	public static class Tracer {
+
+		private final Span span = new Span();
+
+		public Span currentSpan() {
+			return span;
+		}
+
+	}
+
+	public static class Span {
+
+		private final Context context = new Context();
+
+		public Context context() {
+			return context;
+		}
+
+	}
+
+	public static class Context {
+
+		public String traceId() {
+			return "4bf92f3577b34da6a3ce929d0e0e4736";
+		}
+
+		public String spanId() {
+			return "00f067aa0ba902b7";
+		}
+
+	}
+
+	/**
+	 * The filter as it was before the accessors were resolved once.
+	 */
+	static class ReflectiveTraceExchangeFilterFunction implements ExchangeFilterFunction {
+
+		private final Object tracer;
+
+		ReflectiveTraceExchangeFilterFunction(Object tracer) {
+			this.tracer = tracer;
+		}
+
+		@Override
+		public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+			if (tracer == null) {
+				return next.exchange(request);
+			}
+			try {
+				Object span = tracer.getClass().getMethod("currentSpan").invoke(tracer);
+				if (span != null) {
+					String traceId = accessor(span, "traceId");
+					String spanId = accessor(span, "spanId");
+					if (traceId != null && spanId != null) {
+						return next.exchange(ClientRequest.from(request)
+							.header("X-Trace-Id", traceId)
+							.header("X-Span-Id", spanId)
+							.header("X-Request-ID", traceId)
+							.header("traceparent", String.format("00-%s-%s-01", traceId, spanId))
+							.build());
+					}
+				}
+				return next.exchange(request);
+			}
+			catch (Exception e) {
+				return next.exchange(request);
+			}
+		}
+
+		private static String accessor(Object span, String name) {
+			try {
+				Method contextMethod = span.getClass().getMethod("context");
+				Object context = contextMethod.invoke(span);
+				return (String) context.getClass().getMethod(name).invoke(context);
+			}
+			catch (Exception e) {
+				return null;
+			}
+		}
+
+	}
+
+}
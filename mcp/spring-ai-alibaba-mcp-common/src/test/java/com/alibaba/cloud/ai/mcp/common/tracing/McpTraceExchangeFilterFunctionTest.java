@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.mcp.common.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link McpTraceExchangeFilterFunction}.
+ */
+class McpTraceExchangeFilterFunctionTest {
+
+	private final ClientRequest request = ClientRequest.create(HttpMethod.POST, URI.create("http://127.0.0.1/mcp"))
+		.build();
+
+	private final AtomicReference<ClientRequest> exchanged = new AtomicReference<>();
+
+	private final ExchangeFunction next = request -> {
+		exchanged.set(request);
+		return Mono.empty();
+	};
+
+	@Test
+	void propagatesCurrentTrace() {
+		new McpTraceExchangeFilterFunction(new TestTracer("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7"))
+			.filter(request, next);
+
+		ClientRequest sent = exchanged.get();
+		assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", sent.headers().getFirst("X-Trace-Id"));
+		assertEquals("00f067aa0ba902b7", sent.headers().getFirst("X-Span-Id"));
+		assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", sent.headers().getFirst("X-Request-ID"));
+		assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+				sent.headers().getFirst("traceparent"));
+	}
+
+	@Test
+	void resolvesAccessorsThroughPublicInterfaces() {
+		new McpTraceExchangeFilterFunction(new HiddenTracer()).filter(request, next);
+
+		assertEquals("hidden-trace", exchanged.get().headers().getFirst("X-Trace-Id"));
+		assertEquals("hidden-span", exchanged.get().headers().getFirst("X-Span-Id"));
+	}
+
+	@Test
+	void passesRequestThroughWithoutTrace() {
+		new McpTraceExchangeFilterFunction(null).filter(request, next);
+		assertSame(request, exchanged.get());
+
+		new McpTraceExchangeFilterFunction(new TestTracer(null, null)).filter(request, next);
+		assertSame(request, exchanged.get());
+
+		new McpTraceExchangeFilterFunction(new Object()).filter(request, next);
+		assertSame(request, exchanged.get());
+		assertNull(exchanged.get().headers().getFirst("traceparent"));
+	}
+
+	public static class TestTracer {
+
+		private final TestSpan span;
+
+		TestTracer(String traceId, String spanId) {
+			this.span = traceId != null ? new TestSpan(new TestContext(traceId, spanId)) : null;
+		}
+
+		public TestSpan currentSpan() {
+			return span;
+		}
+
+	}
+
+	public record TestSpan(TestContext context) {
+	}
+
+	public record TestContext(String traceId, String spanId) {
+	}
+
+	public interface Tracer {
+
+		Span currentSpan();
+
+	}
+
+	public interface Span {
+
+		Context context();
+
+	}
+
+	public interface Context {
+
+		String traceId();
+
+		String spanId();
+
+	}
+
+	private static final class HiddenTracer implements Tracer {
+
+		@Override
+		public Span currentSpan() {
+			return () -> new Context() {
+				@Override
+				public String traceId() {
+					return "hidden-trace";
+				}
+
+				@Override
+				public String spanId() {
+					return "hidden-span";
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the endpoint with the fewest outstanding requests. The scan starts at a random
+ * offset so that ties do not all land on the first endpoint.
+ */
+public class LeastOutstandingMcpClientBalancer implements McpClientBalancer {
+
+    @Override
+    public <C> McpClientEndpoint<C> choose(McpClientEndpoint<C>[] candidates) {
+        int size = candidates.length;
+        int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+        McpClientEndpoint<C> best = candidates[start];
+        int bestOutstanding = best.getOutstanding();
+        for (int i = 1; i < size && bestOutstanding > 0; i++) {
+            McpClientEndpoint<C> candidate = candidates[(start + i) % size];
+            int outstanding = candidate.getOutstanding();
+            if (outstanding < bestOutstanding) {
+                best = candidate;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+/**
+ * Strategy choosing the endpoint of a distributed MCP client that serves the next
+ * request. Declare a bean of this type to replace the default
+ * {@link PowerOfTwoChoicesMcpClientBalancer}.
+ *
+ * <p>
+ * Implementations are shared by all distributed clients and called concurrently on the
+ * request path, so they must be thread-safe and should not allocate.
+ */
+public interface McpClientBalancer {
+
+    /**
+     * Choose an endpoint.
+     * @param candidates the endpoints currently eligible for traffic, never empty; must
+     * not be modified
+     * @param <C> client type
+     * @return one of the candidates
+     */
+    <C> McpClientEndpoint<C> choose(McpClientEndpoint<C>[] candidates);
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One endpoint of a distributed MCP client together with the load statistics the
+ * balancers work on: an EWMA of the request latency, the number of outstanding requests
+ * and the outlier ejection state.
+ *
+ * @param <C> client type
+ */
+public final class McpClientEndpoint<C> {
+
+    /**
+     * Weight of a new latency sample in the moving average.
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final String key;
+
+    private final C client;
+
+    private final double weight;
+
+    // shared with the copies of the endpoint, so that requests started before a
+    // weight change keep updating the statistics the balancers read
+    private final Stats stats;
+
+    McpClientEndpoint(String key, C client, double weight) {
+        this(key, client, weight, new Stats());
+    }
+
+    private McpClientEndpoint(String key, C client, double weight, Stats stats) {
+        this.key = key;
+        this.client = client;
+        this.weight = weight;
+        this.stats = stats;
+    }
+
+    McpClientEndpoint<C> withWeight(double weight) {
+        return weight == this.weight ? this : new McpClientEndpoint<>(key, client, weight, stats);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public C getClient() {
+        return client;
+    }
+
+    /**
+     * Nacos instance weight of the endpoint, 1.0 when unknown.
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    public int getOutstanding() {
+        return stats.outstanding.get();
+    }
+
+    /**
+     * Moving average of the request latency in nanoseconds, 0 before the first response.
+     */
+    public double getEwmaLatencyNanos() {
+        return stats.ewmaLatencyNanos;
+    }
+
+    public boolean isEjected() {
+        return stats.ejectedUntilNanos != 0;
+    }
+
+    void onStart() {
+        stats.outstanding.incrementAndGet();
+    }
+
+    void onComplete(long latencyNanos) {
+        stats.outstanding.decrementAndGet();
+        double current = stats.ewmaLatencyNanos;
+        stats.ewmaLatencyNanos = current == 0 ? latencyNanos : current + EWMA_ALPHA * (latencyNanos - current);
+    }
+
+    void onCancel() {
+        stats.outstanding.decrementAndGet();
+    }
+
+    int recordFailure() {
+        return stats.consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Reset the failure streak. Only the probe request brings an ejected endpoint back,
+     * late successes of requests started before the ejection do not.
+     * @return whether the endpoint was ejected and is now restored
+     */
+    boolean recordSuccess() {
+        stats.consecutiveFailures.set(0);
+        if (stats.ejectedUntilNanos == 0 || !stats.probing.get()) {
+            return false;
+        }
+        stats.ejectedUntilNanos = 0;
+        stats.ejectionCount = 0;
+        stats.probing.set(false);
+        return true;
+    }
+
+    void eject(long untilNanos) {
+        stats.ejectionCount++;
+        stats.ejectedUntilNanos = untilNanos;
+        stats.probing.set(false);
+    }
+
+    int getEjectionCount() {
+        return stats.ejectionCount;
+    }
+
+    boolean isProbing() {
+        return stats.probing.get();
+    }
+
+    /**
+     * Claim the single trial request of an ejected endpoint whose ejection time is over.
+     */
+    boolean tryStartProbe(long nowNanos) {
+        long until = stats.ejectedUntilNanos;
+        return until != 0 && nowNanos - until >= 0 && stats.probing.compareAndSet(false, true);
+    }
+
+    void releaseProbe() {
+        stats.probing.set(false);
+    }
+
+    @Override
+    public String toString() {
+        return "McpClientEndpoint{key='" + key + "', weight=" + weight + ", outstanding=" + stats.outstanding.get()
+                + ", ewmaLatencyMs=" + stats.ewmaLatencyNanos / 1_000_000d + ", ejected=" + isEjected() + '}';
+    }
+
+    /**
+     * Load statistics of an endpoint.
+     */
+    private static final class Stats {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        // Updated without synchronization; a lost sample only makes the average a bit coarser
+        private volatile double ewmaLatencyNanos;
+
+        private volatile long ejectedUntilNanos;
+
+        private volatile int ejectionCount;
+
+    }
+
+}
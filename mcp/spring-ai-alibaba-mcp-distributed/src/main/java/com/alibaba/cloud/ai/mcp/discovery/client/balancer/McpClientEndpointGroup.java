@@ -0,0 +1,281 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import io.modelcontextprotocol.spec.McpError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * The endpoints of one distributed MCP client. Request paths read an immutable snapshot
+ * array that is only rebuilt when the membership, a weight or the ejection state of an
+ * endpoint changes, hand it to the {@link McpClientBalancer} and record the outcome of
+ * the call on the chosen endpoint.
+ *
+ * @param <C> client type
+ */
+public class McpClientEndpointGroup<C> {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpClientEndpointGroup.class);
+
+    private final String name;
+
+    private final McpClientBalancer balancer;
+
+    private final McpOutlierDetection outlierDetection;
+
+    private volatile Snapshot<C> snapshot = new Snapshot<>(newArray(0), newArray(0));
+
+    public McpClientEndpointGroup(String name, McpClientBalancer balancer, McpOutlierDetection outlierDetection) {
+        this.name = name;
+        this.balancer = balancer != null ? balancer : new PowerOfTwoChoicesMcpClientBalancer();
+        this.outlierDetection = outlierDetection != null ? outlierDetection : new McpOutlierDetection();
+    }
+
+    /**
+     * Replace the members of the group. Endpoints whose key is already known keep their
+     * statistics and ejection state.
+     * @param clients clients by endpoint key
+     * @param weights endpoint weights by endpoint key, missing keys default to 1.0
+     */
+    public synchronized void publish(Map<String, C> clients, Map<String, Double> weights) {
+        Map<String, McpClientEndpoint<C>> current = new LinkedHashMap<>();
+        for (McpClientEndpoint<C> endpoint : snapshot.all) {
+            current.put(endpoint.getKey(), endpoint);
+        }
+        List<McpClientEndpoint<C>> next = new ArrayList<>(clients.size());
+        for (Map.Entry<String, C> entry : clients.entrySet()) {
+            Double configured = weights != null ? weights.get(entry.getKey()) : null;
+            double weight = configured != null && configured > 0 ? configured : 1.0;
+            McpClientEndpoint<C> existing = current.get(entry.getKey());
+            if (existing != null && existing.getClient() == entry.getValue()) {
+                next.add(existing.withWeight(weight));
+            }
+            else {
+                next.add(new McpClientEndpoint<>(entry.getKey(), entry.getValue(), weight));
+            }
+        }
+        rebuild(next.toArray(newArray(next.size())));
+    }
+
+    /**
+     * Choose the endpoint for the next request: an ejected endpoint due for its probe
+     * first, otherwise the balancer's pick among the endpoints in rotation. When every
+     * endpoint is ejected the balancer chooses among all of them.
+     * @return the chosen endpoint, null if the group is empty
+     */
+    public McpClientEndpoint<C> choose() {
+        Snapshot<C> current = snapshot;
+        McpClientEndpoint<C>[] all = current.all;
+        if (all.length == 0) {
+            return null;
+        }
+        if (current.available.length == all.length) {
+            return balancer.choose(all);
+        }
+        long now = System.nanoTime();
+        for (McpClientEndpoint<C> endpoint : all) {
+            if (endpoint.tryStartProbe(now)) {
+                logger.debug("[McpClientEndpointGroup] {} probing ejected endpoint {}", name, endpoint.getKey());
+                return endpoint;
+            }
+        }
+        return balancer.choose(current.available.length > 0 ? current.available : all);
+    }
+
+    /**
+     * Run a call on the endpoint and record its latency and outcome. A JSON-RPC error
+     * reply does not count as an endpoint failure, the endpoint did answer.
+     */
+    public <T> Mono<T> execute(McpClientEndpoint<C> endpoint, Function<C, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Call tracker = new Call(endpoint);
+            Mono<T> result;
+            try {
+                result = call.apply(endpoint.getClient());
+            }
+            catch (RuntimeException e) {
+                tracker.onError(e);
+                return Mono.error(e);
+            }
+            return result.doOnSuccess(value -> tracker.onSuccess())
+                .doOnError(tracker::onError)
+                .doOnCancel(tracker::onCancel);
+        });
+    }
+
+    /**
+     * Blocking counterpart of {@link #execute(McpClientEndpoint, Function)}.
+     */
+    public <T> T executeSync(McpClientEndpoint<C> endpoint, Function<C, T> call) {
+        Call tracker = new Call(endpoint);
+        T result;
+        try {
+            result = call.apply(endpoint.getClient());
+        }
+        catch (RuntimeException e) {
+            tracker.onError(e);
+            throw e;
+        }
+        tracker.onSuccess();
+        return result;
+    }
+
+    /**
+     * All endpoints, ejected ones included.
+     */
+    public List<McpClientEndpoint<C>> getEndpoints() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot.all));
+    }
+
+    public boolean isEmpty() {
+        return snapshot.all.length == 0;
+    }
+
+    private void onFailure(McpClientEndpoint<C> endpoint) {
+        int threshold = outlierDetection.getConsecutiveFailures();
+        int failures = endpoint.recordFailure();
+        if (threshold <= 0) {
+            return;
+        }
+        if (endpoint.isEjected()) {
+            if (endpoint.isProbing()) {
+                // Failed probe, back to ejection with a longer time
+                eject(endpoint, failures);
+            }
+            return;
+        }
+        if (failures >= threshold) {
+            eject(endpoint, failures);
+        }
+    }
+
+    private synchronized void eject(McpClientEndpoint<C> endpoint, int failures) {
+        Snapshot<C> current = snapshot;
+        if (!contains(current.all, endpoint)) {
+            return;
+        }
+        if (!endpoint.isEjected()) {
+            int ejected = current.all.length - current.available.length;
+            if ((ejected + 1) * 100 > outlierDetection.getMaxEjectionPercent() * current.all.length) {
+                return;
+            }
+        }
+        long base = outlierDetection.getBaseEjectionTime().toNanos();
+        long max = Math.max(base, outlierDetection.getMaxEjectionTime().toNanos());
+        int shift = Math.min(endpoint.getEjectionCount(), 30);
+        long duration = base > (max >> shift) ? max : Math.min(max, base << shift);
+        endpoint.eject(System.nanoTime() + Math.max(duration, 1));
+        logger.warn("[McpClientEndpointGroup] {} ejected endpoint {} for {} ms after {} consecutive failures", name,
+                endpoint.getKey(), duration / 1_000_000, failures);
+        rebuild(current.all);
+    }
+
+    private synchronized void restore(McpClientEndpoint<C> endpoint) {
+        logger.info("[McpClientEndpointGroup] {} endpoint {} recovered", name, endpoint.getKey());
+        rebuild(snapshot.all);
+    }
+
+    private void rebuild(McpClientEndpoint<C>[] all) {
+        List<McpClientEndpoint<C>> available = new ArrayList<>(all.length);
+        for (McpClientEndpoint<C> endpoint : all) {
+            if (!endpoint.isEjected()) {
+                available.add(endpoint);
+            }
+        }
+        snapshot = new Snapshot<>(all, available.toArray(newArray(available.size())));
+    }
+
+    private static boolean contains(McpClientEndpoint<?>[] endpoints, McpClientEndpoint<?> endpoint) {
+        for (McpClientEndpoint<?> candidate : endpoints) {
+            if (candidate.getKey().equals(endpoint.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> McpClientEndpoint<C>[] newArray(int size) {
+        return (McpClientEndpoint<C>[]) new McpClientEndpoint<?>[size];
+    }
+
+    private static boolean isEndpointFailure(Throwable error) {
+        return !(error instanceof McpError mcpError && mcpError.getJsonRpcError() != null);
+    }
+
+    private record Snapshot<C>(McpClientEndpoint<C>[] all, McpClientEndpoint<C>[] available) {
+    }
+
+    /**
+     * Bookkeeping of a single call, guarding against a cancel racing the result.
+     */
+    private final class Call extends AtomicBoolean {
+
+        private final McpClientEndpoint<C> endpoint;
+
+        private final long start;
+
+        Call(McpClientEndpoint<C> endpoint) {
+            this.endpoint = endpoint;
+            this.start = System.nanoTime();
+            endpoint.onStart();
+        }
+
+        void onSuccess() {
+            if (compareAndSet(false, true)) {
+                endpoint.onComplete(System.nanoTime() - start);
+                if (endpoint.recordSuccess()) {
+                    restore(endpoint);
+                }
+            }
+        }
+
+        void onError(Throwable error) {
+            if (compareAndSet(false, true)) {
+                endpoint.onComplete(System.nanoTime() - start);
+                if (isEndpointFailure(error)) {
+                    onFailure(endpoint);
+                }
+                else if (endpoint.recordSuccess()) {
+                    restore(endpoint);
+                }
+            }
+        }
+
+        void onCancel() {
+            if (compareAndSet(false, true)) {
+                endpoint.onCancel();
+                if (endpoint.isProbing()) {
+                    endpoint.releaseProbe();
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.time.Duration;
+
+/**
+ * Settings of the per-endpoint outlier ejection of the distributed MCP clients. An
+ * endpoint failing {@link #getConsecutiveFailures()} requests in a row is taken out of
+ * rotation for {@link #getBaseEjectionTime()}, doubled on every repeated ejection up to
+ * {@link #getMaxEjectionTime()}. Once the time is over a single probe request is let
+ * through (half-open): success restores the endpoint, failure ejects it again. Declare a
+ * bean of this type to override the defaults.
+ */
+public class McpOutlierDetection {
+
+    /**
+     * Consecutive failures after which an endpoint is ejected, 0 disables ejection.
+     */
+    private int consecutiveFailures = 5;
+
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Upper bound of the share of endpoints that may be ejected at the same time.
+     */
+    private int maxEjectionPercent = 50;
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public Duration getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+
+    public void setBaseEjectionTime(Duration baseEjectionTime) {
+        this.baseEjectionTime = baseEjectionTime;
+    }
+
+    public Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    public void setMaxEjectionTime(Duration maxEjectionTime) {
+        this.maxEjectionTime = maxEjectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public void setMaxEjectionPercent(int maxEjectionPercent) {
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default balancer: samples two endpoints at random and picks the one with the lower
+ * expected wait, the latency EWMA times the outstanding requests plus one. Endpoints
+ * without a latency sample yet score zero so that new members receive traffic right
+ * away.
+ */
+public class PowerOfTwoChoicesMcpClientBalancer implements McpClientBalancer {
+
+    @Override
+    public <C> McpClientEndpoint<C> choose(McpClientEndpoint<C>[] candidates) {
+        int size = candidates.length;
+        if (size == 1) {
+            return candidates[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        McpClientEndpoint<C> a = candidates[first];
+        McpClientEndpoint<C> b = candidates[second];
+        double scoreA = score(a);
+        double scoreB = score(b);
+        if (scoreA == scoreB) {
+            return a.getOutstanding() <= b.getOutstanding() ? a : b;
+        }
+        return scoreA < scoreB ? a : b;
+    }
+
+    private static double score(McpClientEndpoint<?> endpoint) {
+        return endpoint.getEwmaLatencyNanos() * (endpoint.getOutstanding() + 1) / endpoint.getWeight();
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cycles through the endpoints in order, the behaviour of the distributed clients before
+ * the balancer SPI was introduced.
+ */
+public class RoundRobinMcpClientBalancer implements McpClientBalancer {
+
+    private final AtomicInteger index = new AtomicInteger();
+
+    @Override
+    public <C> McpClientEndpoint<C> choose(McpClientEndpoint<C>[] candidates) {
+        return candidates[(index.getAndIncrement() & Integer.MAX_VALUE) % candidates.length];
+    }
+
+}
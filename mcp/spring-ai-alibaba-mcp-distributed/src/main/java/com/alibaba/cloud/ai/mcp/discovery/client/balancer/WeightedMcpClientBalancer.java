@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random choice proportional to the Nacos instance weight of each endpoint.
+ */
+public class WeightedMcpClientBalancer implements McpClientBalancer {
+
+    @Override
+    public <C> McpClientEndpoint<C> choose(McpClientEndpoint<C>[] candidates) {
+        int size = candidates.length;
+        if (size == 1) {
+            return candidates[0];
+        }
+        double total = 0;
+        for (McpClientEndpoint<C> candidate : candidates) {
+            total += candidate.getWeight();
+        }
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (McpClientEndpoint<C> candidate : candidates) {
+            point -= candidate.getWeight();
+            if (point < 0) {
+                return candidate;
+            }
+        }
+        return candidates[size - 1];
+    }
+
+}
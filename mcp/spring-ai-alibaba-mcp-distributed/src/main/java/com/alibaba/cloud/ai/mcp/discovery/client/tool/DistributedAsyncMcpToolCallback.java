@@ -37,20 +37,25 @@ public class DistributedAsyncMcpToolCallback implements ToolCallback {
 
     private final McpSchema.Tool tool;
 
+    // Built once, the callback lives as long as the cached tool catalog
+    private final ToolDefinition toolDefinition;
+
     public DistributedAsyncMcpToolCallback(DistributedAsyncMcpClient distributedAsyncMcpClient, McpSchema.Tool tool) {
         Assert.notNull(distributedAsyncMcpClient, "distributedSyncClient must not be null");
         Assert.notNull(tool, "tool must not be null");
         this.distributedAsyncMcpClient = distributedAsyncMcpClient;
         this.tool = tool;
+        this.toolDefinition = ToolDefinition.builder()
+                .name(McpToolUtils.prefixedToolName(this.distributedAsyncMcpClient.getServerName(), this.tool.name()))
+                .description(this.tool.description())
+                .inputSchema(ModelOptionsUtils.toJsonString(this.tool.inputSchema()))
+                .build();
     }
 
     @Override
     public ToolDefinition getToolDefinition() {
-        return ToolDefinition.builder()
-                .name(McpToolUtils.prefixedToolName(this.distributedAsyncMcpClient.getServerName(), this.tool.name()))
-                .description(this.tool.description())
-                .inputSchema(ModelOptionsUtils.toJsonString(this.tool.inputSchema()))
-                .build();    }
+        return this.toolDefinition;
+    }
 
     @Override
     public String call(String toolInput) {
@@ -19,32 +19,67 @@ package com.alibaba.cloud.ai.mcp.discovery.client.tool;
 import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedAsyncMcpClient;
 import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.support.ToolUtils;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiPredicate;
 
 /**
+ * Tool callbacks of the distributed async MCP clients, served from a cached catalog.
+ *
+ * <p>
+ * The catalog records the {@link DistributedAsyncMcpClient#getToolCatalogVersion()} of
+ * every client it was loaded from and is reloaded, listing the tools of all clients in
+ * parallel, once any of them changes or {@link #invalidateCache()} is called. In
+ * stale-while-revalidate mode an outdated catalog keeps being served while the reload
+ * runs in the background, so {@link #getToolCallbacks()} never waits for the servers
+ * after the first load.
+ *
  * @author yingzi
  * @since 2025/10/25
  */
 
 public class DistributedAsyncMcpToolCallbackProvider implements ToolCallbackProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(DistributedAsyncMcpToolCallbackProvider.class);
+
     private final List<DistributedAsyncMcpClient> mcpClients;
 
     private final BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter;
 
-    public DistributedAsyncMcpToolCallbackProvider(BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter, List<DistributedAsyncMcpClient> mcpClients) {
+    private final boolean staleWhileRevalidate;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Lock lock = new ReentrantLock();
+
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    private volatile ToolCatalog catalog;
+
+    public DistributedAsyncMcpToolCallbackProvider(BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter,
+            List<DistributedAsyncMcpClient> mcpClients, boolean staleWhileRevalidate) {
         Assert.notNull(mcpClients, "mcpClients cannot be null");
         Assert.notNull(toolFilter, "toolFilter cannot be null");
-        this.mcpClients = mcpClients;
+        this.mcpClients = List.copyOf(mcpClients);
         this.toolFilter = toolFilter;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public DistributedAsyncMcpToolCallbackProvider(BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter, List<DistributedAsyncMcpClient> mcpClients) {
+        this(toolFilter, mcpClients, false);
     }
 
     public DistributedAsyncMcpToolCallbackProvider(List<DistributedAsyncMcpClient> mcpClients) {
@@ -53,25 +88,73 @@ public class DistributedAsyncMcpToolCallbackProvider implements ToolCallbackProv
 
     @Override
     public ToolCallback[] getToolCallbacks() {
-        List<ToolCallback> toolCallbackList = new ArrayList();
-        Iterator var2 = this.mcpClients.iterator();
-
-        while (var2.hasNext()) {
-            DistributedAsyncMcpClient mcpClient = (DistributedAsyncMcpClient) var2.next();
-            ToolCallback[] toolCallbacks = (ToolCallback[]) mcpClient.listTools().map((response) -> {
-                return (ToolCallback[]) response.tools().stream().filter((tool) -> {
-                    return this.toolFilter.test(mcpClient.getMcpAsyncClient(), tool);
-                }).map((tool) -> {
-                    return new DistributedAsyncMcpToolCallback(mcpClient, tool);
-                }).toArray((x$0) -> {
-                    return new ToolCallback[x$0];
-                });
-            }).block();
-            this.validateToolCallbacks(toolCallbacks);
-            toolCallbackList.addAll(List.of(toolCallbacks));
+        ToolCatalog current = this.catalog;
+        if (current != null && current.isCurrent()) {
+            return current.toolCallbacks.clone();
+        }
+        if (current != null && this.staleWhileRevalidate) {
+            revalidate();
+            return current.toolCallbacks.clone();
+        }
+        this.lock.lock();
+        try {
+            current = this.catalog;
+            if (current == null || !current.isCurrent()) {
+                current = load().block();
+                this.catalog = current;
+            }
+            return current.toolCallbacks.clone();
         }
+        finally {
+            this.lock.unlock();
+        }
+    }
 
-        return (ToolCallback[]) toolCallbackList.toArray(new ToolCallback[0]);
+    /**
+     * Drop the cached catalog; the next {@link #getToolCallbacks()} reloads it (or, in
+     * stale-while-revalidate mode, triggers the reload).
+     */
+    public void invalidateCache() {
+        this.invalidations.incrementAndGet();
+    }
+
+    private void revalidate() {
+        if (!this.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        load().doFinally(signal -> this.revalidating.set(false)).subscribe(loaded -> this.catalog = loaded,
+                e -> logger.warn("[DistributedAsyncMcpToolCallbackProvider] Failed to refresh tool catalog, "
+                        + "keep serving the previous one", e));
+    }
+
+    private Mono<ToolCatalog> load() {
+        // Versions are taken before listing, a change during the load makes the result stale right away
+        long invalidation = this.invalidations.get();
+        long[] versions = new long[this.mcpClients.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = this.mcpClients.get(i).getToolCatalogVersion();
+        }
+        return Flux.fromIterable(this.mcpClients)
+            .flatMapSequential(mcpClient -> mcpClient.listTools().map(response -> toToolCallbacks(mcpClient, response)))
+            .collectList()
+            .map(toolCallbacksPerClient -> {
+                List<ToolCallback> toolCallbackList = new ArrayList<>();
+                for (ToolCallback[] toolCallbacks : toolCallbacksPerClient) {
+                    toolCallbackList.addAll(List.of(toolCallbacks));
+                }
+                return new ToolCatalog(invalidation, versions, toolCallbackList.toArray(new ToolCallback[0]));
+            });
+    }
+
+    private ToolCallback[] toToolCallbacks(DistributedAsyncMcpClient mcpClient, McpSchema.ListToolsResult response) {
+        McpAsyncClient mcpAsyncClient = mcpClient.getMcpAsyncClient();
+        ToolCallback[] toolCallbacks = response.tools()
+            .stream()
+            .filter(tool -> this.toolFilter.test(mcpAsyncClient, tool))
+            .map(tool -> new DistributedAsyncMcpToolCallback(mcpClient, tool))
+            .toArray(ToolCallback[]::new);
+        validateToolCallbacks(toolCallbacks);
+        return toolCallbacks;
     }
 
     private void validateToolCallbacks(ToolCallback[] toolCallbacks) {
@@ -81,4 +164,33 @@ public class DistributedAsyncMcpToolCallbackProvider implements ToolCallbackProv
                     "Multiple tools with the same name (%s)".formatted(String.join(", ", duplicateToolNames)));
         }
     }
+
+    private final class ToolCatalog {
+
+        private final long invalidation;
+
+        private final long[] versions;
+
+        private final ToolCallback[] toolCallbacks;
+
+        private ToolCatalog(long invalidation, long[] versions, ToolCallback[] toolCallbacks) {
+            this.invalidation = invalidation;
+            this.versions = versions;
+            this.toolCallbacks = toolCallbacks;
+        }
+
+        boolean isCurrent() {
+            if (this.invalidation != invalidations.get()) {
+                return false;
+            }
+            for (int i = 0; i < this.versions.length; i++) {
+                if (this.versions[i] != mcpClients.get(i).getToolCatalogVersion()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
 }
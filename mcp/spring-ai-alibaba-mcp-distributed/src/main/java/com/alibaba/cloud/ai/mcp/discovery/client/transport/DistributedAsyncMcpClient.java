@@ -40,4 +40,15 @@ public interface DistributedAsyncMcpClient {
     Map<String, McpAsyncClient> init();
 
     void subscribe();
+
+    /**
+     * Version of the tools offered by this client. It changes when the endpoints behind
+     * the client change or one of them sends {@code notifications/tools/list_changed},
+     * so tool catalog caches can tell whether their entry is still current.
+     * @return current version, constant for clients that do not track changes
+     */
+    default long getToolCatalogVersion() {
+        return 0L;
+    }
+
 }
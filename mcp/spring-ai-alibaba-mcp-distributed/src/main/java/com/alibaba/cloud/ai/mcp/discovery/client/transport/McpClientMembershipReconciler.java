@@ -0,0 +1,330 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.transport;
+
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpoint;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpointGroup;
+import com.alibaba.cloud.ai.mcp.nacos.service.model.NacosMcpServerEndpoint;
+import com.alibaba.cloud.ai.mcp.utils.NacosMcpClientUtil;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Applies endpoint changes of a Nacos MCP server to the clients of a distributed MCP
+ * client without blocking the thread that reports them.
+ *
+ * <p>
+ * Each round diffs the target endpoints against the published client set, creates and
+ * initializes the new clients concurrently, each bounded by the init timeout, and only
+ * then publishes the new immutable client set together with the endpoint group in one
+ * step. Removed clients are closed once their in-flight requests have drained, or the
+ * drain timeout has passed. Rounds never overlap; changes arriving during a round are
+ * coalesced and only the latest one is applied next. Endpoints whose client failed to
+ * initialize are retried after {@link #RETRY_DELAY} unless a newer change arrived.
+ *
+ * @param <C> client type
+ */
+public class McpClientMembershipReconciler<C> {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpClientMembershipReconciler.class);
+
+    static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final String name;
+
+    private final McpClientEndpointGroup<C> endpointGroup;
+
+    private final BiFunction<McpEndpointInfo, String, C> clientFactory;
+
+    private final Function<C, Mono<Void>> initializer;
+
+    private final Function<C, Mono<Void>> closer;
+
+    private final Function<NacosMcpServerEndpoint, Map<String, Double>> weights;
+
+    private final Duration initTimeout;
+
+    private final Duration drainTimeout;
+
+    private volatile Map<String, C> clients = Map.of();
+
+    private volatile NacosMcpServerEndpoint serverEndpoint;
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Guarded by this
+    private NacosMcpServerEndpoint pending;
+
+    private List<Sinks.Empty<Void>> waiters = new ArrayList<>();
+
+    private boolean running;
+
+    private boolean closed;
+
+    /**
+     * Create a reconciler.
+     * @param name server name, for logging
+     * @param endpointGroup group the client set is published to
+     * @param clientFactory creates an uninitialized client for an endpoint and export
+     * path
+     * @param initializer initializes a new client before it is published
+     * @param closer closes a removed client
+     * @param weights endpoint weights by client key for a server endpoint
+     * @param initTimeout upper bound of the initialization of a new client
+     * @param drainTimeout upper bound of the wait for in-flight requests of a removed
+     * client
+     */
+    public McpClientMembershipReconciler(String name, McpClientEndpointGroup<C> endpointGroup,
+            BiFunction<McpEndpointInfo, String, C> clientFactory, Function<C, Mono<Void>> initializer,
+            Function<C, Mono<Void>> closer, Function<NacosMcpServerEndpoint, Map<String, Double>> weights,
+            Duration initTimeout, Duration drainTimeout) {
+        this.name = name;
+        this.endpointGroup = endpointGroup;
+        this.clientFactory = clientFactory;
+        this.initializer = initializer;
+        this.closer = closer;
+        this.weights = weights;
+        this.initTimeout = initTimeout;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Bring the client set in line with the endpoints. Work starts right away; the
+     * caller does not need to subscribe and must not block on a notification thread.
+     * @param target the current endpoints of the server
+     * @return completes once a round covering the target has been published
+     */
+    public Mono<Void> reconcile(NacosMcpServerEndpoint target) {
+        Sinks.Empty<Void> done = Sinks.empty();
+        boolean start;
+        synchronized (this) {
+            if (closed) {
+                return Mono.empty();
+            }
+            pending = target;
+            waiters.add(done);
+            start = !running;
+            running = true;
+        }
+        if (start) {
+            nextRound();
+        }
+        return done.asMono();
+    }
+
+    /**
+     * The published clients by endpoint key, never modified in place.
+     */
+    public Map<String, C> getClients() {
+        return clients;
+    }
+
+    /**
+     * The server endpoint the published clients belong to, null before the first round.
+     */
+    public NacosMcpServerEndpoint getServerEndpoint() {
+        return serverEndpoint;
+    }
+
+    /**
+     * Counter of published changes of the client set; weight-only updates do not count.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Stop reconciling and withdraw all clients from the endpoint group.
+     * @return the clients that were published, for the caller to close
+     */
+    public List<C> shutdown() {
+        synchronized (this) {
+            closed = true;
+            pending = null;
+        }
+        List<C> published = new ArrayList<>(clients.values());
+        clients = Map.of();
+        version.incrementAndGet();
+        endpointGroup.publish(Map.of(), Map.of());
+        return published;
+    }
+
+    private void nextRound() {
+        NacosMcpServerEndpoint target;
+        List<Sinks.Empty<Void>> round;
+        synchronized (this) {
+            if (pending == null || closed) {
+                running = false;
+                waiters.forEach(Sinks.Empty::tryEmitEmpty);
+                waiters = new ArrayList<>();
+                return;
+            }
+            target = pending;
+            pending = null;
+            round = waiters;
+            waiters = new ArrayList<>();
+        }
+        apply(target).onErrorResume(e -> {
+            logger.error("[McpClientMembershipReconciler] Failed to apply endpoint change of mcp server {}", name, e);
+            return Mono.empty();
+        }).doFinally(signal -> {
+            round.forEach(Sinks.Empty::tryEmitEmpty);
+            nextRound();
+        }).subscribe();
+    }
+
+    private Mono<Void> apply(NacosMcpServerEndpoint target) {
+        Map<String, C> current = clients;
+        NacosMcpServerEndpoint previous = serverEndpoint;
+        boolean replaceAll = previous != null
+                && (!StringUtils.equals(previous.getExportPath(), target.getExportPath())
+                        || !StringUtils.equals(previous.getVersion(), target.getVersion()));
+        if (replaceAll) {
+            logger.info("[McpClientMembershipReconciler] Mcp server {} exportPath or version changed, "
+                    + "need to update all endpoints: {}", name, target);
+        }
+
+        Map<String, McpEndpointInfo> desired = new LinkedHashMap<>();
+        List<McpEndpointInfo> endpointInfos = target.getMcpEndpointInfoList() == null ? List.of()
+                : target.getMcpEndpointInfoList();
+        for (McpEndpointInfo mcpEndpointInfo : endpointInfos) {
+            desired.putIfAbsent(NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, target.getExportPath()),
+                    mcpEndpointInfo);
+        }
+        List<String> removed = new ArrayList<>();
+        for (String key : current.keySet()) {
+            if (replaceAll || !desired.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        Map<String, McpEndpointInfo> added = new LinkedHashMap<>();
+        desired.forEach((key, mcpEndpointInfo) -> {
+            if (replaceAll || !current.containsKey(key)) {
+                added.put(key, mcpEndpointInfo);
+            }
+        });
+        if (!added.isEmpty()) {
+            logger.info("[McpClientMembershipReconciler] Mcp server {} endpoints changed, endpoints need to add {}",
+                    name, added.values());
+        }
+        if (!removed.isEmpty()) {
+            logger.info("[McpClientMembershipReconciler] Mcp server {} endpoints changed, endpoints need to remove {}",
+                    name, removed);
+        }
+
+        return Flux.fromIterable(added.entrySet())
+            .flatMap(entry -> start(entry.getKey(), entry.getValue(), target.getExportPath()))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new)
+            .doOnNext(ready -> publish(target, current, removed, ready, added.size()))
+            .then();
+    }
+
+    private Mono<Map.Entry<String, C>> start(String key, McpEndpointInfo mcpEndpointInfo, String exportPath) {
+        return Mono.fromCallable(() -> clientFactory.apply(mcpEndpointInfo, exportPath))
+            .flatMap(client -> initializer.apply(client)
+                .timeout(initTimeout)
+                .thenReturn(Map.entry(key, client))
+                .onErrorResume(e -> {
+                    close(key, client);
+                    return Mono.error(e);
+                }))
+            .onErrorResume(e -> {
+                logger.warn("[McpClientMembershipReconciler] Failed to initialize client of mcp server {} for {}: {}",
+                        name, key, e.toString());
+                return Mono.empty();
+            });
+    }
+
+    private void publish(NacosMcpServerEndpoint target, Map<String, C> current, List<String> removed,
+            Map<String, C> ready, int requested) {
+        Map<String, C> next = new LinkedHashMap<>(current);
+        removed.forEach(next::remove);
+        next.putAll(ready);
+        List<McpClientEndpoint<C>> retired = new ArrayList<>();
+        for (McpClientEndpoint<C> endpoint : endpointGroup.getEndpoints()) {
+            if (next.get(endpoint.getKey()) != endpoint.getClient()) {
+                retired.add(endpoint);
+            }
+        }
+        boolean stale;
+        synchronized (this) {
+            stale = closed;
+            if (!stale) {
+                if (!removed.isEmpty() || !ready.isEmpty()) {
+                    version.incrementAndGet();
+                }
+                clients = Collections.unmodifiableMap(next);
+                serverEndpoint = target;
+                endpointGroup.publish(clients, weights.apply(target));
+            }
+        }
+        if (stale) {
+            ready.forEach(this::close);
+            return;
+        }
+        for (McpClientEndpoint<C> endpoint : retired) {
+            drainAndClose(endpoint);
+        }
+        if (ready.size() < requested) {
+            scheduleRetry(target);
+        }
+    }
+
+    private void drainAndClose(McpClientEndpoint<C> endpoint) {
+        Flux.interval(Duration.ZERO, DRAIN_POLL_INTERVAL)
+            .filter(tick -> endpoint.getOutstanding() == 0)
+            .next()
+            .timeout(drainTimeout, Mono.fromRunnable(() -> logger.warn(
+                    "[McpClientMembershipReconciler] Closing client of mcp server {} for {} with {} requests in flight",
+                    name, endpoint.getKey(), endpoint.getOutstanding())))
+            .subscribe(null, null, () -> close(endpoint.getKey(), endpoint.getClient()));
+    }
+
+    private void close(String key, C client) {
+        Mono.defer(() -> closer.apply(client)).subscribe(null,
+                e -> logger.warn("[McpClientMembershipReconciler] Failed to close client of mcp server {} for {}: {}",
+                        name, key, e.toString()),
+                () -> logger.info("[McpClientMembershipReconciler] Removed client of mcp server {} for {}", name,
+                        key));
+    }
+
+    private void scheduleRetry(NacosMcpServerEndpoint target) {
+        Mono.delay(RETRY_DELAY).subscribe(tick -> {
+            if (serverEndpoint == target) {
+                reconcile(target);
+            }
+        });
+    }
+
+}
@@ -17,7 +17,12 @@
 package com.alibaba.cloud.ai.mcp.discovery.client.transport.sse;
 
 import com.alibaba.cloud.ai.mcp.common.transport.builder.WebFluxSseClientTransportBuilder;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientBalancer;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpoint;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpointGroup;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpOutlierDetection;
 import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedSyncMcpClient;
+import com.alibaba.cloud.ai.mcp.discovery.client.transport.McpClientMembershipReconciler;
 import com.alibaba.cloud.ai.mcp.utils.CommonUtil;
 import com.alibaba.cloud.ai.mcp.utils.NacosMcpClientUtil;
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
@@ -42,13 +47,13 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * @author yingzi
@@ -74,9 +79,9 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
 
     private final boolean lazyInit;
 
-    private final AtomicInteger index = new AtomicInteger(0);
+    private final McpClientEndpointGroup<McpSyncClient> endpointGroup;
 
-    private Map<String, McpSyncClient> keyToClientMap;
+    private final McpClientMembershipReconciler<McpSyncClient> membership;
 
     private NacosMcpServerEndpoint serverEndpoint;
 
@@ -111,22 +116,27 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
             logger.debug("MCP trace filter not found, continuing without tracing: {}", e.getMessage());
         }
         this.traceFilter = tempTraceFilter;
+        this.endpointGroup = new McpClientEndpointGroup<>(serverName,
+                applicationContext.getBeanProvider(McpClientBalancer.class).getIfAvailable(),
+                applicationContext.getBeanProvider(McpOutlierDetection.class).getIfAvailable());
+        this.membership = new McpClientMembershipReconciler<>(serverName, endpointGroup, this::clientByEndpoint,
+                this::initializeClient, client -> Mono.fromRunnable(client::closeGracefully)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(),
+                this::endpointWeights, commonProperties.getRequestTimeout(), commonProperties.getRequestTimeout());
     }
 
     public Map<String, McpSyncClient> init() {
-        keyToClientMap = new ConcurrentHashMap<>();
         boolean initialized = initServerEndpoint(serverName, version);
         if (!initialized) {
             logger.info("[Nacos Mcp Sync Client] No MCP server endpoint found during init. serverName: {}, version: {}",
                     serverName, version);
-            return keyToClientMap;
-        }
-        for (McpEndpointInfo mcpEndpointInfo : serverEndpoint.getMcpEndpointInfoList()) {
-            updateByAddEndpoint(mcpEndpointInfo, serverEndpoint.getExportPath());
+            return membership.getClients();
         }
+        membership.reconcile(serverEndpoint).block();
         logger.info("[Nacos Mcp Sync Client] McpSyncClient init, serverName: {}, version: {}, endpoint: {}", serverName,
                 version, serverEndpoint);
-        return keyToClientMap;
+        return membership.getClients();
     }
 
     public void subscribe() {
@@ -139,24 +149,27 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
             String realVersion = mcpServerDetailInfo.getVersionDetail().getVersion();
             NacosMcpServerEndpoint nacosMcpServerEndpoint = new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath,
                     protocol, realVersion);
-            updateClientList(nacosMcpServerEndpoint);
+            nacosMcpServerEndpoint.setServiceRef(mcpServerDetailInfo.getRemoteServerConfig().getServiceRef());
+            membership.reconcile(nacosMcpServerEndpoint);
         });
         logger.info("[Nacos Mcp Sync Client] Subscribe Mcp Server from nacos, serverName: {}, version: {}", serverName,
                 version);
     }
 
     public McpSyncClient getMcpSyncClient() {
-        List<McpSyncClient> syncClients = getMcpSyncClientList();
-        if (syncClients.isEmpty()) {
+        return chooseEndpoint().getClient();
+    }
+
+    private McpClientEndpoint<McpSyncClient> chooseEndpoint() {
+        McpClientEndpoint<McpSyncClient> endpoint = endpointGroup.choose();
+        if (endpoint == null) {
             throw new IllegalStateException("[Nacos Mcp Sync Client] No McpSyncClient available, name :" + serverName);
         }
-        int currentIndex = index.getAndUpdate(index -> (index + 1) % syncClients.size());
-
-        return syncClients.get(currentIndex);
+        return endpoint;
     }
 
     public List<McpSyncClient> getMcpSyncClientList() {
-        return keyToClientMap.values().stream().toList();
+        return membership.getClients().values().stream().toList();
     }
 
     public String getServerName() {
@@ -164,13 +177,25 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
     }
 
     public NacosMcpServerEndpoint getNacosMcpServerEndpoint() {
-        return this.serverEndpoint;
+        return membership.getServerEndpoint();
     }
 
-    private void updateByAddEndpoint(McpEndpointInfo mcpEndpointInfo, String exportPath) {
-        McpSyncClient mcpSyncClient = clientByEndpoint(mcpEndpointInfo, exportPath);
-        String key = NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, exportPath);
-        keyToClientMap.putIfAbsent(key, mcpSyncClient);
+    private Map<String, Double> endpointWeights(NacosMcpServerEndpoint endpoint) {
+        Map<String, Double> weights = NacosMcpClientUtil.getMcpEndpointWeights(nacosMcpOperationService, endpoint);
+        if (weights != null) {
+            return weights;
+        }
+        // Called while the membership publishes: subscribe the instances off this thread and
+        // apply their weights in another round
+        Mono.fromCallable(() -> nacosMcpOperationService.getInstanceWeights(endpoint.getServiceRef()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(instanceWeights -> {
+                if (membership.getServerEndpoint() == endpoint) {
+                    membership.reconcile(endpoint);
+                }
+            }, e -> logger.warn("[Nacos Mcp Sync Client] Failed to get instance weights of mcp server {}, "
+                    + "using equal weights", serverName, e));
+        return Map.of();
     }
 
     private McpSyncClient clientByEndpoint(McpEndpointInfo mcpEndpointInfo, String exportPath) {
@@ -180,12 +205,8 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
         String baseUrl = protocol + "://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
         WebClient.Builder webClientBuilder = webClientBuilderTemplate.clone().baseUrl(baseUrl);
 
-        WebFluxSseClientTransport transport;
-        if (traceFilter != null) {
-            transport = WebFluxSseClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath);
-        } else {
-            transport = WebFluxSseClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath, traceFilter);
-        }
+        WebFluxSseClientTransport transport = WebFluxSseClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath,
+                traceFilter);
 
         NamedClientMcpTransport namedClientMcpTransport = new NamedClientMcpTransport(
                 serverName + "-" + NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, exportPath),
@@ -200,58 +221,15 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
                 ;
         spec = mcpSyncClientConfigurer.configure(namedClientMcpTransport.name(), spec);
         syncClient = spec.build();
-        if (commonProperties.isInitialized()) {
-            syncClient.initialize();
-        }
-
-        logger.info("Added McpSyncClient: {}", clientInfo.name());
+        logger.info("Created McpSyncClient: {}", clientInfo.name());
         return syncClient;
     }
 
-    private void updateClientList(NacosMcpServerEndpoint newServerEndpoint) {
-        if (this.serverEndpoint == null) {
-            for (McpEndpointInfo mcpEndpointInfo : newServerEndpoint.getMcpEndpointInfoList()) {
-                updateByAddEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            }
-            this.serverEndpoint = newServerEndpoint;
-            return;
-        }
-        if (!StringUtils.equals(this.serverEndpoint.getExportPath(), newServerEndpoint.getExportPath())
-                || !StringUtils.equals(this.serverEndpoint.getVersion(), newServerEndpoint.getVersion())) {
-            logger.info(
-                    "[Nacos Mcp Sync Client] Mcp server {} exportPath or protocol changed, need to update all endpoints: {}",
-                    serverName, newServerEndpoint);
-            updateAll(newServerEndpoint);
+    private Mono<Void> initializeClient(McpSyncClient client) {
+        if (!commonProperties.isInitialized()) {
+            return Mono.empty();
         }
-        else {
-            List<McpEndpointInfo> currentMcpEndpointInfoList = this.serverEndpoint.getMcpEndpointInfoList();
-            List<McpEndpointInfo> newMcpEndpointInfoList = newServerEndpoint.getMcpEndpointInfoList();
-            List<McpEndpointInfo> addEndpointInfoList = newMcpEndpointInfoList.stream()
-                    .filter(newEndpoint -> currentMcpEndpointInfoList.stream()
-                            .noneMatch(currentEndpoint -> currentEndpoint.getAddress().equals(newEndpoint.getAddress())
-                                    && currentEndpoint.getPort() == newEndpoint.getPort()))
-                    .toList();
-            List<McpEndpointInfo> removeEndpointInfoList = currentMcpEndpointInfoList.stream()
-                    .filter(currentEndpoint -> newMcpEndpointInfoList.stream()
-                            .noneMatch(newEndpoint -> newEndpoint.getAddress().equals(currentEndpoint.getAddress())
-                                    && newEndpoint.getPort() == currentEndpoint.getPort()))
-                    .toList();
-            if (!addEndpointInfoList.isEmpty()) {
-                logger.info("[Nacos Mcp Sync Client] Mcp server {} endpoints changed, endpoints need to add {}",
-                        serverName, addEndpointInfoList);
-            }
-            for (McpEndpointInfo addEndpointInfo : addEndpointInfoList) {
-                updateByAddEndpoint(addEndpointInfo, newServerEndpoint.getExportPath());
-            }
-            if (!removeEndpointInfoList.isEmpty()) {
-                logger.info("[Nacos Mcp Sync Client] Mcp server {} endpoints changed, endpoints need to remove {}",
-                        serverName, removeEndpointInfoList);
-            }
-            for (McpEndpointInfo removeEndpointInfo : removeEndpointInfoList) {
-                updateByRemoveEndpoint(removeEndpointInfo, newServerEndpoint.getExportPath());
-            }
-        }
-        this.serverEndpoint = newServerEndpoint;
+        return Mono.fromRunnable(client::initialize).subscribeOn(Schedulers.boundedElastic()).then();
     }
 
     protected boolean initServerEndpoint(String serverName, String version) {
@@ -281,33 +259,8 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
         }
     }
 
-    private void updateAll(NacosMcpServerEndpoint newServerEndpoint) {
-        Map<String, McpSyncClient> newKeyToClientMap = new ConcurrentHashMap<>();
-        Map<String, McpSyncClient> oldKeyToClientMap = this.keyToClientMap;
-        Map<String, Integer> newKeyToCountMap = new ConcurrentHashMap<>();
-        for (McpEndpointInfo mcpEndpointInfo : newServerEndpoint.getMcpEndpointInfoList()) {
-            McpSyncClient syncClient = clientByEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            String key = NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            newKeyToClientMap.putIfAbsent(key, syncClient);
-            newKeyToCountMap.putIfAbsent(key, 0);
-        }
-        this.keyToClientMap = newKeyToClientMap;
-        for (Map.Entry<String, McpSyncClient> entry : oldKeyToClientMap.entrySet()) {
-            McpSyncClient syncClient = entry.getValue();
-            logger.info("Removing McpSyncClient: {}", syncClient.getClientInfo().name());
-            syncClient.closeGracefully();
-            logger.info("Removed McpSyncClient: {} Success", syncClient.getClientInfo().name());
-        }
-    }
-
-    private void updateByRemoveEndpoint(McpEndpointInfo serverEndpoint, String exportPath) {
-        String key = NacosMcpClientUtil.getMcpEndpointInfoId(serverEndpoint, exportPath);
-        if (keyToClientMap.containsKey(key)) {
-            McpSyncClient syncClient = keyToClientMap.remove(key);
-            logger.info("Removing McpSyncClient: {}", syncClient.getClientInfo().name());
-            syncClient.closeGracefully();
-            logger.info("Removed McpSyncClient: {} Success", syncClient.getClientInfo().name());
-        }
+    private <T> T execute(Function<McpSyncClient, T> call) {
+        return endpointGroup.executeSync(chooseEndpoint(), call);
     }
 
     // ---------------------------原始调用方法------------------------------//
@@ -332,11 +285,8 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
     }
 
     public void close() {
-        Iterator<McpSyncClient> iterator = getMcpSyncClientList().iterator();
-        while (iterator.hasNext()) {
-            McpSyncClient mcpSyncClient = iterator.next();
+        for (McpSyncClient mcpSyncClient : membership.shutdown()) {
             mcpSyncClient.close();
-            iterator.remove();
             logger.info("[Nacos Mcp Sync Client] Closed and removed McpSyncClient: {}",
                     mcpSyncClient.getClientInfo().name());
         }
@@ -344,13 +294,10 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
 
     public boolean closeGracefully() {
         List<Boolean> flagList = new ArrayList<>();
-        Iterator<McpSyncClient> iterator = getMcpSyncClientList().iterator();
-        while (iterator.hasNext()) {
-            McpSyncClient mcpSyncClient = iterator.next();
+        for (McpSyncClient mcpSyncClient : membership.shutdown()) {
             boolean flag = mcpSyncClient.closeGracefully();
             flagList.add(flag);
             if (flag) {
-                iterator.remove();
                 logger.info("[Nacos Mcp Sync Client] Closed and removed McpSyncClient: {}",
                         mcpSyncClient.getClientInfo().name());
             }
@@ -375,43 +322,43 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
     }
 
     public Object ping() {
-        return getMcpSyncClient().ping();
+        return execute(McpSyncClient::ping);
     }
 
     public McpSchema.CallToolResult callTool(McpSchema.CallToolRequest callToolRequest) {
-        return getMcpSyncClient().callTool(callToolRequest);
+        return execute(client -> client.callTool(callToolRequest));
     }
 
     public McpSchema.ListToolsResult listTools() {
-        return getMcpSyncClient().listTools();
+        return execute(McpSyncClient::listTools);
     }
 
     public McpSchema.ListToolsResult listTools(String cursor) {
-        return getMcpSyncClient().listTools(cursor);
+        return execute(client -> client.listTools(cursor));
     }
 
     public McpSchema.ListResourcesResult listResources(String cursor) {
-        return getMcpSyncClient().listResources(cursor);
+        return execute(client -> client.listResources(cursor));
     }
 
     public McpSchema.ListResourcesResult listResources() {
-        return getMcpSyncClient().listResources();
+        return execute(McpSyncClient::listResources);
     }
 
     public McpSchema.ReadResourceResult readResource(McpSchema.Resource resource) {
-        return getMcpSyncClient().readResource(resource);
+        return execute(client -> client.readResource(resource));
     }
 
     public McpSchema.ReadResourceResult readResource(McpSchema.ReadResourceRequest readResourceRequest) {
-        return getMcpSyncClient().readResource(readResourceRequest);
+        return execute(client -> client.readResource(readResourceRequest));
     }
 
     public McpSchema.ListResourceTemplatesResult listResourceTemplates(String cursor) {
-        return getMcpSyncClient().listResourceTemplates(cursor);
+        return execute(client -> client.listResourceTemplates(cursor));
     }
 
     public McpSchema.ListResourceTemplatesResult listResourceTemplates() {
-        return getMcpSyncClient().listResourceTemplates();
+        return execute(McpSyncClient::listResourceTemplates);
     }
 
     public void subscribeResource (McpSchema.SubscribeRequest subscribeRequest) {
@@ -427,15 +374,15 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
     }
 
     public McpSchema.ListPromptsResult listPrompts(String cursor) {
-        return getMcpSyncClient().listPrompts(cursor);
+        return execute(client -> client.listPrompts(cursor));
     }
 
     public McpSchema.ListPromptsResult listPrompts() {
-        return getMcpSyncClient().listPrompts();
+        return execute(McpSyncClient::listPrompts);
     }
 
     public McpSchema.GetPromptResult getPrompt(McpSchema.GetPromptRequest getPromptRequest) {
-        return getMcpSyncClient().getPrompt(getPromptRequest);
+        return execute(client -> client.getPrompt(getPromptRequest));
     }
 
     public void setLoggingLevel(McpSchema.LoggingLevel loggingLevel) {
@@ -445,7 +392,7 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
     }
 
     public McpSchema.CompleteResult completeCompletion(McpSchema.CompleteRequest completeRequest) {
-        return getMcpSyncClient().completeCompletion(completeRequest);
+        return execute(client -> client.completeCompletion(completeRequest));
     }
 
     // ---------------------------原始调用方法------------------------------//
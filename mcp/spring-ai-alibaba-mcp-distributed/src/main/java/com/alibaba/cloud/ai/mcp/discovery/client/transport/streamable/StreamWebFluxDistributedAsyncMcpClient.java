@@ -17,7 +17,12 @@
 package com.alibaba.cloud.ai.mcp.discovery.client.transport.streamable;
 
 import com.alibaba.cloud.ai.mcp.common.transport.builder.WebFluxStreamableClientTransportBuilder;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientBalancer;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpoint;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpointGroup;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpOutlierDetection;
 import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedAsyncMcpClient;
+import com.alibaba.cloud.ai.mcp.discovery.client.transport.McpClientMembershipReconciler;
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
 import com.alibaba.cloud.ai.mcp.nacos.service.model.NacosMcpServerEndpoint;
 import com.alibaba.cloud.ai.mcp.utils.CommonUtil;
@@ -43,13 +48,13 @@ import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -77,9 +82,11 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
 
     private final boolean lazyInit;
 
-    private final AtomicInteger index = new AtomicInteger(0);
+    private final McpClientEndpointGroup<McpAsyncClient> endpointGroup;
 
-    private Map<String, McpAsyncClient> keyToClientMap;
+    private final McpClientMembershipReconciler<McpAsyncClient> membership;
+
+    private final AtomicLong toolsChangedCount = new AtomicLong();
 
     private NacosMcpServerEndpoint serverEndpoint;
 
@@ -114,22 +121,25 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
             logger.debug("MCP trace filter not found, continuing without tracing: {}", e.getMessage());
         }
         this.traceFilter = tempTraceFilter;
+        this.endpointGroup = new McpClientEndpointGroup<>(serverName,
+                applicationContext.getBeanProvider(McpClientBalancer.class).getIfAvailable(),
+                applicationContext.getBeanProvider(McpOutlierDetection.class).getIfAvailable());
+        this.membership = new McpClientMembershipReconciler<>(serverName, endpointGroup, this::clientByEndpoint,
+                this::initializeClient, McpAsyncClient::closeGracefully, this::endpointWeights,
+                commonProperties.getRequestTimeout(), commonProperties.getRequestTimeout());
     }
 
     public Map<String, McpAsyncClient> init() {
-        keyToClientMap = new ConcurrentHashMap<>();
         boolean initialized = initServerEndpoint(serverName, version);
         if (!initialized) {
             logger.info("[Nacos Mcp Async Client] No MCP server endpoint found during init. serverName: {}, version: {}",
                 serverName, version);
-            return keyToClientMap;
-        }
-        for (McpEndpointInfo mcpEndpointInfo : serverEndpoint.getMcpEndpointInfoList()) {
-            updateByAddEndpoint(mcpEndpointInfo, serverEndpoint.getExportPath());
+            return membership.getClients();
         }
+        membership.reconcile(serverEndpoint).block();
         logger.info("[Nacos Mcp Async Client] McpSyncClient init, serverName: {}, version: {}, endpoint: {}", serverName,
                 version, serverEndpoint);
-        return keyToClientMap;
+        return membership.getClients();
     }
 
     public void subscribe() {
@@ -142,24 +152,27 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
             String realVersion = mcpServerDetailInfo.getVersionDetail().getVersion();
             NacosMcpServerEndpoint nacosMcpServerEndpoint = new NacosMcpServerEndpoint(mcpEndpointInfoList, exportPath,
                     protocol, realVersion);
-            updateClientList(nacosMcpServerEndpoint);
+            nacosMcpServerEndpoint.setServiceRef(mcpServerDetailInfo.getRemoteServerConfig().getServiceRef());
+            membership.reconcile(nacosMcpServerEndpoint);
         });
         logger.info("[Nacos Mcp Async Client] Subscribe Mcp Server from nacos, serverName: {}, version: {}", serverName,
                 version);
     }
 
     public McpAsyncClient getMcpAsyncClient() {
-        List<McpAsyncClient> asynClients = getMcpAsyncClientList();
-        if (asynClients.isEmpty()) {
+        return chooseEndpoint().getClient();
+    }
+
+    private McpClientEndpoint<McpAsyncClient> chooseEndpoint() {
+        McpClientEndpoint<McpAsyncClient> endpoint = endpointGroup.choose();
+        if (endpoint == null) {
             throw new IllegalStateException("[Nacos Mcp Async Client] No McpAsyncClient available, name:" + serverName);
         }
-
-        int currentIndex = index.getAndUpdate(index -> (index + 1) % asynClients.size());
-        return asynClients.get(currentIndex);
+        return endpoint;
     }
 
     public List<McpAsyncClient> getMcpAsyncClientList() {
-        return keyToClientMap.values().stream().toList();
+        return membership.getClients().values().stream().toList();
     }
 
     public String getServerName() {
@@ -167,13 +180,30 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     public NacosMcpServerEndpoint getNacosMcpServerEndpoint() {
-        return this.serverEndpoint;
+        return membership.getServerEndpoint();
+    }
+
+    @Override
+    public long getToolCatalogVersion() {
+        return membership.getVersion() + toolsChangedCount.get();
     }
 
-    private void updateByAddEndpoint(McpEndpointInfo mcpEndpointInfo, String exportPath) {
-        McpAsyncClient mcpAsyncClient = clientByEndpoint(mcpEndpointInfo, exportPath);
-        String key = NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, exportPath);
-        keyToClientMap.putIfAbsent(key, mcpAsyncClient);
+    private Map<String, Double> endpointWeights(NacosMcpServerEndpoint endpoint) {
+        Map<String, Double> weights = NacosMcpClientUtil.getMcpEndpointWeights(nacosMcpOperationService, endpoint);
+        if (weights != null) {
+            return weights;
+        }
+        // Called while the membership publishes: subscribe the instances off this thread and
+        // apply their weights in another round
+        Mono.fromCallable(() -> nacosMcpOperationService.getInstanceWeights(endpoint.getServiceRef()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(instanceWeights -> {
+                if (membership.getServerEndpoint() == endpoint) {
+                    membership.reconcile(endpoint);
+                }
+            }, e -> logger.warn("[Nacos Mcp Async Client] Failed to get instance weights of mcp server {}, "
+                    + "using equal weights", serverName, e));
+        return Map.of();
     }
 
     private McpAsyncClient clientByEndpoint(McpEndpointInfo mcpEndpointInfo, String exportPath) {
@@ -183,12 +213,8 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
         String baseUrl = protocol + "://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
         WebClient.Builder webClientBuilder = webClientBuilderTemplate.clone().baseUrl(baseUrl);
 
-        WebClientStreamableHttpTransport transport;
-        if (traceFilter != null) {
-            transport = WebFluxStreamableClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath);
-        } else {
-            transport = WebFluxStreamableClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath, traceFilter);
-        }
+        WebClientStreamableHttpTransport transport = WebFluxStreamableClientTransportBuilder.build(webClientBuilder, mcpJsonMapper, exportPath,
+                traceFilter);
 
         NamedClientMcpTransport namedClientMcpTransport = new NamedClientMcpTransport(
                 serverName + "-" + NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, exportPath),
@@ -200,61 +226,16 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
 
         McpClient.AsyncSpec spec = McpClient.async(namedClientMcpTransport.transport())
                 .clientInfo(clientInfo)
+                .toolsChangeConsumer(tools -> Mono.fromRunnable(toolsChangedCount::incrementAndGet))
                 ;
         spec = mcpAsyncClientConfigurer.configure(namedClientMcpTransport.name(), spec);
         asyncClient = spec.build();
-        if (commonProperties.isInitialized()) {
-            asyncClient.initialize().block();
-        }
-
-        logger.info("Added McpAsyncClient: {}", clientInfo.name());
+        logger.info("Created McpAsyncClient: {}", clientInfo.name());
         return asyncClient;
     }
 
-    private void updateClientList(NacosMcpServerEndpoint newServerEndpoint) {
-        if (this.serverEndpoint == null) {
-            for (McpEndpointInfo mcpEndpointInfo : newServerEndpoint.getMcpEndpointInfoList()) {
-                updateByAddEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            }
-            this.serverEndpoint = newServerEndpoint;
-            return;
-        }
-        if (!StringUtils.equals(this.serverEndpoint.getExportPath(), newServerEndpoint.getExportPath())
-                || !StringUtils.equals(this.serverEndpoint.getVersion(), newServerEndpoint.getVersion())) {
-            logger.info(
-                    "[Nacos Mcp Async Client] Mcp server {} exportPath or protocol changed, need to update all endpoints: {}",
-                    serverName, newServerEndpoint);
-            updateAll(newServerEndpoint);
-        }
-        else {
-            List<McpEndpointInfo> currentMcpEndpointInfoList = this.serverEndpoint.getMcpEndpointInfoList();
-            List<McpEndpointInfo> newMcpEndpointInfoList = newServerEndpoint.getMcpEndpointInfoList();
-            List<McpEndpointInfo> addEndpointInfoList = newMcpEndpointInfoList.stream()
-                    .filter(newEndpoint -> currentMcpEndpointInfoList.stream()
-                            .noneMatch(currentEndpoint -> currentEndpoint.getAddress().equals(newEndpoint.getAddress())
-                                    && currentEndpoint.getPort() == newEndpoint.getPort()))
-                    .toList();
-            List<McpEndpointInfo> removeEndpointInfoList = currentMcpEndpointInfoList.stream()
-                    .filter(currentEndpoint -> newMcpEndpointInfoList.stream()
-                            .noneMatch(newEndpoint -> newEndpoint.getAddress().equals(currentEndpoint.getAddress())
-                                    && newEndpoint.getPort() == currentEndpoint.getPort()))
-                    .toList();
-            if (!addEndpointInfoList.isEmpty()) {
-                logger.info("[Nacos Mcp Async Client] Mcp server {} endpoints changed, endpoints need to add {}",
-                        serverName, addEndpointInfoList);
-            }
-            for (McpEndpointInfo addEndpointInfo : addEndpointInfoList) {
-                updateByAddEndpoint(addEndpointInfo, newServerEndpoint.getExportPath());
-            }
-            if (!removeEndpointInfoList.isEmpty()) {
-                logger.info("[Nacos Mcp Async Client] Mcp server {} endpoints changed, endpoints need to remove {}",
-                        serverName, removeEndpointInfoList);
-            }
-            for (McpEndpointInfo removeEndpointInfo : removeEndpointInfoList) {
-                updateByRemoveEndpoint(removeEndpointInfo, newServerEndpoint.getExportPath());
-            }
-        }
-        this.serverEndpoint = newServerEndpoint;
+    private Mono<Void> initializeClient(McpAsyncClient client) {
+        return commonProperties.isInitialized() ? client.initialize().then() : Mono.empty();
     }
 
     private boolean initServerEndpoint(String serverName, String version) {
@@ -284,33 +265,8 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
         }
     }
 
-    private void updateAll(NacosMcpServerEndpoint newServerEndpoint) {
-        Map<String, McpAsyncClient> newKeyToClientMap = new ConcurrentHashMap<>();
-        Map<String, McpAsyncClient> oldKeyToClientMap = this.keyToClientMap;
-        Map<String, Integer> newKeyToCountMap = new ConcurrentHashMap<>();
-        for (McpEndpointInfo mcpEndpointInfo : newServerEndpoint.getMcpEndpointInfoList()) {
-            McpAsyncClient asyncClient = clientByEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            String key = NacosMcpClientUtil.getMcpEndpointInfoId(mcpEndpointInfo, newServerEndpoint.getExportPath());
-            newKeyToClientMap.putIfAbsent(key, asyncClient);
-            newKeyToCountMap.putIfAbsent(key, 0);
-        }
-        this.keyToClientMap = newKeyToClientMap;
-        for (Map.Entry<String, McpAsyncClient> entry : oldKeyToClientMap.entrySet()) {
-            McpAsyncClient asyncClient = entry.getValue();
-            logger.info("Removing McpAsyncClient: {}", asyncClient.getClientInfo().name());
-            asyncClient.closeGracefully();
-            logger.info("Removed McpAsyncClient: {} Success", asyncClient.getClientInfo().name());
-        }
-    }
-
-    private void updateByRemoveEndpoint(McpEndpointInfo serverEndpoint, String exportPath) {
-        String key = NacosMcpClientUtil.getMcpEndpointInfoId(serverEndpoint, exportPath);
-        if (keyToClientMap.containsKey(key)) {
-            McpAsyncClient asyncClient = keyToClientMap.remove(key);
-            logger.info("Removing McpAsyncClient: {}", asyncClient.getClientInfo().name());
-            asyncClient.closeGracefully().block();
-            logger.info("Removed McpAsyncClient: {} Success", asyncClient.getClientInfo().name());
-        }
+    private <T> Mono<T> execute(Function<McpAsyncClient, Mono<T>> call) {
+        return endpointGroup.execute(chooseEndpoint(), call);
     }
 
     // ---------------------------原始调用方法------------------------------//
@@ -335,33 +291,25 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     public void close() {
-        Iterator<McpAsyncClient> iterator = getMcpAsyncClientList().iterator();
-        while (iterator.hasNext()) {
-            McpAsyncClient mcpAsyncClient = iterator.next();
+        for (McpAsyncClient mcpAsyncClient : membership.shutdown()) {
             mcpAsyncClient.close();
-            iterator.remove();
             logger.info("[Nacos Mcp Async Client] Closed and removed McpAsyncClient: {}",
                     mcpAsyncClient.getClientInfo().name());
         }
     }
 
     public Mono<Void> closeGracefully() {
-        Iterator<McpAsyncClient> iterator = getMcpAsyncClientList().iterator();
         List<Mono<Void>> closeMonos = new ArrayList<>();
-        while (iterator.hasNext()) {
-            McpAsyncClient mcpAsyncClient = iterator.next();
-            Mono<Void> voidMono = mcpAsyncClient.closeGracefully().doOnSuccess(v -> {
-                iterator.remove();
-                logger.info("[Nacos Mcp Async Client] Closed and removed McpAsyncClient: {}",
-                        mcpAsyncClient.getClientInfo().name());
-            });
-            closeMonos.add(voidMono);
+        for (McpAsyncClient mcpAsyncClient : membership.shutdown()) {
+            closeMonos.add(mcpAsyncClient.closeGracefully()
+                .doOnSuccess(v -> logger.info("[Nacos Mcp Async Client] Closed and removed McpAsyncClient: {}",
+                        mcpAsyncClient.getClientInfo().name())));
         }
         return Mono.when(closeMonos);
     }
 
     public Mono<Object> ping() {
-        return getMcpAsyncClient().ping();
+        return execute(McpAsyncClient::ping);
     }
 
     public Mono<Void> addRoot(McpSchema.Root root) {
@@ -383,7 +331,7 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     public Mono<McpSchema.CallToolResult> callTool(McpSchema.CallToolRequest callToolRequest) {
-        return getMcpAsyncClient().callTool(callToolRequest);
+        return execute(client -> client.callTool(callToolRequest));
     }
 
     public Mono<McpSchema.ListToolsResult> listTools() {
@@ -395,30 +343,30 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     private Mono<McpSchema.ListToolsResult> listToolsInternal(String cursor) {
-        return getMcpAsyncClient().listTools(cursor);
+        return execute(client -> client.listTools(cursor));
     }
 
     public Mono<McpSchema.ListResourcesResult> listResources() {
-        return getMcpAsyncClient().listResources();
+        return execute(McpAsyncClient::listResources);
     }
 
     public Mono<McpSchema.ListResourcesResult> listResources(String cursor) {
-        return getMcpAsyncClient().listResources(cursor);
+        return execute(client -> client.listResources(cursor));
     }
 
     public Mono<McpSchema.ReadResourceResult> readResource(McpSchema.Resource resource) {
-        return getMcpAsyncClient().readResource(resource);
+        return execute(client -> client.readResource(resource));
     }
 
     public Mono<McpSchema.ReadResourceResult> readResource(McpSchema.ReadResourceRequest readResourceRequest) {
-        return getMcpAsyncClient().readResource(readResourceRequest);
+        return execute(client -> client.readResource(readResourceRequest));
     }
 
     public Mono<McpSchema.ListResourceTemplatesResult> listResourceTemplates() {
-        return getMcpAsyncClient().listResourceTemplates();
+        return execute(McpAsyncClient::listResourceTemplates);
     }
     public Mono<McpSchema.ListResourceTemplatesResult> listResourceTemplates(String cursor) {
-        return getMcpAsyncClient().listResourceTemplates(cursor);
+        return execute(client -> client.listResourceTemplates(cursor));
     }
 
     public Mono<Void> subscribeResource(McpSchema.SubscribeRequest subscribeRequest) {
@@ -434,15 +382,15 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     public Mono<McpSchema.ListPromptsResult> listPrompts() {
-        return getMcpAsyncClient().listPrompts();
+        return execute(McpAsyncClient::listPrompts);
     }
 
     public Mono<McpSchema.ListPromptsResult> listPrompts(String cursor) {
-        return getMcpAsyncClient().listPrompts(cursor);
+        return execute(client -> client.listPrompts(cursor));
     }
 
     public Mono<McpSchema.GetPromptResult> getPrompt(McpSchema.GetPromptRequest getPromptRequest) {
-        return getMcpAsyncClient().getPrompt(getPromptRequest);
+        return execute(client -> client.getPrompt(getPromptRequest));
     }
 
     public Mono<Void> setLoggingLevel(McpSchema.LoggingLevel loggingLevel) {
@@ -452,7 +400,7 @@ public class StreamWebFluxDistributedAsyncMcpClient implements DistributedAsyncM
     }
 
     public Mono<McpSchema.CompleteResult> completeCompletion(McpSchema.CompleteRequest completeRequest) {
-        return getMcpAsyncClient().completeCompletion(completeRequest);
+        return execute(client -> client.completeCompletion(completeRequest));
     }
 
     // ---------------------------原始调用方法------------------------------//
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.balancer;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link McpClientEndpointGroup} and the {@link McpClientBalancer} strategies.
+ */
+class McpClientEndpointGroupTest {
+
+    private final Map<String, String> clients = new LinkedHashMap<>();
+
+    private McpOutlierDetection outlierDetection;
+
+    @BeforeEach
+    void setUp() {
+        clients.put("a", "client-a");
+        clients.put("b", "client-b");
+        outlierDetection = new McpOutlierDetection();
+        outlierDetection.setConsecutiveFailures(2);
+    }
+
+    private McpClientEndpointGroup<String> group(McpClientBalancer balancer) {
+        McpClientEndpointGroup<String> group = new McpClientEndpointGroup<>("test", balancer, outlierDetection);
+        group.publish(clients, Map.of());
+        return group;
+    }
+
+    private static void fail(McpClientEndpointGroup<String> group, McpClientEndpoint<String> endpoint) {
+        assertThrows(RuntimeException.class,
+                () -> group.execute(endpoint, client -> Mono.error(new RuntimeException("reset"))).block());
+    }
+
+    @Test
+    void emptyGroupChoosesNothing() {
+        McpClientEndpointGroup<String> group = new McpClientEndpointGroup<>("test", null, null);
+        assertTrue(group.isEmpty());
+        assertNull(group.choose());
+    }
+
+    @Test
+    void publishKeepsStatisticsOfExistingEndpoints() {
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        group.execute(a, client -> Mono.just("ok")).block();
+
+        group.publish(clients, Map.of("a", 5.0));
+
+        McpClientEndpoint<String> republished = group.getEndpoints().get(0);
+        assertEquals(5.0, republished.getWeight());
+        assertTrue(republished.getEwmaLatencyNanos() > 0);
+        assertEquals(1.0, group.getEndpoints().get(1).getWeight());
+    }
+
+    @Test
+    void requestInFlightDuringWeightChangeUpdatesRepublishedEndpoint() {
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        Sinks.One<String> response = Sinks.one();
+        group.execute(a, client -> response.asMono()).subscribe();
+
+        group.publish(clients, Map.of("a", 5.0));
+        McpClientEndpoint<String> republished = group.getEndpoints().get(0);
+        assertEquals(1, republished.getOutstanding());
+
+        response.tryEmitValue("ok");
+        assertEquals(0, republished.getOutstanding());
+        assertTrue(republished.getEwmaLatencyNanos() > 0);
+    }
+
+    @Test
+    void leastOutstandingAvoidsBusyEndpoint() {
+        McpClientEndpointGroup<String> group = group(new LeastOutstandingMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        group.execute(a, client -> Mono.never()).subscribe();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("b", group.choose().getKey());
+        }
+        assertEquals(1, a.getOutstanding());
+    }
+
+    @Test
+    void powerOfTwoChoicesPrefersFasterEndpoint() {
+        McpClientEndpointGroup<String> group = group(new PowerOfTwoChoicesMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        McpClientEndpoint<String> b = group.getEndpoints().get(1);
+        a.onStart();
+        a.onComplete(Duration.ofMillis(500).toNanos());
+        b.onStart();
+        b.onComplete(Duration.ofMillis(5).toNanos());
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, group.choose());
+        }
+    }
+
+    @Test
+    void weightedFollowsInstanceWeights() {
+        McpClientEndpointGroup<String> group = group(new WeightedMcpClientBalancer());
+        group.publish(clients, Map.of("a", 9.0, "b", 1.0));
+
+        Map<String, Integer> hits = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            hits.merge(group.choose().getKey(), 1, Integer::sum);
+        }
+        assertTrue(hits.get("a") > hits.get("b") * 4);
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresAndRecoversThroughProbe() {
+        outlierDetection.setBaseEjectionTime(Duration.ofNanos(1));
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+
+        fail(group, a);
+        assertFalse(a.isEjected());
+        fail(group, a);
+        assertTrue(a.isEjected());
+
+        // Ejection time is over, the next choice is the probe
+        McpClientEndpoint<String> probe = group.choose();
+        assertSame(a, probe);
+        group.execute(probe, client -> Mono.just("ok")).block();
+        assertFalse(a.isEjected());
+    }
+
+    @Test
+    void ejectedEndpointLeavesRotation() {
+        outlierDetection.setBaseEjectionTime(Duration.ofMinutes(1));
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        fail(group, a);
+        fail(group, a);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", group.choose().getKey());
+        }
+    }
+
+    @Test
+    void respectsMaxEjectionPercent() {
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        McpClientEndpoint<String> b = group.getEndpoints().get(1);
+        fail(group, a);
+        fail(group, a);
+        fail(group, b);
+        fail(group, b);
+
+        assertTrue(a.isEjected());
+        assertFalse(b.isEjected());
+    }
+
+    @Test
+    void jsonRpcErrorIsNotEndpointFailure() {
+        McpClientEndpointGroup<String> group = group(new RoundRobinMcpClientBalancer());
+        McpClientEndpoint<String> a = group.getEndpoints().get(0);
+        McpError error = new McpError(new McpSchema.JSONRPCResponse.JSONRPCError(-32602, "bad params", null));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(McpError.class, () -> group.execute(a, client -> Mono.error(error)).block());
+        }
+
+        assertFalse(a.isEjected());
+        assertEquals(0, a.getOutstanding());
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.tool;
+
+import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedAsyncMcpClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DistributedAsyncMcpToolCallbackProvider}.
+ */
+class DistributedAsyncMcpToolCallbackProviderTest {
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+
+    private volatile List<String> toolNames = List.of("weather");
+
+    private volatile Mono<Void> listDelay = Mono.empty();
+
+    private DistributedAsyncMcpClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DistributedAsyncMcpClient.class);
+        when(client.getServerName()).thenReturn("server");
+        when(client.getToolCatalogVersion()).thenAnswer(invocation -> version.get());
+        when(client.listTools()).thenAnswer(invocation -> Mono.defer(() -> {
+            listCalls.incrementAndGet();
+            List<McpSchema.Tool> tools = toolNames.stream()
+                .map(name -> new McpSchema.Tool(name, "desc", "{\"type\": \"object\"}"))
+                .toList();
+            return listDelay.thenReturn(new McpSchema.ListToolsResult(tools, null));
+        }));
+    }
+
+    private static List<String> names(ToolCallback[] toolCallbacks) {
+        return Arrays.stream(toolCallbacks).map(callback -> callback.getToolDefinition().name()).toList();
+    }
+
+    @Test
+    void servesCatalogFromCacheUntilVersionChanges() {
+        DistributedAsyncMcpToolCallbackProvider provider = new DistributedAsyncMcpToolCallbackProvider(List.of(client));
+
+        assertEquals(1, provider.getToolCallbacks().length);
+        provider.getToolCallbacks();
+        assertEquals(1, listCalls.get());
+
+        toolNames = List.of("weather", "time");
+        version.incrementAndGet();
+        assertEquals(2, provider.getToolCallbacks().length);
+        assertEquals(2, listCalls.get());
+    }
+
+    @Test
+    void invalidateCacheForcesReload() {
+        DistributedAsyncMcpToolCallbackProvider provider = new DistributedAsyncMcpToolCallbackProvider(List.of(client));
+        provider.getToolCallbacks();
+
+        provider.invalidateCache();
+        provider.getToolCallbacks();
+
+        assertEquals(2, listCalls.get());
+    }
+
+    @Test
+    void staleWhileRevalidateServesPreviousCatalog() {
+        DistributedAsyncMcpToolCallbackProvider provider = new DistributedAsyncMcpToolCallbackProvider(
+                (mcpClient, tool) -> true, List.of(client), true);
+        List<String> first = names(provider.getToolCallbacks());
+
+        Sinks.Empty<Void> gate = Sinks.empty();
+        listDelay = gate.asMono();
+        toolNames = List.of("time");
+        version.incrementAndGet();
+
+        assertEquals(first, names(provider.getToolCallbacks()));
+        assertEquals(first, names(provider.getToolCallbacks()));
+        assertEquals(2, listCalls.get());
+
+        gate.tryEmitEmpty();
+        Mono.delay(Duration.ofMillis(20)).block();
+        List<String> refreshed = names(provider.getToolCallbacks());
+        assertEquals(1, refreshed.size());
+        assertTrue(refreshed.get(0).endsWith("time"));
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.transport;
+
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpoint;
+import com.alibaba.cloud.ai.mcp.discovery.client.balancer.McpClientEndpointGroup;
+import com.alibaba.cloud.ai.mcp.nacos.service.model.NacosMcpServerEndpoint;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link McpClientMembershipReconciler}.
+ */
+class McpClientMembershipReconcilerTest {
+
+    private final McpClientEndpointGroup<String> endpointGroup = new McpClientEndpointGroup<>("test", null, null);
+
+    private final Map<String, Mono<Void>> initializers = new ConcurrentHashMap<>();
+
+    private final Set<String> closed = ConcurrentHashMap.newKeySet();
+
+    private final McpClientMembershipReconciler<String> reconciler = new McpClientMembershipReconciler<>("test",
+            endpointGroup, (info, exportPath) -> info.getAddress() + exportPath,
+            client -> initializers.getOrDefault(client, Mono.empty()), client -> Mono.fromRunnable(() -> closed.add(client)),
+            endpoint -> Map.of(), Duration.ofMillis(200), Duration.ofSeconds(5));
+
+    private static NacosMcpServerEndpoint endpoint(String version, String... addresses) {
+        List<McpEndpointInfo> infos = Arrays.stream(addresses).map(address -> {
+            McpEndpointInfo info = new McpEndpointInfo();
+            info.setAddress(address);
+            info.setPort(8080);
+            return info;
+        }).toList();
+        return new NacosMcpServerEndpoint(infos, "/sse", "mcp-sse", version);
+    }
+
+    @Test
+    void publishesOnlyAfterNewClientsAreInitialized() {
+        Sinks.Empty<Void> slow = Sinks.empty();
+        initializers.put("10.0.0.2/sse", slow.asMono());
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1")).block();
+
+        Mono<Void> round = reconciler.reconcile(endpoint("1.0", "10.0.0.1", "10.0.0.2"));
+        assertEquals(Set.of("10.0.0.1/sse"), Set.copyOf(reconciler.getClients().values()));
+        assertEquals(1, endpointGroup.getEndpoints().size());
+
+        slow.tryEmitEmpty();
+        round.block(Duration.ofSeconds(5));
+        assertEquals(Set.of("10.0.0.1/sse", "10.0.0.2/sse"), Set.copyOf(reconciler.getClients().values()));
+        assertEquals(2, endpointGroup.getEndpoints().size());
+    }
+
+    @Test
+    void skipsAndClosesClientsThatTimeOut() {
+        initializers.put("10.0.0.2/sse", Mono.never());
+
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1", "10.0.0.2")).block(Duration.ofSeconds(5));
+
+        assertEquals(Set.of("10.0.0.1/sse"), Set.copyOf(reconciler.getClients().values()));
+        assertTrue(closed.contains("10.0.0.2/sse"));
+    }
+
+    @Test
+    void drainsInFlightRequestsBeforeClosingRemovedClient() throws InterruptedException {
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1", "10.0.0.2")).block();
+        McpClientEndpoint<String> removed = endpointGroup.getEndpoints()
+            .stream()
+            .filter(endpoint -> endpoint.getClient().equals("10.0.0.2/sse"))
+            .findFirst()
+            .orElseThrow();
+        Sinks.One<String> inFlight = Sinks.one();
+        endpointGroup.execute(removed, client -> inFlight.asMono()).subscribe();
+
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1")).block();
+        assertEquals(List.of("10.0.0.1/sse"), List.copyOf(reconciler.getClients().values()));
+        Thread.sleep(200);
+        assertFalse(closed.contains("10.0.0.2/sse"));
+
+        inFlight.tryEmitValue("done");
+        for (int i = 0; i < 100 && !closed.contains("10.0.0.2/sse"); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(closed.contains("10.0.0.2/sse"));
+    }
+
+    @Test
+    void replacesAllClientsWhenVersionChanges() throws InterruptedException {
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1")).block();
+        String before = reconciler.getClients().keySet().iterator().next();
+
+        reconciler.reconcile(endpoint("2.0", "10.0.0.1")).block();
+
+        assertEquals(Set.of(before), reconciler.getClients().keySet());
+        assertEquals("2.0", reconciler.getServerEndpoint().getVersion());
+        for (int i = 0; i < 100 && !closed.contains("10.0.0.1/sse"); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(closed.contains("10.0.0.1/sse"));
+    }
+
+    @Test
+    void shutdownWithdrawsClients() {
+        reconciler.reconcile(endpoint("1.0", "10.0.0.1")).block();
+
+        assertEquals(List.of("10.0.0.1/sse"), reconciler.shutdown());
+        assertTrue(endpointGroup.isEmpty());
+        reconciler.reconcile(endpoint("1.0", "10.0.0.2")).block();
+        assertTrue(reconciler.getClients().isEmpty());
+        assertNull(endpointGroup.choose());
+    }
+
+}
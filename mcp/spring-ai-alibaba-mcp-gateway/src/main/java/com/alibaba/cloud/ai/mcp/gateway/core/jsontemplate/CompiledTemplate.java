@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A request/response template split once into alternating literal and placeholder
+ * tokens, so rendering does not need to run the template regex again. Each placeholder
+ * path is pre-split into its segments, e.g. {@code {{.args.user.name}}} becomes
+ * {@code [args, user, name]}.
+ */
+public final class CompiledTemplate {
+
+	/**
+	 * Matches {{.}} or {{.args.name}} or {{.data.key1.key2}} placeholders.
+	 */
+	public static final Pattern TEMPLATE_PATTERN = Pattern
+		.compile("\\{\\{\\s*(\\.(?:[\\w]+(?:\\.[\\w]+)*)?)\\s*\\}\\}");
+
+	private static final CompiledTemplate EMPTY = new CompiledTemplate("", new String[] { "" }, new Placeholder[0]);
+
+	private final String source;
+
+	// literals.length == placeholders.length + 1, placeholders[i] sits between
+	// literals[i] and literals[i + 1]
+	private final String[] literals;
+
+	private final Placeholder[] placeholders;
+
+	private CompiledTemplate(String source, String[] literals, Placeholder[] placeholders) {
+		this.source = source;
+		this.literals = literals;
+		this.placeholders = placeholders;
+	}
+
+	public static CompiledTemplate compile(String template) {
+		if (template == null || template.isEmpty()) {
+			return EMPTY;
+		}
+		Matcher matcher = TEMPLATE_PATTERN.matcher(template);
+		List<String> literals = new ArrayList<>();
+		List<Placeholder> placeholders = new ArrayList<>();
+		int last = 0;
+		while (matcher.find()) {
+			literals.add(template.substring(last, matcher.start()));
+			placeholders.add(new Placeholder(matcher.group(1)));
+			last = matcher.end();
+		}
+		literals.add(template.substring(last));
+		return new CompiledTemplate(template, literals.toArray(new String[0]),
+				placeholders.toArray(new Placeholder[0]));
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public boolean isEmpty() {
+		return source.isEmpty();
+	}
+
+	public boolean hasPlaceholders() {
+		return placeholders.length > 0;
+	}
+
+	public Placeholder[] getPlaceholders() {
+		return placeholders.clone();
+	}
+
+	/**
+	 * Render the template, resolving each placeholder with the given resolver.
+	 * @param resolver placeholder resolver
+	 * @return rendered string
+	 */
+	public String render(Function<Placeholder, String> resolver) {
+		if (placeholders.length == 0) {
+			return source;
+		}
+		StringBuilder result = new StringBuilder(source.length() + 16 * placeholders.length);
+		for (int i = 0; i < placeholders.length; i++) {
+			result.append(literals[i]).append(resolver.apply(placeholders[i]));
+		}
+		result.append(literals[placeholders.length]);
+		return result.toString();
+	}
+
+	/**
+	 * A placeholder whose path has been split into segments at compile time.
+	 */
+	public static final class Placeholder {
+
+		private static final String[] NO_SEGMENTS = new String[0];
+
+		private final String path;
+
+		private final String[] segments;
+
+		Placeholder(String path) {
+			this.path = path;
+			String trimmed = path.startsWith(".") ? path.substring(1) : path;
+			this.segments = trimmed.isEmpty() ? NO_SEGMENTS : trimmed.split("\\.");
+		}
+
+		/**
+		 * The raw placeholder path, e.g. {@code .args.name}.
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * The path segments, empty for the root placeholder {@code {{.}}}.
+		 */
+		public String[] getSegments() {
+			return segments;
+		}
+
+		public boolean isRoot() {
+			return segments.length == 0;
+		}
+
+		public boolean isArgs() {
+			return segments.length > 0 && "args".equals(segments[0]);
+		}
+
+	}
+
+}
@@ -24,6 +24,7 @@ import com.jayway.jsonpath.JsonPath;
 import org.springframework.util.StringUtils;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,6 +34,15 @@ public class ResponseTemplateParser {
 
 	private static final Handlebars handlebars = new Handlebars();
 
+	// Upper bound of cached compiled templates, the cache is reset when exceeded
+	private static final int MAX_CACHED_TEMPLATES = 512;
+
+	// Compiled Handlebars templates keyed by the original response template
+	private static final Map<String, Template> HANDLEBARS_CACHE = new ConcurrentHashMap<>();
+
+	// Compiled JsonPath expressions keyed by expression
+	private static final Map<String, JsonPath> JSON_PATH_CACHE = new ConcurrentHashMap<>();
+
 	// Supports {{.}} or {{.xxx}} or {{.xxx.yyy}} multi-level variables
 	private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{\\{\\s*\\.([\\w\\$\\[\\]\\.]*)\\s*}}",
 			Pattern.DOTALL);
@@ -56,7 +66,7 @@ public class ResponseTemplateParser {
 		// JsonPath extraction
 		if (responseTemplate.trim().startsWith("$.") || responseTemplate.trim().startsWith("$[")) {
 			try {
-				Object result = JsonPath.read(rawResponse, responseTemplate.trim());
+				Object result = compileJsonPath(responseTemplate.trim()).read(rawResponse);
 				return result != null ? result.toString() : "";
 			}
 			catch (Exception e) {
@@ -64,53 +74,74 @@ public class ResponseTemplateParser {
 			}
 		}
 
+		// The response is parsed at most once and shared by the template fallbacks
+		ParsedResponse response = new ParsedResponse(rawResponse);
+
 		// Detect multi-level path access
 		if (MULTI_LEVEL_PATTERN.matcher(responseTemplate).find()) {
-			return parseWithHandlebars(rawResponse, responseTemplate);
+			return parseWithHandlebars(response, responseTemplate);
 		}
 
 		// Simple template variable replacement (maintain backward compatibility)
-		return parseWithSimpleTemplate(rawResponse, responseTemplate);
+		return parseWithSimpleTemplate(response, responseTemplate);
 	}
 
-	private static String parseWithHandlebars(String rawResponse, String responseTemplate) {
-		try {
-			// 1. Preprocess template: convert syntax to be compatible with Handlebars
+	private static JsonPath compileJsonPath(String expression) {
+		JsonPath jsonPath = JSON_PATH_CACHE.get(expression);
+		if (jsonPath == null) {
+			if (JSON_PATH_CACHE.size() >= MAX_CACHED_TEMPLATES) {
+				JSON_PATH_CACHE.clear();
+			}
+			jsonPath = JSON_PATH_CACHE.computeIfAbsent(expression, JsonPath::compile);
+		}
+		return jsonPath;
+	}
+
+	private static Template compileHandlebars(String responseTemplate) throws Exception {
+		Template template = HANDLEBARS_CACHE.get(responseTemplate);
+		if (template == null) {
+			// Preprocess template: convert syntax to be compatible with Handlebars
 			String handlebarsTemplateStr = responseTemplate
 				// Remove dot prefix: {{ .xxx.yyy }} -> {{xxx.yyy}}
 				.replaceAll("\\{\\{\\s*\\.", "{{")
 				// Convert array access syntax: {{users.[0].name}} -> {{users.0.name}}
 				.replaceAll("\\[([0-9]+)\\]", "$1");
+			template = handlebars.compileInline(handlebarsTemplateStr);
+			if (HANDLEBARS_CACHE.size() >= MAX_CACHED_TEMPLATES) {
+				HANDLEBARS_CACHE.clear();
+			}
+			HANDLEBARS_CACHE.put(responseTemplate, template);
+		}
+		return template;
+	}
 
-			// 2. Compile template
-			Template template = handlebars.compileInline(handlebarsTemplateStr);
+	private static String parseWithHandlebars(ParsedResponse response, String responseTemplate) {
+		try {
+			Template template = compileHandlebars(responseTemplate);
 
 			Map<String, Object> dataContext;
-			boolean isJson = rawResponse.trim().startsWith("{") || rawResponse.trim().startsWith("[");
-			if (isJson) {
-				dataContext = objectMapper.readValue(rawResponse, new TypeReference<Map<String, Object>>() {
-				});
+			if (response.isJson()) {
+				dataContext = response.context();
 			}
 			else {
 				// Non-JSON data, create a context containing the raw response
-				dataContext = Map.of("_raw", rawResponse);
+				dataContext = Map.of("_raw", response.raw);
 			}
 
 			return template.apply(dataContext);
 
 		}
 		catch (Exception e) {
-			return parseWithSimpleTemplate(rawResponse, responseTemplate);
+			return parseWithSimpleTemplate(response, responseTemplate);
 		}
 	}
 
-	private static String parseWithSimpleTemplate(String rawResponse, String responseTemplate) {
+	private static String parseWithSimpleTemplate(ParsedResponse response, String responseTemplate) {
+		String rawResponse = response.raw;
 		try {
 			Map<String, Object> context = null;
-			boolean isJson = rawResponse.trim().startsWith("{") || rawResponse.trim().startsWith("[");
-			if (isJson) {
-				context = objectMapper.readValue(rawResponse, new TypeReference<Map<String, Object>>() {
-				});
+			if (response.isJson()) {
+				context = response.context();
 			}
 			StringBuffer sb = new StringBuffer();
 			Matcher matcher = TEMPLATE_PATTERN.matcher(responseTemplate);
@@ -138,4 +169,43 @@ public class ResponseTemplateParser {
 		}
 	}
 
+	/**
+	 * Raw response with a lazily parsed JSON context, so that falling back from one
+	 * template style to another does not parse the response again.
+	 */
+	private static final class ParsedResponse {
+
+		private final String raw;
+
+		private Map<String, Object> context;
+
+		private Exception failure;
+
+		private ParsedResponse(String raw) {
+			this.raw = raw;
+		}
+
+		private boolean isJson() {
+			String trimmed = raw.trim();
+			return trimmed.startsWith("{") || trimmed.startsWith("[");
+		}
+
+		private Map<String, Object> context() throws Exception {
+			if (context == null && failure == null) {
+				try {
+					context = objectMapper.readValue(raw, new TypeReference<Map<String, Object>>() {
+					});
+				}
+				catch (Exception e) {
+					failure = e;
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return context;
+		}
+
+	}
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves a set of dot-separated object paths against a JSON document in a single
+ * streaming pass. Only the values addressed by the paths are materialized; every other
+ * subtree is skipped token by token, so large responses never need a full in-memory
+ * tree.
+ *
+ * <p>
+ * Values are materialized the same way as {@code objectMapper.readValue(json, Map.class)}
+ * would, so {@code toString()} of a resolved value matches the tree based resolution.
+ */
+public final class StreamingJsonPathResolver {
+
+	private StreamingJsonPathResolver() {
+	}
+
+	/**
+	 * Resolve the given paths against the JSON object document.
+	 * @param objectMapper mapper used to create the parser and materialize values
+	 * @param json the JSON document, the root must be an object
+	 * @param paths the paths to resolve, as segment arrays
+	 * @return resolved values keyed by the joined path ("a.b.c"); paths that are absent
+	 * or null are not contained
+	 * @throws IOException if the document is not a valid JSON object
+	 */
+	public static Map<String, Object> resolve(ObjectMapper objectMapper, String json, List<String[]> paths)
+			throws IOException {
+		Map<String, Object> result = new HashMap<>();
+		try (JsonParser parser = objectMapper.createParser(json)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("JSON root is not an object");
+			}
+			walkObject(parser, paths, 0, result);
+		}
+		return result;
+	}
+
+	private static void walkObject(JsonParser parser, List<String[]> candidates, int depth,
+			Map<String, Object> result) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.currentName();
+			JsonToken valueToken = parser.nextToken();
+
+			List<String[]> matched = null;
+			boolean terminal = false;
+			for (String[] path : candidates) {
+				if (fieldName.equals(path[depth])) {
+					if (matched == null) {
+						matched = new ArrayList<>(2);
+					}
+					matched.add(path);
+					terminal |= path.length == depth + 1;
+				}
+			}
+
+			if (matched == null) {
+				parser.skipChildren();
+			}
+			else if (terminal) {
+				// Materialize the addressed value, deeper paths continue on the value
+				Object value = valueToken == JsonToken.VALUE_NULL ? null : parser.readValueAs(Object.class);
+				for (String[] path : matched) {
+					Object resolved = navigate(value, path, depth + 1);
+					if (resolved != null) {
+						result.put(String.join(".", path), resolved);
+					}
+					else {
+						result.remove(String.join(".", path));
+					}
+				}
+			}
+			else {
+				// A later duplicate key replaces whatever an earlier one resolved
+				for (String[] path : matched) {
+					result.remove(String.join(".", path));
+				}
+				if (valueToken == JsonToken.START_OBJECT) {
+					walkObject(parser, matched, depth + 1, result);
+				}
+				else {
+					// Paths can only descend into objects
+					parser.skipChildren();
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object navigate(Object value, String[] path, int from) {
+		Object current = value;
+		for (int i = from; i < path.length; i++) {
+			if (!(current instanceof Map)) {
+				return null;
+			}
+			current = ((Map<String, Object>) current).get(path[i]);
+		}
+		return current;
+	}
+
+}
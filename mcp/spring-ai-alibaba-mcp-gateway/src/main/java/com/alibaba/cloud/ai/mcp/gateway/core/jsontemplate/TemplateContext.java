@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
+
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.CompiledTemplate.Placeholder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data a {@link CompiledTemplate} is rendered against during one tool call: the call
+ * arguments and the upstream response body ({@code extendedData}).
+ *
+ * <p>
+ * The response body is parsed at most once per context, and only when a placeholder
+ * actually refers to it. Bodies of at least {@link #STREAMING_THRESHOLD} characters can
+ * be resolved with {@link #prefetch(CompiledTemplate...)}, which extracts all referenced
+ * paths in a single streaming pass instead of building the whole document in memory.
+ */
+public final class TemplateContext {
+
+	private static final Logger logger = LoggerFactory.getLogger(TemplateContext.class);
+
+	/**
+	 * Response size (in characters) from which prefetching uses the streaming resolver.
+	 */
+	public static final int STREAMING_THRESHOLD = 256 * 1024;
+
+	private static final String EXTENDED_DATA = "extendedData";
+
+	private final Map<String, Object> args;
+
+	private final String extendedData;
+
+	private final ObjectMapper objectMapper;
+
+	private boolean parsed;
+
+	private boolean parseFailed;
+
+	private Map<?, ?> document;
+
+	private Map<String, Object> streamedValues;
+
+	private Set<String> streamedPaths;
+
+	private TemplateContext(Map<String, Object> args, String extendedData, ObjectMapper objectMapper) {
+		this.args = args;
+		this.extendedData = extendedData;
+		this.objectMapper = objectMapper;
+	}
+
+	public static TemplateContext of(Map<String, Object> args, String extendedData, ObjectMapper objectMapper) {
+		return new TemplateContext(args, extendedData, objectMapper);
+	}
+
+	public Map<String, Object> getArgs() {
+		return args;
+	}
+
+	public String getExtendedData() {
+		return extendedData;
+	}
+
+	/**
+	 * Resolve every response path referenced by the given templates in one streaming
+	 * pass when the response is large. Small responses are left to the lazy tree parse.
+	 * @param templates templates that will be rendered against this context
+	 */
+	public void prefetch(CompiledTemplate... templates) {
+		if (parsed || parseFailed || streamedValues != null || extendedData == null
+				|| extendedData.length() < STREAMING_THRESHOLD) {
+			return;
+		}
+		List<String[]> paths = new ArrayList<>();
+		Set<String> joinedPaths = new HashSet<>();
+		for (CompiledTemplate template : templates) {
+			for (Placeholder placeholder : template.getPlaceholders()) {
+				if (!placeholder.isRoot() && !placeholder.isArgs() && !isExtendedDataPath(placeholder)) {
+					paths.add(placeholder.getSegments());
+					joinedPaths.add(String.join(".", placeholder.getSegments()));
+				}
+			}
+		}
+		if (paths.isEmpty()) {
+			return;
+		}
+		try {
+			streamedValues = StreamingJsonPathResolver.resolve(objectMapper, extendedData, paths);
+			streamedPaths = joinedPaths;
+		}
+		catch (Exception e) {
+			logger.warn("[prefetch] Failed to parse extendedData as JSON: {}", e.getMessage());
+			parseFailed = true;
+		}
+	}
+
+	/**
+	 * Render a compiled template against this context.
+	 * @param template the compiled template
+	 * @return the rendered string
+	 */
+	public String render(CompiledTemplate template) {
+		return template.render(this::resolve);
+	}
+
+	/**
+	 * Resolve the value of a placeholder.
+	 * @param placeholder placeholder, e.g. {{.args.name}} or {{.data.key1.key2}}
+	 * @return resolved value, empty string if absent
+	 */
+	@SuppressWarnings("unchecked")
+	public String resolve(Placeholder placeholder) {
+		if (placeholder.isRoot()) {
+			return extendedData != null ? extendedData : "";
+		}
+		String[] segments = placeholder.getSegments();
+
+		Object currentValue;
+		int startIndex;
+		if (placeholder.isArgs()) {
+			// If only args without specific field name
+			if (segments.length == 1) {
+				if (args != null && args.size() == 1) {
+					return String.valueOf(args.values().iterator().next());
+				}
+				else if (args != null && !args.isEmpty()) {
+					return args.toString();
+				}
+				else {
+					return "";
+				}
+			}
+			currentValue = args;
+			startIndex = 1;
+		}
+		else {
+			// Special handling for direct access to extendedData
+			if (isExtendedDataPath(placeholder)) {
+				return extendedData != null ? extendedData : "";
+			}
+			if (streamedValues != null) {
+				String path = String.join(".", segments);
+				if (streamedValues.containsKey(path)) {
+					return streamedValues.get(path).toString();
+				}
+				if (streamedPaths.contains(path)) {
+					// prefetched, absent or null in the response
+					return "";
+				}
+				// not prefetched, fall back to parsing the whole response
+			}
+			currentValue = document();
+			startIndex = 0;
+		}
+
+		if (currentValue == null) {
+			return "";
+		}
+		for (int i = startIndex; i < segments.length; i++) {
+			String key = segments[i];
+			if (currentValue instanceof Map) {
+				currentValue = ((Map<String, Object>) currentValue).get(key);
+			}
+			else {
+				logger.warn("[resolve] Cannot access key '{}' from non-map value", key);
+				return "";
+			}
+			if (currentValue == null) {
+				logger.warn("[resolve] Key '{}' not found in nested path", key);
+				return "";
+			}
+		}
+		return currentValue.toString();
+	}
+
+	private Map<?, ?> document() {
+		if (!parsed && !parseFailed) {
+			parsed = true;
+			try {
+				if (StringUtils.isNoneBlank(extendedData)) {
+					document = objectMapper.readValue(extendedData, Map.class);
+				}
+			}
+			catch (Exception e) {
+				logger.warn("[resolve] Failed to parse extendedData as JSON: {}", e.getMessage());
+				parseFailed = true;
+			}
+		}
+		return parseFailed ? null : document;
+	}
+
+	private static boolean isExtendedDataPath(Placeholder placeholder) {
+		String[] segments = placeholder.getSegments();
+		return segments.length == 1 && EXTENDED_DATA.equals(segments[0]);
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.nacos.callback;
+
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.CompiledTemplate;
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.RequestTemplateInfo;
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.RequestTemplateParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invocation plan of an HTTP/HTTPS gateway tool, compiled once from the tool's
+ * {@code json-go-template} when the tool definition is loaded or refreshed. The
+ * per-call path only binds arguments against the pre-parsed request template, the
+ * pre-tokenized URL/header/body/response templates and a cached {@link WebClient} per
+ * base URL.
+ */
+public final class NacosMcpGatewayInvocationPlan {
+
+	static final String DEFAULT_BASE_URL = "http://localhost";
+
+	/**
+	 * Upper bound of cached WebClients per tool; endpoints churn with instance restarts,
+	 * so the cache is reset instead of growing without limit.
+	 */
+	private static final int MAX_CACHED_WEB_CLIENTS = 64;
+
+	private final JsonNode toolConfig;
+
+	private final RequestTemplateInfo requestTemplateInfo;
+
+	private final HttpMethod httpMethod;
+
+	private final JsonNode responseTemplate;
+
+	private final boolean urlHasPathVariables;
+
+	private final Map<String, CompiledTemplate> templates;
+
+	private final WebClient.Builder webClientBuilder;
+
+	private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
+	private NacosMcpGatewayInvocationPlan(JsonNode toolConfig, RequestTemplateInfo requestTemplateInfo,
+			HttpMethod httpMethod, JsonNode responseTemplate, Map<String, CompiledTemplate> templates,
+			WebClient.Builder webClientBuilder) {
+		this.toolConfig = toolConfig;
+		this.requestTemplateInfo = requestTemplateInfo;
+		this.httpMethod = httpMethod;
+		this.responseTemplate = responseTemplate;
+		this.urlHasPathVariables = RequestTemplateParser.PATH_VARIABLES_PATTERN.matcher(requestTemplateInfo.url)
+			.find();
+		this.templates = Collections.unmodifiableMap(templates);
+		this.webClientBuilder = webClientBuilder;
+	}
+
+	/**
+	 * Compile the {@code json-go-template} of a tool into an invocation plan.
+	 * @param jsonGoTemplate the raw template object from the tool meta
+	 * @param objectMapper object mapper used to convert the template
+	 * @param webClientBuilder builder used to create WebClients per base URL
+	 * @return the compiled plan
+	 * @throws IllegalArgumentException if the template is empty or invalid
+	 */
+	public static NacosMcpGatewayInvocationPlan compile(Object jsonGoTemplate, ObjectMapper objectMapper,
+			WebClient.Builder webClientBuilder) {
+		JsonNode toolConfig = jsonGoTemplate instanceof JsonNode node ? node
+				: objectMapper.valueToTree(jsonGoTemplate);
+		if (toolConfig == null || toolConfig.isEmpty()) {
+			throw new IllegalArgumentException("Tool configuration is empty or invalid");
+		}
+		JsonNode requestTemplate = toolConfig.path("requestTemplate");
+		String url = requestTemplate.path("url").asText();
+		String method = requestTemplate.path("method").asText();
+		if (url.isEmpty() || method.isEmpty()) {
+			throw new IllegalArgumentException("URL and method are required in requestTemplate");
+		}
+		HttpMethod httpMethod;
+		try {
+			httpMethod = HttpMethod.valueOf(method.toUpperCase());
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid HTTP method: " + method);
+		}
+		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate,
+				toolConfig.path("argsPosition"));
+		JsonNode responseTemplate = toolConfig.path("responseTemplate");
+
+		Map<String, CompiledTemplate> templates = new HashMap<>();
+		register(templates, url);
+		if (info.headers != null && info.headers.isArray()) {
+			for (JsonNode header : info.headers) {
+				register(templates, header.path("value").asText());
+			}
+		}
+		if (info.body != null) {
+			register(templates, info.body.asText());
+		}
+		register(templates, responseTemplate.path("body").asText());
+		register(templates, responseTemplate.path("prependBody").asText(""));
+		register(templates, responseTemplate.path("appendBody").asText(""));
+		return new NacosMcpGatewayInvocationPlan(toolConfig, info, httpMethod, responseTemplate, templates,
+				webClientBuilder);
+	}
+
+	private static void register(Map<String, CompiledTemplate> templates, String template) {
+		if (template != null && !template.isEmpty()) {
+			templates.computeIfAbsent(template, CompiledTemplate::compile);
+		}
+	}
+
+	public JsonNode getToolConfig() {
+		return toolConfig;
+	}
+
+	public RequestTemplateInfo getRequestTemplateInfo() {
+		return requestTemplateInfo;
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	public JsonNode getResponseTemplate() {
+		return responseTemplate;
+	}
+
+	public boolean urlHasPathVariables() {
+		return urlHasPathVariables;
+	}
+
+	/**
+	 * Get the pre-tokenized form of a template declared by this tool. Templates not
+	 * known at compile time (e.g. rendered Nacos config content) are tokenized on
+	 * demand without being cached.
+	 * @param template the template source
+	 * @return the compiled template
+	 */
+	public CompiledTemplate template(String template) {
+		CompiledTemplate compiled = templates.get(template);
+		return compiled != null ? compiled : CompiledTemplate.compile(template);
+	}
+
+	/**
+	 * Get the cached WebClient for the given base URL, creating it on first use.
+	 * @param baseUrl base URL of the selected endpoint, may be null
+	 * @return the WebClient bound to the base URL
+	 */
+	public WebClient webClient(String baseUrl) {
+		String key = baseUrl != null ? baseUrl : DEFAULT_BASE_URL;
+		WebClient client = webClients.get(key);
+		if (client != null) {
+			return client;
+		}
+		if (webClients.size() >= MAX_CACHED_WEB_CLIENTS) {
+			webClients.clear();
+		}
+		return webClients.computeIfAbsent(key, k -> webClientBuilder.clone().baseUrl(k).build());
+	}
+
+}
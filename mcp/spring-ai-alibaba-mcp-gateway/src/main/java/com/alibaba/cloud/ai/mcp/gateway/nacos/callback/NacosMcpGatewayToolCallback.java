@@ -17,19 +17,22 @@
 package com.alibaba.cloud.ai.mcp.gateway.nacos.callback;
 
 import com.alibaba.cloud.ai.mcp.gateway.core.McpGatewayToolDefinition;
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.CompiledTemplate;
 import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.RequestTemplateInfo;
 import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.RequestTemplateParser;
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.TemplateContext;
 import com.alibaba.cloud.ai.mcp.gateway.core.utils.SpringBeanUtils;
 import com.alibaba.cloud.ai.mcp.gateway.core.security.McpGatewayOAuthInterceptor;
 import com.alibaba.cloud.ai.mcp.gateway.core.security.McpGatewayOAuthTokenManager;
 import com.alibaba.cloud.ai.mcp.gateway.core.security.McpGatewayOAuthProperties;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.definition.NacosMcpGatewayToolDefinition;
+import com.alibaba.cloud.ai.mcp.gateway.nacos.session.NacosMcpGatewaySessionKey;
+import com.alibaba.cloud.ai.mcp.gateway.nacos.session.NacosMcpGatewaySessionPool;
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
 import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpServerRemoteServiceConfig;
 import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
 import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
-import com.alibaba.nacos.api.config.listener.AbstractListener;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.shaded.com.google.common.collect.Maps;
@@ -38,13 +41,12 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
-import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
 import io.modelcontextprotocol.client.transport.WebClientStreamableHttpTransport;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
-import io.modelcontextprotocol.spec.McpSchema.InitializeResult;
 import io.modelcontextprotocol.spec.McpClientTransport;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import org.apache.commons.lang3.StringUtils;
@@ -60,11 +62,15 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -75,8 +81,6 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
 
     private static final Logger logger = LoggerFactory.getLogger(NacosMcpGatewayToolCallback.class);
 
-    private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{\\{\\s*(\\.(?:[\\w]+(?:\\.[\\w]+)*)?)\\s*\\}\\}");
-
     // Match {{ ${nacos.dataId/group} }} or {{ ${nacos.dataId/group}.key1.key2 }}
     private static final Pattern NACOS_TEMPLATE_PATTERN = Pattern
             .compile("\\{\\{\\s*\\$\\{nacos\\.([^}]+)\\}(\\.[\\w]+(?:\\.[\\w]+)*)?\\s*}}");
@@ -95,12 +99,19 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
 
     private final NacosMcpOperationService nacosMcpOperationService;
 
-    private final HashMap<String, AbstractListener> nacosConfigListeners = new HashMap<>();
-
-    private final HashMap<String, String> nacosConfigContent = new HashMap<>();
+    private final Set<String> subscribedNacosConfigs = ConcurrentHashMap.newKeySet();
 
     private final WebClient.Builder webClientBuilder;
 
+    private final NacosMcpGatewayInvocationPlan invocationPlan;
+
+    private final String invocationPlanError;
+
+    private final NacosMcpGatewaySessionPool sessionPool;
+
+    // dataId@@group of the Nacos configs referenced by the templates of the tool
+    private final Set<String> templateConfigRefs;
+
     /**
      * Instantiates a new Nacos mcp gateway tool callback.
      *
@@ -110,6 +121,92 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
         this.toolDefinition = (NacosMcpGatewayToolDefinition) toolDefinition;
         this.nacosMcpOperationService = SpringBeanUtils.getInstance().getBean(NacosMcpOperationService.class);
         this.webClientBuilder = initializeWebClientBuilder(toolDefinition.name());
+        this.sessionPool = lookupSessionPool();
+        NacosMcpGatewayInvocationPlan plan = null;
+        String planError = null;
+        try {
+            plan = compileInvocationPlan();
+        } catch (Exception e) {
+            logger.error("Failed to compile invocation plan for tool: {}", toolDefinition.name(), e);
+            planError = e.getMessage();
+        }
+        this.invocationPlan = plan;
+        this.invocationPlanError = planError;
+        this.templateConfigRefs = plan != null ? configRefs(plan.getToolConfig().toString()) : Set.of();
+    }
+
+    private static Set<String> configRefs(String template) {
+        Set<String> refs = new LinkedHashSet<>();
+        Matcher matcher = NACOS_TEMPLATE_PATTERN.matcher(template);
+        while (matcher.find()) {
+            String[] configParts = matcher.group(1).split("/");
+            if (configParts.length == 2) {
+                refs.add(configParts[0] + "@@" + configParts[1]);
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * Subscribe to the Nacos configs referenced by the templates before the first call
+     * renders them, on the bounded elastic scheduler since subscribing fetches the
+     * config. Later calls read the configs from the local snapshots, so rendering never
+     * blocks the thread of the exchange.
+     */
+    private Mono<Void> subscribeTemplateConfigs() {
+        if (subscribedNacosConfigs.containsAll(templateConfigRefs)) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+            for (String cacheKey : templateConfigRefs) {
+                String[] configParts = cacheKey.split("@@");
+                subscribeConfig(configParts[0], configParts[1]);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Whether rendering text may look up a Nacos config that is not referenced by the
+     * templates, and so is not subscribed in advance.
+     */
+    private static boolean mayReferenceNacosConfig(Object text) {
+        return String.valueOf(text).contains("${nacos.");
+    }
+
+    /**
+     * Compile the json-go-template of an HTTP/HTTPS tool once, so that each call only
+     * binds its arguments. Returns null for tools that are not template based.
+     */
+    private NacosMcpGatewayInvocationPlan compileInvocationPlan() {
+        String protocol = this.toolDefinition.getProtocol();
+        if (!"http".equalsIgnoreCase(protocol) && !"https".equalsIgnoreCase(protocol)) {
+            return null;
+        }
+        McpToolMeta toolMeta = this.toolDefinition.getToolMeta();
+        if (toolMeta == null || toolMeta.getTemplates() == null
+                || !toolMeta.getTemplates().containsKey("json-go-template")) {
+            return null;
+        }
+        NacosMcpGatewayInvocationPlan plan = NacosMcpGatewayInvocationPlan
+                .compile(toolMeta.getTemplates().get("json-go-template"), objectMapper, webClientBuilder);
+        logger.debug("[compileInvocationPlan] tool: {} json-go-template: {}", this.toolDefinition.name(),
+                plan.getToolConfig());
+        return plan;
+    }
+
+    /**
+     * The session pool is optional; without it every MCP-stream call opens its own session.
+     */
+    private NacosMcpGatewaySessionPool lookupSessionPool() {
+        try {
+            return SpringBeanUtils.getInstance()
+                    .getApplicationContext()
+                    .getBeanProvider(NacosMcpGatewaySessionPool.class)
+                    .getIfAvailable();
+        } catch (Exception e) {
+            logger.debug("MCP session pool is not available, using one session per call");
+            return null;
+        }
     }
 
     private WebClient.Builder initializeWebClientBuilder(String toolName) {
@@ -140,41 +237,17 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     /**
      * Process tool request
      */
-    private Mono<String> processToolRequest(String configJson, Map<String, Object> args, String baseUrl) {
+    private Mono<String> processToolRequest(NacosMcpGatewayInvocationPlan plan, Map<String, Object> args,
+                                            String baseUrl) {
         try {
-            JsonNode toolConfig = objectMapper.readTree(configJson);
-            logger.info("[processToolRequest] toolConfig: {} args: {} baseUrl: {}", toolConfig, args, baseUrl);
-
-            // Validate configuration integrity
-            if (toolConfig == null || toolConfig.isEmpty()) {
-                return Mono.error(new IllegalArgumentException("Tool configuration is empty or invalid"));
-            }
-
-            JsonNode requestTemplate = toolConfig.path("requestTemplate");
-            JsonNode argsPosition = toolConfig.path("argsPosition");
-            String url = requestTemplate.path("url").asText();
-            String method = requestTemplate.path("method").asText();
-            logger.info("[processToolRequest] requestTemplate: {} url: {} method: {}", requestTemplate, url, method);
-
-            // Check URL and method
-            if (url.isEmpty() || method.isEmpty()) {
-                return Mono.error(new IllegalArgumentException("URL and method are required in requestTemplate"));
-            }
-
-            // Validate HTTP method
-            try {
-                HttpMethod.valueOf(method.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                return Mono.error(new IllegalArgumentException("Invalid HTTP method: " + method));
-            }
+            logger.debug("[processToolRequest] args: {} baseUrl: {}", args, baseUrl);
 
-            // Create WebClient
-            baseUrl = baseUrl != null ? baseUrl : "http://localhost";
-            WebClient client = webClientBuilder.clone().baseUrl(baseUrl).build();
+            // WebClient is cached per base URL by the invocation plan
+            baseUrl = baseUrl != null ? baseUrl : NacosMcpGatewayInvocationPlan.DEFAULT_BASE_URL;
+            WebClient client = plan.webClient(baseUrl);
 
             // Build and execute request
-            return buildAndExecuteRequest(client, requestTemplate, argsPosition, toolConfig.path("responseTemplate"),
-                    args, baseUrl)
+            return buildAndExecuteRequest(client, plan, args, baseUrl)
                     .onErrorResume(e -> {
                         logger.error("Failed to execute tool request:", e);
                         return Mono.error(new RuntimeException("Tool execution failed: " + e.getMessage(), e));
@@ -188,16 +261,18 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     /**
      * Build and execute WebClient request
      */
-    private Mono<String> buildAndExecuteRequest(WebClient client, JsonNode requestTemplate, JsonNode argsPosition,
-                                                JsonNode responseTemplate, Map<String, Object> args, String baseUrl) {
+    private Mono<String> buildAndExecuteRequest(WebClient client, NacosMcpGatewayInvocationPlan plan,
+                                                Map<String, Object> args, String baseUrl) {
 
-        RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate, argsPosition);
+        RequestTemplateInfo info = plan.getRequestTemplateInfo();
+        JsonNode responseTemplate = plan.getResponseTemplate();
         String url = info.url;
         String method = info.method;
-        HttpMethod httpMethod = HttpMethod.valueOf(method.toUpperCase());
+        HttpMethod httpMethod = plan.getHttpMethod();
 
         // Process path parameters in URL
-        String processingUrl = RequestTemplateParser.addPathVariables(url, info, args);
+        String processingUrl = plan.urlHasPathVariables() ? RequestTemplateParser.addPathVariables(url, info, args)
+                : url;
         Map<String, Object> params = new HashMap<>();
         params.put("args", args);
         params.put("extendedData", "");
@@ -227,6 +302,7 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
                 : baseUrl + pathOnlyUrl;
         logger.info("[buildAndExecuteRequest] final request: method={} url={} args={}", method, fullUrl, args);
 
+        boolean dynamicConfigRefs = mayReferenceNacosConfig(args);
         return headersSpec.retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError,
                         response -> Mono.error(new RuntimeException("Client error: " + response.statusCode())))
@@ -235,7 +311,12 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
                 .bodyToMono(String.class)
                 .timeout(getTimeoutDuration()) // Use configured timeout
                 .doOnNext(responseBody -> logger.info("[buildAndExecuteRequest] received responseBody: {}", responseBody))
-                .map(responseBody -> processResponse(responseBody, responseTemplate, args))
+                .flatMap(responseBody -> {
+                    Mono<String> response = Mono.fromCallable(() -> processResponse(responseBody, responseTemplate, args));
+                    // configs only found while rendering are fetched from Nacos, off the event loop
+                    return dynamicConfigRefs || mayReferenceNacosConfig(responseBody)
+                            ? response.subscribeOn(Schedulers.boundedElastic()) : response;
+                })
                 .onErrorResume(e -> {
                     logger.error("[buildAndExecuteRequest] Request failed: {}", e.getMessage(), e);
                     return Mono.error(new RuntimeException("HTTP request failed: " + e.getMessage(), e));
@@ -309,21 +390,21 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     private String processResponse(String responseBody, JsonNode responseTemplate, Map<String, Object> args) {
         logger.info("[processResponse] received responseBody: {}", responseBody);
         String result = null;
-        Map<String, Object> params = new HashMap<>();
-        params.put("args", args);
-        params.put("extendedData", responseBody);
+        // One context per call, so the response body is parsed at most once
+        TemplateContext context = TemplateContext.of(args, responseBody, objectMapper);
         if (!responseTemplate.isEmpty()) {
             if (responseTemplate.has("body") && !responseTemplate.path("body").asText().isEmpty()) {
-                String bodyTemplate = responseTemplate.path("body").asText();
-                // Hand over to ResponseTemplateParser for unified processing
-                result = processTemplateString(bodyTemplate, params);
+                CompiledTemplate bodyTemplate = compileTemplate(responseTemplate.path("body").asText());
+                context.prefetch(bodyTemplate);
+                result = processTemplateString(bodyTemplate.getSource(), context);
                 logger.info("[processResponse] ResponseTemplateParser result: {}", result);
                 return result;
             } else if (responseTemplate.has("prependBody") || responseTemplate.has("appendBody")) {
                 String prependText = responseTemplate.path("prependBody").asText("");
                 String appendText = responseTemplate.path("appendBody").asText("");
-                result = processTemplateString(prependText, params) + responseBody
-                        + processTemplateString(appendText, params);
+                context.prefetch(compileTemplate(prependText), compileTemplate(appendText));
+                result = processTemplateString(prependText, context) + responseBody
+                        + processTemplateString(appendText, context);
                 logger.info("[processResponse] prepend/append result: {}", result);
                 return result;
             }
@@ -413,26 +494,20 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
      * @throws NacosException Nacos exception
      */
     private String getConfigContent(String dataId, String group) throws NacosException {
+        subscribeConfig(dataId, group);
+        // Served from the snapshot shared by all tools referencing the config
+        return nacosMcpOperationService.getConfigSnapshot(dataId, group);
+    }
+
+    private void subscribeConfig(String dataId, String group) {
         String cacheKey = dataId + "@@" + group;
-        if (nacosConfigContent.containsKey(cacheKey)) {
-            return nacosConfigContent.get(cacheKey);
-        } else {
-            AbstractListener listener = new AbstractListener() {
-                @Override
-                public void receiveConfigInfo(String configInfo) {
-                    nacosConfigContent.put(cacheKey, configInfo);
-                }
-            };
-            AbstractListener oldListener = nacosConfigListeners.putIfAbsent(cacheKey, listener);
-            if (oldListener == null) {
-                try {
-                    nacosMcpOperationService.getConfigService().addListener(dataId, group, listener);
-                } catch (Exception e) {
-                    nacosConfigListeners.remove(cacheKey);
-                    logger.error("Failed to add listener for Nacos config: {}", e.getMessage(), e);
-                }
+        if (subscribedNacosConfigs.add(cacheKey)) {
+            try {
+                nacosMcpOperationService.subscribeConfig(dataId, group);
+            } catch (Exception e) {
+                subscribedNacosConfigs.remove(cacheKey);
+                logger.error("Failed to add listener for Nacos config: {}", e.getMessage(), e);
             }
-            return nacosMcpOperationService.getConfigService().getConfig(dataId, group, 3000);
         }
     }
 
@@ -491,115 +566,25 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     private String processTemplateString(String template, Map<String, Object> params) {
         Map<String, Object> args = (Map<String, Object>) params.get("args");
         String extendedData = (String) params.get("extendedData");
-        logger.debug("[processTemplateString] template: {} args: {} extendedData: {}", template, args, extendedData);
+        return processTemplateString(template, TemplateContext.of(args, extendedData, objectMapper));
+    }
+
+    private String processTemplateString(String template, TemplateContext context) {
+        logger.debug("[processTemplateString] template: {} args: {}", template, context.getArgs());
         if (template == null || template.isEmpty()) {
             return "";
         }
-        Matcher matcher = TEMPLATE_PATTERN.matcher(template);
-        StringBuilder result = new StringBuilder();
-        while (matcher.find()) {
-            // Get full path, e.g. .args.name or .data.key1.key2
-            String fullPath = matcher.group(1);
-            String replacement = resolvePathValue(fullPath, args, extendedData);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        String finalResult = context.render(compileTemplate(template));
+        if (finalResult.contains("${nacos.")) {
+            finalResult = processNacosConfigRefTemplate(finalResult);
         }
-        matcher.appendTail(result);
-        String finalResult = result.toString();
-        finalResult = processNacosConfigRefTemplate(finalResult);
         logger.debug("[processTemplateString] final result: {}", finalResult);
 
         return finalResult;
     }
 
-    /**
-     * Resolve value by path
-     *
-     * @param fullPath Full path, e.g. .args.name or .data.key1.key2
-     * @param args Parameter data mapping
-     * @param extendedData Extended data (JSON string)
-     * @return Resolved value
-     */
-    private String resolvePathValue(String fullPath, Map<String, Object> args, String extendedData) {
-        if (fullPath == null) {
-            return extendedData != null ? extendedData : "";
-        }
-        // Remove leading dot
-        if (fullPath.startsWith(".")) {
-            fullPath = fullPath.substring(1);
-        }
-        if (StringUtils.isBlank(fullPath)) {
-            return extendedData != null ? extendedData : "";
-        }
-
-        String[] pathParts = fullPath.split("\\.");
-        if (pathParts.length == 0) {
-            return "";
-        }
-
-        // Determine data source
-        Object dataSource;
-        if (pathParts[0].equals("args")) {
-            // Get value from args
-            dataSource = args;
-            // If only args without specific field name
-            if (pathParts.length == 1) {
-                if (args != null && args.size() == 1) {
-                    return String.valueOf(args.values().iterator().next());
-                } else if (args != null && !args.isEmpty()) {
-                    return args.toString();
-                } else {
-                    return "";
-                }
-            }
-        } else {
-            // Get value from extendedData
-            // First parse extendedData string as JSON object
-            try {
-                if (StringUtils.isNoneBlank(extendedData)) {
-                    dataSource = objectMapper.readValue(extendedData, Map.class);
-                } else {
-                    dataSource = null;
-                }
-            } catch (Exception e) {
-                logger.warn("[resolvePathValue] Failed to parse extendedData as JSON: {}", e.getMessage());
-                // If parsing fails, treat extendedData as plain string
-                if (pathParts.length == 1 && fullPath.equals("extendedData")) {
-                    return extendedData != null ? extendedData : "";
-                }
-                return "";
-            }
-
-            // Special handling for direct access to extendedData
-            if (pathParts.length == 1 && fullPath.equals("extendedData")) {
-                return extendedData != null ? extendedData : "";
-            }
-        }
-
-        // If data source is empty
-        if (dataSource == null) {
-            return "";
-        }
-        // Process nested path
-        Object currentValue = dataSource;
-        int startIndex = pathParts[0].equals("args") ? 1 : 0;
-        // If args, start from index 1; otherwise start from index 0
-
-        for (int i = startIndex; i < pathParts.length; i++) {
-            String key = pathParts[i];
-            if (currentValue instanceof Map) {
-                Map<String, Object> currentMap = (Map<String, Object>) currentValue;
-                currentValue = currentMap.get(key);
-            } else {
-                logger.warn("[resolvePathValue] Cannot access key '{}' from non-map value", key);
-                return "";
-            }
-
-            if (currentValue == null) {
-                logger.warn("[resolvePathValue] Key '{}' not found in nested path", key);
-                return "";
-            }
-        }
-        return currentValue.toString();
+    private CompiledTemplate compileTemplate(String template) {
+        return invocationPlan != null ? invocationPlan.template(template) : CompiledTemplate.compile(template);
     }
 
     @Override
@@ -613,129 +598,146 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public String call(@NonNull final String input, final ToolContext toolContext) {
-        try {
-            logger.info("[call] input: {} toolContext: {}", input, JacksonUtils.toJson(toolContext));
+        return callAsync(input, toolContext).block();
+    }
 
-            // Parameter validation
-            if (this.toolDefinition == null) {
-                throw new IllegalStateException("Tool definition is null");
-            }
+    /**
+     * Call the tool without blocking the caller. HTTP tools run on the WebClient
+     * pipeline and MCP-stream tools on an {@link McpAsyncClient}, so no thread is held
+     * while waiting for the upstream server. Failures are reported as an "Error: ..."
+     * result, the same way as {@link #call(String, ToolContext)}.
+     *
+     * @param input       the tool input as JSON
+     * @param toolContext the tool context
+     * @return the tool call result
+     */
+    public Mono<String> callAsync(@NonNull final String input, final ToolContext toolContext) {
+        return Mono.defer(() -> dispatch(input, toolContext)).onErrorResume(e -> {
+            logger.error("[call] Unexpected error occurred", e);
+            return Mono.just("Error: " + e.getMessage());
+        });
+    }
 
-            // input parsing
-            logger.info("[call] input string: {}", input);
-            Map<String, Object> args = new HashMap<>();
-            if (!input.isEmpty()) {
-                try {
-                    args = objectMapper.readValue(input, Map.class);
-                    logger.info("[call] parsed args: {}", args);
-                } catch (Exception e) {
-                    logger.error("[call] Failed to parse input to args", e);
-                    // If parsing fails, try to handle as single parameter
-                    args.put("input", input);
-                }
-            }
+    @SuppressWarnings("unchecked")
+    private Mono<String> dispatch(final String input, final ToolContext toolContext) {
+        logger.info("[call] input: {} toolContext: {}", input,
+                toolContext != null ? toolContext.getContext().keySet() : null);
 
-            String protocol = this.toolDefinition.getProtocol();
-            if (protocol == null) {
-                throw new IllegalStateException("Protocol is null");
-            }
+        // Parameter validation
+        if (this.toolDefinition == null) {
+            throw new IllegalStateException("Tool definition is null");
+        }
 
-            McpServerRemoteServiceConfig remoteServerConfig = this.toolDefinition.getRemoteServerConfig();
-            if (remoteServerConfig == null) {
-                throw new IllegalStateException("Remote server config is null");
-            }
-            // Dispatch to different handling methods based on protocol type
-            if ("http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol)) {
-                return handleHttpHttpsProtocol(args, remoteServerConfig, protocol);
-            } else if ("mcp-sse".equalsIgnoreCase(protocol) || "mcp-streamable".equalsIgnoreCase(protocol)) {
-                return handleMcpStreamProtocol(args, remoteServerConfig, protocol);
-            } else {
-                logger.error("[call] Unsupported protocol: {}", protocol);
-                return "Error: Unsupported protocol " + protocol;
+        // input parsing
+        Map<String, Object> args = new HashMap<>();
+        if (!input.isEmpty()) {
+            try {
+                args = objectMapper.readValue(input, Map.class);
+                logger.info("[call] parsed args: {}", args);
+            } catch (Exception e) {
+                logger.error("[call] Failed to parse input to args", e);
+                // If parsing fails, try to handle as single parameter
+                args.put("input", input);
             }
-        } catch (Exception e) {
-            logger.error("[call] Unexpected error occurred", e);
-            return "Error: " + e.getMessage();
         }
+
+        String protocol = this.toolDefinition.getProtocol();
+        if (protocol == null) {
+            throw new IllegalStateException("Protocol is null");
+        }
+
+        McpServerRemoteServiceConfig remoteServerConfig = this.toolDefinition.getRemoteServerConfig();
+        if (remoteServerConfig == null) {
+            throw new IllegalStateException("Remote server config is null");
+        }
+        // Dispatch to different handling methods based on protocol type
+        if ("http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol)) {
+            return handleHttpHttpsProtocol(args, remoteServerConfig, protocol);
+        } else if ("mcp-sse".equalsIgnoreCase(protocol) || "mcp-streamable".equalsIgnoreCase(protocol)) {
+            return handleMcpStreamProtocol(args, remoteServerConfig, protocol);
+        } else {
+            logger.error("[call] Unsupported protocol: {}", protocol);
+            return Mono.just("Error: Unsupported protocol " + protocol);
+        }
+    }
+
+    /**
+     * Select an endpoint of the referenced service. Once the service has selectable
+     * instances in the local snapshot the selection is a cheap in-memory lookup; other
+     * lookups, which call Nacos, run on the bounded elastic scheduler.
+     */
+    private Mono<McpEndpointInfo> selectEndpoint(McpServiceRef serviceRef) {
+        Mono<McpEndpointInfo> endpoint = Mono.fromCallable(() -> {
+            McpEndpointInfo mcpEndpointInfo = nacosMcpOperationService.selectEndpoint(serviceRef);
+            if (mcpEndpointInfo == null) {
+                throw new RuntimeException("No available endpoint found for service: " + serviceRef.getServiceName());
+            }
+            return mcpEndpointInfo;
+        });
+        return nacosMcpOperationService.canSelectFromSnapshot(serviceRef) ? endpoint
+                : endpoint.subscribeOn(Schedulers.boundedElastic());
     }
 
     /**
      * Handle tool call for HTTP/HTTPS protocol
      */
-    private String handleHttpHttpsProtocol(Map<String, Object> args, McpServerRemoteServiceConfig remoteServerConfig,
-                                           String protocol) throws NacosException {
+    private Mono<String> handleHttpHttpsProtocol(Map<String, Object> args,
+                                                 McpServerRemoteServiceConfig remoteServerConfig, String protocol) {
         McpServiceRef serviceRef = remoteServerConfig.getServiceRef();
         if (serviceRef == null) {
             logger.error("[handleHttpHttpsProtocol] serviceRef is null");
-            return "Error: service reference is null";
-        }
-        McpEndpointInfo mcpEndpointInfo = nacosMcpOperationService.selectEndpoint(serviceRef);
-        if (mcpEndpointInfo == null) {
-            throw new RuntimeException("No available endpoint found for service: " + serviceRef.getServiceName());
+            return Mono.just("Error: service reference is null");
         }
+        return selectEndpoint(serviceRef).flatMap(mcpEndpointInfo -> {
+            logger.info("Tool callback instance: {}", JacksonUtils.toJson(mcpEndpointInfo));
+            McpToolMeta toolMeta = this.toolDefinition.getToolMeta();
+            String baseUrl = protocol + "://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
 
-        logger.info("Tool callback instance: {}", JacksonUtils.toJson(mcpEndpointInfo));
-        McpToolMeta toolMeta = this.toolDefinition.getToolMeta();
-        String baseUrl = protocol + "://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
-
-        if (toolMeta == null || toolMeta.getTemplates() == null) {
-            logger.warn("[handleHttpHttpsProtocol] templates not found in toolsMeta");
-            return "Error: templates not found in tool metadata";
-        }
+            if (toolMeta == null || toolMeta.getTemplates() == null) {
+                logger.warn("[handleHttpHttpsProtocol] templates not found in toolsMeta");
+                return Mono.just("Error: templates not found in tool metadata");
+            }
 
-        Map<String, Object> templates = toolMeta.getTemplates();
-        if (templates != null && templates.containsKey("json-go-template")) {
-            Object jsonGoTemplate = templates.get("json-go-template");
-            try {
-                logger.info("[handleHttpHttpsProtocol] json-go-template: {}",
-                        objectMapper.writeValueAsString(jsonGoTemplate));
-            } catch (JsonProcessingException e) {
-                logger.error("[handleHttpHttpsProtocol] Failed to serialize json-go-template", e);
+            if (invocationPlanError != null) {
+                return Mono.just("Error: " + invocationPlanError);
             }
-            try {
-                // Call executeToolRequest
-                String configJson = objectMapper.writeValueAsString(jsonGoTemplate);
-                logger.info("[handleHttpHttpsProtocol] configJson: {} args: {} baseUrl: {}", configJson, args,
-                        baseUrl);
-                return processToolRequest(configJson, args, baseUrl).block();
-            } catch (Exception e) {
-                logger.error("Failed to execute tool request", e);
-                return "Error: " + e.getMessage();
+            if (invocationPlan == null) {
+                logger.warn("[handleHttpHttpsProtocol] json-go-template not found in templates");
+                return Mono.just("Error: json-go-template not found in tool configuration");
             }
-        } else {
-            logger.warn("[handleHttpHttpsProtocol] json-go-template not found in templates");
-            return "Error: json-go-template not found in tool configuration";
-        }
-
+            logger.info("[handleHttpHttpsProtocol] args: {} baseUrl: {}", args, baseUrl);
+            Mono<String> request = Mono.defer(() -> processToolRequest(invocationPlan, args, baseUrl));
+            if (mayReferenceNacosConfig(args)) {
+                request = request.subscribeOn(Schedulers.boundedElastic());
+            }
+            return subscribeTemplateConfigs().then(request).onErrorResume(e -> {
+                logger.error("Failed to execute tool request", e);
+                return Mono.just("Error: " + e.getMessage());
+            });
+        });
     }
 
     /**
      * Handle tool call for MCP streaming protocol (mcp-sse, mcp-streamable)
      */
-    private String handleMcpStreamProtocol(Map<String, Object> args, McpServerRemoteServiceConfig remoteServerConfig,
-                                           String protocol) throws NacosException {
+    private Mono<String> handleMcpStreamProtocol(Map<String, Object> args,
+                                                 McpServerRemoteServiceConfig remoteServerConfig, String protocol) {
         McpServiceRef serviceRef = remoteServerConfig.getServiceRef();
-		if (serviceRef == null) {
-			logger.error("[handleMcpStreamProtocol] serviceRef is null");
-			return "Error: service reference is null";
-		}
-        McpEndpointInfo mcpEndpointInfo = nacosMcpOperationService.selectEndpoint(serviceRef);
-        if (mcpEndpointInfo == null) {
-            throw new RuntimeException("No available endpoint found for service: " + serviceRef.getServiceName());
+        if (serviceRef == null) {
+            logger.error("[handleMcpStreamProtocol] serviceRef is null");
+            return Mono.just("Error: service reference is null");
         }
+        return selectEndpoint(serviceRef).flatMap(mcpEndpointInfo -> {
+            logger.info("[handleMcpStreamProtocol] Tool callback instance: {}", JacksonUtils.toJson(mcpEndpointInfo));
+            String exportPath = remoteServerConfig.getExportPath();
 
-        logger.info("[handleMcpStreamProtocol] Tool callback instance: {}", JacksonUtils.toJson(mcpEndpointInfo));
-        String exportPath = remoteServerConfig.getExportPath();
-
-        // Build base URL
-        String baseUrl = "http://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
+            // Build base URL
+            String baseUrl = "http://" + mcpEndpointInfo.getAddress() + ":" + mcpEndpointInfo.getPort();
 
-        logger.info("[handleMcpStreamProtocol] Processing {} protocol with args: {} and baseUrl: {}", protocol,
-                args, baseUrl);
+            logger.info("[handleMcpStreamProtocol] Processing {} protocol with args: {} and baseUrl: {}", protocol,
+                    args, baseUrl);
 
-        try {
             // Get tool name - extract actual tool name from tool definition name
             String toolDefinitionName = this.toolDefinition.name();
             if (toolDefinitionName.isEmpty()) {
@@ -761,66 +763,71 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
             if (exportPath != null && !exportPath.isEmpty()) {
                 sseEndpoint = exportPath;
             }
+            String endpoint = sseEndpoint;
+
+            McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(toolName, args);
+            logger.info("[handleMcpStreamProtocol] CallToolRequest: {}", request);
+
+            if (sessionPool != null) {
+                sessionPool.watch(serviceRef);
+                NacosMcpGatewaySessionKey sessionKey = new NacosMcpGatewaySessionKey(
+                        NacosMcpGatewaySessionKey.serviceKey(serviceRef), protocol.toLowerCase(),
+                        mcpEndpointInfo.getAddress(), mcpEndpointInfo.getPort(), endpoint);
+                return sessionPool
+                        .execute(sessionKey, () -> createMcpClient(protocol, baseUrl, endpoint),
+                                client -> client.callTool(request))
+                        .doOnNext(result -> logger.info("[handleMcpStreamProtocol] tool call result: {}", result))
+                        .map(this::extractContent);
+            }
+
+            return Mono.usingWhen(Mono.fromSupplier(() -> createMcpClient(protocol, baseUrl, endpoint)),
+                    client -> client.initialize()
+                            .doOnNext(initializeResult -> logger
+                                    .info("[handleMcpStreamProtocol] MCP Client initialized: {}", initializeResult))
+                            .then(client.callTool(request)),
+                    // Clean up resources
+                    client -> client.closeGracefully()
+                            .onErrorResume(e -> {
+                                logger.warn("[handleMcpStreamProtocol] Failed to close MCP client", e);
+                                return Mono.empty();
+                            }))
+                    .doOnNext(result -> logger.info("[handleMcpStreamProtocol] tool call result: {}", result))
+                    .map(this::extractContent);
+        }).onErrorResume(e -> {
+            logger.error("[handleMcpStreamProtocol] MCP call failed:", e);
+            return Mono.just("Error: MCP call failed - " + e.getMessage());
+        });
+    }
 
-            McpClientTransport transport;
-            if ("mcp-streamable".equalsIgnoreCase(protocol)) {
-                // Use WebClientStreamableHttpTransport for streamable protocol
-                WebClient.Builder webClientBuilder = this.webClientBuilder.clone().baseUrl(baseUrl);
-                transport = WebClientStreamableHttpTransport.builder(webClientBuilder)
-                        .endpoint(sseEndpoint)
-                        .build();
-                logger.info("[handleMcpStreamProtocol] Using WebClientStreamableHttpTransport for mcp-streamable");
-            } else {
-                // Use HttpClientSseClientTransport for SSE protocol
-                transport = HttpClientSseClientTransport.builder(baseUrl)
-                        .sseEndpoint(sseEndpoint)
-                        .build();
-                logger.info("[handleMcpStreamProtocol] Using HttpClientSseClientTransport for mcp-sse");
-            }
-
-            // Create MCP sync client
-            McpSyncClient client = McpClient.sync(transport).build();
+    private McpAsyncClient createMcpClient(String protocol, String baseUrl, String endpoint) {
+        McpClientTransport transport;
+        if ("mcp-streamable".equalsIgnoreCase(protocol)) {
+            // Use WebClientStreamableHttpTransport for streamable protocol
+            WebClient.Builder webClientBuilder = this.webClientBuilder.clone().baseUrl(baseUrl);
+            transport = WebClientStreamableHttpTransport.builder(webClientBuilder).endpoint(endpoint).build();
+            logger.info("[handleMcpStreamProtocol] Using WebClientStreamableHttpTransport for mcp-streamable");
+        } else {
+            // Use HttpClientSseClientTransport for SSE protocol
+            transport = HttpClientSseClientTransport.builder(baseUrl).sseEndpoint(endpoint).build();
+            logger.info("[handleMcpStreamProtocol] Using HttpClientSseClientTransport for mcp-sse");
+        }
+        return McpClient.async(transport).build();
+    }
 
-            try {
-                // Initialize client
-                InitializeResult initializeResult = client.initialize();
-                logger.info("[handleMcpStreamProtocol] MCP Client initialized: {}", initializeResult);
-
-                // Call tool
-                McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(toolName, args);
-                logger.info("[handleMcpStreamProtocol] CallToolRequest: {}", request);
-
-                CallToolResult result = client.callTool(request);
-                logger.info("[handleMcpStreamProtocol] tool call result: {}", result);
-
-                // Process result
-                Object content = result.content();
-                if (content instanceof List<?> list && !CollectionUtils.isEmpty(list)) {
-                    Object first = list.get(0);
-                    // Compatible with TextContent's text field
-                    if (first instanceof TextContent textContent) {
-                        return textContent.text();
-                    } else if (first instanceof Map<?, ?> map && map.containsKey("text")) {
-                        return map.get("text").toString();
-                    } else {
-                        return first.toString();
-                    }
-                } else {
-                    return content != null ? content.toString() : "No content returned";
-                }
-            } finally {
-                // Clean up resources
-                try {
-                    if (client != null) {
-                        client.close();
-                    }
-                } catch (Exception e) {
-                    logger.warn("[handleMcpStreamProtocol] Failed to close MCP client", e);
-                }
+    private String extractContent(CallToolResult result) {
+        Object content = result.content();
+        if (content instanceof List<?> list && !CollectionUtils.isEmpty(list)) {
+            Object first = list.get(0);
+            // Compatible with TextContent's text field
+            if (first instanceof TextContent textContent) {
+                return textContent.text();
+            } else if (first instanceof Map<?, ?> map && map.containsKey("text")) {
+                return map.get("text").toString();
+            } else {
+                return first.toString();
             }
-        } catch (Exception e) {
-            logger.error("[handleMcpStreamProtocol] MCP call failed:", e);
-            return "Error: MCP call failed - " + e.getMessage();
+        } else {
+            return content != null ? content.toString() : "No content returned";
         }
     }
 
@@ -834,12 +841,12 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
      */
     public void close() {
 
-        for (Map.Entry<String, AbstractListener> entry : nacosConfigListeners.entrySet()) {
-            String cacheKey = entry.getKey();
+        for (String cacheKey : subscribedNacosConfigs) {
             String dataId = cacheKey.split("@@")[0];
             String group = cacheKey.split("@@")[1];
-            nacosMcpOperationService.getConfigService().removeListener(dataId, group, entry.getValue());
+            nacosMcpOperationService.unsubscribeConfig(dataId, group);
         }
+        subscribedNacosConfigs.clear();
     }
 
 }
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.mcp.gateway.nacos.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -29,6 +30,91 @@ public class NacosMcpGatewayProperties {
 
 	private List<String> serviceNames;
 
+	private SessionPool sessionPool = new SessionPool();
+
+	/**
+	 * Pool of upstream MCP sessions used by mcp-sse / mcp-streamable tools.
+	 */
+	public static class SessionPool {
+
+		private boolean enabled = true;
+
+		/**
+		 * Upper bound of open sessions across all endpoints.
+		 */
+		private int maxSessions = 64;
+
+		/**
+		 * Sessions opened per endpoint; calls are spread over them round-robin.
+		 */
+		private int sessionsPerEndpoint = 1;
+
+		private Duration maxIdleTime = Duration.ofMinutes(5);
+
+		private Duration maxSessionAge = Duration.ofMinutes(30);
+
+		private Duration healthCheckInterval = Duration.ofSeconds(30);
+
+		private Duration healthCheckTimeout = Duration.ofSeconds(5);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxSessions() {
+			return maxSessions;
+		}
+
+		public void setMaxSessions(int maxSessions) {
+			this.maxSessions = maxSessions;
+		}
+
+		public int getSessionsPerEndpoint() {
+			return sessionsPerEndpoint;
+		}
+
+		public void setSessionsPerEndpoint(int sessionsPerEndpoint) {
+			this.sessionsPerEndpoint = sessionsPerEndpoint;
+		}
+
+		public Duration getMaxIdleTime() {
+			return maxIdleTime;
+		}
+
+		public void setMaxIdleTime(Duration maxIdleTime) {
+			this.maxIdleTime = maxIdleTime;
+		}
+
+		public Duration getMaxSessionAge() {
+			return maxSessionAge;
+		}
+
+		public void setMaxSessionAge(Duration maxSessionAge) {
+			this.maxSessionAge = maxSessionAge;
+		}
+
+		public Duration getHealthCheckInterval() {
+			return healthCheckInterval;
+		}
+
+		public void setHealthCheckInterval(Duration healthCheckInterval) {
+			this.healthCheckInterval = healthCheckInterval;
+		}
+
+		public Duration getHealthCheckTimeout() {
+			return healthCheckTimeout;
+		}
+
+		public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+			this.healthCheckTimeout = healthCheckTimeout;
+		}
+
+	}
+
 	public List<String> getServiceNames() {
 		return serviceNames;
 	}
@@ -37,4 +123,12 @@ public class NacosMcpGatewayProperties {
 		this.serviceNames = serviceNames;
 	}
 
+	public SessionPool getSessionPool() {
+		return sessionPool;
+	}
+
+	public void setSessionPool(SessionPool sessionPool) {
+		this.sessionPool = sessionPool;
+	}
+
 }
@@ -19,10 +19,17 @@ package com.alibaba.cloud.ai.mcp.gateway.nacos.provider;
 import com.alibaba.cloud.ai.mcp.gateway.core.McpGatewayToolDefinition;
 import com.alibaba.cloud.ai.mcp.gateway.core.McpGatewayToolManager;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.callback.NacosMcpGatewayToolCallback;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.mcp.McpToolUtils;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class NacosMcpAsyncGatewayToolsProvider implements McpGatewayToolManager {
@@ -31,6 +38,8 @@ public class NacosMcpAsyncGatewayToolsProvider implements McpGatewayToolManager
 
 	private final Map<String, NacosMcpGatewayToolCallback> toolCallbacks = new HashMap<>();
 
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
 	public NacosMcpAsyncGatewayToolsProvider(final McpAsyncServer mcpAsyncServer) {
 		this.mcpAsyncServer = mcpAsyncServer;
 	}
@@ -45,7 +54,7 @@ public class NacosMcpAsyncGatewayToolsProvider implements McpGatewayToolManager
 		}
 		NacosMcpGatewayToolCallback toolCallback = new NacosMcpGatewayToolCallback(toolDefinition);
 		toolCallbacks.put(toolDefinition.name(), toolCallback);
-		mcpAsyncServer.addTool(McpToolUtils.toAsyncToolSpecification(toolCallback)).block();
+		mcpAsyncServer.addTool(toAsyncToolSpecification(toolCallback)).block();
 	}
 
 	@Override
@@ -57,4 +66,33 @@ public class NacosMcpAsyncGatewayToolsProvider implements McpGatewayToolManager
 		mcpAsyncServer.removeTool(toolName).block();
 	}
 
+	/**
+	 * Build a tool specification whose handler stays on the reactive pipeline of the
+	 * callback, instead of wrapping the blocking {@code call} on a worker thread as
+	 * {@link McpToolUtils#toAsyncToolSpecification} does.
+	 */
+	private McpServerFeatures.AsyncToolSpecification toAsyncToolSpecification(
+			NacosMcpGatewayToolCallback toolCallback) {
+		McpSchema.Tool tool = McpSchema.Tool.builder()
+			.name(toolCallback.getToolDefinition().name())
+			.description(toolCallback.getToolDefinition().description())
+			.inputSchema(toolCallback.getToolDefinition().inputSchema())
+			.build();
+		return McpServerFeatures.AsyncToolSpecification.builder()
+			.tool(tool)
+			.callHandler((exchange, request) -> {
+				String input;
+				try {
+					input = request.arguments() != null ? objectMapper.writeValueAsString(request.arguments()) : "";
+				}
+				catch (JsonProcessingException e) {
+					return Mono.error(e);
+				}
+				ToolContext toolContext = new ToolContext(Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, exchange));
+				return toolCallback.callAsync(input, toolContext)
+					.map(result -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false));
+			})
+			.build();
+	}
+
 }
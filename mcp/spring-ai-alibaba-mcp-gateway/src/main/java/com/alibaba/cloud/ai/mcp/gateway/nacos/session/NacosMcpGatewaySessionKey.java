@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.nacos.session;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
+
+/**
+ * Identifies one upstream MCP endpoint: an instance of the Nacos service behind an MCP
+ * server, reached with a given protocol and export path. All tools of the same MCP
+ * server share the sessions of a key.
+ *
+ * @param serviceKey the Nacos service the instance belongs to, see
+ * {@link #serviceKey(McpServiceRef)}
+ * @param protocol mcp-sse or mcp-streamable
+ * @param address instance ip
+ * @param port instance port
+ * @param endpoint SSE or streamable endpoint path
+ */
+public record NacosMcpGatewaySessionKey(String serviceKey, String protocol, String address, int port,
+		String endpoint) {
+
+	public String baseUrl() {
+		return "http://" + address + ":" + port;
+	}
+
+	public String hostPort() {
+		return address + ":" + port;
+	}
+
+	public static String serviceKey(McpServiceRef serviceRef) {
+		return serviceRef.getNamespaceId() + "/" + serviceRef.getGroupName() + "/" + serviceRef.getServiceName();
+	}
+
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.nacos.session;
+
+import com.alibaba.cloud.ai.mcp.gateway.nacos.properties.NacosMcpGatewayProperties;
+import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pool of upstream MCP sessions shared by all gateway tools of an MCP server.
+ *
+ * <p>
+ * Sessions are keyed per endpoint ({@link NacosMcpGatewaySessionKey}), created and
+ * initialized lazily on the first call and reused afterwards, since one MCP session
+ * multiplexes concurrent requests. A session is retired when a call fails at transport
+ * level, when it has been idle or alive for too long, when a periodic ping fails, or
+ * when its instance disappears from the Nacos service it belongs to. Retired sessions
+ * take no new calls and are closed once their in-flight calls complete.
+ *
+ * <p>
+ * Exported metrics: {@code mcp.gateway.session.pool.requests} (tag {@code result} =
+ * hit/miss), {@code mcp.gateway.session.pool.evictions} (tag {@code reason}),
+ * {@code mcp.gateway.session.pool.open}, {@code mcp.gateway.session.pool.oldest.age} and
+ * the {@code mcp.gateway.session.lifetime} timer.
+ */
+public class NacosMcpGatewaySessionPool implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(NacosMcpGatewaySessionPool.class);
+
+	private final NacosMcpOperationService nacosMcpOperationService;
+
+	private final NacosMcpGatewayProperties.SessionPool config;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<NacosMcpGatewaySessionKey, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	private final Map<String, EventListener> watchedServices = new ConcurrentHashMap<>();
+
+	private final Map<String, McpServiceRef> watchedServiceRefs = new ConcurrentHashMap<>();
+
+	private final AtomicInteger openSessions = new AtomicInteger();
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Timer sessionLifetime;
+
+	private final ScheduledExecutorService healthChecker;
+
+	private volatile boolean closed;
+
+	public NacosMcpGatewaySessionPool(NacosMcpOperationService nacosMcpOperationService,
+			NacosMcpGatewayProperties.SessionPool config, MeterRegistry meterRegistry) {
+		if (config == null) {
+			throw new IllegalArgumentException("Session pool config cannot be null");
+		}
+		this.nacosMcpOperationService = nacosMcpOperationService;
+		this.config = config;
+		this.meterRegistry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+		this.hits = Counter.builder("mcp.gateway.session.pool.requests")
+			.tag("result", "hit")
+			.register(this.meterRegistry);
+		this.misses = Counter.builder("mcp.gateway.session.pool.requests")
+			.tag("result", "miss")
+			.register(this.meterRegistry);
+		this.sessionLifetime = Timer.builder("mcp.gateway.session.lifetime").register(this.meterRegistry);
+		Gauge.builder("mcp.gateway.session.pool.open", openSessions, AtomicInteger::get)
+			.register(this.meterRegistry);
+		Gauge.builder("mcp.gateway.session.pool.oldest.age", this, NacosMcpGatewaySessionPool::oldestSessionAgeSeconds)
+			.baseUnit("seconds")
+			.register(this.meterRegistry);
+
+		Duration interval = config.getHealthCheckInterval();
+		if (interval != null && !interval.isZero() && !interval.isNegative()) {
+			this.healthChecker = new ScheduledThreadPoolExecutor(1, r -> {
+				Thread t = new Thread(r);
+				t.setName("nacos-mcp-gateway-session-pool");
+				t.setDaemon(true);
+				return t;
+			});
+			this.healthChecker.scheduleWithFixedDelay(this::maintainQuietly, interval.toMillis(), interval.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+		else {
+			this.healthChecker = null;
+		}
+	}
+
+	/**
+	 * Run a call on a pooled session of the endpoint, creating and initializing the
+	 * session on first use.
+	 * @param key the endpoint key
+	 * @param clientFactory creates the (not yet initialized) client of a new session
+	 * @param call the call to run on the initialized client
+	 * @param <T> result type
+	 * @return the call result
+	 */
+	public <T> Mono<T> execute(NacosMcpGatewaySessionKey key, Supplier<McpAsyncClient> clientFactory,
+			Function<McpAsyncClient, Mono<T>> call) {
+		return Mono.defer(() -> {
+			PooledSession session = acquire(key, clientFactory);
+			return session.initialized.then(Mono.defer(() -> call.apply(session.client))).doOnError(e -> {
+				if (isSessionFailure(e)) {
+					retire(session, "error");
+				}
+			}).doFinally(signal -> release(session));
+		});
+	}
+
+	/**
+	 * Evict sessions of instances that leave the given Nacos service. Subscribes once per
+	 * service; later calls are no-ops.
+	 * @param serviceRef the service behind an MCP server
+	 */
+	public void watch(McpServiceRef serviceRef) {
+		if (nacosMcpOperationService == null || serviceRef == null || closed) {
+			return;
+		}
+		String serviceKey = NacosMcpGatewaySessionKey.serviceKey(serviceRef);
+		if (watchedServices.containsKey(serviceKey)) {
+			return;
+		}
+		watchedServices.computeIfAbsent(serviceKey, k -> {
+			EventListener listener = event -> {
+				if (event instanceof NamingEvent namingEvent) {
+					onInstancesChanged(k, namingEvent.getInstances());
+				}
+			};
+			try {
+				nacosMcpOperationService.subscribeServiceInstances(serviceRef, listener);
+				watchedServiceRefs.put(k, serviceRef);
+				return listener;
+			}
+			catch (Exception e) {
+				logger.warn("[watch] Failed to subscribe instances of service: {}", k, e);
+				return null;
+			}
+		});
+	}
+
+	void onInstancesChanged(String serviceKey, List<Instance> instances) {
+		Set<String> live = new HashSet<>();
+		if (instances != null) {
+			for (Instance instance : instances) {
+				if (instance.isHealthy() && instance.isEnabled()) {
+					live.add(instance.getIp() + ":" + instance.getPort());
+				}
+			}
+		}
+		evict(key -> key.serviceKey().equals(serviceKey) && !live.contains(key.hostPort()), "endpoint-removed");
+	}
+
+	/**
+	 * Retire all sessions whose key matches the predicate.
+	 * @param predicate selects the endpoints to evict
+	 * @param reason eviction reason reported in metrics
+	 */
+	public void evict(Predicate<NacosMcpGatewaySessionKey> predicate, String reason) {
+		for (Map.Entry<NacosMcpGatewaySessionKey, Endpoint> entry : endpoints.entrySet()) {
+			if (!predicate.test(entry.getKey())) {
+				continue;
+			}
+			Endpoint endpoint = entry.getValue();
+			endpoints.remove(entry.getKey(), endpoint);
+			for (int i = 0; i < endpoint.sessions.length(); i++) {
+				PooledSession session = endpoint.sessions.get(i);
+				if (session != null) {
+					logger.info("[evict] Evicting MCP session of {} reason: {}", entry.getKey().baseUrl(), reason);
+					retire(session, reason);
+				}
+			}
+		}
+	}
+
+	public int getOpenSessions() {
+		return openSessions.get();
+	}
+
+	private PooledSession acquire(NacosMcpGatewaySessionKey key, Supplier<McpAsyncClient> clientFactory) {
+		if (closed) {
+			throw new IllegalStateException("MCP session pool is closed");
+		}
+		Endpoint endpoint = endpoints.computeIfAbsent(key,
+				k -> new Endpoint(Math.max(1, config.getSessionsPerEndpoint())));
+		int slot = Math.floorMod(endpoint.next.getAndIncrement(), endpoint.sessions.length());
+		PooledSession session = endpoint.sessions.get(slot);
+		if (session != null && tryAcquire(session)) {
+			hits.increment();
+			return session;
+		}
+		synchronized (endpoint) {
+			session = endpoint.sessions.get(slot);
+			if (session != null && tryAcquire(session)) {
+				hits.increment();
+				return session;
+			}
+			if (openSessions.get() >= config.getMaxSessions() && !evictIdlest()) {
+				// At capacity with every session busy: share a live session of this endpoint
+				for (int i = 0; i < endpoint.sessions.length(); i++) {
+					PooledSession candidate = endpoint.sessions.get(i);
+					if (candidate != null && tryAcquire(candidate)) {
+						hits.increment();
+						return candidate;
+					}
+				}
+				throw new IllegalStateException(
+						"MCP session pool exhausted, max sessions: " + config.getMaxSessions());
+			}
+			misses.increment();
+			logger.info("[acquire] Opening MCP session to {}{} ({})", key.baseUrl(), key.endpoint(), key.protocol());
+			session = new PooledSession(endpoint, slot, clientFactory.get());
+			session.inFlight.incrementAndGet();
+			endpoint.sessions.set(slot, session);
+			openSessions.incrementAndGet();
+			return session;
+		}
+	}
+
+	private boolean tryAcquire(PooledSession session) {
+		session.inFlight.incrementAndGet();
+		if (session.retired.get()) {
+			// Lost the race with an eviction; closes the client if the eviction left it open
+			release(session);
+			return false;
+		}
+		return true;
+	}
+
+	private void release(PooledSession session) {
+		session.lastUsed = System.nanoTime();
+		if (session.inFlight.decrementAndGet() == 0 && session.retired.get()) {
+			closeSession(session);
+		}
+	}
+
+	private void retire(PooledSession session, String reason) {
+		if (!session.retired.compareAndSet(false, true)) {
+			return;
+		}
+		session.endpoint.sessions.compareAndSet(session.slot, session, null);
+		openSessions.decrementAndGet();
+		meterRegistry.counter("mcp.gateway.session.pool.evictions", "reason", reason).increment();
+		if (session.inFlight.get() == 0) {
+			closeSession(session);
+		}
+	}
+
+	private void closeSession(PooledSession session) {
+		if (!session.closed.compareAndSet(false, true)) {
+			return;
+		}
+		sessionLifetime.record(System.nanoTime() - session.createdAt, TimeUnit.NANOSECONDS);
+		session.client.closeGracefully().timeout(timeoutOrDefault()).onErrorResume(e -> {
+			logger.debug("[closeSession] Graceful close failed, closing MCP client", e);
+			session.client.close();
+			return Mono.empty();
+		}).subscribe();
+	}
+
+	/**
+	 * Retire the least recently used idle session to make room for a new one.
+	 * @return whether a session was retired
+	 */
+	private boolean evictIdlest() {
+		PooledSession idlest = null;
+		for (Endpoint endpoint : endpoints.values()) {
+			for (int i = 0; i < endpoint.sessions.length(); i++) {
+				PooledSession session = endpoint.sessions.get(i);
+				if (session != null && session.inFlight.get() == 0
+						&& (idlest == null || session.lastUsed < idlest.lastUsed)) {
+					idlest = session;
+				}
+			}
+		}
+		if (idlest == null) {
+			return false;
+		}
+		retire(idlest, "capacity");
+		return true;
+	}
+
+	/**
+	 * Retire expired and idle sessions and ping the remaining idle ones.
+	 */
+	void maintain() {
+		long now = System.nanoTime();
+		long maxAge = nanos(config.getMaxSessionAge());
+		long maxIdle = nanos(config.getMaxIdleTime());
+		long checkInterval = nanos(config.getHealthCheckInterval());
+		for (Endpoint endpoint : endpoints.values()) {
+			for (int i = 0; i < endpoint.sessions.length(); i++) {
+				PooledSession session = endpoint.sessions.get(i);
+				if (session == null || session.inFlight.get() > 0) {
+					continue;
+				}
+				if (maxAge > 0 && now - session.createdAt >= maxAge) {
+					retire(session, "expired");
+				}
+				else if (maxIdle > 0 && now - session.lastUsed >= maxIdle) {
+					retire(session, "idle");
+				}
+				else if (checkInterval > 0 && session.client.isInitialized() && now - session.lastUsed >= checkInterval
+						&& now - session.lastChecked >= checkInterval) {
+					session.lastChecked = now;
+					session.client.ping()
+						.timeout(timeoutOrDefault())
+						.subscribe(result -> logger.debug("[maintain] MCP session healthy"), e -> {
+							logger.warn("[maintain] MCP session health check failed: {}", e.getMessage());
+							retire(session, "unhealthy");
+						});
+				}
+			}
+		}
+	}
+
+	private void maintainQuietly() {
+		try {
+			maintain();
+		}
+		catch (Exception e) {
+			logger.error("[maintain] MCP session pool maintenance failed", e);
+		}
+	}
+
+	private double oldestSessionAgeSeconds() {
+		long now = System.nanoTime();
+		long oldest = 0;
+		for (Endpoint endpoint : endpoints.values()) {
+			for (int i = 0; i < endpoint.sessions.length(); i++) {
+				PooledSession session = endpoint.sessions.get(i);
+				if (session != null) {
+					oldest = Math.max(oldest, now - session.createdAt);
+				}
+			}
+		}
+		return oldest / 1_000_000_000d;
+	}
+
+	/**
+	 * Errors returned by the upstream server as JSON-RPC errors leave the session usable;
+	 * anything else (transport failures, timeouts, failed initialization) retires it.
+	 */
+	private static boolean isSessionFailure(Throwable e) {
+		return !(e instanceof McpError mcpError) || mcpError.getJsonRpcError() == null;
+	}
+
+	private Duration timeoutOrDefault() {
+		Duration timeout = config.getHealthCheckTimeout();
+		return timeout != null && !timeout.isZero() && !timeout.isNegative() ? timeout : Duration.ofSeconds(5);
+	}
+
+	private static long nanos(Duration duration) {
+		return duration != null && !duration.isNegative() ? duration.toNanos() : 0;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		if (healthChecker != null) {
+			healthChecker.shutdownNow();
+		}
+		if (nacosMcpOperationService != null) {
+			for (Map.Entry<String, EventListener> entry : watchedServices.entrySet()) {
+				try {
+					nacosMcpOperationService.unsubscribeServiceInstances(watchedServiceRefs.get(entry.getKey()),
+							entry.getValue());
+				}
+				catch (Exception e) {
+					logger.warn("[close] Failed to unsubscribe instances of service: {}", entry.getKey(), e);
+				}
+			}
+		}
+		watchedServices.clear();
+		watchedServiceRefs.clear();
+		for (Endpoint endpoint : endpoints.values()) {
+			for (int i = 0; i < endpoint.sessions.length(); i++) {
+				PooledSession session = endpoint.sessions.get(i);
+				if (session != null) {
+					retire(session, "shutdown");
+					closeSession(session);
+				}
+			}
+		}
+		endpoints.clear();
+	}
+
+	private static final class Endpoint {
+
+		private final AtomicReferenceArray<PooledSession> sessions;
+
+		private final AtomicInteger next = new AtomicInteger();
+
+		private Endpoint(int size) {
+			this.sessions = new AtomicReferenceArray<>(size);
+		}
+
+	}
+
+	private static final class PooledSession {
+
+		private final Endpoint endpoint;
+
+		private final int slot;
+
+		private final McpAsyncClient client;
+
+		private final Mono<McpSchema.InitializeResult> initialized;
+
+		private final long createdAt = System.nanoTime();
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final AtomicBoolean retired = new AtomicBoolean();
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private volatile long lastUsed = createdAt;
+
+		private volatile long lastChecked = createdAt;
+
+		private PooledSession(Endpoint endpoint, int slot, McpAsyncClient client) {
+			this.endpoint = endpoint;
+			this.slot = slot;
+			this.client = client;
+			this.initialized = client.initialize().cache();
+		}
+
+	}
+
+}
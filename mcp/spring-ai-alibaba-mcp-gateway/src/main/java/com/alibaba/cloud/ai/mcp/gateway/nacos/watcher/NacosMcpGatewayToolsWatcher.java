@@ -95,9 +95,24 @@ public class NacosMcpGatewayToolsWatcher extends AbstractMcpGatewayToolsWatcher
 				}
 			}
 			serviceDetailInfoCache.remove(staleService);
+			nacosMcpOperationService.unsubscribeInstances(serviceRefOf(staleServerDetail));
 		}
 	}
 
+	private static McpServiceRef serviceRefOf(McpServerDetailInfo serverDetail) {
+		McpServerRemoteServiceConfig remoteServerConfig = serverDetail == null ? null
+				: serverDetail.getRemoteServerConfig();
+		return remoteServerConfig == null ? null : remoteServerConfig.getServiceRef();
+	}
+
+	private static boolean isSameServiceRef(McpServiceRef oldServiceRef, McpServiceRef newServiceRef) {
+		if (oldServiceRef == null || newServiceRef == null) {
+			return oldServiceRef == newServiceRef;
+		}
+		return StringUtils.equals(oldServiceRef.getServiceName(), newServiceRef.getServiceName())
+				&& StringUtils.equals(oldServiceRef.getGroupName(), newServiceRef.getGroupName());
+	}
+
 	@Override
 	public void handleChange() {
 		List<String> serviceNames = nacosMcpGatewayProperties.getServiceNames();
@@ -239,6 +254,11 @@ public class NacosMcpGatewayToolsWatcher extends AbstractMcpGatewayToolsWatcher
 			Set<String> needToDeleteTools = new HashSet<>();
 			Set<String> needToUpdateTools = new HashSet<>();
 			compareToolsChange(oldMcpServerDetail, mcpServerDetail, needToDeleteTools, needToUpdateTools);
+			McpServiceRef oldServiceRef = serviceRefOf(oldMcpServerDetail);
+			if (oldServiceRef != null && !isSameServiceRef(oldServiceRef, serviceRefOf(mcpServerDetail))) {
+				// The tools moved to another service, stop watching the instances of the old one
+				nacosMcpOperationService.unsubscribeInstances(oldServiceRef);
+			}
 
 			if (logger.isDebugEnabled()) {
 				logger.debug("Nacos mcp service info (name {}): {}", mcpName, JacksonUtils.toJson(mcpServerDetail));
@@ -255,12 +275,13 @@ public class NacosMcpGatewayToolsWatcher extends AbstractMcpGatewayToolsWatcher
 				Map<String, McpToolMeta> toolsMeta = toolSpec.getToolsMeta();
 				for (McpTool tool : tools) {
 					if (!needToUpdateTools.contains(tool.getName())) {
-						return;
+						continue;
 					}
 					String toolName = tool.getName();
 					String toolDescription = tool.getDescription();
 					Map<String, Object> inputSchema = tool.getInputSchema();
 					McpToolMeta metaInfo = toolsMeta.get(toolName);
+					// Adding the tool recompiles its invocation plan from the refreshed meta
 					NacosMcpGatewayToolDefinition toolDefinition = NacosMcpGatewayToolDefinition.builder()
 						.name(mcpServerDetail.getName() + "_tools_" + toolName)
 						.description(toolDescription)
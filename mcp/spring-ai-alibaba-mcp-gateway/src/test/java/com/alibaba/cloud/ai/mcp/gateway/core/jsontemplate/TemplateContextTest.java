@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CompiledTemplate} and {@link TemplateContext}.
+ */
+class TemplateContextTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void shouldSplitPlaceholderSegmentsAtCompileTime() {
+		CompiledTemplate template = CompiledTemplate.compile("Hi {{ .args.user.name }}, {{.}}");
+
+		CompiledTemplate.Placeholder[] placeholders = template.getPlaceholders();
+		assertEquals(2, placeholders.length);
+		assertArrayEquals(new String[] { "args", "user", "name" }, placeholders[0].getSegments());
+		assertTrue(placeholders[0].isArgs());
+		assertTrue(placeholders[1].isRoot());
+	}
+
+	@Test
+	void shouldRenderArgsAndResponsePaths() {
+		TemplateContext context = TemplateContext.of(Map.of("city", "Hangzhou"),
+				"{\"weather\": {\"temperature\": 25, \"detail\": {\"wind\": \"NE\"}}}", objectMapper);
+
+		assertEquals("Hangzhou: 25, NE, {wind=NE}, ",
+				context.render(CompiledTemplate.compile(
+						"{{.args.city}}: {{.weather.temperature}}, {{.weather.detail.wind}}, {{.weather.detail}}, {{.weather.missing}}")));
+		assertEquals("Hangzhou", context.render(CompiledTemplate.compile("{{.args}}")));
+	}
+
+	@Test
+	void shouldFallBackForNonJsonResponse() {
+		TemplateContext context = TemplateContext.of(Map.of(), "plain text", objectMapper);
+
+		assertEquals("[] [plain text] [plain text]",
+				context.render(CompiledTemplate.compile("[{{.data}}] [{{.extendedData}}] [{{.}}]")));
+	}
+
+	@Test
+	void shouldResolveLargeResponseWithStreamingPass() {
+		StringBuilder json = new StringBuilder("{\"padding\": [");
+		while (json.length() < TemplateContext.STREAMING_THRESHOLD) {
+			json.append("{\"ignored\": \"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\"},");
+		}
+		json.append("{}], \"data\": {\"name\": \"Alice\", \"age\": 30, \"ok\": true, \"ratio\": 0.5, "
+				+ "\"tags\": [\"a\", \"b\"], \"nested\": {\"k\": \"v\"}}}");
+		CompiledTemplate template = CompiledTemplate.compile(
+				"{{.data.name}} {{.data.age}} {{.data.ok}} {{.data.ratio}} {{.data.tags}} {{.data.nested}} {{.data.nested.k}} [{{.data.none}}]");
+
+		TemplateContext streamed = TemplateContext.of(Map.of(), json.toString(), objectMapper);
+		streamed.prefetch(template);
+
+		assertEquals("Alice 30 true 0.5 [a, b] {k=v} v []", streamed.render(template));
+	}
+
+	@Test
+	void shouldParseLargeResponseForPathsThatWereNotPrefetched() {
+		StringBuilder json = new StringBuilder("{\"padding\": [");
+		while (json.length() < TemplateContext.STREAMING_THRESHOLD) {
+			json.append("{\"ignored\": \"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\"},");
+		}
+		json.append("{}], \"data\": {\"name\": \"Alice\", \"age\": 30}}");
+		CompiledTemplate prefetched = CompiledTemplate.compile("{{.data.name}}");
+
+		TemplateContext context = TemplateContext.of(Map.of(), json.toString(), objectMapper);
+		context.prefetch(prefetched);
+
+		assertEquals("Alice", context.render(prefetched));
+		assertEquals("30 []", context.render(CompiledTemplate.compile("{{.data.age}} [{{.data.none}}]")));
+	}
+
+	@Test
+	void streamingResolverMatchesLastDuplicateKey() throws Exception {
+		Map<String, Object> values = StreamingJsonPathResolver.resolve(objectMapper,
+				"{\"a\": {\"b\": 1}, \"a\": {\"c\": 2}}",
+				List.of(new String[] { "a", "b" }, new String[] { "a", "c" }));
+
+		assertFalse(values.containsKey("a.b"));
+		assertEquals(2, values.get("a.c"));
+	}
+
+}
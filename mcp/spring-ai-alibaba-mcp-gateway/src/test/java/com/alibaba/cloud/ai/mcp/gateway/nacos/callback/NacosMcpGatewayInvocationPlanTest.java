@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.nacos.callback;
+
+import com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate.CompiledTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link NacosMcpGatewayInvocationPlan}.
+ */
+class NacosMcpGatewayInvocationPlanTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private Map<String, Object> jsonGoTemplate(String method) {
+		return Map.of("requestTemplate",
+				Map.of("url", "/users/{id}", "method", method, "headers",
+						List.of(Map.of("key", "X-Name", "value", "{{.args.name}}"))),
+				"argsPosition", Map.of("id", "path"), "responseTemplate", Map.of("body", "Hello {{.data.name}}"));
+	}
+
+	@Test
+	void compilesTemplateOnce() {
+		NacosMcpGatewayInvocationPlan plan = NacosMcpGatewayInvocationPlan.compile(jsonGoTemplate("get"),
+				objectMapper, WebClient.builder());
+
+		assertEquals(HttpMethod.GET, plan.getHttpMethod());
+		assertEquals("/users/{id}", plan.getRequestTemplateInfo().url);
+		assertTrue(plan.urlHasPathVariables());
+		assertSame(plan.template("{{.args.name}}"), plan.template("{{.args.name}}"));
+		assertSame(plan.template("Hello {{.data.name}}"), plan.template("Hello {{.data.name}}"));
+	}
+
+	@Test
+	void cachesWebClientPerBaseUrl() {
+		NacosMcpGatewayInvocationPlan plan = NacosMcpGatewayInvocationPlan.compile(jsonGoTemplate("POST"),
+				objectMapper, WebClient.builder());
+
+		WebClient first = plan.webClient("http://127.0.0.1:8080");
+		assertSame(first, plan.webClient("http://127.0.0.1:8080"));
+		assertNotSame(first, plan.webClient("http://127.0.0.2:8080"));
+	}
+
+	@Test
+	void rejectsMissingMethod() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> NacosMcpGatewayInvocationPlan.compile(jsonGoTemplate(""), objectMapper, WebClient.builder()));
+		assertEquals("URL and method are required in requestTemplate", e.getMessage());
+	}
+
+	@Test
+	void compiledTemplateRendersTokens() {
+		CompiledTemplate template = CompiledTemplate.compile("a={{ .args.a }}, b={{.args.b}}!");
+		assertTrue(template.hasPlaceholders());
+		assertEquals("a=.args.a, b=.args.b!", template.render(CompiledTemplate.Placeholder::getPath));
+
+		CompiledTemplate literal = CompiledTemplate.compile("plain text");
+		assertFalse(literal.hasPlaceholders());
+		assertEquals("plain text", literal.render(path -> "x"));
+	}
+
+}
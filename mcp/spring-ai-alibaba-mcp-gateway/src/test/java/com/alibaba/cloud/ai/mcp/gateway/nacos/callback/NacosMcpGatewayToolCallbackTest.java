@@ -19,7 +19,10 @@ package com.alibaba.cloud.ai.mcp.gateway.nacos.callback;
 import com.alibaba.cloud.ai.mcp.gateway.core.utils.SpringBeanUtils;
 import com.alibaba.cloud.ai.mcp.gateway.nacos.definition.NacosMcpGatewayToolDefinition;
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpServerRemoteServiceConfig;
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -28,13 +31,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 
 /**
  * Tests for NacosMcpGatewayToolCallback response template processing
@@ -49,7 +61,11 @@ class NacosMcpGatewayToolCallbackTest {
 	@BeforeEach
 	void setUp() {
 		applicationContext = new GenericApplicationContext();
-		applicationContext.registerBean(WebClient.Builder.class, WebClient::builder);
+		applicationContext.registerBean(WebClient.Builder.class,
+				() -> WebClient.builder().exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body("{\"name\":\"nacos\"}")
+					.build())));
 		applicationContext.registerBean(NacosMcpOperationService.class, () -> Mockito.mock(NacosMcpOperationService.class));
 		applicationContext.refresh();
 		SpringBeanUtils.getInstance().setApplicationContext(applicationContext);
@@ -88,4 +104,82 @@ class NacosMcpGatewayToolCallbackTest {
 		assertEquals(response, result);
 	}
 
+	private NacosMcpGatewayToolCallback httpTool(String responseBody) {
+		McpServiceRef serviceRef = new McpServiceRef();
+		serviceRef.setServiceName("weather");
+		serviceRef.setGroupName("DEFAULT_GROUP");
+		McpServerRemoteServiceConfig remoteServerConfig = new McpServerRemoteServiceConfig();
+		remoteServerConfig.setServiceRef(serviceRef);
+		McpToolMeta toolMeta = new McpToolMeta();
+		toolMeta.setTemplates(Map.of("json-go-template",
+				Map.of("requestTemplate", Map.of("url", "/weather", "method", "GET"), "responseTemplate",
+						Map.of("body", responseBody))));
+		NacosMcpGatewayToolDefinition definition = new NacosMcpGatewayToolDefinition();
+		definition.setName("weather_tools_today");
+		definition.setDescription("test tool");
+		definition.setProtocol("http");
+		definition.setRemoteServerConfig(remoteServerConfig);
+		definition.setToolMeta(toolMeta);
+		return new NacosMcpGatewayToolCallback(definition);
+	}
+
+	private NacosMcpOperationService operationService(List<String> selectingThreads) throws Exception {
+		NacosMcpOperationService service = applicationContext.getBean(NacosMcpOperationService.class);
+		Mockito.when(service.selectEndpoint(any())).thenAnswer(invocation -> {
+			selectingThreads.add(Thread.currentThread().getName());
+			McpEndpointInfo endpoint = new McpEndpointInfo();
+			endpoint.setAddress("127.0.0.1");
+			endpoint.setPort(8080);
+			return endpoint;
+		});
+		return service;
+	}
+
+	@Test
+	void selectsEndpointOnCallerThreadWhenSnapshotHasInstances() throws Exception {
+		List<String> selectingThreads = new CopyOnWriteArrayList<>();
+		NacosMcpOperationService service = operationService(selectingThreads);
+		Mockito.when(service.canSelectFromSnapshot(any())).thenReturn(true);
+
+		String result = httpTool("Hello {{.name}}").callAsync("{}", null).block();
+
+		assertEquals("Hello nacos", result);
+		assertEquals(List.of(Thread.currentThread().getName()), selectingThreads);
+	}
+
+	@Test
+	void selectsEndpointOffCallerThreadWithoutSnapshot() throws Exception {
+		List<String> selectingThreads = new CopyOnWriteArrayList<>();
+		NacosMcpOperationService service = operationService(selectingThreads);
+		Mockito.when(service.canSelectFromSnapshot(any())).thenReturn(false);
+
+		String result = httpTool("Hello {{.name}}").callAsync("{}", null).block();
+
+		assertEquals("Hello nacos", result);
+		assertEquals(1, selectingThreads.size());
+		assertTrue(selectingThreads.get(0).startsWith("boundedElastic"), selectingThreads.get(0));
+	}
+
+	@Test
+	void subscribesTemplateConfigsOnceOffCallerThread() throws Exception {
+		List<String> subscribingThreads = new CopyOnWriteArrayList<>();
+		NacosMcpOperationService service = operationService(new CopyOnWriteArrayList<>());
+		Mockito.when(service.canSelectFromSnapshot(any())).thenReturn(true);
+		Mockito.doAnswer(invocation -> subscribingThreads.add(Thread.currentThread().getName()))
+			.when(service)
+			.subscribeConfig("units", "DEFAULT_GROUP");
+		Mockito.when(service.getConfigSnapshot("units", "DEFAULT_GROUP")).thenReturn("{\"temperature\":\"C\"}");
+		NacosMcpGatewayToolCallback callback = httpTool("{{.name}} in {{ ${nacos.units/DEFAULT_GROUP}.temperature }}");
+
+		assertEquals("nacos in C", callback.callAsync("{}", null).block());
+		assertEquals("nacos in C", callback.callAsync("{}", null).block());
+
+		Mockito.verify(service, Mockito.times(1)).subscribeConfig("units", "DEFAULT_GROUP");
+		Mockito.verify(service, Mockito.times(2)).getConfigSnapshot("units", "DEFAULT_GROUP");
+		assertTrue(subscribingThreads.get(0).startsWith("boundedElastic"), subscribingThreads.get(0));
+
+		callback.close();
+		Mockito.verify(service).unsubscribeConfig("units", "DEFAULT_GROUP");
+	}
+
 }
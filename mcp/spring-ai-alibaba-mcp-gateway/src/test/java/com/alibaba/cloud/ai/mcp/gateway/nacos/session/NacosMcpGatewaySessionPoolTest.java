@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.nacos.session;
+
+import com.alibaba.cloud.ai.mcp.gateway.nacos.properties.NacosMcpGatewayProperties;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link NacosMcpGatewaySessionPool}.
+ */
+class NacosMcpGatewaySessionPoolTest {
+
+	private static final NacosMcpGatewaySessionKey KEY = new NacosMcpGatewaySessionKey("public/DEFAULT_GROUP/weather",
+			"mcp-sse", "10.0.0.1", 8080, "/sse");
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final List<McpAsyncClient> clients = new ArrayList<>();
+
+	private final Supplier<McpAsyncClient> clientFactory = () -> {
+		McpAsyncClient client = mock(McpAsyncClient.class);
+		when(client.initialize()).thenReturn(Mono.just(new McpSchema.InitializeResult("2024-11-05", null, null, null)));
+		when(client.closeGracefully()).thenReturn(Mono.empty());
+		clients.add(client);
+		return client;
+	};
+
+	private NacosMcpGatewayProperties.SessionPool config;
+
+	private NacosMcpGatewaySessionPool pool;
+
+	@BeforeEach
+	void setUp() {
+		config = new NacosMcpGatewayProperties.SessionPool();
+		config.setHealthCheckInterval(Duration.ZERO);
+		pool = new NacosMcpGatewaySessionPool(null, config, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void reusesInitializedSessionAcrossCalls() {
+		assertEquals("a", pool.execute(KEY, clientFactory, client -> Mono.just("a")).block());
+		assertEquals("b", pool.execute(KEY, clientFactory, client -> Mono.just("b")).block());
+
+		assertEquals(1, clients.size());
+		verify(clients.get(0), times(1)).initialize();
+		assertEquals(1.0, meterRegistry.get("mcp.gateway.session.pool.requests").tag("result", "hit").counter().count());
+		assertEquals(1.0, meterRegistry.get("mcp.gateway.session.pool.requests").tag("result", "miss").counter().count());
+		assertEquals(1.0, meterRegistry.get("mcp.gateway.session.pool.open").gauge().value());
+	}
+
+	@Test
+	void retiresSessionOnTransportFailure() {
+		assertThrows(RuntimeException.class,
+				() -> pool.execute(KEY, clientFactory, client -> Mono.error(new RuntimeException("reset"))).block());
+		pool.execute(KEY, clientFactory, client -> Mono.just("ok")).block();
+
+		assertEquals(2, clients.size());
+		verify(clients.get(0)).closeGracefully();
+		assertEquals(1.0,
+				meterRegistry.get("mcp.gateway.session.pool.evictions").tag("reason", "error").counter().count());
+	}
+
+	@Test
+	void keepsSessionOnJsonRpcError() {
+		McpError error = new McpError(new McpSchema.JSONRPCResponse.JSONRPCError(-32602, "bad params", null));
+		assertThrows(McpError.class, () -> pool.execute(KEY, clientFactory, client -> Mono.error(error)).block());
+		pool.execute(KEY, clientFactory, client -> Mono.just("ok")).block();
+
+		assertEquals(1, clients.size());
+		verify(clients.get(0), never()).closeGracefully();
+	}
+
+	@Test
+	void evictsSessionsOfRemovedInstances() {
+		pool.execute(KEY, clientFactory, client -> Mono.just("ok")).block();
+
+		Instance other = new Instance();
+		other.setIp("10.0.0.2");
+		other.setPort(8080);
+		pool.onInstancesChanged(KEY.serviceKey(), List.of(other));
+
+		assertEquals(0, pool.getOpenSessions());
+		verify(clients.get(0)).closeGracefully();
+	}
+
+	@Test
+	void evictsIdlestSessionAtCapacity() {
+		config.setMaxSessions(1);
+		NacosMcpGatewaySessionKey otherKey = new NacosMcpGatewaySessionKey(KEY.serviceKey(), "mcp-sse", "10.0.0.2",
+				8080, "/sse");
+		pool.execute(KEY, clientFactory, client -> Mono.just("ok")).block();
+		pool.execute(otherKey, clientFactory, client -> Mono.just("ok")).block();
+
+		assertEquals(1, pool.getOpenSessions());
+		verify(clients.get(0)).closeGracefully();
+	}
+
+	@Test
+	void retiresExpiredSessionsOnMaintenance() {
+		config.setMaxSessionAge(Duration.ofNanos(1));
+		pool.execute(KEY, clientFactory, client -> Mono.just("ok")).block();
+
+		pool.maintain();
+
+		assertEquals(0, pool.getOpenSessions());
+		assertEquals(1, meterRegistry.get("mcp.gateway.session.lifetime").timer().count());
+	}
+
+}
@@ -24,6 +24,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.env.Environment;
 
+import java.time.Duration;
+
 /**
  * @author Sunrisea
  */
@@ -48,6 +50,12 @@ public class NacosMcpRegisterProperties {
 
 	boolean serviceEphemeral = true;
 
+	/**
+	 * Window in which tool updates pushed by Nacos are coalesced into one update of the
+	 * local tools, zero to apply every update immediately.
+	 */
+	Duration toolsUpdateDebounce = Duration.ofMillis(500);
+
 	@Autowired
 	@JsonIgnore
 	private Environment environment;
@@ -68,6 +76,14 @@ public class NacosMcpRegisterProperties {
 		this.serviceEphemeral = serviceEphemeral;
 	}
 
+	public Duration getToolsUpdateDebounce() {
+		return toolsUpdateDebounce;
+	}
+
+	public void setToolsUpdateDebounce(Duration toolsUpdateDebounce) {
+		this.toolsUpdateDebounce = toolsUpdateDebounce;
+	}
+
 	public String getSseExportContextPath() {
 		return sseExportContextPath;
 	}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.register;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Applies the tool descriptions maintained in Nacos to the tools of the local MCP
+ * server.
+ *
+ * <p>
+ * Every Nacos event carries the full server detail, so events arriving within the
+ * debounce window are coalesced and only the latest one is applied. The change set is
+ * computed in one pass over the local tools: a tool is only compared with its Nacos
+ * counterpart when the Nacos content hash or the local specification changed since the
+ * last update, and all changed tools are swapped into the server's tool list with a
+ * single copy, followed by one change notification.
+ *
+ * @param <T> the tool specification type of the MCP server
+ */
+final class NacosMcpToolsUpdater<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(NacosMcpToolsUpdater.class);
+
+	private final List<T> tools;
+
+	private final Function<T, McpSchema.Tool> toolOf;
+
+	private final BiFunction<T, McpSchema.Tool, T> withTool;
+
+	private final Runnable onChanged;
+
+	private final Duration debounce;
+
+	private final AtomicReference<McpServerDetailInfo> pending = new AtomicReference<>();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private Map<String, Applied<T>> applied = new HashMap<>();
+
+	private Map<String, McpToolMeta> toolsMeta = new HashMap<>();
+
+	/**
+	 * @param tools the live tool list of the MCP server
+	 * @param toolOf the tool of a specification
+	 * @param withTool a copy of a specification with another tool and the same handler
+	 * @param onChanged invoked once after an update changed the tools or their meta
+	 * @param debounce window in which Nacos events are coalesced, zero or {@code null} to
+	 * apply every event immediately
+	 */
+	NacosMcpToolsUpdater(List<T> tools, Function<T, McpSchema.Tool> toolOf, BiFunction<T, McpSchema.Tool, T> withTool,
+			Runnable onChanged, Duration debounce) {
+		this.tools = tools;
+		this.toolOf = toolOf;
+		this.withTool = withTool;
+		this.onChanged = onChanged;
+		this.debounce = debounce != null && !debounce.isNegative() ? debounce : Duration.ZERO;
+	}
+
+	/**
+	 * Apply the server detail received from Nacos once the debounce window has passed,
+	 * unless a newer one arrives in the meantime.
+	 */
+	void submit(McpServerDetailInfo serverDetailInfo) {
+		if (this.debounce.isZero()) {
+			update(serverDetailInfo);
+			return;
+		}
+		this.pending.set(serverDetailInfo);
+		if (this.scheduled.compareAndSet(false, true)) {
+			Schedulers.boundedElastic().schedule(this::flush, this.debounce.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void flush() {
+		this.scheduled.set(false);
+		McpServerDetailInfo serverDetailInfo = this.pending.getAndSet(null);
+		if (serverDetailInfo != null) {
+			update(serverDetailInfo);
+		}
+	}
+
+	/**
+	 * Apply the server detail immediately.
+	 * @return whether the local tools or their meta changed
+	 */
+	synchronized boolean update(McpServerDetailInfo serverDetailInfo) {
+		try {
+			McpToolSpecification toolSpec = serverDetailInfo.getToolSpec();
+			if (toolSpec == null) {
+				log.info("[Nacos MCP Register] Mcp server tools in nacos is null, skip local mcp server tools update");
+				return false;
+			}
+			boolean changed = compareToolsMeta(toolSpec.getToolsMeta());
+			this.toolsMeta = toolSpec.getToolsMeta();
+
+			Map<String, McpSchema.Tool> toolsInNacos = new HashMap<>();
+			if (toolSpec.getTools() != null) {
+				List<McpSchema.Tool> tools = JacksonUtils.toObj(JacksonUtils.toJson(toolSpec.getTools()),
+						new TypeReference<>() {
+						});
+				for (McpSchema.Tool tool : tools) {
+					toolsInNacos.put(tool.name(), tool);
+				}
+			}
+
+			Map<String, Applied<T>> nextApplied = new HashMap<>();
+			Map<String, T> replacements = new HashMap<>();
+			for (T spec : this.tools) {
+				String name = toolOf.apply(spec).name();
+				McpSchema.Tool toolInNacos = toolsInNacos.get(name);
+				if (toolInNacos == null) {
+					continue;
+				}
+				int hash = Objects.hash(toolInNacos.description(), toolInNacos.inputSchema());
+				Applied<T> previous = this.applied.get(name);
+				if (previous != null && previous.hash() == hash && previous.spec() == spec) {
+					nextApplied.put(name, previous);
+					continue;
+				}
+				McpSchema.Tool updatedTool = updatedTool(toolOf.apply(spec), toolInNacos);
+				T current = spec;
+				if (updatedTool != null) {
+					current = withTool.apply(spec, updatedTool);
+					replacements.put(name, current);
+				}
+				nextApplied.put(name, new Applied<>(hash, current));
+			}
+			this.applied = nextApplied;
+
+			if (!replacements.isEmpty()) {
+				this.tools.replaceAll(spec -> replacements.getOrDefault(toolOf.apply(spec).name(), spec));
+				log.info("[Nacos MCP Register] Update tool description for {} tools: {}", replacements.size(),
+						replacements.keySet());
+				changed = true;
+			}
+			if (changed) {
+				log.info("[Nacos MCP Register] Update tool description finished");
+				this.onChanged.run();
+			}
+			return changed;
+		}
+		catch (Exception e) {
+			log.error("[Nacos MCP Register] Failed to update local tools according to nacos", e);
+			return false;
+		}
+	}
+
+	/**
+	 * The local tool with the descriptions from Nacos, or {@code null} if they already
+	 * match.
+	 */
+	@SuppressWarnings("unchecked")
+	static McpSchema.Tool updatedTool(McpSchema.Tool localTool, McpSchema.Tool toolInNacos) {
+		boolean changed = localTool.description() != null
+				&& !localTool.description().equals(toolInNacos.description());
+
+		Map<String, Object> localInputSchemaMap = JacksonUtils.toObj(JacksonUtils.toJson(localTool.inputSchema()),
+				new TypeReference<>() {
+				});
+		Map<String, Object> nacosInputSchemaMap = JacksonUtils.toObj(JacksonUtils.toJson(toolInNacos.inputSchema()),
+				new TypeReference<>() {
+				});
+		Map<String, Object> localProperties = (Map<String, Object>) localInputSchemaMap.get("properties");
+		Map<String, Object> nacosProperties = (Map<String, Object>) nacosInputSchemaMap.get("properties");
+		if (localProperties != null && nacosProperties != null) {
+			for (Map.Entry<String, Object> entry : localProperties.entrySet()) {
+				Map<String, Object> nacosProperty = (Map<String, Object>) nacosProperties.get(entry.getKey());
+				if (nacosProperty == null) {
+					continue;
+				}
+				Map<String, Object> localProperty = (Map<String, Object>) entry.getValue();
+				String nacosDescription = (String) nacosProperty.get("description");
+				if (nacosDescription != null && !nacosDescription.equals(localProperty.get("description"))) {
+					localProperty.put("description", nacosDescription);
+					changed = true;
+				}
+			}
+		}
+		if (!changed) {
+			return null;
+		}
+		McpSchema.JsonSchema localInputSchema = localTool.inputSchema();
+		McpSchema.JsonSchema inputSchema = new McpSchema.JsonSchema("object", localProperties,
+				localInputSchema.required(), localInputSchema.additionalProperties(), localInputSchema.defs(),
+				localInputSchema.definitions());
+		return new McpSchema.Tool.Builder().name(localTool.name())
+			.description(toolInNacos.description())
+			.inputSchema(inputSchema)
+			.outputSchema(localTool.outputSchema())
+			.title(localTool.title())
+			.annotations(localTool.annotations())
+			.meta(localTool.meta())
+			.build();
+	}
+
+	private boolean compareToolsMeta(Map<String, McpToolMeta> toolsMeta) {
+		if (this.toolsMeta == null || toolsMeta == null) {
+			return this.toolsMeta != toolsMeta;
+		}
+		if (!this.toolsMeta.keySet().equals(toolsMeta.keySet())) {
+			return true;
+		}
+		for (Map.Entry<String, McpToolMeta> entry : toolsMeta.entrySet()) {
+			if (this.toolsMeta.get(entry.getKey()).isEnabled() != entry.getValue().isEnabled()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The Nacos content hash a local tool was last compared with, and the specification
+	 * that is in the server's tool list since.
+	 */
+	private record Applied<T>(int hash, T spec) {
+	}
+
+}
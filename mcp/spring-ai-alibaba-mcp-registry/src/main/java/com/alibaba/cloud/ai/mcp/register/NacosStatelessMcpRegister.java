@@ -27,7 +27,6 @@ import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpServerRemoteServiceConfig;
 import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
 import com.alibaba.nacos.api.ai.model.mcp.McpTool;
-import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
 import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
 import com.alibaba.nacos.api.ai.model.mcp.registry.ServerVersionDetail;
 import com.alibaba.nacos.api.exception.NacosException;
@@ -51,7 +50,6 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,7 +72,7 @@ public class NacosStatelessMcpRegister implements ApplicationListener<WebServerI
 
     private CopyOnWriteArrayList<McpStatelessServerFeatures.AsyncToolSpecification> tools;
 
-    private Map<String, McpToolMeta> toolsMeta;
+    private NacosMcpToolsUpdater<McpStatelessServerFeatures.AsyncToolSpecification> toolsUpdater;
 
     private McpSchema.ServerCapabilities serverCapabilities;
 
@@ -121,7 +119,10 @@ public class NacosStatelessMcpRegister implements ApplicationListener<WebServerI
             toolsField.setAccessible(true);
             this.tools = (CopyOnWriteArrayList<McpStatelessServerFeatures.AsyncToolSpecification>) toolsField.get(
                     this.mcpStatelessAsyncServer);
-            this.toolsMeta = new HashMap<>();
+            this.toolsUpdater = new NacosMcpToolsUpdater<>(this.tools,
+                    McpStatelessServerFeatures.AsyncToolSpecification::tool,
+                    (spec, tool) -> new McpStatelessServerFeatures.AsyncToolSpecification(tool, spec.callHandler()),
+                    this::notifyToolsChanged, this.nacosMcpRegistryProperties.getToolsUpdateDebounce());
 
             McpServerDetailInfo serverDetailInfo = null;
             try {
@@ -147,7 +148,7 @@ public class NacosStatelessMcpRegister implements ApplicationListener<WebServerI
                 }
                 this.serverDetailInfo = serverDetailInfo;
                 if (this.serverCapabilities.tools() != null) {
-                    updateTools(serverDetailInfo);
+                    this.toolsUpdater.update(serverDetailInfo);
                 }
                 subscribe();
                 this.success = true;
@@ -250,109 +251,11 @@ public class NacosStatelessMcpRegister implements ApplicationListener<WebServerI
                             this.serverInfo.version());
                     if (this.serverCapabilities.tools() != null) {
                         this.serverDetailInfo = mcpServerDetailInfo;
-                        updateTools(mcpServerDetailInfo);
+                        this.toolsUpdater.submit(mcpServerDetailInfo);
                     }
                 });
     }
 
-    private void updateToolDescription(McpStatelessServerFeatures.AsyncToolSpecification localToolRegistration,
-            McpSchema.Tool toolInNacos,
-            List<McpStatelessServerFeatures.AsyncToolSpecification> toolsRegistrationNeedToUpdate) {
-        Boolean changed = false;
-        if (localToolRegistration.tool().description() != null && !localToolRegistration.tool().description()
-                .equals(toolInNacos.description())) {
-            changed = true;
-        }
-        String localInputSchemaString = JacksonUtils.toJson(localToolRegistration.tool().inputSchema());
-        Map<String, Object> localInputSchemaMap = JacksonUtils.toObj(localInputSchemaString, new TypeReference<>() {
-        });
-        Map<String, Object> localProperties = (Map<String, Object>) localInputSchemaMap.get("properties");
-
-        String nacosInputSchemaString = JacksonUtils.toJson(toolInNacos.inputSchema());
-        Map<Object, Object> nacosInputSchemaMap = JacksonUtils.toObj(nacosInputSchemaString, new TypeReference<>() {
-        });
-        Map<String, Object> nacosProperties = (Map<String, Object>) nacosInputSchemaMap.get("properties");
-
-        for (String key : localProperties.keySet()) {
-            if (nacosProperties.containsKey(key)) {
-                Map<String, Object> localProperty = (Map<String, Object>) localProperties.get(key);
-                Map<String, Object> nacosProperty = (Map<String, Object>) nacosProperties.get(key);
-                String localDescription = (String) localProperty.get("description");
-                String nacosDescription = (String) nacosProperty.get("description");
-                if (nacosDescription != null && !nacosDescription.equals(localDescription)) {
-                    localProperty.put("description", nacosDescription);
-                    changed = true;
-                }
-            }
-        }
-
-        McpSchema.JsonSchema inputSchema = new McpSchema.JsonSchema("object", localInputSchemaMap, localToolRegistration.tool().inputSchema()
-                .required(), localToolRegistration.tool().inputSchema().additionalProperties(), localToolRegistration.tool().inputSchema().defs(),
-                localToolRegistration.tool().inputSchema().definitions());
-        if (changed) {
-            McpSchema.Tool toolNeededUpdate = new McpSchema.Tool.Builder().name(localToolRegistration.tool().name())
-                    .description(toolInNacos.description()).inputSchema(inputSchema)
-                    .outputSchema(localToolRegistration.tool().outputSchema())
-                    .title(localToolRegistration.tool().title())
-                    .annotations(localToolRegistration.tool().annotations())
-                    .meta(localToolRegistration.tool().meta())
-                    .build();
-            toolsRegistrationNeedToUpdate.add(new McpStatelessServerFeatures.AsyncToolSpecification(toolNeededUpdate,
-                    localToolRegistration.callHandler()));
-        }
-
-    }
-
-    private void updateTools(McpServerDetailInfo mcpServerDetailInfo) {
-        try {
-            boolean changed = false;
-            McpToolSpecification toolSpec = mcpServerDetailInfo.getToolSpec();
-            if (toolSpec == null) {
-                log.info("[Nacos MCP Register] Mcp server tools in nacos is null, skip local mcp server tools update");
-                return;
-            }
-            String toolsInNacosStr = JacksonUtils.toJson(toolSpec.getTools());
-            List<McpSchema.Tool> toolsInNacos = JacksonUtils.toObj(toolsInNacosStr, new TypeReference<>() {
-            });
-            changed = compareToolsMeta(toolSpec.getToolsMeta());
-            this.toolsMeta = toolSpec.getToolsMeta();
-            List<McpStatelessServerFeatures.AsyncToolSpecification> toolsRegistrationNeedToUpdate = new ArrayList<>();
-            Map<String, McpSchema.Tool> toolsInNacosMap = toolsInNacos.stream()
-                    .collect(Collectors.toMap(McpSchema.Tool::name, tool -> tool));
-            for (McpStatelessServerFeatures.AsyncToolSpecification toolRegistration : this.tools) {
-                String name = toolRegistration.tool().name();
-                if (!toolsInNacosMap.containsKey(name)) {
-                    continue;
-                }
-                McpSchema.Tool toolInNacos = toolsInNacosMap.get(name);
-                updateToolDescription(toolRegistration, toolInNacos, toolsRegistrationNeedToUpdate);
-            }
-            if (toolsRegistrationNeedToUpdate.size() > 0) {
-                log.info("[Nacos MCP Register] Update tool description for {} tools",
-                        toolsRegistrationNeedToUpdate.size());
-            }
-            for (McpStatelessServerFeatures.AsyncToolSpecification toolRegistration : toolsRegistrationNeedToUpdate) {
-                for (int i = 0; i < this.tools.size(); i++) {
-                    if (this.tools.get(i).tool().name().equals(toolRegistration.tool().name())) {
-                        this.tools.set(i, toolRegistration);
-                        log.info("[Nacos MCP Register] Update tool description for tool {}",
-                                toolRegistration.tool().name());
-                        changed = true;
-                        break;
-                    }
-                }
-            }
-            if (changed) {
-                log.info("[Nacos MCP Register] Update tool description finished");
-            }
-            if (changed && this.serverCapabilities.tools().listChanged()) {
-                this.notifyToolsChanged();
-            }
-        } catch (Exception e) {
-            log.error("[Nacos MCP Register] Failed to update local tools according to nacos", e);
-        }
-    }
-
     public void notifyToolsChanged() {
         return;
     }
@@ -465,23 +368,4 @@ public class NacosStatelessMcpRegister implements ApplicationListener<WebServerI
                 + this.serverInfo.version() : this.nacosMcpRegistryProperties.getServiceName();
     }
 
-    private boolean compareToolsMeta(Map<String, McpToolMeta> toolsMeta) {
-        boolean changed = false;
-        if (this.toolsMeta == null && toolsMeta != null || this.toolsMeta != null && toolsMeta == null) {
-            return true;
-        } else if (this.toolsMeta == null) {
-            return false;
-        }
-        if (!this.toolsMeta.keySet().equals(toolsMeta.keySet())) {
-            return true;
-        }
-        for (String toolName : toolsMeta.keySet()) {
-            if (this.toolsMeta.get(toolName).isEnabled() != toolsMeta.get(toolName).isEnabled()) {
-                changed = true;
-                break;
-            }
-        }
-        return changed;
-    }
-
 }
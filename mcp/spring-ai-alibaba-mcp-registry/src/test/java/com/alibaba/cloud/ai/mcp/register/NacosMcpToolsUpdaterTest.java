@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.register;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link NacosMcpToolsUpdater}.
+ */
+class NacosMcpToolsUpdaterTest {
+
+	private static final String SCHEMA = """
+			{"type": "object", "properties": {"city": {"type": "string", "description": "%s"}}}""";
+
+	private final CopyOnWriteArrayList<McpServerFeatures.AsyncToolSpecification> tools = new CopyOnWriteArrayList<>(
+			List.of(spec("weather", "local weather", "local city"), spec("time", "local time", "local zone")));
+
+	private final AtomicInteger changes = new AtomicInteger();
+
+	private NacosMcpToolsUpdater<McpServerFeatures.AsyncToolSpecification> updater(Duration debounce) {
+		return new NacosMcpToolsUpdater<>(tools, McpServerFeatures.AsyncToolSpecification::tool,
+				(spec, tool) -> new McpServerFeatures.AsyncToolSpecification(tool, spec.call(), spec.callHandler()),
+				changes::incrementAndGet, debounce);
+	}
+
+	@Test
+	void appliesNacosDescriptionsOnlyWhenTheyChange() {
+		NacosMcpToolsUpdater<McpServerFeatures.AsyncToolSpecification> updater = updater(Duration.ZERO);
+		McpServerFeatures.AsyncToolSpecification time = tools.get(1);
+
+		assertTrue(updater.update(detail("nacos weather", "nacos city", null)));
+		McpSchema.Tool weather = tools.get(0).tool();
+		assertEquals("nacos weather", weather.description());
+		assertEquals(Map.of("type", "string", "description", "nacos city"), weather.inputSchema().properties().get("city"));
+		assertSame(time, tools.get(1));
+		assertEquals(1, changes.get());
+
+		McpServerFeatures.AsyncToolSpecification updated = tools.get(0);
+		assertFalse(updater.update(detail("nacos weather", "nacos city", null)));
+		assertSame(updated, tools.get(0));
+		assertEquals(1, changes.get());
+	}
+
+	@Test
+	void reportsToolsMetaChanges() {
+		NacosMcpToolsUpdater<McpServerFeatures.AsyncToolSpecification> updater = updater(Duration.ZERO);
+		updater.update(detail("local weather", "local city", Map.of()));
+		assertEquals(0, changes.get());
+
+		McpToolMeta meta = new McpToolMeta();
+		meta.setEnabled(false);
+		assertTrue(updater.update(detail("local weather", "local city", Map.of("weather", meta))));
+		assertEquals(1, changes.get());
+	}
+
+	@Test
+	void coalescesBurstsWithinDebounceWindow() throws InterruptedException {
+		NacosMcpToolsUpdater<McpServerFeatures.AsyncToolSpecification> updater = updater(Duration.ofMillis(100));
+		updater.submit(detail("v1", "c1", null));
+		updater.submit(detail("v2", "c2", null));
+		updater.submit(detail("v3", "c3", null));
+		assertEquals("local weather", tools.get(0).tool().description());
+
+		for (int i = 0; i < 100 && changes.get() == 0; i++) {
+			Thread.sleep(20);
+		}
+		Thread.sleep(200);
+		assertEquals(1, changes.get());
+		assertEquals("v3", tools.get(0).tool().description());
+	}
+
+	private static McpServerFeatures.AsyncToolSpecification spec(String name, String description,
+			String propertyDescription) {
+		McpSchema.Tool tool = new McpSchema.Tool(name, description, SCHEMA.formatted(propertyDescription));
+		return new McpServerFeatures.AsyncToolSpecification(tool,
+				(exchange, arguments) -> Mono.just(new McpSchema.CallToolResult("ok", false)));
+	}
+
+	private static McpServerDetailInfo detail(String description, String propertyDescription,
+			Map<String, McpToolMeta> toolsMeta) {
+		McpTool weather = new McpTool();
+		weather.setName("weather");
+		weather.setDescription(description);
+		weather.setInputSchema(Map.of("type", "object", "properties",
+				Map.of("city", Map.of("type", "string", "description", propertyDescription))));
+		McpToolSpecification toolSpec = new McpToolSpecification();
+		toolSpec.setTools(List.of(weather));
+		toolSpec.setToolsMeta(toolsMeta);
+		McpServerDetailInfo detail = new McpServerDetailInfo();
+		detail.setToolSpec(toolSpec);
+		return detail;
+	}
+
+}
@@ -67,8 +67,8 @@ public class McpProxyService {
 	 */
 	public String callTool(String serviceName, String toolName, Map<String, Object> args) {
 		try {
-			// 1. 获取服务详情
-			McpServerDetailInfo serverDetail = nacosMcpOperationService.getServerDetail(serviceName);
+			// 1. 获取服务详情（本地快照，后台定时刷新）
+			McpServerDetailInfo serverDetail = nacosMcpOperationService.getServerDetailSnapshot(serviceName);
 			if (serverDetail == null) {
 				throw new RuntimeException("Service not found: " + serviceName);
 			}
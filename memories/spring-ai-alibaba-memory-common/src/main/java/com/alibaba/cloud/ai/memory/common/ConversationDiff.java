@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Compares the stored messages of a conversation with the messages saved for it, so a
+ * repository can write only what changed.
+ * <p>
+ * A chat memory window saves the whole conversation every time, usually the stored
+ * messages without some of their oldest ones and with new ones appended. When the stored
+ * messages, minus such a head, are a prefix of the saved ones, the repository deletes the
+ * head and appends the rest. Otherwise the conversation diverged and is rewritten.
+ *
+ * @since 1.1.0
+ */
+public final class ConversationDiff {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private ConversationDiff() {
+	}
+
+	/**
+	 * Find the number of stored messages to drop from the head so that the rest is a
+	 * prefix of the saved messages.
+	 * @param stored the stored messages, or what identifies them, oldest first
+	 * @param messages the saved messages, or what identifies them, oldest first
+	 * @return the number of messages to drop, 0 when nothing is stored, or -1 when the
+	 * conversation has to be rewritten
+	 */
+	public static <T> int storedHead(List<T> stored, List<T> messages) {
+		return storedHead(stored, messages, Objects::equals);
+	}
+
+	/**
+	 * Find the number of stored messages to drop from the head so that the rest is a
+	 * prefix of the saved messages.
+	 * @param stored the stored messages, oldest first
+	 * @param messages the saved messages, oldest first
+	 * @param sameMessage whether a stored message is the same as a saved one
+	 * @return the number of messages to drop, 0 when nothing is stored, or -1 when the
+	 * conversation has to be rewritten
+	 */
+	public static <S, M> int storedHead(List<S> stored, List<M> messages, BiPredicate<S, M> sameMessage) {
+		if (stored.isEmpty()) {
+			return 0;
+		}
+		// the fewest dropped messages first, which keeps the longest stored suffix
+		for (int head = Math.max(0, stored.size() - messages.size()); head < stored.size(); head++) {
+			if (isPrefix(stored, head, messages, sameMessage)) {
+				return head;
+			}
+		}
+		return -1;
+	}
+
+	private static <S, M> boolean isPrefix(List<S> stored, int head, List<M> messages,
+			BiPredicate<S, M> sameMessage) {
+		for (int i = head; i < stored.size(); i++) {
+			if (!sameMessage.test(stored.get(i), messages.get(i - head))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the type and text of a message, for repositories that store
+	 * a hash per message instead of comparing the stored texts.
+	 */
+	public static long hash(Message message) {
+		return hash(message.getMessageType().name(), message.getText());
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the type and text of a message, over the characters of
+	 * {@code messageType + '\0' + messageText}. The value is persisted, so it must not
+	 * change.
+	 */
+	public static long hash(String messageType, String messageText) {
+		long hash = FNV_OFFSET_BASIS;
+		hash = hash(hash, messageType);
+		hash = (hash ^ '\0') * FNV_PRIME;
+		return hash(hash, Objects.toString(messageText, ""));
+	}
+
+	private static long hash(long hash, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+}
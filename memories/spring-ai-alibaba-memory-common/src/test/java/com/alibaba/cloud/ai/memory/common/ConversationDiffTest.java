@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConversationDiff}.
+ */
+class ConversationDiffTest {
+
+	private static final List<String> STORED = List.of("a", "b", "c");
+
+	@Test
+	void nothingStoredKeepsEverything() {
+		assertThat(ConversationDiff.storedHead(List.of(), List.of("a"))).isZero();
+	}
+
+	@Test
+	void appendedMessagesKeepTheStoredOnes() {
+		assertThat(ConversationDiff.storedHead(STORED, List.of("a", "b", "c", "d"))).isZero();
+		assertThat(ConversationDiff.storedHead(STORED, STORED)).isZero();
+	}
+
+	@Test
+	void droppedHeadIsCounted() {
+		assertThat(ConversationDiff.storedHead(STORED, List.of("b", "c", "d"))).isEqualTo(1);
+		assertThat(ConversationDiff.storedHead(STORED, List.of("c", "d"))).isEqualTo(2);
+	}
+
+	@Test
+	void keepsTheLongestStoredSuffix() {
+		assertThat(ConversationDiff.storedHead(List.of("a", "a", "a"), List.of("a", "a", "a", "a"))).isZero();
+		assertThat(ConversationDiff.storedHead(List.of("a", "b", "a", "b"), List.of("a", "b", "x"))).isEqualTo(2);
+	}
+
+	@Test
+	void divergedConversationIsRewritten() {
+		assertThat(ConversationDiff.storedHead(STORED, List.of("a", "b"))).isEqualTo(-1);
+		assertThat(ConversationDiff.storedHead(STORED, List.of("x", "y"))).isEqualTo(-1);
+		assertThat(ConversationDiff.storedHead(STORED, List.of())).isEqualTo(-1);
+	}
+
+	@Test
+	void comparesStoredAndSavedMessagesOfDifferentTypes() {
+		List<Integer> stored = List.of(1, 2);
+
+		assertThat(ConversationDiff.storedHead(stored, List.of("2", "3"),
+				(storedMessage, message) -> storedMessage.toString().equals(message)))
+			.isEqualTo(1);
+	}
+
+	@Test
+	void hashesTypeAndText() {
+		assertThat(ConversationDiff.hash(new UserMessage("a")))
+			.isEqualTo(ConversationDiff.hash("USER", "a"))
+			.isNotEqualTo(ConversationDiff.hash(new AssistantMessage("a")));
+		assertThat(ConversationDiff.hash("USER", null)).isEqualTo(ConversationDiff.hash("USER", ""));
+		assertThat(ConversationDiff.hash("A", "B")).isNotEqualTo(ConversationDiff.hash("AB", ""));
+	}
+
+	@Test
+	void hashIsStable() {
+		// FNV-1a of "USER\0hello", the value stored by earlier saves
+		long expected = 0xcbf29ce484222325L;
+		for (char c : "USER\0hello".toCharArray()) {
+			expected = (expected ^ c) * 0x100000001b3L;
+		}
+
+		assertThat(ConversationDiff.hash("USER", "hello")).isEqualTo(expected);
+	}
+
+}
@@ -15,12 +15,25 @@
  */
 package com.alibaba.cloud.ai.memory.elasticsearch;
 
+import com.alibaba.cloud.ai.memory.common.ConversationDiff;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -34,12 +47,33 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * Elasticsearch implementation of ChatMemoryRepository
+ *
+ * <p>
+ * Messages are stored with the deterministic IDs {@code <conversationId>_<seq>}, and a
+ * document per conversation in {@value #CONVERSATION_INDEX_NAME} records the stored
+ * range and a hash of each message. A save reads that document with a realtime get,
+ * then deletes the messages dropped from the head and indexes only the new ones in a
+ * single bulk request. Reads of a conversation use a realtime multi-get, so no refresh
+ * is forced on writes.
+ *
+ * <p>
+ * With {@link Builder#writeBehind write-behind}, a conversation stays buffered until
+ * every operation of its last save is acknowledged. When one of them fails, the stored
+ * range is unknown: the conversation document is deleted and the next save rewrites the
+ * whole conversation.
  */
 public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository, AutoCloseable {
 
@@ -47,29 +81,70 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	private static final String INDEX_NAME = "chat_memory";
 
+	static final String CONVERSATION_INDEX_NAME = "chat_memory_conversation";
+
+	private static final String CONVERSATIONS_AGGREGATION = "conversations";
+
+	private static final int LIST_PAGE_SIZE = 1000;
+
+	private static final int LEGACY_SEARCH_SIZE = 10000;
+
 	// private final ElasticsearchConfig config;
 
 	private final ElasticsearchClient client;
 
 	private final ObjectMapper objectMapper;
 
+	private final boolean readYourWrites;
+
+	private final BulkIngester<Pending> ingester;
+
+	private final ElasticsearchAsyncClient asyncClient;
+
+	private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+	// conversations whose last buffered write failed, rewritten by their next save
+	private final Set<String> stale = ConcurrentHashMap.newKeySet();
+
 	public ElasticsearchChatMemoryRepository(ElasticsearchClient client) {
+		this(builder().client(client));
+	}
+
+	private ElasticsearchChatMemoryRepository(Builder builder) {
 		this.objectMapper = new ObjectMapper();
 		// Configure Jackson to ignore unknown properties to handle schema changes
 		this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		this.readYourWrites = builder.readYourWrites;
 		try {
-			this.client = client;
+			this.client = builder.client;
 			createIndexIfNotExists();
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to create Elasticsearch client", e);
 		}
+		this.ingester = builder.writeBehind ? BulkIngester.<Pending>of(b -> {
+			b.client(this.client)
+				.maxOperations(builder.writeBehindMaxOperations)
+				.flushInterval(builder.writeBehindFlushInterval.toMillis(), TimeUnit.MILLISECONDS)
+				.listener(new PendingListener());
+			if (this.readYourWrites) {
+				b.globalSettings(g -> g.refresh(Refresh.WaitFor));
+			}
+			return b;
+		}) : null;
+		// the listener of the ingester runs on a client callback thread, where the
+		// blocking client must not be used
+		this.asyncClient = builder.writeBehind
+				? new ElasticsearchAsyncClient(this.client._transport(), this.client._transportOptions()) : null;
 	}
 
 	private void createIndexIfNotExists() throws IOException {
 		if (!client.indices().exists(e -> e.index(INDEX_NAME)).value()) {
 			createIndex();
 		}
+		if (!client.indices().exists(e -> e.index(CONVERSATION_INDEX_NAME)).value()) {
+			createConversationIndex();
+		}
 	}
 
 	private void createIndex() throws IOException {
@@ -78,14 +153,30 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 				.mappings(m -> m.properties("conversationId", p -> p.keyword(k -> k))
 					.properties("messageType", p -> p.keyword(k -> k))
 					.properties("messageText", p -> p.text(t -> t))
-					.properties("timestamp", p -> p.date(d -> d))));
+					.properties("timestamp", p -> p.date(d -> d))
+					.properties("seq", p -> p.long_(l -> l))));
+	}
+
+	private void createConversationIndex() throws IOException {
+		client.indices()
+			.create(c -> c.index(CONVERSATION_INDEX_NAME)
+				.mappings(m -> m.properties("conversationId", p -> p.keyword(k -> k))
+					.properties("firstSeq", p -> p.long_(l -> l))
+					.properties("hashes", p -> p.long_(l -> l.index(false).docValues(false)))
+					.properties("updatedAt", p -> p.date(d -> d))));
 	}
 
 	public void recreateIndex() throws IOException {
+		this.pending.clear();
+		this.stale.clear();
 		if (client.indices().exists(e -> e.index(INDEX_NAME)).value()) {
 			client.indices().delete(d -> d.index(INDEX_NAME));
 		}
+		if (client.indices().exists(e -> e.index(CONVERSATION_INDEX_NAME)).value()) {
+			client.indices().delete(d -> d.index(CONVERSATION_INDEX_NAME));
+		}
 		createIndex();
+		createConversationIndex();
 	}
 
 	// private ElasticsearchClient createClient(ElasticsearchConfig config)
@@ -140,16 +231,46 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	@Override
 	public List<String> findConversationIds() {
-		try {
-			SearchResponse<ChatMessage> response = client
-				.search(s -> s.index(INDEX_NAME).size(10000).query(q -> q.matchAll(m -> m)), ChatMessage.class);
+		List<String> conversationIds = new ArrayList<>();
+		String cursor = null;
+		do {
+			ConversationIdPage page = findConversationIds(cursor, LIST_PAGE_SIZE);
+			conversationIds.addAll(page.conversationIds());
+			cursor = page.nextCursor();
+		}
+		while (cursor != null);
+		return conversationIds;
+	}
 
-			return response.hits()
-				.hits()
+	/**
+	 * Page through the conversation IDs with a composite aggregation.
+	 * @param cursor the {@link ConversationIdPage#nextCursor()} of the previous page, null
+	 * for the first page
+	 * @param limit maximum number of IDs of the page
+	 */
+	public ConversationIdPage findConversationIds(String cursor, int limit) {
+		Assert.isTrue(limit > 0, "limit must be positive");
+		try {
+			SearchResponse<Void> response = client.search(s -> s.index(INDEX_NAME)
+				.size(0)
+				.aggregations(CONVERSATIONS_AGGREGATION, a -> a.composite(c -> {
+					c.size(limit)
+						.sources(Map.of("conversationId",
+								CompositeAggregationSource.of(src -> src.terms(t -> t.field("conversationId")))));
+					if (cursor != null) {
+						c.after("conversationId", cursor);
+					}
+					return c;
+				})), Void.class);
+			CompositeAggregate aggregate = response.aggregations().get(CONVERSATIONS_AGGREGATION).composite();
+			List<String> conversationIds = aggregate.buckets()
+				.array()
 				.stream()
-				.map(hit -> hit.source().getConversationId())
-				.distinct()
+				.map(bucket -> bucket.key().get("conversationId").stringValue())
 				.collect(Collectors.toList());
+			FieldValue afterKey = aggregate.afterKey().get("conversationId");
+			String nextCursor = conversationIds.size() < limit || afterKey == null ? null : afterKey.stringValue();
+			return new ConversationIdPage(conversationIds, nextCursor);
 		}
 		catch (IOException e) {
 			throw new RuntimeException("Error finding conversation IDs", e);
@@ -159,23 +280,29 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		Pending buffered = this.pending.get(conversationId);
+		if (buffered != null) {
+			return new ArrayList<>(buffered.messages());
+		}
 		try {
-			logger.info("Finding messages for conversation: {}", conversationId);
-			SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
-				.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
-				.sort(sort -> sort
-					.field(f -> f.field("timestamp").order(co.elastic.clients.elasticsearch._types.SortOrder.Asc))),
-					ChatMessage.class);
-
-			List<Message> messages = response.hits()
-				.hits()
+			ConversationState state = loadState(conversationId);
+			if (state == null) {
+				return findLegacyMessages(conversationId);
+			}
+			if (state.getHashes().isEmpty()) {
+				return new ArrayList<>();
+			}
+			List<String> ids = new ArrayList<>(state.getHashes().size());
+			for (long seq = state.getFirstSeq(); seq < state.nextSeq(); seq++) {
+				ids.add(documentId(conversationId, seq));
+			}
+			MgetResponse<ChatMessage> response = client.mget(m -> m.index(INDEX_NAME).ids(ids), ChatMessage.class);
+			return response.docs()
 				.stream()
-				.map(hit -> hit.source().toSpringMessage())
+				.filter(item -> item.isResult() && item.result().found())
+				.map(item -> item.result().source().toSpringMessage())
 				.filter(Objects::nonNull)
 				.collect(Collectors.toList());
-
-			logger.info("Found {} messages for conversation: {}", messages.size(), conversationId);
-			return messages;
 		}
 		catch (IOException e) {
 			logger.error("Error finding messages for conversation: {}", conversationId, e);
@@ -183,39 +310,42 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 		}
 	}
 
+	/**
+	 * Messages written by earlier versions, without sequence numbers.
+	 */
+	private List<Message> findLegacyMessages(String conversationId) throws IOException {
+		SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
+			.size(LEGACY_SEARCH_SIZE)
+			.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
+			.sort(sort -> sort.field(f -> f.field("timestamp").order(SortOrder.Asc))), ChatMessage.class);
+		return response.hits()
+			.hits()
+			.stream()
+			.map(hit -> hit.source().toSpringMessage())
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+	}
+
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-
-		try {
-			// Delete existing messages first
+		if (messages.isEmpty()) {
 			deleteByConversationId(conversationId);
-
-			// Bulk insert new messages
-			BulkRequest.Builder br = new BulkRequest.Builder();
-			for (Message message : messages) {
-				ChatMessage chatMessage = new ChatMessage(conversationId, message);
-				logger.info("Saving message for {}: type={}, text={}", conversationId, chatMessage.getMessageType(),
-						chatMessage.getMessageText());
-				br.operations(op -> op.index(idx -> idx.index(INDEX_NAME).document(chatMessage)));
-			}
-
-			BulkResponse response = client.bulk(br.build());
-			if (response.errors()) {
-				logger.error("Error saving messages: {}",
-						response.items()
-							.stream()
-							.filter(item -> item.error() != null)
-							.map(item -> item.error().reason())
-							.collect(Collectors.joining(", ")));
-				throw new RuntimeException("Error saving messages to Elasticsearch");
+			return;
+		}
+		try {
+			boolean rewrite = this.stale.contains(conversationId);
+			ConversationState state = loadState(conversationId);
+			if (state == null) {
+				deleteUntrackedMessages(conversationId, rewrite);
 			}
-
-			// Ensure index is refreshed immediately
-			client.indices().refresh(r -> r.index(INDEX_NAME));
-			logger.info("Successfully saved {} messages for conversation {}", messages.size(), conversationId);
+			List<Long> hashes = messages.stream().map(ConversationDiff::hash).toList();
+			ConversationState next = nextState(conversationId, state, hashes);
+			List<BulkOperation> operations = saveOperations(conversationId, state, next, messages);
+			write(operations, new Pending(conversationId, next, List.copyOf(messages), rewrite));
+			logger.debug("Saved conversation {} with {} operations", conversationId, operations.size());
 		}
 		catch (IOException e) {
 			logger.error("Error saving messages", e);
@@ -227,12 +357,28 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
-			DeleteByQueryResponse response = client.deleteByQuery(
-					d -> d.index(INDEX_NAME).query(q -> q.term(t -> t.field("conversationId").value(conversationId))));
-
-			if (response.failures().size() > 0) {
-				throw new RuntimeException("Error deleting messages for conversation: " + conversationId);
+			ConversationState state = loadState(conversationId);
+			if (state == null) {
+				this.pending.remove(conversationId);
+				DeleteByQueryResponse response = client.deleteByQuery(d -> d.index(INDEX_NAME)
+					.refresh(this.readYourWrites)
+					.query(q -> q.term(t -> t.field("conversationId").value(conversationId))));
+
+				if (response.failures().size() > 0) {
+					throw new RuntimeException("Error deleting messages for conversation: " + conversationId);
+				}
+				if (this.stale.contains(conversationId)) {
+					client.delete(d -> d.index(CONVERSATION_INDEX_NAME).id(conversationId));
+					this.stale.remove(conversationId);
+				}
+				return;
 			}
+			List<BulkOperation> operations = new ArrayList<>();
+			for (long seq = state.getFirstSeq(); seq < state.nextSeq(); seq++) {
+				operations.add(deleteOperation(INDEX_NAME, documentId(conversationId, seq)));
+			}
+			operations.add(deleteOperation(CONVERSATION_INDEX_NAME, conversationId));
+			write(operations, new Pending(conversationId, null, List.of(), false));
 		}
 		catch (IOException e) {
 			throw new RuntimeException("Error deleting messages", e);
@@ -241,43 +387,153 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		try {
-			SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
-				.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
-				.sort(sort -> sort
-					.field(f -> f.field("timestamp").order(co.elastic.clients.elasticsearch._types.SortOrder.Asc))),
-					ChatMessage.class);
+		List<Message> messages = findByConversationId(conversationId);
+		if (messages.size() >= maxLimit) {
+			saveAll(conversationId, messages.subList(Math.min(deleteSize, messages.size()), messages.size()));
+		}
+	}
 
-			List<ChatMessage> messages = response.hits().hits().stream().map(Hit::source).collect(Collectors.toList());
+	/**
+	 * The stored range of a conversation, null when it has none or it is stale.
+	 */
+	private ConversationState loadState(String conversationId) throws IOException {
+		if (this.stale.contains(conversationId)) {
+			return null;
+		}
+		Pending buffered = this.pending.get(conversationId);
+		if (buffered != null) {
+			return buffered.state();
+		}
+		GetResponse<ConversationState> response = client
+			.get(g -> g.index(CONVERSATION_INDEX_NAME).id(conversationId), ConversationState.class);
+		return response.found() ? response.source() : null;
+	}
 
-			if (messages.size() >= maxLimit) {
-				// Delete all messages
-				deleteByConversationId(conversationId);
+	/**
+	 * Delete the messages of a conversation without a stored range: the ones written by
+	 * earlier versions, and all of them when the conversation is rewritten.
+	 */
+	private void deleteUntrackedMessages(String conversationId, boolean rewrite) throws IOException {
+		Query untracked = Query.of(q -> q.bool(b -> {
+			b.must(m -> m.term(t -> t.field("conversationId").value(conversationId)));
+			return rewrite ? b : b.mustNot(n -> n.exists(e -> e.field("seq")));
+		}));
+		if (client.count(c -> c.index(INDEX_NAME).query(untracked)).count() > 0) {
+			client.deleteByQuery(d -> d.index(INDEX_NAME).query(untracked));
+		}
+	}
 
-				// Reinsert messages after skipping the oldest ones
-				List<ChatMessage> messagesToKeep = messages.stream().skip(deleteSize).collect(Collectors.toList());
+	private void write(List<BulkOperation> operations, Pending written) throws IOException {
+		if (this.ingester != null) {
+			written.remaining.set(operations.size());
+			this.pending.put(written.conversationId(), written);
+			for (BulkOperation operation : operations) {
+				this.ingester.add(operation, written);
+			}
+			return;
+		}
+		BulkRequest.Builder br = new BulkRequest.Builder().operations(operations);
+		if (this.readYourWrites) {
+			br.refresh(Refresh.WaitFor);
+		}
+		BulkResponse response = client.bulk(br.build());
+		if (response.errors()) {
+			logger.error("Error saving messages: {}",
+					response.items()
+						.stream()
+						.filter(item -> item.error() != null)
+						.map(item -> item.error().reason())
+						.collect(Collectors.joining(", ")));
+			throw new RuntimeException("Error saving messages to Elasticsearch");
+		}
+	}
 
-				BulkRequest.Builder br = new BulkRequest.Builder();
-				for (ChatMessage message : messagesToKeep) {
-					br.operations(op -> op.index(idx -> idx.index(INDEX_NAME).document(message)));
-				}
+	/**
+	 * Count an acknowledged operation of a buffered save, and drop the buffered state
+	 * once the last one is. A failed save leaves the stored range unknown: this instance
+	 * rewrites the conversation on its next save, and until that save is acknowledged
+	 * the conversation document is deleted after every save, for the other instances.
+	 */
+	private void acknowledge(Pending written, boolean failed) {
+		if (failed) {
+			written.failed = true;
+		}
+		if (written.remaining.decrementAndGet() > 0) {
+			return;
+		}
+		String conversationId = written.conversationId();
+		if (written.failed) {
+			this.stale.add(conversationId);
+		}
+		else if (written.rewrite) {
+			this.stale.remove(conversationId);
+		}
+		if (this.stale.contains(conversationId)) {
+			this.asyncClient.delete(d -> d.index(CONVERSATION_INDEX_NAME).id(conversationId))
+				.whenComplete((response, failure) -> {
+					if (failure != null) {
+						logger.warn("Error deleting the state of conversation: {}", conversationId, failure);
+					}
+				});
+		}
+		this.pending.remove(conversationId, written);
+	}
 
-				BulkResponse bulkResponse = client.bulk(br.build());
-				if (bulkResponse.errors()) {
-					throw new RuntimeException("Error saving messages to Elasticsearch");
-				}
+	/**
+	 * The stored range after saving messages with the given hashes: the stored messages
+	 * that are kept stay at their sequence numbers, a conversation that diverged is
+	 * rewritten from its first sequence number.
+	 */
+	static ConversationState nextState(String conversationId, ConversationState state, List<Long> hashes) {
+		if (state == null) {
+			return new ConversationState(conversationId, 0, hashes);
+		}
+		int head = ConversationDiff.storedHead(state.getHashes(), hashes);
+		long firstSeq = head < 0 ? state.getFirstSeq() : state.getFirstSeq() + head;
+		return new ConversationState(conversationId, firstSeq, hashes);
+	}
 
-				// Force refresh the index to make changes available immediately
-				client.indices().refresh(r -> r.index(INDEX_NAME));
+	/**
+	 * The bulk operations turning the stored range {@code state} into {@code next}.
+	 */
+	static List<BulkOperation> saveOperations(String conversationId, ConversationState state, ConversationState next,
+			List<Message> messages) {
+		List<BulkOperation> operations = new ArrayList<>();
+		long firstSeq = state != null ? state.getFirstSeq() : 0;
+		long storedNextSeq = state != null ? state.nextSeq() : 0;
+		boolean rewrite = state != null && ConversationDiff.storedHead(state.getHashes(), next.getHashes()) < 0;
+		// messages dropped from the head, or left over from a longer conversation
+		for (long seq = firstSeq; seq < storedNextSeq; seq++) {
+			if (seq < next.getFirstSeq() || seq >= next.nextSeq()) {
+				operations.add(deleteOperation(INDEX_NAME, documentId(conversationId, seq)));
 			}
 		}
-		catch (IOException e) {
-			throw new RuntimeException("Error clearing over limit messages", e);
+		long from = rewrite ? next.getFirstSeq() : Math.max(storedNextSeq, next.getFirstSeq());
+		for (long seq = from; seq < next.nextSeq(); seq++) {
+			ChatMessage chatMessage = new ChatMessage(conversationId,
+					messages.get((int) (seq - next.getFirstSeq())), seq);
+			String id = documentId(conversationId, seq);
+			operations.add(BulkOperation.of(op -> op.index(idx -> idx.index(INDEX_NAME).id(id).document(chatMessage))));
 		}
+		operations.add(BulkOperation
+			.of(op -> op.index(idx -> idx.index(CONVERSATION_INDEX_NAME).id(conversationId).document(next))));
+		return operations;
+	}
+
+	private static BulkOperation deleteOperation(String index, String id) {
+		return BulkOperation.of(op -> op.delete(d -> d.index(index).id(id)));
+	}
+
+	static String documentId(String conversationId, long seq) {
+		return conversationId + "_" + seq;
 	}
 
 	@Override
 	public void close() {
+		if (this.ingester != null) {
+			// flushes the buffered writes
+			this.ingester.close();
+		}
 		// Elasticsearch client doesn't need explicit closing
 		if (Objects.nonNull(this.client)) {
 			this.client.shutdown();
@@ -336,17 +592,21 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 		private long timestamp;
 
+		// Position in the conversation, absent on documents of earlier versions
+		private Long seq;
+
 		// For backward compatibility with existing data
 		private Object message;
 
 		public ChatMessage() {
 		}
 
-		public ChatMessage(String conversationId, Message message) {
+		public ChatMessage(String conversationId, Message message, long seq) {
 			this.conversationId = conversationId;
 			this.messageType = message.getMessageType().toString();
 			this.messageText = message.getText();
 			this.timestamp = System.currentTimeMillis();
+			this.seq = seq;
 		}
 
 		public String getConversationId() {
@@ -381,6 +641,14 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 			this.timestamp = timestamp;
 		}
 
+		public Long getSeq() {
+			return seq;
+		}
+
+		public void setSeq(Long seq) {
+			this.seq = seq;
+		}
+
 		public Object getMessage() {
 			return message;
 		}
@@ -420,4 +688,209 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	}
 
+	/**
+	 * The stored range of a conversation: the messages with the sequence numbers
+	 * {@code firstSeq} to {@code firstSeq + hashes.size() - 1}, and a hash of each.
+	 */
+	static class ConversationState {
+
+		private String conversationId;
+
+		private long firstSeq;
+
+		private List<Long> hashes = new ArrayList<>();
+
+		private long updatedAt;
+
+		public ConversationState() {
+		}
+
+		ConversationState(String conversationId, long firstSeq, List<Long> hashes) {
+			this.conversationId = conversationId;
+			this.firstSeq = firstSeq;
+			this.hashes = hashes;
+			this.updatedAt = System.currentTimeMillis();
+		}
+
+		public String getConversationId() {
+			return conversationId;
+		}
+
+		public void setConversationId(String conversationId) {
+			this.conversationId = conversationId;
+		}
+
+		public long getFirstSeq() {
+			return firstSeq;
+		}
+
+		public void setFirstSeq(long firstSeq) {
+			this.firstSeq = firstSeq;
+		}
+
+		public List<Long> getHashes() {
+			return hashes;
+		}
+
+		public void setHashes(List<Long> hashes) {
+			this.hashes = hashes;
+		}
+
+		public long getUpdatedAt() {
+			return updatedAt;
+		}
+
+		public void setUpdatedAt(long updatedAt) {
+			this.updatedAt = updatedAt;
+		}
+
+		long nextSeq() {
+			return firstSeq + hashes.size();
+		}
+
+	}
+
+	/**
+	 * Acknowledges the operations of the buffered saves once they are flushed.
+	 */
+	private class PendingListener implements BulkListener<Pending> {
+
+		@Override
+		public void beforeBulk(long executionId, BulkRequest request, List<Pending> contexts) {
+		}
+
+		@Override
+		public void afterBulk(long executionId, BulkRequest request, List<Pending> contexts, BulkResponse response) {
+			if (response.errors()) {
+				logger.error("Error flushing buffered messages: {}",
+						response.items()
+							.stream()
+							.filter(item -> item.error() != null)
+							.map(item -> item.error().reason())
+							.collect(Collectors.joining(", ")));
+			}
+			for (int i = 0; i < contexts.size(); i++) {
+				acknowledge(contexts.get(i), response.items().get(i).error() != null);
+			}
+		}
+
+		@Override
+		public void afterBulk(long executionId, BulkRequest request, List<Pending> contexts, Throwable failure) {
+			logger.error("Error flushing buffered messages", failure);
+			for (Pending context : contexts) {
+				acknowledge(context, true);
+			}
+		}
+
+	}
+
+	/**
+	 * What this instance wrote for a conversation and the write-behind buffer has not
+	 * flushed yet. A null state stands for a deleted conversation.
+	 */
+	private static final class Pending {
+
+		private final String conversationId;
+
+		private final ConversationState state;
+
+		private final List<Message> messages;
+
+		// whether the save rewrote a stale conversation
+		private final boolean rewrite;
+
+		// operations not acknowledged yet
+		private final AtomicInteger remaining = new AtomicInteger();
+
+		private volatile boolean failed;
+
+		Pending(String conversationId, ConversationState state, List<Message> messages, boolean rewrite) {
+			this.conversationId = conversationId;
+			this.state = state;
+			this.messages = messages;
+			this.rewrite = rewrite;
+		}
+
+		String conversationId() {
+			return this.conversationId;
+		}
+
+		ConversationState state() {
+			return this.state;
+		}
+
+		List<Message> messages() {
+			return this.messages;
+		}
+
+	}
+
+	/**
+	 * A page of conversation IDs.
+	 *
+	 * @param conversationIds the IDs, in ascending order
+	 * @param nextCursor the cursor of the next page, null on the last page
+	 */
+	public record ConversationIdPage(List<String> conversationIds, String nextCursor) {
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		private ElasticsearchClient client;
+
+		private boolean readYourWrites = false;
+
+		private boolean writeBehind = false;
+
+		private int writeBehindMaxOperations = 1000;
+
+		private Duration writeBehindFlushInterval = Duration.ofSeconds(1);
+
+		public Builder client(ElasticsearchClient client) {
+			this.client = client;
+			return this;
+		}
+
+		/**
+		 * Make writes visible to searches, i.e. to {@link #findConversationIds}, before
+		 * they return, with {@code refresh=wait_for}. Reads of a conversation never need
+		 * it.
+		 */
+		public Builder readYourWrites(boolean readYourWrites) {
+			this.readYourWrites = readYourWrites;
+			return this;
+		}
+
+		/**
+		 * Buffer the writes in a {@link BulkIngester} instead of sending a bulk request
+		 * per save. Reads of this instance see the buffered writes until every operation
+		 * of a conversation's last save is acknowledged, other instances see them once
+		 * they are flushed. A conversation whose buffered save failed is rewritten by its
+		 * next save.
+		 */
+		public Builder writeBehind(boolean writeBehind) {
+			this.writeBehind = writeBehind;
+			return this;
+		}
+
+		public Builder writeBehindMaxOperations(int writeBehindMaxOperations) {
+			this.writeBehindMaxOperations = writeBehindMaxOperations;
+			return this;
+		}
+
+		public Builder writeBehindFlushInterval(Duration writeBehindFlushInterval) {
+			this.writeBehindFlushInterval = writeBehindFlushInterval;
+			return this;
+		}
+
+		public ElasticsearchChatMemoryRepository build() {
+			return new ElasticsearchChatMemoryRepository(this);
+		}
+
+	}
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.elasticsearch;
+
+import com.alibaba.cloud.ai.memory.common.ConversationDiff;
+
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the bulk operations planned by {@link ElasticsearchChatMemoryRepository}.
+ */
+class ElasticsearchChatMemoryRepositoryTest {
+
+	private static final String CONVERSATION_ID = "c1";
+
+	private static List<Message> messages(String... texts) {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < texts.length; i++) {
+			messages.add(i % 2 == 0 ? new UserMessage(texts[i]) : new AssistantMessage(texts[i]));
+		}
+		return messages;
+	}
+
+	private static List<Long> hashes(List<Message> messages) {
+		return messages.stream().map(ConversationDiff::hash).toList();
+	}
+
+	private static ElasticsearchChatMemoryRepository.ConversationState stored(long firstSeq, List<Message> messages) {
+		return new ElasticsearchChatMemoryRepository.ConversationState(CONVERSATION_ID, firstSeq, hashes(messages));
+	}
+
+	private static List<String> plan(ElasticsearchChatMemoryRepository.ConversationState state,
+			List<Message> messages) {
+		ElasticsearchChatMemoryRepository.ConversationState next = ElasticsearchChatMemoryRepository
+			.nextState(CONVERSATION_ID, state, hashes(messages));
+		return ElasticsearchChatMemoryRepository.saveOperations(CONVERSATION_ID, state, next, messages)
+			.stream()
+			.map(ElasticsearchChatMemoryRepositoryTest::describe)
+			.toList();
+	}
+
+	private static String describe(BulkOperation operation) {
+		if (operation.isDelete()) {
+			return "delete " + operation.delete().id();
+		}
+		return "index " + operation.index().index() + "/" + operation.index().id();
+	}
+
+	@Test
+	void firstSaveIndexesAllMessages() {
+		assertThat(plan(null, messages("a", "b"))).containsExactly("index chat_memory/c1_0", "index chat_memory/c1_1",
+				"index chat_memory_conversation/c1");
+	}
+
+	@Test
+	void appendIndexesOnlyNewMessages() {
+		assertThat(plan(stored(0, messages("a", "b")), messages("a", "b", "c")))
+			.containsExactly("index chat_memory/c1_2", "index chat_memory_conversation/c1");
+	}
+
+	@Test
+	void droppedHeadIsDeleted() {
+		ElasticsearchChatMemoryRepository.ConversationState state = stored(3, messages("a", "b", "c"));
+		List<Message> window = messages("a", "b", "c", "d").subList(1, 4);
+
+		assertThat(plan(state, window)).containsExactly("delete c1_3", "index chat_memory/c1_6",
+				"index chat_memory_conversation/c1");
+		assertThat(ElasticsearchChatMemoryRepository.nextState(CONVERSATION_ID, state, hashes(window)).getFirstSeq())
+			.isEqualTo(4);
+	}
+
+	@Test
+	void divergedConversationIsRewritten() {
+		assertThat(plan(stored(2, messages("a", "b", "c")), messages("x", "y")))
+			.containsExactly("delete c1_4", "index chat_memory/c1_2", "index chat_memory/c1_3",
+					"index chat_memory_conversation/c1");
+	}
+
+}
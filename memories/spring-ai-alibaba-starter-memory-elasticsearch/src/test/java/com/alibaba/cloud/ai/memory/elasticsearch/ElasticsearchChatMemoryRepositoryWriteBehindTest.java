@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.DeleteRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the write-behind buffer of {@link ElasticsearchChatMemoryRepository},
+ * with a mocked transport acknowledging the bulk requests.
+ */
+class ElasticsearchChatMemoryRepositoryWriteBehindTest {
+
+	private static final String CONVERSATION_ID = "c1";
+
+	private final List<BulkRequest> bulks = new CopyOnWriteArrayList<>();
+
+	private final List<DeleteRequest> deletes = new CopyOnWriteArrayList<>();
+
+	// IDs of the documents whose bulk operation fails
+	private volatile Set<String> failing = Set.of();
+
+	private ElasticsearchClient client;
+
+	@BeforeEach
+	void setUp() {
+		ElasticsearchTransport transport = mock(ElasticsearchTransport.class);
+		when(transport.jsonpMapper()).thenReturn(new JacksonJsonpMapper());
+		when(transport.performRequestAsync(any(), any(), any())).thenAnswer(invocation -> {
+			Object request = invocation.getArgument(0);
+			if (request instanceof BulkRequest bulk) {
+				this.bulks.add(bulk);
+				return CompletableFuture.completedFuture(respond(bulk));
+			}
+			this.deletes.add((DeleteRequest) request);
+			return CompletableFuture.completedFuture(null);
+		});
+		this.client = mock(ElasticsearchClient.class, RETURNS_DEEP_STUBS);
+		when(this.client._transport()).thenReturn(transport);
+	}
+
+	private BulkResponse respond(BulkRequest bulk) {
+		List<BulkResponseItem> items = bulk.operations().stream().map(operation -> {
+			String index = operation.isDelete() ? operation.delete().index() : operation.index().index();
+			String id = operation.isDelete() ? operation.delete().id() : operation.index().id();
+			return BulkResponseItem.of(item -> {
+				item.operationType(operation.isDelete() ? OperationType.Delete : OperationType.Index)
+					.index(index)
+					.id(id);
+				return this.failing.contains(id) ? item.status(500).error(e -> e.type("failure").reason("boom"))
+						: item.status(200);
+			});
+		}).toList();
+		return BulkResponse.of(r -> r.errors(items.stream().anyMatch(item -> item.error() != null))
+			.took(1)
+			.items(items));
+	}
+
+	private ElasticsearchChatMemoryRepository repository(int maxOperations) {
+		return ElasticsearchChatMemoryRepository.builder()
+			.client(this.client)
+			.writeBehind(true)
+			.writeBehindMaxOperations(maxOperations)
+			.writeBehindFlushInterval(Duration.ofHours(1))
+			.build();
+	}
+
+	private static List<String> ids(BulkRequest bulk) {
+		return bulk.operations()
+			.stream()
+			.map(operation -> operation.isDelete() ? operation.delete().id() : operation.index().id())
+			.toList();
+	}
+
+	private static List<Message> messages(String... texts) {
+		return List.of(texts).stream().map(text -> (Message) new UserMessage(text)).toList();
+	}
+
+	@Test
+	void conversationStaysBufferedUntilLastOperationIsAcknowledged() throws IOException {
+		ElasticsearchChatMemoryRepository repository = repository(2);
+		List<Message> messages = List.of(new UserMessage("a"), new AssistantMessage("b"));
+
+		repository.saveAll(CONVERSATION_ID, messages);
+		clearInvocations(this.client);
+
+		await().until(() -> this.bulks.size() == 1);
+		assertThat(ids(this.bulks.get(0))).containsExactly("c1_0", "c1_1");
+		assertThat(repository.findByConversationId(CONVERSATION_ID)).isEqualTo(messages);
+		verify(this.client, never()).get(any(Function.class), any(Class.class));
+
+		repository.close();
+		repository.findByConversationId(CONVERSATION_ID);
+
+		assertThat(this.bulks).hasSize(2);
+		verify(this.client).get(any(Function.class), any(Class.class));
+	}
+
+	@Test
+	void failedSaveDeletesStateAndNextSaveRewritesConversation() {
+		ElasticsearchChatMemoryRepository repository = repository(3);
+		this.failing = Set.of("c1_1");
+
+		repository.saveAll(CONVERSATION_ID, messages("a", "b"));
+
+		await().until(() -> this.deletes.size() == 1);
+		assertThat(this.deletes.get(0).index()).isEqualTo(ElasticsearchChatMemoryRepository.CONVERSATION_INDEX_NAME);
+		assertThat(this.deletes.get(0).id()).isEqualTo(CONVERSATION_ID);
+
+		this.failing = Set.of();
+		repository.saveAll(CONVERSATION_ID, messages("a", "b", "c"));
+		repository.close();
+
+		assertThat(this.bulks).hasSize(3);
+		assertThat(this.bulks.subList(1, 3).stream().flatMap(bulk -> ids(bulk).stream()))
+			.containsExactly("c1_0", "c1_1", "c1_2", CONVERSATION_ID);
+		assertThat(this.bulks.get(2).operations()).allMatch(BulkOperation::isIndex);
+	}
+
+}
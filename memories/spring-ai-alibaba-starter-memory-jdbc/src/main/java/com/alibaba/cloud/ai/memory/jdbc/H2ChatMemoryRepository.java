@@ -23,9 +23,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	// H2 specific query statements
-	private static final String H2_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
+	private static final String H2_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp, seq) VALUES (?, ?, ?, ?, ?)";
 
-	private static final String H2_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String H2_QUERY_UPSERT_CONVERSATION = "MERGE INTO ai_chat_memory_conversation (conversation_id, message_count, updated_at) KEY (conversation_id) VALUES (?, ?, ?)";
+
+	private static final String H2_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq, timestamp";
 
 	private H2ChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -52,7 +54,9 @@ public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	@Override
 	protected String hasTableSql(String tableName) {
-		return String.format("SELECT table_name FROM information_schema.tables WHERE table_name = '%s'", tableName);
+		// unquoted identifiers are stored in upper case
+		return String.format("SELECT table_name FROM information_schema.tables WHERE table_name = UPPER('%s')",
+				tableName);
 	}
 
 	@Override
@@ -60,11 +64,29 @@ public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 		return String.format(
 				"CREATE TABLE %s (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
 						+ "conversation_id VARCHAR(256) NOT NULL, content LONGTEXT NOT NULL, "
-						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, seq BIGINT NOT NULL DEFAULT 0, "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
+	@Override
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD COLUMN seq BIGINT NOT NULL DEFAULT 0", tableName);
+	}
+
+	@Override
+	protected String createConversationTableSql(String tableName) {
+		return String.format(
+				"CREATE TABLE %s (conversation_id VARCHAR(256) NOT NULL PRIMARY KEY, "
+						+ "message_count INT NOT NULL, updated_at TIMESTAMP NOT NULL)",
+				tableName);
+	}
+
+	@Override
+	protected String getUpsertConversationSql() {
+		return H2_QUERY_UPSERT_CONVERSATION;
+	}
+
 	@Override
 	protected String getAddSql() {
 		return H2_QUERY_ADD;
@@ -15,6 +15,8 @@
  */
 package com.alibaba.cloud.ai.memory.jdbc;
 
+import com.alibaba.cloud.ai.memory.common.ConversationDiff;
+
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
@@ -22,48 +24,126 @@ import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Base class of the JDBC chat memory repositories.
+ *
+ * <p>
+ * Every message row carries a per-conversation sequence number, so that a save only
+ * inserts the messages that are not stored yet and deletes the ones that were dropped
+ * from the head of the conversation. Conversations are listed from a summary table that
+ * is upserted on every save.
+ */
 public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 
 	public static final String TABLE_NAME = "ai_chat_memory";
 
+	public static final String CONVERSATION_TABLE_NAME = "ai_chat_memory_conversation";
+
 	private static final String QUERY_GET_IDS = """
-			SELECT DISTINCT conversation_id FROM ai_chat_memory
+			SELECT conversation_id FROM ai_chat_memory_conversation
 			""";
 
 	private static final String QUERY_ADD = """
-			INSERT INTO ai_chat_memory (conversation_id, content, type, "timestamp") VALUES (?, ?, ?, ?)
+			INSERT INTO ai_chat_memory (conversation_id, content, type, "timestamp", seq) VALUES (?, ?, ?, ?, ?)
 			""";
 
 	private static final String QUERY_GET = """
-			SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY "timestamp"
+			SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq, "timestamp"
 			""";
 
+	private static final String QUERY_GET_STORED = "SELECT content, type, seq FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq";
+
 	private static final String QUERY_CLEAR = "DELETE FROM ai_chat_memory WHERE conversation_id = ?";
 
+	private static final String QUERY_CLEAR_HEAD = "DELETE FROM ai_chat_memory WHERE conversation_id = ? AND seq < ?";
+
+	private static final String QUERY_CLEAR_CONVERSATION = "DELETE FROM ai_chat_memory_conversation WHERE conversation_id = ?";
+
+	private static final String QUERY_HAS_SEQ = "SELECT seq FROM ai_chat_memory WHERE 1 = 0";
+
+	private static final String CREATE_SEQ_INDEX = "CREATE UNIQUE INDEX idx_ai_chat_memory_conversation_seq ON ai_chat_memory (conversation_id, seq)";
+
+	private static final String QUERY_COUNT_BY_CONVERSATION = "SELECT conversation_id, COUNT(*) FROM ai_chat_memory GROUP BY conversation_id";
+
+	private static final String QUERY_UPDATE_CONVERSATION = "UPDATE ai_chat_memory_conversation SET message_count = ?, updated_at = ? WHERE conversation_id = ?";
+
+	private static final String QUERY_INSERT_CONVERSATION = "INSERT INTO ai_chat_memory_conversation (conversation_id, message_count, updated_at) VALUES (?, ?, ?)";
+
+	/**
+	 * Attempts of a save that collides with a concurrent save of the same conversation.
+	 */
+	private static final int MAX_SAVE_ATTEMPTS = 3;
+
 	private final JdbcTemplate jdbcTemplate;
 
+	private final TransactionTemplate transactionTemplate;
+
 	public JdbcChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		Assert.notNull(jdbcTemplate, "jdbcTemplate cannot be null");
 		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(
+				new DataSourceTransactionManager(Objects.requireNonNull(jdbcTemplate.getDataSource())));
 		checkAndCreateTable();
 	}
 
 	private void checkAndCreateTable() {
 		if (!jdbcTemplate.query(hasTableSql(TABLE_NAME), ResultSet::next)) {
 			jdbcTemplate.execute(createTableSql(TABLE_NAME));
+			jdbcTemplate.execute(CREATE_SEQ_INDEX);
+		}
+		else if (!hasSeqColumn()) {
+			// tables of earlier versions: their rows all get seq 0, so each conversation is
+			// rewritten in timestamp order before the unique index can be created
+			jdbcTemplate.execute(addSeqColumnSql(TABLE_NAME));
+			numberStoredMessages();
+			jdbcTemplate.execute(CREATE_SEQ_INDEX);
+		}
+		if (!jdbcTemplate.query(hasTableSql(CONVERSATION_TABLE_NAME), ResultSet::next)) {
+			jdbcTemplate.execute(createConversationTableSql(CONVERSATION_TABLE_NAME));
+			// written like every save, so the update time has the same representation
+			Timestamp now = new Timestamp(System.currentTimeMillis());
+			List<StoredCount> counts = jdbcTemplate.query(QUERY_COUNT_BY_CONVERSATION,
+					(rs, i) -> new StoredCount(rs.getString(1), rs.getInt(2)));
+			counts.forEach(count -> upsertConversation(count.conversationId(), count.messageCount(), now));
+		}
+	}
+
+	private void numberStoredMessages() {
+		List<String> conversationIds = jdbcTemplate.query(QUERY_COUNT_BY_CONVERSATION, (rs, i) -> rs.getString(1));
+		for (String conversationId : conversationIds) {
+			this.transactionTemplate.executeWithoutResult(status -> {
+				List<Message> messages = this.jdbcTemplate.query(getGetSql(), new MessageRowMapper(), conversationId);
+				this.jdbcTemplate.update(QUERY_CLEAR, conversationId);
+				insert(conversationId, messages, 0);
+			});
+		}
+	}
+
+	private boolean hasSeqColumn() {
+		try {
+			jdbcTemplate.query(QUERY_HAS_SEQ, ResultSet::next);
+			return true;
+		}
+		catch (DataAccessException e) {
+			return false;
 		}
 	}
 
@@ -85,20 +165,97 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		return this.jdbcTemplate.query(getGetSql(), new JdbcChatMemoryRepository.MessageRowMapper(), conversationId);
 	}
 
+	/**
+	 * Store the messages of a conversation, writing only what changed: when the stored
+	 * messages, possibly without some of their head, are a prefix of {@code messages},
+	 * the head is deleted and the new messages are inserted. The conversation is
+	 * rewritten otherwise. A save that collides with a concurrent save of the same
+	 * conversation on the unique sequence index is retried against the stored state.
+	 */
 	@Override
 	public void saveAll(@NonNull String conversationId, @NonNull List<Message> messages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		this.deleteByConversationId(conversationId);
-		this.jdbcTemplate.batchUpdate(getAddSql(),
-				new JdbcChatMemoryRepository.AddBatchPreparedStatement(conversationId, messages));
+		for (int attempt = 1;; attempt++) {
+			try {
+				this.transactionTemplate.executeWithoutResult(status -> write(conversationId, messages));
+				return;
+			}
+			catch (DuplicateKeyException e) {
+				if (attempt >= MAX_SAVE_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	private void write(String conversationId, List<Message> messages) {
+		if (messages.isEmpty()) {
+			clear(conversationId);
+			return;
+		}
+		List<StoredMessage> stored = this.jdbcTemplate.query(QUERY_GET_STORED,
+				(rs, i) -> new StoredMessage(rs.getString(1), rs.getString(2), rs.getLong(3)), conversationId);
+		int head = storedHead(stored, messages);
+		if (head < 0) {
+			this.jdbcTemplate.update(QUERY_CLEAR, conversationId);
+			insert(conversationId, messages, 0);
+		}
+		else {
+			if (head > 0) {
+				this.jdbcTemplate.update(QUERY_CLEAR_HEAD, conversationId, stored.get(head).seq());
+			}
+			int kept = stored.size() - head;
+			if (kept < messages.size()) {
+				long nextSeq = stored.isEmpty() ? 0 : stored.get(stored.size() - 1).seq() + 1;
+				insert(conversationId, messages.subList(kept, messages.size()), nextSeq);
+			}
+		}
+		upsertConversation(conversationId, messages.size(), new Timestamp(System.currentTimeMillis()));
+	}
+
+	private void upsertConversation(String conversationId, int messageCount, Timestamp updatedAt) {
+		String upsertSql = getUpsertConversationSql();
+		if (upsertSql != null) {
+			this.jdbcTemplate.update(upsertSql, conversationId, messageCount, updatedAt);
+		}
+		else if (this.jdbcTemplate.update(QUERY_UPDATE_CONVERSATION, messageCount, updatedAt, conversationId) == 0) {
+			this.jdbcTemplate.update(QUERY_INSERT_CONVERSATION, conversationId, messageCount, updatedAt);
+		}
 	}
 
 	@Override
 	public void deleteByConversationId(@NonNull String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		this.transactionTemplate.executeWithoutResult(status -> clear(conversationId));
+	}
+
+	private void clear(String conversationId) {
 		this.jdbcTemplate.update(QUERY_CLEAR, conversationId);
+		this.jdbcTemplate.update(QUERY_CLEAR_CONVERSATION, conversationId);
+	}
+
+	private void insert(String conversationId, List<Message> messages, long firstSeq) {
+		this.jdbcTemplate.batchUpdate(getAddSql(),
+				new JdbcChatMemoryRepository.AddBatchPreparedStatement(conversationId, messages, firstSeq));
+	}
+
+	/**
+	 * Find the head of the stored rows with {@link ConversationDiff#storedHead}, rows
+	 * are compared by type and content.
+	 * @return -1 as well when the rows were written before the sequence column existed
+	 */
+	static int storedHead(List<StoredMessage> stored, List<Message> messages) {
+		for (int i = 1; i < stored.size(); i++) {
+			if (stored.get(i).seq() <= stored.get(i - 1).seq()) {
+				// rows written before the sequence column existed
+				return -1;
+			}
+		}
+		return ConversationDiff.storedHead(stored, messages,
+				(storedMessage, message) -> message.getMessageType().name().equals(storedMessage.type())
+						&& Objects.equals(message.getText(), storedMessage.content()));
 	}
 
 	/**
@@ -117,11 +274,17 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		return QUERY_GET;
 	}
 
-	private record AddBatchPreparedStatement(String conversationId, List<Message> messages,
+	record StoredMessage(String content, String type, long seq) {
+	}
+
+	private record StoredCount(String conversationId, int messageCount) {
+	}
+
+	private record AddBatchPreparedStatement(String conversationId, List<Message> messages, long firstSeq,
 			AtomicLong instantSeq) implements BatchPreparedStatementSetter {
 
-		private AddBatchPreparedStatement(String conversationId, List<Message> messages) {
-			this(conversationId, messages, new AtomicLong(Instant.now().toEpochMilli()));
+		private AddBatchPreparedStatement(String conversationId, List<Message> messages, long firstSeq) {
+			this(conversationId, messages, firstSeq, new AtomicLong(Instant.now().toEpochMilli()));
 		}
 
 		@Override
@@ -132,6 +295,7 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 			ps.setString(2, message.getText());
 			ps.setString(3, message.getMessageType().name());
 			ps.setTimestamp(4, new Timestamp(instantSeq.getAndIncrement()));
+			ps.setLong(5, this.firstSeq + i);
 		}
 
 		@Override
@@ -165,4 +329,31 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 
 	protected abstract String createTableSql(String tableName);
 
+	/**
+	 * Add the {@code seq} column to a table created by an earlier version.
+	 */
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD COLUMN seq BIGINT NOT NULL DEFAULT 0", tableName);
+	}
+
+	/**
+	 * Create the conversation summary table with the columns {@code conversation_id}
+	 * (primary key), {@code message_count} and {@code updated_at}.
+	 */
+	protected String createConversationTableSql(String tableName) {
+		return String.format("CREATE TABLE %s (conversation_id VARCHAR(256) NOT NULL PRIMARY KEY, "
+				+ "message_count INT NOT NULL, updated_at TIMESTAMP NOT NULL)", tableName);
+	}
+
+	/**
+	 * Insert or update a row of the conversation summary table, with the parameters
+	 * conversation ID, message count and update time.
+	 * @return SQL, or {@code null} to update the row and insert it when missing with two
+	 * statements
+	 */
+	@Nullable
+	protected String getUpsertConversationSql() {
+		return null;
+	}
+
 }
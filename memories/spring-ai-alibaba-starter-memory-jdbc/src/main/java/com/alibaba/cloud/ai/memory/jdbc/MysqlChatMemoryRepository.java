@@ -23,9 +23,12 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class MysqlChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	// MySQL specific query statements
-	private static final String MYSQL_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
+	private static final String MYSQL_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp, seq) VALUES (?, ?, ?, ?, ?)";
 
-	private static final String MYSQL_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String MYSQL_QUERY_UPSERT_CONVERSATION = "INSERT INTO ai_chat_memory_conversation (conversation_id, message_count, updated_at) VALUES (?, ?, ?) "
+			+ "ON DUPLICATE KEY UPDATE message_count = VALUES(message_count), updated_at = VALUES(updated_at)";
+
+	private static final String MYSQL_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq, timestamp";
 
 	private MysqlChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -62,11 +65,29 @@ public class MysqlChatMemoryRepository extends JdbcChatMemoryRepository {
 		return String.format(
 				"CREATE TABLE %s (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
 						+ "conversation_id VARCHAR(256) NOT NULL, content LONGTEXT NOT NULL, "
-						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, seq BIGINT NOT NULL DEFAULT 0, "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
+	@Override
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD COLUMN seq BIGINT NOT NULL DEFAULT 0", tableName);
+	}
+
+	@Override
+	protected String createConversationTableSql(String tableName) {
+		return String.format(
+				"CREATE TABLE %s (conversation_id VARCHAR(256) NOT NULL PRIMARY KEY, "
+						+ "message_count INT NOT NULL, updated_at TIMESTAMP NOT NULL)",
+				tableName);
+	}
+
+	@Override
+	protected String getUpsertConversationSql() {
+		return MYSQL_QUERY_UPSERT_CONVERSATION;
+	}
+
 	@Override
 	protected String getAddSql() {
 		return MYSQL_QUERY_ADD;
@@ -24,9 +24,16 @@ public class OracleChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	// Oracle specific query statement, not wrapping the 'timestamp' keyword with double
 	// quotes
-	private static final String ORACLE_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
+	private static final String ORACLE_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp, seq) VALUES (?, ?, ?, ?, ?)";
 
-	private static final String ORACLE_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String ORACLE_QUERY_UPSERT_CONVERSATION = "MERGE INTO ai_chat_memory_conversation t "
+			+ "USING (SELECT ? AS conversation_id, ? AS message_count, ? AS updated_at FROM dual) s "
+			+ "ON (t.conversation_id = s.conversation_id) "
+			+ "WHEN MATCHED THEN UPDATE SET t.message_count = s.message_count, t.updated_at = s.updated_at "
+			+ "WHEN NOT MATCHED THEN INSERT (conversation_id, message_count, updated_at) "
+			+ "VALUES (s.conversation_id, s.message_count, s.updated_at)";
+
+	private static final String ORACLE_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq, timestamp";
 
 	private OracleChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -61,11 +68,29 @@ public class OracleChatMemoryRepository extends JdbcChatMemoryRepository {
 		return String.format(
 				"CREATE TABLE %s (id NUMBER(19) GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
 						+ "conversation_id VARCHAR2(256) NOT NULL, content CLOB NOT NULL, "
-						+ "type VARCHAR2(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "type VARCHAR2(100) NOT NULL, timestamp TIMESTAMP NOT NULL, seq NUMBER(19) DEFAULT 0 NOT NULL, "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
+	@Override
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD (seq NUMBER(19) DEFAULT 0 NOT NULL)", tableName);
+	}
+
+	@Override
+	protected String createConversationTableSql(String tableName) {
+		return String.format(
+				"CREATE TABLE %s (conversation_id VARCHAR2(256) NOT NULL PRIMARY KEY, "
+						+ "message_count NUMBER(10) NOT NULL, updated_at TIMESTAMP NOT NULL)",
+				tableName);
+	}
+
+	@Override
+	protected String getUpsertConversationSql() {
+		return ORACLE_QUERY_UPSERT_CONVERSATION;
+	}
+
 	@Override
 	protected String getAddSql() {
 		return ORACLE_QUERY_ADD;
@@ -19,6 +19,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 public class SQLiteChatMemoryRepository extends JdbcChatMemoryRepository {
 
+	private static final String SQLITE_QUERY_UPSERT_CONVERSATION = "INSERT INTO ai_chat_memory_conversation (conversation_id, message_count, updated_at) VALUES (?, ?, ?) "
+			+ "ON CONFLICT (conversation_id) DO UPDATE SET message_count = excluded.message_count, updated_at = excluded.updated_at";
+
 	private SQLiteChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
 	}
@@ -51,7 +54,25 @@ public class SQLiteChatMemoryRepository extends JdbcChatMemoryRepository {
 	protected String createTableSql(String tableName) {
 		return String.format("CREATE TABLE IF NOT EXISTS %s ( conversation_id TEXT NOT NULL,"
 				+ "    content TEXT NOT NULL, type TEXT NOT NULL, timestamp REAL NOT NULL,"
-				+ "    CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
+				+ "    seq INTEGER NOT NULL DEFAULT 0, CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
+	}
+
+	@Override
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD COLUMN seq INTEGER NOT NULL DEFAULT 0", tableName);
+	}
+
+	@Override
+	protected String createConversationTableSql(String tableName) {
+		return String.format(
+				"CREATE TABLE IF NOT EXISTS %s (conversation_id TEXT NOT NULL PRIMARY KEY, "
+						+ "message_count INTEGER NOT NULL, updated_at REAL NOT NULL)",
+				tableName);
+	}
+
+	@Override
+	protected String getUpsertConversationSql() {
+		return SQLITE_QUERY_UPSERT_CONVERSATION;
 	}
 
 }
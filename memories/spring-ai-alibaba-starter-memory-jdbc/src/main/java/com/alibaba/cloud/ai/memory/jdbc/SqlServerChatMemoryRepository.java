@@ -19,6 +19,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 public class SqlServerChatMemoryRepository extends JdbcChatMemoryRepository {
 
+	private static final String SQLSERVER_QUERY_UPSERT_CONVERSATION = "MERGE INTO ai_chat_memory_conversation WITH (HOLDLOCK) AS t "
+			+ "USING (VALUES (?, ?, ?)) AS s (conversation_id, message_count, updated_at) "
+			+ "ON t.conversation_id = s.conversation_id "
+			+ "WHEN MATCHED THEN UPDATE SET message_count = s.message_count, updated_at = s.updated_at "
+			+ "WHEN NOT MATCHED THEN INSERT (conversation_id, message_count, updated_at) "
+			+ "VALUES (s.conversation_id, s.message_count, s.updated_at);";
+
 	private SqlServerChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
 	}
@@ -51,7 +58,25 @@ public class SqlServerChatMemoryRepository extends JdbcChatMemoryRepository {
 	protected String createTableSql(String tableName) {
 		return String.format("CREATE TABLE %s ( conversation_id NVARCHAR(256) NOT NULL,"
 				+ "    content NVARCHAR(MAX) NOT NULL, type VARCHAR(100) NOT NULL, timestamp DATETIME2 NOT NULL,"
-				+ "    CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
+				+ "    seq BIGINT NOT NULL DEFAULT 0, CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
+	}
+
+	@Override
+	protected String addSeqColumnSql(String tableName) {
+		return String.format("ALTER TABLE %s ADD seq BIGINT NOT NULL DEFAULT 0", tableName);
+	}
+
+	@Override
+	protected String createConversationTableSql(String tableName) {
+		return String.format(
+				"CREATE TABLE %s (conversation_id NVARCHAR(256) NOT NULL PRIMARY KEY, "
+						+ "message_count INT NOT NULL, updated_at DATETIME2 NOT NULL)",
+				tableName);
+	}
+
+	@Override
+	protected String getUpsertConversationSql() {
+		return SQLSERVER_QUERY_UPSERT_CONVERSATION;
 	}
 
 }
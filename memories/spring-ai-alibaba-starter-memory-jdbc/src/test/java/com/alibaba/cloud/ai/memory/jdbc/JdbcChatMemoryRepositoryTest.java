@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the delta writes of {@link JdbcChatMemoryRepository}, against an in-memory H2
+ * database.
+ */
+class JdbcChatMemoryRepositoryTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(
+				new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+	}
+
+	@Test
+	void insertsOnlyNewMessages() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+		List<Long> ids = ids("c1");
+
+		repository.saveAll("c1",
+				List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+
+		assertThat(ids("c1")).hasSize(3).startsWith(ids.toArray(Long[]::new));
+		assertThat(seqs("c1")).containsExactly(0L, 1L, 2L);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q1", "a1", "q2");
+	}
+
+	@Test
+	void deletesOnlyMessagesDroppedFromTheHead() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+		List<Long> ids = ids("c1");
+
+		repository.saveAll("c1", List.of(new AssistantMessage("a1"), new UserMessage("q2"), new AssistantMessage("a2")));
+
+		assertThat(ids("c1")).hasSize(3).startsWith(ids.get(1), ids.get(2));
+		assertThat(seqs("c1")).containsExactly(1L, 2L, 3L);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("a1", "q2", "a2");
+	}
+
+	@Test
+	void rewritesDivergedConversation() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+
+		repository.saveAll("c1", List.of(new UserMessage("other")));
+
+		assertThat(seqs("c1")).containsExactly(0L);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("other");
+	}
+
+	@Test
+	void listsConversationsFromSummaryTable() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		repository.saveAll("c1", List.of(new UserMessage("q1")));
+		repository.saveAll("c2", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+		repository.saveAll("c2", List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+
+		assertThat(repository.findConversationIds()).containsExactlyInAnyOrder("c1", "c2");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT message_count FROM ai_chat_memory_conversation WHERE conversation_id = 'c2'", Integer.class))
+			.isEqualTo(3);
+
+		repository.deleteByConversationId("c1");
+		repository.saveAll("c2", List.of());
+
+		assertThat(repository.findConversationIds()).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ai_chat_memory", Integer.class)).isZero();
+	}
+
+	@Test
+	void upgradesTablesOfEarlierVersions() {
+		jdbcTemplate.execute("CREATE TABLE ai_chat_memory (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+				+ "conversation_id VARCHAR(256) NOT NULL, content LONGTEXT NOT NULL, "
+				+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL)");
+		jdbcTemplate.update("INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES "
+				+ "('c1', 'q1', 'USER', TIMESTAMP '2025-01-01 00:00:00'), "
+				+ "('c1', 'a1', 'ASSISTANT', TIMESTAMP '2025-01-01 00:00:01')");
+
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+
+		assertThat(seqs("c1")).containsExactly(0L, 1L);
+		assertThat(repository.findConversationIds()).containsExactly("c1");
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q1", "a1");
+
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+
+		assertThat(seqs("c1")).containsExactly(0L, 1L, 2L);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q1", "a1", "q2");
+	}
+
+	@Test
+	void concurrentSavesKeepSequenceNumbersUnique() throws Exception {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		List<Message> messages = List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2"));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> saves = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				saves.add(executor.submit(() -> repository.saveAll("c1", messages)));
+			}
+			for (Future<?> save : saves) {
+				save.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(seqs("c1")).containsExactly(0L, 1L, 2L);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q1", "a1", "q2");
+		assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO ai_chat_memory (conversation_id, content, type, "
+				+ "timestamp, seq) VALUES ('c1', 'x', 'USER', CURRENT_TIMESTAMP, 0)"))
+			.isInstanceOf(DuplicateKeyException.class);
+	}
+
+	@Test
+	void subclassesOfEarlierVersionsUseDefaultStatements() {
+		JdbcChatMemoryRepository repository = new JdbcChatMemoryRepository(jdbcTemplate) {
+
+			@Override
+			protected String hasTableSql(String tableName) {
+				return String.format("SELECT table_name FROM information_schema.tables WHERE table_name = UPPER('%s')",
+						tableName);
+			}
+
+			@Override
+			protected String createTableSql(String tableName) {
+				return String.format("CREATE TABLE %s (conversation_id VARCHAR(256) NOT NULL, "
+						+ "content LONGTEXT NOT NULL, type VARCHAR(100) NOT NULL, \"timestamp\" TIMESTAMP NOT NULL, "
+						+ "seq BIGINT NOT NULL DEFAULT 0)", tableName);
+			}
+
+		};
+		repository.saveAll("c1", List.of(new UserMessage("q1")));
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+
+		assertThat(repository.findConversationIds()).containsExactly("c1");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT message_count FROM ai_chat_memory_conversation WHERE conversation_id = 'c1'", Integer.class))
+			.isEqualTo(2);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q1", "a1");
+	}
+
+	private List<Long> ids(String conversationId) {
+		return jdbcTemplate.queryForList("SELECT id FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq",
+				Long.class, conversationId);
+	}
+
+	private List<Long> seqs(String conversationId) {
+		return jdbcTemplate
+			.queryForList("SELECT seq FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq", conversationId)
+			.stream()
+			.map(Map::values)
+			.map(values -> ((Number) values.iterator().next()).longValue())
+			.toList();
+	}
+
+}
@@ -38,10 +38,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
 /**
@@ -107,12 +109,29 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 
 	private final VectorStore vectorStore;
 
+	private final Mem0WriteBehindQueue writeBehindQueue;
+
+	private final boolean overlapSearch;
+
 	public Mem0ChatMemoryAdvisor(PromptTemplate systemPromptTemplate, int order, Scheduler scheduler,
 			VectorStore vectorStore) {
+		this(systemPromptTemplate, order, scheduler, vectorStore, null, false);
+	}
+
+	/**
+	 * @param writeBehindQueue when set, memory writes are queued instead of being sent to
+	 * the vector store on the request thread
+	 * @param overlapSearch run the memory search on the scheduler while the user message
+	 * is written and the prompt is prepared
+	 */
+	public Mem0ChatMemoryAdvisor(PromptTemplate systemPromptTemplate, int order, Scheduler scheduler,
+			VectorStore vectorStore, Mem0WriteBehindQueue writeBehindQueue, boolean overlapSearch) {
 		this.systemPromptTemplate = systemPromptTemplate;
 		this.order = order;
 		this.scheduler = scheduler;
 		this.vectorStore = vectorStore;
+		this.writeBehindQueue = writeBehindQueue;
+		this.overlapSearch = overlapSearch;
 	}
 
 	public static Mem0ChatMemoryAdvisor.Builder builder(VectorStore chatMemory) {
@@ -140,7 +159,21 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 						? (Map<String, Object>) params.get(FILTERS) : null)
 				.build();
 
-		List<Document> documents = this.vectorStore.similaritySearch(searchRequest);
+		CompletableFuture<List<Document>> search = this.overlapSearch
+				? Mono.fromCallable(() -> this.vectorStore.similaritySearch(searchRequest))
+					.subscribeOn(this.scheduler)
+					.toFuture()
+				: CompletableFuture.completedFuture(this.vectorStore.similaritySearch(searchRequest));
+
+		// 2. Write the user message while the search is in flight.
+		Map<String, Object> metadata = userMessage.getMetadata();
+		metadata.putAll(params);
+
+		if (StringUtils.hasText(query)) {
+			write(toDocuments(java.util.List.of(userMessage)));
+		}
+
+		List<Document> documents = search.join();
 
 		String documentContext = documents == null ? ""
 				: documents.stream().map(Document::getText).collect(Collectors.joining(System.lineSeparator()));
@@ -149,12 +182,6 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 		String augmentedUserText = this.systemPromptTemplate
 				.render(Map.of("query", query, "long_term_memory", documentContext));
 
-		Map<String, Object> metadata = userMessage.getMetadata();
-		metadata.putAll(params);
-
-		if (StringUtils.hasText(query)) {
-			this.vectorStore.add(toDocuments(java.util.List.of(userMessage)));
-		}
 		// 4. Update ChatClientRequest with augmented prompt.
 		return request.mutate().prompt(request.prompt().augmentUserMessage(augmentedUserText)).context(params).build();
 	}
@@ -173,11 +200,20 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 		// write mem0 memory
 		if (!assistantMessages.isEmpty()) {
 			logger.debug("before add assistant messages to mem0 , assistantMessages: {}", assistantMessages);
-			this.vectorStore.add(toDocuments(assistantMessages));
+			write(toDocuments(assistantMessages));
 		}
 		return chatClientResponse;
 	}
 
+	private void write(List<Document> documents) {
+		if (this.writeBehindQueue != null) {
+			this.writeBehindQueue.add(documents);
+		}
+		else {
+			this.vectorStore.add(documents);
+		}
+	}
+
 	private List<Document> toDocuments(List<Message> messages) {
 		List<Document> docs = messages.stream()
 				.filter((m) -> m.getMessageType() == MessageType.USER || m.getMessageType() == MessageType.ASSISTANT)
@@ -225,6 +261,8 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 		private String defaultConversationId;
 		private int order;
 		private Scheduler scheduler;
+		private Mem0WriteBehindQueue writeBehindQueue;
+		private boolean overlapSearch;
 
 		protected Builder(VectorStore vectorStore) {
 			this.defaultConversationId = "default";
@@ -253,8 +291,19 @@ public class Mem0ChatMemoryAdvisor implements BaseChatMemoryAdvisor {
 			return this;
 		}
 
+		public Mem0ChatMemoryAdvisor.Builder writeBehind(Mem0WriteBehindQueue writeBehindQueue) {
+			this.writeBehindQueue = writeBehindQueue;
+			return this;
+		}
+
+		public Mem0ChatMemoryAdvisor.Builder overlapSearch(boolean overlapSearch) {
+			this.overlapSearch = overlapSearch;
+			return this;
+		}
+
 		public Mem0ChatMemoryAdvisor build() {
-			return new Mem0ChatMemoryAdvisor(this.systemPromptTemplate, this.order, this.scheduler, this.vectorStore);
+			return new Mem0ChatMemoryAdvisor(this.systemPromptTemplate, this.order, this.scheduler, this.vectorStore,
+					this.writeBehindQueue, this.overlapSearch);
 		}
 
 	}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mem0.advisor;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor.AGENT_ID;
+import static com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor.RUN_ID;
+import static com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor.USER_ID;
+
+/**
+ * Writes memory documents to the {@link VectorStore} on background threads, so that the
+ * Mem0 extraction does not sit on the critical path of a chat turn.
+ * <p>
+ * Documents are queued per lane, a lane being the user_id, agent_id and run_id of the
+ * document. A lane is drained by at most one worker at a time, so the writes of one user
+ * reach Mem0 in the order they were queued, and everything queued for a lane while its
+ * previous write was in flight is coalesced into one {@link VectorStore#add} call of at
+ * most {@code maxBatchSize} documents. Failed writes are retried with exponential
+ * backoff. The queue holds at most {@code capacity} documents; when it is full the caller
+ * waits up to {@code enqueueTimeout} and the documents are dropped after that.
+ * {@link #close()} flushes the queue and is called by Spring on shutdown when the queue
+ * is a bean.
+ *
+ * @since 1.1.0
+ */
+public class Mem0WriteBehindQueue implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(Mem0WriteBehindQueue.class);
+
+	private final VectorStore vectorStore;
+
+	private final int capacity;
+
+	private final int maxBatchSize;
+
+	private final int maxAttempts;
+
+	private final Duration initialBackoff;
+
+	private final Duration maxBackoff;
+
+	private final Duration enqueueTimeout;
+
+	private final Duration shutdownTimeout;
+
+	private final ExecutorService executor;
+
+	private final Semaphore permits;
+
+	private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+	private final AtomicInteger outstanding = new AtomicInteger();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final Object idle = new Object();
+
+	private volatile boolean closed;
+
+	protected Mem0WriteBehindQueue(Builder builder) {
+		this.vectorStore = builder.vectorStore;
+		this.capacity = builder.capacity;
+		this.maxBatchSize = builder.maxBatchSize;
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoff = builder.initialBackoff;
+		this.maxBackoff = builder.maxBackoff;
+		this.enqueueTimeout = builder.enqueueTimeout;
+		this.shutdownTimeout = builder.shutdownTimeout;
+		this.permits = new Semaphore(builder.capacity);
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(builder.workers, runnable -> {
+			Thread thread = new Thread(runnable, "mem0-write-behind-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static Builder builder(VectorStore vectorStore) {
+		return new Builder(vectorStore);
+	}
+
+	/**
+	 * Queue documents for writing. Returns as soon as the documents are queued; once the
+	 * queue is closed, the documents are written on the calling thread instead.
+	 * @param documents the documents to write
+	 * @return false if the queue stayed full for {@code enqueueTimeout} and the documents
+	 * were dropped
+	 */
+	public boolean add(List<Document> documents) {
+		if (documents == null || documents.isEmpty()) {
+			return true;
+		}
+		if (this.closed) {
+			this.vectorStore.add(documents);
+			return true;
+		}
+		int size = documents.size();
+		if (size > this.capacity || !acquire(size)) {
+			this.dropped.addAndGet(size);
+			logger.warn("Mem0 write-behind queue is full, dropped {} memory documents", size);
+			return false;
+		}
+		this.outstanding.addAndGet(size);
+
+		Map<String, List<Document>> byLane = new LinkedHashMap<>();
+		for (Document document : documents) {
+			byLane.computeIfAbsent(laneKey(document), key -> new ArrayList<>()).add(document);
+		}
+		byLane.forEach((key, laneDocuments) -> {
+			boolean[] schedule = new boolean[1];
+			this.lanes.compute(key, (k, lane) -> {
+				Lane target = lane != null ? lane : new Lane();
+				target.pending.addAll(laneDocuments);
+				if (!target.draining) {
+					target.draining = true;
+					schedule[0] = true;
+				}
+				return target;
+			});
+			if (schedule[0]) {
+				try {
+					this.executor.execute(() -> drain(key));
+				}
+				catch (RejectedExecutionException e) {
+					// closed concurrently, the workers are gone
+					drain(key);
+				}
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Wait until everything queued so far has been written or has failed for good.
+	 * @param timeout the maximum time to wait
+	 * @return true if the queue is empty
+	 */
+	public boolean flush(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (this.idle) {
+			while (this.outstanding.get() > 0) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0) {
+					return false;
+				}
+				try {
+					this.idle.wait(remaining);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stop accepting documents, flush what is queued and stop the workers. Documents
+	 * added afterwards are written synchronously.
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		if (!flush(this.shutdownTimeout)) {
+			logger.warn("Mem0 write-behind queue not drained within {}, {} memory documents are lost",
+					this.shutdownTimeout, this.outstanding.get());
+		}
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * @return documents queued or being written
+	 */
+	public int getPending() {
+		return this.outstanding.get();
+	}
+
+	/**
+	 * @return documents dropped because the queue was full
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * @return documents whose write still failed after the last retry
+	 */
+	public long getFailed() {
+		return this.failed.get();
+	}
+
+	private boolean acquire(int size) {
+		try {
+			return this.permits.tryAcquire(size, this.enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void drain(String key) {
+		List<Document> batch;
+		while (!(batch = nextBatch(key)).isEmpty()) {
+			try {
+				write(batch);
+			}
+			finally {
+				release(batch.size());
+			}
+		}
+	}
+
+	private List<Document> nextBatch(String key) {
+		List<Document> batch = new ArrayList<>();
+		this.lanes.computeIfPresent(key, (k, lane) -> {
+			while (batch.size() < this.maxBatchSize && !lane.pending.isEmpty()) {
+				batch.add(lane.pending.poll());
+			}
+			// an empty lane is removed, the next add creates and schedules a new one
+			return batch.isEmpty() ? null : lane;
+		});
+		return batch;
+	}
+
+	private void write(List<Document> batch) {
+		long backoff = this.initialBackoff.toMillis();
+		for (int attempt = 1;; attempt++) {
+			try {
+				this.vectorStore.add(batch);
+				return;
+			}
+			catch (RuntimeException e) {
+				if (attempt >= this.maxAttempts) {
+					this.failed.addAndGet(batch.size());
+					logger.error("Failed to write {} memory documents to mem0 after {} attempts", batch.size(),
+							attempt, e);
+					return;
+				}
+				logger.warn("Failed to write {} memory documents to mem0, attempt {} of {}, retrying in {} ms",
+						batch.size(), attempt, this.maxAttempts, backoff, e);
+			}
+			try {
+				Thread.sleep(backoff);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.failed.addAndGet(batch.size());
+				return;
+			}
+			backoff = Math.min(backoff * 2, this.maxBackoff.toMillis());
+		}
+	}
+
+	private void release(int size) {
+		this.permits.release(size);
+		if (this.outstanding.addAndGet(-size) == 0) {
+			synchronized (this.idle) {
+				this.idle.notifyAll();
+			}
+		}
+	}
+
+	static String laneKey(Document document) {
+		Map<String, Object> metadata = document.getMetadata();
+		return metadata.get(USER_ID) + "\u0000" + metadata.get(AGENT_ID) + "\u0000" + metadata.get(RUN_ID);
+	}
+
+	private static final class Lane {
+
+		private final ArrayDeque<Document> pending = new ArrayDeque<>();
+
+		private boolean draining;
+
+	}
+
+	public static class Builder {
+
+		private final VectorStore vectorStore;
+
+		private int capacity = 10_000;
+
+		private int maxBatchSize = 32;
+
+		private int workers = 4;
+
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofMillis(500);
+
+		private Duration maxBackoff = Duration.ofSeconds(10);
+
+		private Duration enqueueTimeout = Duration.ofSeconds(1);
+
+		private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+		protected Builder(VectorStore vectorStore) {
+			Assert.notNull(vectorStore, "vectorStore cannot be null");
+			this.vectorStore = vectorStore;
+		}
+
+		public Builder capacity(int capacity) {
+			Assert.isTrue(capacity > 0, "capacity must be positive");
+			this.capacity = capacity;
+			return this;
+		}
+
+		public Builder maxBatchSize(int maxBatchSize) {
+			Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		public Builder workers(int workers) {
+			Assert.isTrue(workers > 0, "workers must be positive");
+			this.workers = workers;
+			return this;
+		}
+
+		public Builder maxAttempts(int maxAttempts) {
+			Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		public Builder initialBackoff(Duration initialBackoff) {
+			Assert.notNull(initialBackoff, "initialBackoff cannot be null");
+			this.initialBackoff = initialBackoff;
+			return this;
+		}
+
+		public Builder maxBackoff(Duration maxBackoff) {
+			Assert.notNull(maxBackoff, "maxBackoff cannot be null");
+			this.maxBackoff = maxBackoff;
+			return this;
+		}
+
+		public Builder enqueueTimeout(Duration enqueueTimeout) {
+			Assert.notNull(enqueueTimeout, "enqueueTimeout cannot be null");
+			this.enqueueTimeout = enqueueTimeout;
+			return this;
+		}
+
+		public Builder shutdownTimeout(Duration shutdownTimeout) {
+			Assert.notNull(shutdownTimeout, "shutdownTimeout cannot be null");
+			this.shutdownTimeout = shutdownTimeout;
+			return this;
+		}
+
+		public Mem0WriteBehindQueue build() {
+			return new Mem0WriteBehindQueue(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mem0.core;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Limits how many calls run at once without holding a thread per waiting call. Calls
+ * over the limit wait in a bounded FIFO queue and are rejected with a
+ * {@link RejectedExecutionException} once the queue is full.
+ *
+ * @since 1.1.0
+ */
+final class Mem0Bulkhead {
+
+	private final int maxConcurrent;
+
+	private final int maxWaiting;
+
+	private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+	private int active;
+
+	Mem0Bulkhead(int maxConcurrent, int maxWaiting) {
+		this.maxConcurrent = Math.max(1, maxConcurrent);
+		this.maxWaiting = Math.max(0, maxWaiting);
+	}
+
+	<T> Mono<T> run(Supplier<Mono<T>> call) {
+		return Mono.usingWhen(acquire(), permit -> {
+			permit.used = true;
+			return Mono.defer(call);
+		}, Permit::release,
+				(permit, error) -> permit.release(), Permit::release);
+	}
+
+	synchronized int getActive() {
+		return this.active;
+	}
+
+	synchronized int getWaiting() {
+		return this.waiters.size();
+	}
+
+	private Mono<Permit> acquire() {
+		return Mono.create(sink -> {
+			Waiter waiter = new Waiter(sink);
+			boolean granted = false;
+			boolean rejected = false;
+			synchronized (this) {
+				if (this.active < this.maxConcurrent) {
+					this.active++;
+					granted = true;
+				}
+				else if (this.waiters.size() >= this.maxWaiting) {
+					rejected = true;
+				}
+				else {
+					this.waiters.add(waiter);
+				}
+			}
+			if (granted) {
+				sink.success(new Permit());
+			}
+			else if (rejected) {
+				sink.error(new RejectedExecutionException("Mem0 bulkhead is full: " + this.maxConcurrent
+						+ " calls running and " + this.maxWaiting + " waiting"));
+			}
+			else {
+				sink.onCancel(() -> cancel(waiter));
+			}
+		});
+	}
+
+	private void cancel(Waiter waiter) {
+		boolean queued;
+		synchronized (this) {
+			queued = this.waiters.remove(waiter);
+		}
+		if (!queued && waiter.permit != null && !waiter.permit.used) {
+			// the permit was handed over concurrently and will never be used
+			waiter.permit.release();
+		}
+	}
+
+	private void handOver() {
+		Waiter next;
+		synchronized (this) {
+			next = this.waiters.poll();
+			if (next == null) {
+				this.active--;
+				return;
+			}
+			next.permit = new Permit();
+		}
+		next.sink.success(next.permit);
+	}
+
+	private static final class Waiter {
+
+		private final MonoSink<Permit> sink;
+
+		private volatile Permit permit;
+
+		private Waiter(MonoSink<Permit> sink) {
+			this.sink = sink;
+		}
+
+	}
+
+	private final class Permit {
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private volatile boolean used;
+
+		private Mono<Void> release() {
+			if (this.released.compareAndSet(false, true)) {
+				handOver();
+			}
+			return Mono.empty();
+		}
+
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package com.alibaba.cloud.ai.memory.mem0.core;
 
+import java.time.Duration;
+
 /**
  * @author yingzi
  * @since 2025/9/14
@@ -30,6 +32,12 @@ public class Mem0Client {
 
 	private int maxRetryAttempts = 3;
 
+	private Duration cacheTtl = Duration.ofSeconds(5);
+
+	private int cacheMaxSize = 1000;
+
+	private Timeouts timeouts = new Timeouts();
+
 	private AsyncConfig async = new AsyncConfig();
 
 	// 私有构造函数，防止直接实例化
@@ -42,9 +50,66 @@ public class Mem0Client {
 		this.enableCache = builder.enableCache;
 		this.timeoutSeconds = builder.timeoutSeconds;
 		this.maxRetryAttempts = builder.maxRetryAttempts;
+		this.cacheTtl = builder.cacheTtl;
+		this.cacheMaxSize = builder.cacheMaxSize;
+		this.timeouts = builder.timeouts;
 		this.async = builder.async;
 	}
 
+	/**
+	 * Per operation timeouts, {@code timeoutSeconds} applies to the unset ones.
+	 */
+	public static class Timeouts {
+
+		private Duration add;
+
+		private Duration search;
+
+		private Duration get;
+
+		private Duration delete;
+
+		public Duration getAdd() {
+			return add;
+		}
+
+		public void setAdd(Duration add) {
+			this.add = add;
+		}
+
+		public Duration getSearch() {
+			return search;
+		}
+
+		public void setSearch(Duration search) {
+			this.search = search;
+		}
+
+		public Duration getGet() {
+			return get;
+		}
+
+		public void setGet(Duration get) {
+			this.get = get;
+		}
+
+		public Duration getDelete() {
+			return delete;
+		}
+
+		public void setDelete(Duration delete) {
+			this.delete = delete;
+		}
+
+	}
+
+	/**
+	 * Add and update calls: {@code enabled} makes the blocking methods return without
+	 * waiting, {@code maxPoolSize} bounds the concurrent calls and {@code queueCapacity}
+	 * the calls waiting for one of them, further calls are rejected. The calls run on the
+	 * WebClient event loop, {@code corePoolSize} and {@code threadNamePrefix} are no
+	 * longer used.
+	 */
 	public static class AsyncConfig {
 
 		private boolean enabled = true;
@@ -144,6 +209,30 @@ public class Mem0Client {
 		this.maxRetryAttempts = maxRetryAttempts;
 	}
 
+	public Duration getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(Duration cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public int getCacheMaxSize() {
+		return cacheMaxSize;
+	}
+
+	public void setCacheMaxSize(int cacheMaxSize) {
+		this.cacheMaxSize = cacheMaxSize;
+	}
+
+	public Timeouts getTimeouts() {
+		return timeouts;
+	}
+
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+	}
+
 	public static class Builder {
 
 		private String baseUrl = "http://localhost:8888";
@@ -154,6 +243,12 @@ public class Mem0Client {
 
 		private int maxRetryAttempts = 3;
 
+		private Duration cacheTtl = Duration.ofSeconds(5);
+
+		private int cacheMaxSize = 1000;
+
+		private Timeouts timeouts = new Timeouts();
+
 		private AsyncConfig async = new AsyncConfig();
 
 		private Builder() {
@@ -179,6 +274,21 @@ public class Mem0Client {
 			return this;
 		}
 
+		public Builder cacheTtl(Duration cacheTtl) {
+			this.cacheTtl = cacheTtl;
+			return this;
+		}
+
+		public Builder cacheMaxSize(int cacheMaxSize) {
+			this.cacheMaxSize = cacheMaxSize;
+			return this;
+		}
+
+		public Builder timeouts(Timeouts timeouts) {
+			this.timeouts = timeouts;
+			return this;
+		}
+
 		public Builder async(AsyncConfig async) {
 			this.async = async;
 			return this;
@@ -27,9 +27,11 @@ import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -68,26 +70,54 @@ public class Mem0MemoryStore implements InitializingBean, VectorStore {
 
 	}
 
+	/**
+	 * Adds the documents as memories. Consecutive documents of the same user_id, agent_id
+	 * and run_id are sent as one request with several messages, so Mem0 runs the
+	 * extraction once for them.
+	 */
 	@Override
 	public void add(List<Document> documents) {
-		// TODO 将role相同的message合并
-		List<Mem0ServerRequest.MemoryCreate> messages = documents.stream()
-				.map(doc -> Mem0ServerRequest.MemoryCreate.builder()
-						.messages(
-								List.of(new Mem0ServerRequest.Message(doc.getMetadata().get("role")
-										.toString(), doc.getText())))
-						.metadata(doc.getMetadata())
-						.agentId(doc.getMetadata().containsKey(AGENT_ID) ? doc.getMetadata().get(AGENT_ID)
-								.toString() : null)
-						.runId(doc.getMetadata().containsKey(RUN_ID) ? doc.getMetadata().get(RUN_ID).toString() : null)
-						.userId(doc.getMetadata().containsKey(USER_ID) ? doc.getMetadata().get(USER_ID)
-								.toString() : null)
-						.build())
-				.toList();
-		// TODO 增加异步方式
+		List<Mem0ServerRequest.MemoryCreate> messages = new ArrayList<>();
+		List<Document> group = new ArrayList<>();
+		for (Document doc : documents) {
+			if (!group.isEmpty() && !sameOwner(group.get(0), doc)) {
+				messages.add(toMemoryCreate(group));
+				group = new ArrayList<>();
+			}
+			group.add(doc);
+		}
+		if (!group.isEmpty()) {
+			messages.add(toMemoryCreate(group));
+		}
 		messages.forEach(mem0Client::addMemory);
 	}
 
+	static Mem0ServerRequest.MemoryCreate toMemoryCreate(List<Document> group) {
+		Map<String, Object> metadata = new HashMap<>();
+		group.forEach(doc -> metadata.putAll(doc.getMetadata()));
+		if (group.stream().map(doc -> doc.getMetadata().get("role")).distinct().count() > 1) {
+			// the role of each message is carried by the message itself
+			metadata.remove("role");
+		}
+		Map<String, Object> first = group.get(0).getMetadata();
+		return Mem0ServerRequest.MemoryCreate.builder()
+				.messages(group.stream()
+						.map(doc -> new Mem0ServerRequest.Message(doc.getMetadata().get("role").toString(),
+								doc.getText()))
+						.toList())
+				.metadata(metadata)
+				.agentId(first.containsKey(AGENT_ID) ? first.get(AGENT_ID).toString() : null)
+				.runId(first.containsKey(RUN_ID) ? first.get(RUN_ID).toString() : null)
+				.userId(first.containsKey(USER_ID) ? first.get(USER_ID).toString() : null)
+				.build();
+	}
+
+	private static boolean sameOwner(Document a, Document b) {
+		return Objects.equals(a.getMetadata().get(USER_ID), b.getMetadata().get(USER_ID))
+				&& Objects.equals(a.getMetadata().get(AGENT_ID), b.getMetadata().get(AGENT_ID))
+				&& Objects.equals(a.getMetadata().get(RUN_ID), b.getMetadata().get(RUN_ID));
+	}
+
 	@Override
 	public void delete(List<String> idList) {
 		idList.forEach(mem0Client::deleteMemory);
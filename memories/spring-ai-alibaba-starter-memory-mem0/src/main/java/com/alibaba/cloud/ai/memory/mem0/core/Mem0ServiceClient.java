@@ -34,23 +34,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 /**
  * Mem0 API Client Implementation
  *
  * Directly calls the Mem0 REST API interface. Reference documentation:
  * http://localhost:8888/docs
+ *
+ * The {@code Mono} returning methods are the implementation, the blocking methods wrap
+ * them. Writes go through a bulkhead of {@code async.max-pool-size} concurrent calls and
+ * {@code async.queue-capacity} waiting calls. Search results are cached for
+ * {@code cache-ttl} when {@code enable-cache} is set; writes through this client evict
+ * the cached searches of the same user, agent or run.
  */
 public class Mem0ServiceClient {
 
@@ -65,7 +70,8 @@ public class Mem0ServiceClient {
 	private final Mem0Client mem0Client;
 	private final Mem0Server mem0Server;
 	private final ResourceLoader resourceLoader;
-	private final Executor asyncExecutor;
+	private final Mem0Bulkhead writeBulkhead;
+	private final Map<SearchKey, CachedSearch> searchCache = new ConcurrentHashMap<>();
 
 	/**
 	 * Constructor
@@ -87,24 +93,9 @@ public class Mem0ServiceClient {
 				.defaultHeader("Content-Type", "application/json")
 				.build();
 
-		// Initialize async executor for memory operations
+		// Bound the concurrent writes, Mem0 runs an LLM extraction for each of them
 		Mem0Client.AsyncConfig async = mem0Client.getAsync();
-		if (async.isEnabled()) {
-			this.asyncExecutor = Executors.newFixedThreadPool(async.getMaxPoolSize(), new ThreadFactory() {
-				private final AtomicInteger threadNumber = new AtomicInteger(1);
-
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread t = new Thread(r, async.getThreadNamePrefix() + threadNumber.getAndIncrement());
-					t.setDaemon(true);
-					return t;
-				}
-			});
-		}
-		else {
-			// If async is disabled, use a synchronous executor
-			this.asyncExecutor = Runnable::run;
-		}
+		this.writeBulkhead = new Mem0Bulkhead(async.getMaxPoolSize(), async.getQueueCapacity());
 	}
 
 	/**
@@ -156,14 +147,13 @@ public class Mem0ServiceClient {
 	 */
 	public void addMemory(Mem0ServerRequest.MemoryCreate memoryCreate) {
 		if (mem0Client.getAsync().isEnabled()) {
-			// Execute asynchronously
-			CompletableFuture.runAsync(() -> {
-				executeAddMemory(memoryCreate);
-			}, asyncExecutor);
+			// Execute asynchronously, failures are logged by addMemoryReactive
+			addMemoryReactive(memoryCreate).subscribe(null, e -> {
+			});
 		}
 		else {
 			// Execute synchronously
-			executeAddMemory(memoryCreate);
+			addMemoryReactive(memoryCreate).block();
 		}
 	}
 
@@ -171,149 +161,178 @@ public class Mem0ServiceClient {
 	 * Add memory asynchronously - returns CompletableFuture for advanced usage
 	 */
 	public CompletableFuture<Void> addMemoryAsync(Mem0ServerRequest.MemoryCreate memoryCreate) {
-		return CompletableFuture.runAsync(() -> {
-			executeAddMemory(memoryCreate);
-		}, asyncExecutor);
+		return addMemoryReactive(memoryCreate).toFuture();
 	}
 
 	/**
-	 * Internal method to execute add memory operation
+	 * Add memory
 	 */
-	private void executeAddMemory(Mem0ServerRequest.MemoryCreate memoryCreate) {
-		try {
-			// Add debugging information
-			String requestJson = objectMapper.writeValueAsString(memoryCreate);
-
-			String response = webClient.post()
+	public Mono<Void> addMemoryReactive(Mem0ServerRequest.MemoryCreate memoryCreate) {
+		return this.writeBulkhead.run(() -> {
+			String requestJson = toJson(memoryCreate);
+			return webClient.post()
 					.uri(MEMORIES_ENDPOINT)
 					.contentType(MediaType.APPLICATION_JSON)
 					.body(BodyInserters.fromValue(requestJson))
 					.retrieve()
 					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(mem0Client.getTimeoutSeconds()))
-					.retry(mem0Client.getMaxRetryAttempts())
-					.block();
-
-			if (response != null) {
-				objectMapper.readValue(response, new TypeReference<Map<String, Object>>() {
-				});
-				logger.info("Successfully added memory with {} messages", memoryCreate.getMessages().size());
-			}
-		}
-		catch (WebClientResponseException e) {
-			String errorBody = e.getResponseBodyAsString();
-			logger.error("HTTP error adding memory: {} - {}", e.getStatusCode(), errorBody, e);
-			throw new RuntimeException("Failed to add memory: " + errorBody, e);
-		}
-		catch (Exception e) {
-			logger.error("UNKNOWN error adding memory: {}", e.getMessage(), e);
-			throw new RuntimeException("Failed to add memory", e);
-		}
+					.timeout(timeout(mem0Client.getTimeouts().getAdd()))
+					.retry(mem0Client.getMaxRetryAttempts());
+		}).doOnNext(response -> {
+			parse(response, new TypeReference<Map<String, Object>>() {
+			});
+			logger.info("Successfully added memory with {} messages", memoryCreate.getMessages().size());
+		})
+				.doOnTerminate(() -> evictSearches(memoryCreate.getUserId(), memoryCreate.getAgentId(),
+						memoryCreate.getRunId()))
+				.onErrorMap(e -> {
+					if (e instanceof WebClientResponseException responseException) {
+						String errorBody = responseException.getResponseBodyAsString();
+						logger.error("HTTP error adding memory: {} - {}", responseException.getStatusCode(), errorBody,
+								e);
+						return new RuntimeException("Failed to add memory: " + errorBody, e);
+					}
+					logger.error("UNKNOWN error adding memory: {}", e.getMessage(), e);
+					return new RuntimeException("Failed to add memory", e);
+				})
+				.then();
 	}
 
-
 	/**
 	 * Get all memory
 	 */
 	public Mem0ServerResp getAllMemories(String userId, String runId, String agentId) {
-		try {
-			String response = webClient.get().uri(uriBuilder -> {
-						uriBuilder.path(MEMORIES_ENDPOINT);
-						if (userId != null)
-							uriBuilder.queryParam("user_id", userId);
-						if (runId != null)
-							uriBuilder.queryParam("run_id", runId);
-						if (agentId != null)
-							uriBuilder.queryParam("agent_id", agentId);
-						return uriBuilder.build();
-					})
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.retry(this.mem0Client.getMaxRetryAttempts())
-					.block();
+		return getAllMemoriesReactive(userId, runId, agentId).block();
+	}
 
-			if (response != null) {
+	/**
+	 * Get all memory
+	 */
+	public Mono<Mem0ServerResp> getAllMemoriesReactive(String userId, String runId, String agentId) {
+		return webClient.get().uri(uriBuilder -> {
+					uriBuilder.path(MEMORIES_ENDPOINT);
+					if (userId != null)
+						uriBuilder.queryParam("user_id", userId);
+					if (runId != null)
+						uriBuilder.queryParam("run_id", runId);
+					if (agentId != null)
+						uriBuilder.queryParam("agent_id", agentId);
+					return uriBuilder.build();
+				})
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getGet()))
+				.retry(this.mem0Client.getMaxRetryAttempts())
 				// Mem0 service returns data in the format {"results":[],"relations":[]}
-				return objectMapper.readValue(response, new TypeReference<Mem0ServerResp>() {
+				.map(response -> parse(response, new TypeReference<Mem0ServerResp>() {
+				}))
+				.switchIfEmpty(Mono.fromSupplier(Mem0ServerResp::new))
+				.onErrorMap(e -> {
+					logger.error("Failed to get memories: {}", e.getMessage(), e);
+					return new RuntimeException("Failed to get memories", e);
 				});
-			}
-		}
-		catch (Exception e) {
-			logger.error("Failed to get memories: {}", e.getMessage(), e);
-			throw new RuntimeException("Failed to get memories", e);
-		}
-
-		return new Mem0ServerResp();
 	}
 
 	/**
 	 * Get single memory
 	 */
 	public Mem0ServerResp getMemory(String memoryId) {
-		try {
-			String response = webClient.get()
-					.uri(MEMORIES_ENDPOINT + "/{memoryId}", memoryId)
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.retry(this.mem0Client.getMaxRetryAttempts())
-					.block();
-
-			if (response != null) {
-				Mem0ServerResp memory = objectMapper.readValue(response, Mem0ServerResp.class);
-				logger.info("Retrieved memory: {}", memoryId);
-				return memory;
-			}
-		}
-		catch (Exception e) {
-			logger.error("Failed to get memory {}: {}", memoryId, e.getMessage(), e);
-			throw new RuntimeException("Failed to get memory " + memoryId, e);
-		}
+		return getMemoryReactive(memoryId).block();
+	}
 
-		return null;
+	/**
+	 * Get single memory, empty if Mem0 returns no body
+	 */
+	public Mono<Mem0ServerResp> getMemoryReactive(String memoryId) {
+		return webClient.get()
+				.uri(MEMORIES_ENDPOINT + "/{memoryId}", memoryId)
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getGet()))
+				.retry(this.mem0Client.getMaxRetryAttempts())
+				.map(response -> {
+					Mem0ServerResp memory = parse(response, new TypeReference<Mem0ServerResp>() {
+					});
+					logger.info("Retrieved memory: {}", memoryId);
+					return memory;
+				})
+				.onErrorMap(e -> {
+					logger.error("Failed to get memory {}: {}", memoryId, e.getMessage(), e);
+					return new RuntimeException("Failed to get memory " + memoryId, e);
+				});
 	}
 
 	/**
 	 * Search memory
 	 */
 	public Mem0ServerResp searchMemories(Mem0ServerRequest.SearchRequest searchRequest) {
-		try {
-			// The SEARCH_ENDPOINT requires the query field to have a value, so a fallback
-			// mechanism is implemented
-			if (!StringUtils.hasText(searchRequest.getQuery())) {
-				return getAllMemories(searchRequest.getUserId(), searchRequest.getRunId(), searchRequest.getAgentId());
-			}
-
-			// Add debug logging
-			String requestJson = objectMapper.writeValueAsString(searchRequest);
-			logger.info("Sending search request to Mem0: {}", requestJson);
-
-			String response = webClient.post()
-					.uri(SEARCH_ENDPOINT)
-					.contentType(MediaType.APPLICATION_JSON)
-					.body(BodyInserters.fromValue(requestJson))
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.retry(this.mem0Client.getMaxRetryAttempts())
-					.block();
+		return searchMemoriesReactive(searchRequest).block();
+	}
 
-			if (response != null) {
-				logger.info("Received response from Mem0: " + response);
-				// The Mem0 service returns data in the format
-				// {"results":[],"relations":[]}
-				return objectMapper.readValue(response, new TypeReference<Mem0ServerResp>() {
-				});
+	/**
+	 * Search memory
+	 */
+	public Mono<Mem0ServerResp> searchMemoriesReactive(Mem0ServerRequest.SearchRequest searchRequest) {
+		// The SEARCH_ENDPOINT requires the query field to have a value, so a fallback
+		// mechanism is implemented
+		if (!StringUtils.hasText(searchRequest.getQuery())) {
+			return getAllMemoriesReactive(searchRequest.getUserId(), searchRequest.getRunId(),
+					searchRequest.getAgentId());
+		}
+		String requestJson;
+		try {
+			requestJson = toJson(searchRequest);
+		}
+		catch (RuntimeException e) {
+			return Mono.error(new RuntimeException("Failed to search memories", e));
+		}
+		if (!mem0Client.isEnableCache()) {
+			return doSearch(requestJson);
+		}
 
-			}
+		SearchKey key = new SearchKey(searchRequest.getUserId(), searchRequest.getAgentId(),
+				searchRequest.getRunId(), requestJson);
+		long now = System.nanoTime();
+		CachedSearch cached = this.searchCache.get(key);
+		if (cached != null && cached.expiresAt() - now > 0) {
+			return cached.response();
 		}
-		catch (Exception e) {
-			logger.error("Failed to search memories: {}", e.getMessage(), e);
-			throw new RuntimeException("Failed to search memories", e);
+		Duration ttl = mem0Client.getCacheTtl();
+		// concurrent identical searches share one request, failures are not cached
+		Mono<Mem0ServerResp> response = doSearch(requestJson).cache(value -> ttl, error -> Duration.ZERO,
+				() -> Duration.ZERO);
+		if (this.searchCache.size() >= mem0Client.getCacheMaxSize()) {
+			this.searchCache.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+			if (this.searchCache.size() >= mem0Client.getCacheMaxSize()) {
+				this.searchCache.clear();
+			}
 		}
+		this.searchCache.put(key, new CachedSearch(response, now + ttl.toNanos()));
+		return response;
+	}
 
-		return new Mem0ServerResp();
+	private Mono<Mem0ServerResp> doSearch(String requestJson) {
+		logger.info("Sending search request to Mem0: {}", requestJson);
+		return webClient.post()
+				.uri(SEARCH_ENDPOINT)
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(BodyInserters.fromValue(requestJson))
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getSearch()))
+				.retry(this.mem0Client.getMaxRetryAttempts())
+				.map(response -> {
+					logger.info("Received response from Mem0: " + response);
+					// The Mem0 service returns data in the format
+					// {"results":[],"relations":[]}
+					return parse(response, new TypeReference<Mem0ServerResp>() {
+					});
+				})
+				.switchIfEmpty(Mono.fromSupplier(Mem0ServerResp::new))
+				.onErrorMap(e -> {
+					logger.error("Failed to search memories: {}", e.getMessage(), e);
+					return new RuntimeException("Failed to search memories", e);
+				});
 	}
 
 	/**
@@ -322,14 +341,13 @@ public class Mem0ServiceClient {
 	public Map<String, Object> updateMemory(String memoryId, Map<String, Object> updatedMemory) {
 		if (mem0Client.getAsync().isEnabled()) {
 			// Execute asynchronously and return empty result immediately
-			CompletableFuture.runAsync(() -> {
-				executeUpdateMemory(memoryId, updatedMemory);
-			}, asyncExecutor);
+			updateMemoryReactive(memoryId, updatedMemory).subscribe(null, e -> {
+			});
 			return new HashMap<>();
 		}
 		else {
 			// Execute synchronously and return result
-			return executeUpdateMemory(memoryId, updatedMemory);
+			return updateMemoryReactive(memoryId, updatedMemory).block();
 		}
 	}
 
@@ -338,38 +356,32 @@ public class Mem0ServiceClient {
 	 */
 	public CompletableFuture<Map<String, Object>> updateMemoryAsync(String memoryId,
 																	Map<String, Object> updatedMemory) {
-		return CompletableFuture.supplyAsync(() -> {
-			return executeUpdateMemory(memoryId, updatedMemory);
-		}, asyncExecutor);
+		return updateMemoryReactive(memoryId, updatedMemory).toFuture();
 	}
 
 	/**
-	 * Internal method to execute update memory operation
+	 * Update memory
 	 */
-	private Map<String, Object> executeUpdateMemory(String memoryId, Map<String, Object> updatedMemory) {
-		try {
-			String response = webClient.put()
+	public Mono<Map<String, Object>> updateMemoryReactive(String memoryId, Map<String, Object> updatedMemory) {
+		return this.writeBulkhead.run(() -> webClient.put()
 					.uri(MEMORIES_ENDPOINT + "/{memoryId}", memoryId)
 					.bodyValue(updatedMemory)
 					.retrieve()
 					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(mem0Client.getTimeoutSeconds()))
-					.retry(mem0Client.getMaxRetryAttempts())
-					.block();
-
-			if (response != null) {
-				Map<String, Object> result = objectMapper.readValue(response, new TypeReference<Map<String, Object>>() {
+					.timeout(timeout(mem0Client.getTimeouts().getAdd()))
+					.retry(mem0Client.getMaxRetryAttempts()))
+				.map(response -> {
+					Map<String, Object> result = parse(response, new TypeReference<Map<String, Object>>() {
+					});
+					logger.info("Successfully updated memory: " + memoryId);
+					return result;
+				})
+				.switchIfEmpty(Mono.fromSupplier(HashMap::new))
+				.doOnTerminate(() -> this.searchCache.clear())
+				.onErrorMap(e -> {
+					logger.error("Failed to update memory {}: {}", memoryId, e.getMessage(), e);
+					return new RuntimeException("Failed to update memory", e);
 				});
-				logger.info("Successfully updated memory: " + memoryId);
-				return result;
-			}
-		}
-		catch (Exception e) {
-			logger.error("Failed to update memory {}: {}", memoryId, e.getMessage(), e);
-			throw new RuntimeException("Failed to update memory", e);
-		}
-
-		return new HashMap<>();
 	}
 
 
@@ -377,53 +389,48 @@ public class Mem0ServiceClient {
 	 * Get memory history
 	 */
 	public List<Map<String, Object>> getMemoryHistory(String memoryId) {
-		try {
-			String response = webClient.get()
-					.uri(MEMORIES_ENDPOINT + "/{memoryId}/history", memoryId)
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.block();
+		return getMemoryHistoryReactive(memoryId).block();
+	}
 
-			if (response != null) {
-				// Attempt to parse as an object and then extract the array
-				Map<String, Object> responseMap = objectMapper.readValue(response,
-						new TypeReference<Map<String, Object>>() {
-						});
-
-				// Check if there is a "data" field containing an array
-				if (responseMap.containsKey("data")) {
-					Object data = responseMap.get("data");
-					if (data instanceof List) {
-						List<Map<String, Object>> history = objectMapper.convertValue(data,
-								new TypeReference<List<Map<String, Object>>>() {
-								});
-						return history;
-					}
-				}
-
-				// If there is no "data" field, attempt to parse directly as an array
-				try {
-					List<Map<String, Object>> history = objectMapper.readValue(response,
-							new TypeReference<List<Map<String, Object>>>() {
-							});
-					logger.info("Retrieved history for memory: {}", memoryId);
-					return history;
-				}
-				catch (Exception e) {
-					logger.error("Failed to parse history response as array, trying as object: {}", e.getMessage());
-				}
-
-				// If all attempts fail, return an empty list.
-				logger.warn("Could not parse memory history from response: {}", response);
-				return new ArrayList<>();
-			}
+	/**
+	 * Get memory history
+	 */
+	public Mono<List<Map<String, Object>>> getMemoryHistoryReactive(String memoryId) {
+		return webClient.get()
+				.uri(MEMORIES_ENDPOINT + "/{memoryId}/history", memoryId)
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getGet()))
+				.map(response -> parseHistory(memoryId, response))
+				.switchIfEmpty(Mono.fromSupplier(ArrayList::new))
+				.onErrorMap(e -> {
+					logger.error("Failed to get memory history {}: {}", memoryId, e.getMessage(), e);
+					return new RuntimeException("Failed to get memory history", e);
+				});
+	}
+
+	private List<Map<String, Object>> parseHistory(String memoryId, String response) {
+		// Attempt to parse as an object and then extract the array
+		JsonNode root = parse(response, new TypeReference<JsonNode>() {
+		});
+
+		// Check if there is a "data" field containing an array
+		if (root.isObject() && root.has("data") && root.get("data").isArray()) {
+			return objectMapper.convertValue(root.get("data"), new TypeReference<List<Map<String, Object>>>() {
+			});
 		}
-		catch (Exception e) {
-			logger.error("Failed to get memory history {}: {}", memoryId, e.getMessage(), e);
-			throw new RuntimeException("Failed to get memory history", e);
+
+		// If there is no "data" field, attempt to parse directly as an array
+		if (root.isArray()) {
+			List<Map<String, Object>> history = objectMapper.convertValue(root,
+					new TypeReference<List<Map<String, Object>>>() {
+					});
+			logger.info("Retrieved history for memory: {}", memoryId);
+			return history;
 		}
 
+		// If all attempts fail, return an empty list.
+		logger.warn("Could not parse memory history from response: {}", response);
 		return new ArrayList<>();
 	}
 
@@ -431,48 +438,58 @@ public class Mem0ServiceClient {
 	 * Delete single memory
 	 */
 	public void deleteMemory(String memoryId) {
-		try {
-			webClient.delete()
-					.uri(MEMORIES_ENDPOINT + "/{memoryId}", memoryId)
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.block();
+		deleteMemoryReactive(memoryId).block();
+	}
 
-			logger.info("Successfully deleted memory: {}", memoryId);
-		}
-		catch (Exception e) {
-			logger.error("Failed to delete memory {}: {}", memoryId, e.getMessage(), e);
-			throw new RuntimeException("Failed to delete memory", e);
-		}
+	/**
+	 * Delete single memory
+	 */
+	public Mono<Void> deleteMemoryReactive(String memoryId) {
+		return webClient.delete()
+				.uri(MEMORIES_ENDPOINT + "/{memoryId}", memoryId)
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getDelete()))
+				.doOnSuccess(response -> logger.info("Successfully deleted memory: {}", memoryId))
+				.doOnTerminate(() -> this.searchCache.clear())
+				.onErrorMap(e -> {
+					logger.error("Failed to delete memory {}: {}", memoryId, e.getMessage(), e);
+					return new RuntimeException("Failed to delete memory", e);
+				})
+				.then();
 	}
 
 	/**
 	 * Delete all memory
 	 */
 	public void deleteAllMemories(String userId, String runId, String agentId) {
-		try {
-			webClient.delete().uri(uriBuilder -> {
-						uriBuilder.path(MEMORIES_ENDPOINT);
-						if (userId != null)
-							uriBuilder.queryParam("user_id", userId);
-						if (runId != null)
-							uriBuilder.queryParam("run_id", runId);
-						if (agentId != null)
-							uriBuilder.queryParam("agent_id", agentId);
-						return uriBuilder.build();
-					})
-					.retrieve()
-					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
-					.block();
+		deleteAllMemoriesReactive(userId, runId, agentId).block();
+	}
 
-			logger.info("Successfully deleted all memories");
-		}
-		catch (Exception e) {
-			logger.error("Failed to delete all memories: {}", e.getMessage(), e);
-			throw new RuntimeException("Failed to delete all memories", e);
-		}
+	/**
+	 * Delete all memory
+	 */
+	public Mono<Void> deleteAllMemoriesReactive(String userId, String runId, String agentId) {
+		return webClient.delete().uri(uriBuilder -> {
+					uriBuilder.path(MEMORIES_ENDPOINT);
+					if (userId != null)
+						uriBuilder.queryParam("user_id", userId);
+					if (runId != null)
+						uriBuilder.queryParam("run_id", runId);
+					if (agentId != null)
+						uriBuilder.queryParam("agent_id", agentId);
+					return uriBuilder.build();
+				})
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(timeout(mem0Client.getTimeouts().getDelete()))
+				.doOnSuccess(response -> logger.info("Successfully deleted all memories"))
+				.doOnTerminate(() -> evictSearches(userId, agentId, runId))
+				.onErrorMap(e -> {
+					logger.error("Failed to delete all memories: {}", e.getMessage(), e);
+					return new RuntimeException("Failed to delete all memories", e);
+				})
+				.then();
 	}
 
 	/**
@@ -484,7 +501,7 @@ public class Mem0ServiceClient {
 					.uri(RESET_ENDPOINT)
 					.retrieve()
 					.bodyToMono(String.class)
-					.timeout(Duration.ofSeconds(this.mem0Client.getTimeoutSeconds()))
+					.timeout(timeout(mem0Client.getTimeouts().getDelete()))
 					.block();
 
 			logger.info("Successfully reset all memories");
@@ -493,6 +510,9 @@ public class Mem0ServiceClient {
 			logger.error("Failed to reset all memories: " + e.getMessage(), e);
 			throw new RuntimeException("Failed to reset all memories", e);
 		}
+		finally {
+			this.searchCache.clear();
+		}
 	}
 
 	public String loadPrompt(String classPath) throws Exception {
@@ -508,13 +528,53 @@ public class Mem0ServiceClient {
 	}
 
 	/**
-	 * Shutdown the async executor
+	 * Drop the cached search results. Calls in flight are not cancelled.
 	 */
 	public void shutdown() {
-		if (asyncExecutor instanceof java.util.concurrent.ExecutorService) {
-			((java.util.concurrent.ExecutorService) asyncExecutor).shutdown();
-			logger.info("Mem0ServiceClient async executor shutdown completed");
+		this.searchCache.clear();
+		logger.info("Mem0ServiceClient shutdown completed");
+	}
+
+	private Duration timeout(Duration operationTimeout) {
+		return operationTimeout != null ? operationTimeout : Duration.ofSeconds(this.mem0Client.getTimeoutSeconds());
+	}
+
+	/**
+	 * Evict the cached searches that a write of the given owner may change.
+	 */
+	private void evictSearches(String userId, String agentId, String runId) {
+		if (userId == null && agentId == null && runId == null) {
+			this.searchCache.clear();
+			return;
+		}
+		this.searchCache.keySet()
+				.removeIf(key -> (userId != null && userId.equals(key.userId()))
+						|| (agentId != null && agentId.equals(key.agentId()))
+						|| (runId != null && runId.equals(key.runId())));
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
 		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private <T> T parse(String json, TypeReference<T> type) {
+		try {
+			return objectMapper.readValue(json, type);
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private record SearchKey(String userId, String agentId, String runId, String request) {
+	}
+
+	private record CachedSearch(Mono<Mem0ServerResp> response, long expiresAt) {
 	}
 
 }
@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.memory.mem0.core;
 
 import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor;
+import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0WriteBehindQueue;
 
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
@@ -42,7 +43,9 @@ import reactor.core.scheduler.Schedulers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -248,4 +251,30 @@ class Mem0ChatMemoryAdvisorTest {
 		verify(vectorStore).similaritySearch(any(SearchRequest.class));
 	}
 
+	@Test
+	void testBeforeQueuesTheUserMessageWhenWriteBehindIsEnabled() {
+		Mem0WriteBehindQueue queue = mock(Mem0WriteBehindQueue.class);
+		Mem0ChatMemoryAdvisor writeBehindAdvisor = Mem0ChatMemoryAdvisor.builder(vectorStore)
+			.systemPromptTemplate(new PromptTemplate("Test template: {query} {long_term_memory}"))
+			.scheduler(scheduler)
+			.writeBehind(queue)
+			.overlapSearch(true)
+			.build();
+		UserMessage userMessage = UserMessage.builder()
+			.text("test query")
+			.metadata(new HashMap<>(Map.of(Mem0ChatMemoryAdvisor.USER_ID, "test-user")))
+			.build();
+		Map<String, Object> context = new HashMap<>();
+		context.put(Mem0ChatMemoryAdvisor.USER_ID, "test-user");
+		when(vectorStore.similaritySearch(any(SearchRequest.class)))
+			.thenReturn(List.of(new Document("likes tea")));
+
+		ChatClientRequest result = writeBehindAdvisor.before(new ChatClientRequest(new Prompt(userMessage), context),
+				advisorChain);
+
+		assertThat(result.prompt().getUserMessage().getText()).contains("test query").contains("likes tea");
+		verify(queue).add(anyList());
+		verify(vectorStore, never()).add(anyList());
+	}
+
 }
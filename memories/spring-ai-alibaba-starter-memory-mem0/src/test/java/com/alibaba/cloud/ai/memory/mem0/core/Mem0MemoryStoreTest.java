@@ -29,6 +29,7 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -228,4 +229,26 @@ class Mem0MemoryStoreTest {
 		verify(mem0Client, never()).deleteMemory(anyString());
 	}
 
+	@Test
+	void testAddMergesConsecutiveDocumentsOfTheSameUser() {
+		// Given
+		Map<String, Object> metadata1 = new HashMap<>();
+		metadata1.put("role", "user");
+		metadata1.put(Mem0ChatMemoryAdvisor.USER_ID, "test-user");
+		Map<String, Object> metadata2 = new HashMap<>(metadata1);
+		metadata2.put("role", "assistant");
+
+		// When
+		memoryStore.add(List.of(new Document("question", metadata1), new Document("answer", metadata2)));
+
+		// Then
+		ArgumentCaptor<Mem0ServerRequest.MemoryCreate> captor = ArgumentCaptor
+			.forClass(Mem0ServerRequest.MemoryCreate.class);
+		verify(mem0Client, times(1)).addMemory(captor.capture());
+		assertThat(captor.getValue().getUserId()).isEqualTo("test-user");
+		assertThat(captor.getValue().getMessages()).extracting(Mem0ServerRequest.Message::getContent)
+			.containsExactly("question", "answer");
+		assertThat(captor.getValue().getMetadata()).doesNotContainKey("role");
+	}
+
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mem0.core;
+
+import com.alibaba.cloud.ai.memory.mem0.model.Mem0ServerRequest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the reactive Mem0ServiceClient operations against a stub Mem0 server
+ *
+ * @since 1.1.0
+ */
+class Mem0ServiceClientReactiveTest {
+
+	private static final String EMPTY_RESPONSE = "{\"results\":[],\"relations\":[]}";
+
+	private final ConcurrentHashMap<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+	private final AtomicInteger concurrentWrites = new AtomicInteger();
+
+	private final AtomicInteger maxConcurrentWrites = new AtomicInteger();
+
+	private volatile long delayMillis;
+
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/search", exchange -> respond(exchange, EMPTY_RESPONSE));
+		server.createContext("/memories", exchange -> {
+			int running = concurrentWrites.incrementAndGet();
+			maxConcurrentWrites.accumulateAndGet(running, Math::max);
+			try {
+				respond(exchange, "{\"results\":[]}");
+			}
+			finally {
+				concurrentWrites.decrementAndGet();
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void cachesSearchesUntilTheUserWritesAMemory() {
+		Mem0ServiceClient client = client(Mem0Client.builder().enableCache(true), false);
+
+		client.searchMemories(search("tea", "alice"));
+		client.searchMemories(search("tea", "alice"));
+		assertThat(calls("/search")).isEqualTo(1);
+
+		client.searchMemories(search("coffee", "alice"));
+		client.searchMemories(search("tea", "bob"));
+		assertThat(calls("/search")).isEqualTo(3);
+
+		client.addMemory(memory("alice"));
+		client.searchMemories(search("tea", "alice"));
+		client.searchMemories(search("tea", "bob"));
+		assertThat(calls("/search")).isEqualTo(4);
+	}
+
+	@Test
+	void searchesEveryTimeWhenTheCacheIsDisabled() {
+		Mem0ServiceClient client = client(Mem0Client.builder().enableCache(false), false);
+
+		client.searchMemoriesReactive(search("tea", "alice")).block();
+		client.searchMemoriesReactive(search("tea", "alice")).block();
+
+		assertThat(calls("/search")).isEqualTo(2);
+	}
+
+	@Test
+	void appliesThePerOperationTimeout() {
+		Mem0Client.Timeouts timeouts = new Mem0Client.Timeouts();
+		timeouts.setSearch(Duration.ofMillis(200));
+		Mem0ServiceClient client = client(Mem0Client.builder().enableCache(false).timeouts(timeouts), false);
+		delayMillis = 2000;
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> client.searchMemories(search("tea", "alice")))
+			.hasMessage("Failed to search memories");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+	}
+
+	@Test
+	void boundsConcurrentWritesWithTheBulkhead() {
+		Mem0ServiceClient client = client(Mem0Client.builder(), false);
+		delayMillis = 100;
+
+		Flux.range(0, 6).flatMap(i -> client.addMemoryReactive(memory("user-" + i))).blockLast();
+
+		assertThat(calls("/memories")).isEqualTo(6);
+		assertThat(maxConcurrentWrites.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void bulkheadRejectsCallsOverTheQueueAndHandsPermitsOver() {
+		Mem0Bulkhead bulkhead = new Mem0Bulkhead(1, 1);
+		Disposable running = bulkhead.run(Mono::never).subscribe();
+		AtomicInteger started = new AtomicInteger();
+		bulkhead.run(() -> {
+			started.incrementAndGet();
+			return Mono.never();
+		}).subscribe();
+
+		assertThatThrownBy(() -> bulkhead.run(() -> Mono.just(1)).block())
+			.isInstanceOf(RejectedExecutionException.class);
+		assertThat(bulkhead.getWaiting()).isEqualTo(1);
+
+		running.dispose();
+		assertThat(started).hasValue(1);
+		assertThat(bulkhead.getActive()).isEqualTo(1);
+		assertThat(bulkhead.getWaiting()).isZero();
+	}
+
+	@Test
+	void bulkheadDropsCancelledWaiters() {
+		Mem0Bulkhead bulkhead = new Mem0Bulkhead(1, 1);
+		Disposable running = bulkhead.run(Mono::never).subscribe();
+		Disposable waiting = bulkhead.run(Mono::never).subscribe();
+
+		waiting.dispose();
+		running.dispose();
+
+		assertThat(bulkhead.getActive()).isZero();
+		assertThat(bulkhead.run(() -> Mono.just(1)).block()).isEqualTo(1);
+	}
+
+	private Mem0ServiceClient client(Mem0Client.Builder builder, boolean async) {
+		Mem0Client.AsyncConfig asyncConfig = new Mem0Client.AsyncConfig();
+		asyncConfig.setEnabled(async);
+		asyncConfig.setMaxPoolSize(2);
+		asyncConfig.setQueueCapacity(10);
+		Mem0Client mem0Client = builder.baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+			.maxRetryAttempts(0)
+			.async(asyncConfig)
+			.build();
+		return new Mem0ServiceClient(mem0Client, Mem0Server.builder().version("v1.1").build(), null);
+	}
+
+	private int calls(String path) {
+		return calls.getOrDefault(path, new AtomicInteger()).get();
+	}
+
+	private void respond(HttpExchange exchange, String body) throws IOException {
+		calls.computeIfAbsent(exchange.getHttpContext().getPath(), path -> new AtomicInteger()).incrementAndGet();
+		exchange.getRequestBody().readAllBytes();
+		try {
+			Thread.sleep(delayMillis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+
+	private static Mem0ServerRequest.SearchRequest search(String query, String userId) {
+		Mem0ServerRequest.SearchRequest request = new Mem0ServerRequest.SearchRequest();
+		request.setQuery(query);
+		request.setUserId(userId);
+		return request;
+	}
+
+	private static Mem0ServerRequest.MemoryCreate memory(String userId) {
+		return Mem0ServerRequest.MemoryCreate.builder()
+			.messages(List.of(new Mem0ServerRequest.Message("user", "I like tea")))
+			.userId(userId)
+			.build();
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mem0.core;
+
+import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor;
+import com.alibaba.cloud.ai.memory.mem0.advisor.Mem0WriteBehindQueue;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for Mem0WriteBehindQueue
+ *
+ * @since 1.1.0
+ */
+class Mem0WriteBehindQueueTest {
+
+	private static final Comparator<String> BY_SEQUENCE = Comparator
+		.comparingInt(text -> Integer.parseInt(text.substring(1)));
+
+	private final List<List<String>> writes = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+
+	private Mem0WriteBehindQueue queue;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		if (queue != null) {
+			queue.close();
+		}
+	}
+
+	@Test
+	void coalescesWritesQueuedWhileTheLaneIsBusy() throws Exception {
+		queue = Mem0WriteBehindQueue.builder(blockingStore()).build();
+
+		queue.add(List.of(document("a", "1")));
+		assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		queue.add(List.of(document("a", "2")));
+		queue.add(List.of(document("a", "3")));
+		release.countDown();
+
+		assertThat(queue.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(writes).containsExactly(List.of("1"), List.of("2", "3"));
+		assertThat(queue.getPending()).isZero();
+	}
+
+	@Test
+	void keepsTheOrderOfEachUser() {
+		queue = Mem0WriteBehindQueue.builder(recordingStore()).maxBatchSize(2).workers(4).build();
+
+		for (int i = 0; i < 50; i++) {
+			queue.add(List.of(document("a", "a" + i), document("b", "b" + i)));
+		}
+
+		assertThat(queue.flush(Duration.ofSeconds(5))).isTrue();
+		List<String> a = writes.stream().flatMap(List::stream).filter(text -> text.startsWith("a")).toList();
+		List<String> b = writes.stream().flatMap(List::stream).filter(text -> text.startsWith("b")).toList();
+		assertThat(a).hasSize(50).isSortedAccordingTo(BY_SEQUENCE);
+		assertThat(b).hasSize(50).isSortedAccordingTo(BY_SEQUENCE);
+		assertThat(writes).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+	}
+
+	@Test
+	void retriesFailedWritesWithBackoff() {
+		AtomicInteger calls = new AtomicInteger();
+		VectorStore store = recordingStore(documents -> {
+			if (calls.incrementAndGet() < 3) {
+				throw new IllegalStateException("mem0 unavailable");
+			}
+		});
+		queue = Mem0WriteBehindQueue.builder(store).maxAttempts(3).initialBackoff(Duration.ofMillis(1)).build();
+
+		queue.add(List.of(document("a", "1")));
+
+		assertThat(queue.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(calls).hasValue(3);
+		assertThat(writes).containsExactly(List.of("1"));
+		assertThat(queue.getFailed()).isZero();
+	}
+
+	@Test
+	void countsWritesThatFailEveryAttempt() {
+		queue = Mem0WriteBehindQueue.builder(recordingStore(documents -> {
+			throw new IllegalStateException("mem0 unavailable");
+		})).maxAttempts(2).initialBackoff(Duration.ofMillis(1)).build();
+
+		queue.add(List.of(document("a", "1"), document("a", "2")));
+
+		assertThat(queue.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(queue.getFailed()).isEqualTo(2);
+	}
+
+	@Test
+	void dropsDocumentsWhenFull() throws Exception {
+		queue = Mem0WriteBehindQueue.builder(blockingStore()).capacity(1).enqueueTimeout(Duration.ZERO).build();
+
+		assertThat(queue.add(List.of(document("a", "1")))).isTrue();
+		assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(queue.add(List.of(document("b", "2")))).isFalse();
+
+		assertThat(queue.getDropped()).isEqualTo(1);
+	}
+
+	@Test
+	void closeFlushesAndLaterWritesAreSynchronous() {
+		queue = Mem0WriteBehindQueue.builder(recordingStore()).build();
+		queue.add(List.of(document("a", "1"), document("b", "2")));
+
+		queue.close();
+		assertThat(writes).hasSize(2);
+
+		queue.add(List.of(document("a", "3")));
+		assertThat(writes).hasSize(3).last().isEqualTo(List.of("3"));
+	}
+
+	private static Document document(String userId, String text) {
+		return new Document(text, Map.of("role", "user", Mem0ChatMemoryAdvisor.USER_ID, userId));
+	}
+
+	private VectorStore recordingStore() {
+		return recordingStore(documents -> {
+		});
+	}
+
+	private VectorStore blockingStore() {
+		return recordingStore(documents -> {
+			firstWriteStarted.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+
+	private VectorStore recordingStore(Consumer<List<Document>> behaviour) {
+		VectorStore store = mock(VectorStore.class);
+		doAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			behaviour.accept(documents);
+			writes.add(documents.stream().map(Document::getText).toList());
+			return null;
+		}).when(store).add(anyList());
+		return store;
+	}
+
+}
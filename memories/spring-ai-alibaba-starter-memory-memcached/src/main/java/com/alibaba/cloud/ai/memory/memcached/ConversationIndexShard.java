@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.memcached;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One shard of the conversation index: the IDs of the conversations hashed to it, in
+ * the order of their last update, and the time each one expires at.
+ */
+class ConversationIndexShard {
+
+	private static final byte VERSION = 1;
+
+	// conversation ID -> expiry in epoch millis, 0 when it does not expire
+	private final LinkedHashMap<String, Long> entries;
+
+	ConversationIndexShard() {
+		this(new LinkedHashMap<>());
+	}
+
+	private ConversationIndexShard(LinkedHashMap<String, Long> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Record an update of a conversation.
+	 * @param refreshSlackMillis how much earlier than {@code expireAt} the recorded expiry
+	 * may be before it is worth a write
+	 * @return whether the shard changed
+	 */
+	boolean put(String conversationId, long expireAt, long refreshSlackMillis) {
+		Long current = entries.get(conversationId);
+		if (current != null && (expireAt == 0 ? current == 0 : current != 0 && current >= expireAt - refreshSlackMillis)) {
+			return false;
+		}
+		entries.remove(conversationId);
+		entries.put(conversationId, expireAt);
+		return true;
+	}
+
+	boolean remove(String conversationId) {
+		return entries.remove(conversationId) != null;
+	}
+
+	/**
+	 * Drop the expired conversations.
+	 * @return whether the shard changed
+	 */
+	boolean prune(long now) {
+		return entries.values().removeIf(expireAt -> expireAt != 0 && expireAt <= now);
+	}
+
+	List<String> conversationIds(long now) {
+		List<String> conversationIds = new ArrayList<>(entries.size());
+		entries.forEach((conversationId, expireAt) -> {
+			if (expireAt == 0 || expireAt > now) {
+				conversationIds.add(conversationId);
+			}
+		});
+		return conversationIds;
+	}
+
+	byte[] encode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Long> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue());
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error serializing conversation index", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	static ConversationIndexShard decode(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw new IllegalStateException("Unsupported conversation index version: " + version);
+			}
+			int size = in.readInt();
+			LinkedHashMap<String, Long> entries = new LinkedHashMap<>(Math.max(16, size * 2));
+			for (int i = 0; i < size; i++) {
+				entries.put(in.readUTF(), in.readLong());
+			}
+			return new ConversationIndexShard(entries);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error deserializing conversation index", e);
+		}
+	}
+
+}
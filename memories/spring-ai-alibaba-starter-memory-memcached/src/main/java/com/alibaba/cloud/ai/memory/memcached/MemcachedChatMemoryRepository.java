@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.memory.memcached;
 
+import com.alibaba.cloud.ai.memory.memcached.serializer.MessageCodec;
 import com.alibaba.cloud.ai.memory.memcached.serializer.MessageDeserializer;
 import com.alibaba.cloud.ai.toolcalling.memcached.MemcachedService;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -24,17 +25,28 @@ import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Memcached implementation of ChatMemoryRepository auth: dahua
+ *
+ * <p>
+ * The messages of a conversation are stored in one key with {@link MessageCodec}. The
+ * conversation IDs are indexed in a fixed number of shard keys, picked by the hash of
+ * the ID, and updated with gets/cas retry loops.
  */
 public class MemcachedChatMemoryRepository implements ChatMemoryRepository, AutoCloseable {
 
@@ -48,8 +60,33 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	private static final String DEFAULT_KEY_PREFIX = "spring_ai_alibaba_chat_memory:";
 
+	public static final int DEFAULT_INDEX_SHARDS = 16;
+
+	private static final int MAX_CAS_ATTEMPTS = 16;
+
+	// Memcached reads larger expirations as a unix time
+	private static final long MAX_RELATIVE_EXPIRATION_SECONDS = Duration.ofDays(30).toSeconds();
+
+	private final int indexShards;
+
+	private final Duration conversationTtl;
+
 	public MemcachedChatMemoryRepository(MemcachedService memcachedService) {
+		this(memcachedService, DEFAULT_INDEX_SHARDS, null);
+	}
+
+	/**
+	 * @param indexShards number of keys the conversation index is spread over, it must
+	 * not change once conversations are stored
+	 * @param conversationTtl how long a conversation is kept after its last save, null
+	 * to keep it
+	 */
+	public MemcachedChatMemoryRepository(MemcachedService memcachedService, int indexShards,
+			Duration conversationTtl) {
+		Assert.isTrue(indexShards > 0, "indexShards must be positive");
 		this.memcachedService = memcachedService;
+		this.indexShards = indexShards;
+		this.conversationTtl = conversationTtl != null && conversationTtl.toSeconds() > 0 ? conversationTtl : null;
 		this.objectMapper = JsonMapper.builder()
 			.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
 			.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
@@ -67,15 +104,28 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	@Override
 	public List<String> findConversationIds() {
-		return (List<String>) this.memcachedService.getter()
-			.apply(new MemcachedService.MemcachedServiceGetter.Request(DEFAULT_CONVERSATION));
+		long now = System.currentTimeMillis();
+		Set<String> conversationIds = new LinkedHashSet<>();
+		for (int shard = 0; shard < indexShards; shard++) {
+			Object value = this.memcachedService.getter()
+				.apply(new MemcachedService.MemcachedServiceGetter.Request(shardKey(shard)));
+			if (value instanceof byte[] data) {
+				conversationIds.addAll(ConversationIndexShard.decode(data).conversationIds(now));
+			}
+		}
+		conversationIds.addAll(findLegacyConversationIds());
+		return new ArrayList<>(conversationIds);
 	}
 
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Object apply = this.memcachedService.getter()
 			.apply(new MemcachedService.MemcachedServiceGetter.Request(DEFAULT_KEY_PREFIX + conversationId));
+		if (apply instanceof byte[] data) {
+			return MessageCodec.decode(data);
+		}
 		if (apply != null) {
+			// written as JSON by earlier versions
 			List<String> messageList = (List<String>) apply;
 			return messageList.stream().map(messageStr -> {
 				try {
@@ -91,49 +141,103 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
-		List<String> conversationIds = findConversationIds() == null ? new ArrayList<>() : findConversationIds();
-		// 保障消息顺序
-		conversationIds.remove(conversationId);
-		conversationIds.add(conversationId);
-		this.memcachedService.setter()
-			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_CONVERSATION, conversationIds, 0));
-		List<String> serializingMessage = messages.stream().map(message -> {
-			try {
-				return this.objectMapper.writeValueAsString(message);
-			}
-			catch (JsonProcessingException e) {
-				throw new RuntimeException("Error serializing message", e);
-			}
-		}).toList();
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		Assert.notNull(messages, "messages cannot be null");
+		if (messages.isEmpty()) {
+			deleteByConversationId(conversationId);
+			return;
+		}
+		long now = System.currentTimeMillis();
 		this.memcachedService.setter()
 			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_KEY_PREFIX + conversationId,
-					serializingMessage, 0));
+					MessageCodec.encode(messages), expiration(now, conversationTtl)));
+		long expireAt = conversationTtl != null ? now + conversationTtl.toMillis() : 0;
+		// the index is only rewritten when the recorded expiry is a tenth of the ttl old
+		long refreshSlack = conversationTtl != null ? conversationTtl.toMillis() / 10 : 0;
+		updateIndex(conversationId, shard -> shard.put(conversationId, expireAt, refreshSlack));
 	}
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
-		List<String> conversationIds = findConversationIds();
-		conversationIds.remove(conversationId);
-		this.memcachedService.setter()
-			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_CONVERSATION, conversationIds, 0));
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		this.memcachedService.deleter()
 			.apply(new MemcachedService.MemcachedServiceDeleter.Request(DEFAULT_KEY_PREFIX + conversationId));
+		updateIndex(conversationId, shard -> shard.remove(conversationId));
+		List<String> legacyIds = findLegacyConversationIds();
+		if (legacyIds.remove(conversationId)) {
+			this.memcachedService.setter()
+				.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_CONVERSATION, legacyIds, 0));
+		}
 	}
 
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		final int finalDeleteSize = deleteSize > maxLimit ? maxLimit : deleteSize;
 		List<Message> messages = findByConversationId(conversationId);
-		List<Message> lastMessages = new ArrayList<>();
-		AtomicInteger index = new AtomicInteger(0);
 		if (messages.size() >= maxLimit) {
-			messages.stream().forEach(message -> {
-				if (index.get() >= finalDeleteSize) {
-					lastMessages.add(message);
+			saveAll(conversationId, messages.subList(Math.min(finalDeleteSize, messages.size()), messages.size()));
+		}
+	}
+
+	/**
+	 * Apply a change to the index shard of a conversation, retrying when another writer
+	 * changed it in between. Expired conversations are dropped on the way. The shard key
+	 * outlives its entries by the refresh slack, as saves skip fresh enough entries.
+	 * @param change returns whether it changed the shard
+	 */
+	private void updateIndex(String conversationId, Predicate<ConversationIndexShard> change) {
+		String key = shardKey(shardOf(conversationId, indexShards));
+		int shardExpiration = expiration(System.currentTimeMillis(),
+				conversationTtl != null ? conversationTtl.plus(conversationTtl.dividedBy(10)) : null);
+		for (int attempt = 0; attempt < MAX_CAS_ATTEMPTS; attempt++) {
+			CASValue<Object> current = this.memcachedService.casGetter()
+				.apply(new MemcachedService.MemcachedServiceCasGetter.Request(key));
+			if (current == null || !(current.getValue() instanceof byte[] data)) {
+				ConversationIndexShard shard = new ConversationIndexShard();
+				if (!change.test(shard) || this.memcachedService.adder()
+					.apply(new MemcachedService.MemcachedServiceAdder.Request(key, shard.encode(), shardExpiration))) {
+					return;
 				}
-				index.incrementAndGet();
-			});
+				continue;
+			}
+			ConversationIndexShard shard = ConversationIndexShard.decode(data);
+			boolean changed = change.test(shard);
+			if (!(shard.prune(System.currentTimeMillis()) || changed)) {
+				return;
+			}
+			CASResponse response = this.memcachedService.casSetter()
+				.apply(new MemcachedService.MemcachedServiceCasSetter.Request(key, current.getCas(), shard.encode(),
+						shardExpiration));
+			if (response == CASResponse.OK) {
+				return;
+			}
 		}
-		saveAll(conversationId, lastMessages);
+		logger.warn("Failed to update the conversation index of {} after {} attempts", conversationId,
+				MAX_CAS_ATTEMPTS);
+	}
+
+	/**
+	 * The IDs in the single index key of earlier versions.
+	 */
+	private List<String> findLegacyConversationIds() {
+		Object value = this.memcachedService.getter()
+			.apply(new MemcachedService.MemcachedServiceGetter.Request(DEFAULT_CONVERSATION));
+		return value instanceof List<?> ids ? new ArrayList<>((List<String>) ids) : new ArrayList<>();
+	}
+
+	private static int expiration(long now, Duration ttl) {
+		if (ttl == null) {
+			return 0;
+		}
+		long seconds = ttl.toSeconds();
+		return (int) (seconds <= MAX_RELATIVE_EXPIRATION_SECONDS ? seconds : now / 1000 + seconds);
+	}
+
+	private static String shardKey(int shard) {
+		return DEFAULT_CONVERSATION + ":" + shard;
+	}
+
+	static int shardOf(String conversationId, int indexShards) {
+		return Math.floorMod(conversationId.hashCode(), indexShards);
 	}
 
 }
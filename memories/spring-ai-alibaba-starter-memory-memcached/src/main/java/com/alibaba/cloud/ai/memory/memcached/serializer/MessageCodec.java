@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.memcached.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.ai.chat.messages.AbstractMessage;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a list of messages.
+ *
+ * <p>
+ * Strings are length-prefixed UTF-8, and only the metadata, whose values can be of any
+ * type, is encoded as JSON, and only when present.
+ */
+public final class MessageCodec {
+
+	private static final byte VERSION = 1;
+
+	private static final byte USER = 0;
+
+	private static final byte ASSISTANT = 1;
+
+	private static final byte SYSTEM = 2;
+
+	private static final byte TOOL = 3;
+
+	private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+		.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
+		.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
+		.visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+		.build();
+
+	private MessageCodec() {
+	}
+
+	public static byte[] encode(List<Message> messages) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeInt(messages.size());
+			for (Message message : messages) {
+				writeMessage(out, message);
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error serializing messages", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static List<Message> decode(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw new IllegalStateException("Unsupported message encoding version: " + version);
+			}
+			int size = in.readInt();
+			List<Message> messages = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				messages.add(readMessage(in));
+			}
+			return messages;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error deserializing messages", e);
+		}
+	}
+
+	private static void writeMessage(DataOutputStream out, Message message) throws IOException {
+		Map<String, Object> metadata = new HashMap<>(message.getMetadata());
+		// restored from the type by the message constructors
+		metadata.remove(AbstractMessage.MESSAGE_TYPE);
+		switch (message.getMessageType()) {
+			case USER -> {
+				out.writeByte(USER);
+				writeString(out, message.getText());
+				writeMetadata(out, metadata);
+			}
+			case SYSTEM -> {
+				out.writeByte(SYSTEM);
+				writeString(out, message.getText());
+				writeMetadata(out, metadata);
+			}
+			case ASSISTANT -> {
+				out.writeByte(ASSISTANT);
+				writeString(out, message.getText());
+				writeMetadata(out, metadata);
+				List<AssistantMessage.ToolCall> toolCalls = ((AssistantMessage) message).getToolCalls();
+				out.writeInt(toolCalls.size());
+				for (AssistantMessage.ToolCall toolCall : toolCalls) {
+					writeString(out, toolCall.id());
+					writeString(out, toolCall.type());
+					writeString(out, toolCall.name());
+					writeString(out, toolCall.arguments());
+				}
+			}
+			case TOOL -> {
+				out.writeByte(TOOL);
+				writeMetadata(out, metadata);
+				List<ToolResponseMessage.ToolResponse> responses = ((ToolResponseMessage) message).getResponses();
+				out.writeInt(responses.size());
+				for (ToolResponseMessage.ToolResponse response : responses) {
+					writeString(out, response.id());
+					writeString(out, response.name());
+					writeString(out, response.responseData());
+				}
+			}
+			default -> throw new IllegalArgumentException("Unsupported message type: " + message.getMessageType());
+		}
+	}
+
+	private static Message readMessage(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+			case USER:
+				return UserMessage.builder().text(readString(in)).metadata(readMetadata(in)).build();
+			case SYSTEM:
+				return SystemMessage.builder().text(readString(in)).metadata(readMetadata(in)).build();
+			case ASSISTANT: {
+				String text = readString(in);
+				Map<String, Object> metadata = readMetadata(in);
+				int size = in.readInt();
+				List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					toolCalls.add(new AssistantMessage.ToolCall(readString(in), readString(in), readString(in),
+							readString(in)));
+				}
+				return AssistantMessage.builder().content(text).properties(metadata).toolCalls(toolCalls).build();
+			}
+			case TOOL: {
+				Map<String, Object> metadata = readMetadata(in);
+				int size = in.readInt();
+				List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					responses.add(new ToolResponseMessage.ToolResponse(readString(in), readString(in), readString(in)));
+				}
+				return ToolResponseMessage.builder().responses(responses).metadata(metadata).build();
+			}
+			default:
+				throw new IllegalStateException("Unknown message type: " + type);
+		}
+	}
+
+	private static void writeMetadata(DataOutputStream out, Map<String, Object> metadata) throws IOException {
+		if (metadata.isEmpty()) {
+			out.writeInt(0);
+			return;
+		}
+		byte[] json = OBJECT_MAPPER.writeValueAsBytes(metadata);
+		out.writeInt(json.length);
+		out.write(json);
+	}
+
+	private static Map<String, Object> readMetadata(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == 0) {
+			return Map.of();
+		}
+		byte[] json = new byte[length];
+		in.readFully(json);
+		return OBJECT_MAPPER.readValue(json, new TypeReference<>() {
+		});
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.memcached;
+
+import com.alibaba.cloud.ai.toolcalling.memcached.MemcachedService;
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.OperationFuture;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the sharded conversation index of
+ * {@link MemcachedChatMemoryRepository}.
+ */
+class MemcachedChatMemoryRepositoryUnitTest {
+
+	private static final String SHARD_KEY = "spring_ai_alibaba_chat_memory_conversation:"
+			+ MemcachedChatMemoryRepository.shardOf("c1", 4);
+
+	private final MemcachedClient client = mock(MemcachedClient.class);
+
+	private final MemcachedChatMemoryRepository repository = new MemcachedChatMemoryRepository(
+			new MemcachedService(client), 4, Duration.ofHours(1));
+
+	@SuppressWarnings("unchecked")
+	private static OperationFuture<Boolean> done(boolean value) throws Exception {
+		OperationFuture<Boolean> future = mock(OperationFuture.class);
+		when(future.get()).thenReturn(value);
+		return future;
+	}
+
+	@Test
+	void saveRetriesIndexUpdateOnCasConflict() throws Exception {
+		OperationFuture<Boolean> ok = done(true);
+		when(client.set(anyString(), anyInt(), any())).thenReturn(ok);
+		byte[] empty = new ConversationIndexShard().encode();
+		when(client.gets(SHARD_KEY)).thenReturn(new CASValue<>(1L, empty), new CASValue<>(2L, empty));
+		when(client.cas(eq(SHARD_KEY), eq(1L), anyInt(), any())).thenReturn(CASResponse.EXISTS);
+		when(client.cas(eq(SHARD_KEY), eq(2L), anyInt(), any())).thenReturn(CASResponse.OK);
+
+		repository.saveAll("c1", List.of(new UserMessage("hi")));
+
+		ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+		verify(client).cas(eq(SHARD_KEY), eq(2L), eq(3960), written.capture());
+		assertThat(ConversationIndexShard.decode((byte[]) written.getValue()).conversationIds(0)).containsExactly("c1");
+		verify(client).set(eq("spring_ai_alibaba_chat_memory:c1"), eq(3600), any(byte[].class));
+	}
+
+	@Test
+	void saveSkipsIndexWriteWhenConversationIsFresh() throws Exception {
+		OperationFuture<Boolean> ok = done(true);
+		when(client.set(anyString(), anyInt(), any())).thenReturn(ok);
+		ConversationIndexShard shard = new ConversationIndexShard();
+		shard.put("c1", System.currentTimeMillis() + Duration.ofHours(1).toMillis(), 0);
+		when(client.gets(SHARD_KEY)).thenReturn(new CASValue<>(1L, shard.encode()));
+
+		repository.saveAll("c1", List.of(new UserMessage("hi")));
+
+		verify(client, never()).cas(anyString(), anyLong(), anyInt(), any());
+	}
+
+	// the shard key outlives the conversation ttl by the refresh slack
+	@Test
+	void firstSaveAddsShardKey() throws Exception {
+		OperationFuture<Boolean> ok = done(true);
+		when(client.set(anyString(), anyInt(), any())).thenReturn(ok);
+		when(client.add(eq(SHARD_KEY), eq(3960), any())).thenReturn(ok);
+
+		repository.saveAll("c1", List.of(new UserMessage("hi")));
+
+		verify(client, times(1)).add(eq(SHARD_KEY), eq(3960), any());
+	}
+
+	@Test
+	void shardDropsExpiredConversations() {
+		ConversationIndexShard shard = new ConversationIndexShard();
+		shard.put("old", 100, 0);
+		shard.put("forever", 0, 0);
+		shard.put("new", 300, 0);
+
+		assertThat(shard.conversationIds(200)).containsExactly("forever", "new");
+		assertThat(shard.prune(200)).isTrue();
+		assertThat(ConversationIndexShard.decode(shard.encode()).conversationIds(0)).containsExactly("forever", "new");
+	}
+
+	@Test
+	void putMovesConversationToTheEnd() {
+		ConversationIndexShard shard = new ConversationIndexShard();
+		shard.put("a", 100, 0);
+		shard.put("b", 100, 0);
+
+		assertThat(shard.put("a", 100, 10)).isFalse();
+		assertThat(shard.put("a", 200, 10)).isTrue();
+		assertThat(shard.conversationIds(0)).containsExactly("b", "a");
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.memcached.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link MessageCodec}.
+ */
+class MessageCodecTest {
+
+	@Test
+	void roundTripsAllMessageTypes() {
+		List<Message> messages = List.of(new SystemMessage("be brief"),
+				UserMessage.builder().text("héllo").metadata(Map.of("source", "web")).build(),
+				AssistantMessage.builder()
+					.content("calling")
+					.toolCalls(List.of(new AssistantMessage.ToolCall("1", "function", "weather", "{\"city\":\"x\"}")))
+					.build(),
+				ToolResponseMessage.builder()
+					.responses(List.of(new ToolResponseMessage.ToolResponse("1", "weather", "sunny")))
+					.build());
+
+		assertThat(MessageCodec.decode(MessageCodec.encode(messages))).isEqualTo(messages);
+	}
+
+	@Test
+	void keepsNullAndEmptyText() {
+		List<Message> messages = List.of(new AssistantMessage(null), new UserMessage(""));
+
+		List<Message> decoded = MessageCodec.decode(MessageCodec.encode(messages));
+
+		assertThat(decoded.get(0).getText()).isNull();
+		assertThat(decoded.get(1).getText()).isEmpty();
+	}
+
+	@Test
+	void rejectsUnknownVersion() {
+		assertThatThrownBy(() -> MessageCodec.decode(new byte[] { 9, 0, 0, 0, 0 }))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mongodb;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Sorts.ascending;
+
+/**
+ * Moves conversations from the {@link MongoDBChatMemoryRepository.Layout#MESSAGE} layout
+ * to the {@link MongoDBChatMemoryRepository.Layout#CONVERSATION} layout.
+ *
+ * <p>
+ * A conversation is only inserted when it has no document in the new layout yet, so a
+ * migration can run while the application writes in the new layout, and can be resumed
+ * after a failure.
+ */
+public class MongoDBChatMemoryMigration {
+
+	private static final Logger logger = LoggerFactory.getLogger(MongoDBChatMemoryMigration.class);
+
+	private static final String COLLECTION_NAME = "chat_memory";
+
+	private static final String CONVERSATION_ID_FIELD = "conversationId";
+
+	private static final String MESSAGE_TYPE_FIELD = "messageType";
+
+	private static final String MESSAGE_TEXT_FIELD = "messageText";
+
+	private static final String TIMESTAMP_FIELD = "timestamp";
+
+	private final MongoCollection<Document> collection;
+
+	private final MongoCollection<Document> conversations;
+
+	private final Duration conversationTtl;
+
+	/**
+	 * @param conversationTtl how long a migrated conversation is kept after its last
+	 * message, null to keep it
+	 */
+	public MongoDBChatMemoryMigration(MongoClient mongoClient, String databaseName, Duration conversationTtl) {
+		Assert.notNull(mongoClient, "mongoClient cannot be null");
+		Assert.hasText(databaseName, "databaseName cannot be null or empty");
+		MongoDatabase database = mongoClient.getDatabase(databaseName);
+		this.collection = database.getCollection(COLLECTION_NAME);
+		this.conversations = database.getCollection(MongoDBChatMemoryRepository.CONVERSATION_COLLECTION_NAME);
+		this.conversationTtl = conversationTtl != null && conversationTtl.toMillis() > 0 ? conversationTtl : null;
+	}
+
+	/**
+	 * Migrate all conversations.
+	 * @param deleteMigrated whether to delete the messages of a conversation from the old
+	 * layout once it is migrated
+	 * @return the number of conversations inserted in the new layout
+	 */
+	public long migrate(boolean deleteMigrated) {
+		long migrated = 0;
+		List<String> conversationIds = collection.distinct(CONVERSATION_ID_FIELD, String.class)
+			.into(new ArrayList<>());
+		for (String conversationId : conversationIds) {
+			if (migrate(conversationId)) {
+				migrated++;
+			}
+			if (deleteMigrated) {
+				collection.deleteMany(eq(CONVERSATION_ID_FIELD, conversationId));
+			}
+		}
+		logger.info("Migrated {} of {} conversations to {}", migrated, conversationIds.size(),
+				MongoDBChatMemoryRepository.CONVERSATION_COLLECTION_NAME);
+		return migrated;
+	}
+
+	private boolean migrate(String conversationId) {
+		List<Document> messages = new ArrayList<>();
+		long lastTimestamp = 0;
+		for (Document doc : collection.find(eq(CONVERSATION_ID_FIELD, conversationId))
+			.sort(ascending(TIMESTAMP_FIELD))) {
+			long timestamp = doc.get(TIMESTAMP_FIELD) instanceof Number number ? number.longValue() : 0L;
+			lastTimestamp = Math.max(lastTimestamp, timestamp);
+			messages.add(MongoDBChatMemoryRepository.messageElement(doc.getString(MESSAGE_TYPE_FIELD),
+					doc.getString(MESSAGE_TEXT_FIELD), timestamp));
+		}
+		if (messages.isEmpty()) {
+			return false;
+		}
+		UpdateResult result = conversations.updateOne(eq(MongoDBChatMemoryRepository.ID_FIELD, conversationId),
+				insertUpdate(messages, new Date(lastTimestamp > 0 ? lastTimestamp : System.currentTimeMillis())),
+				new UpdateOptions().upsert(true));
+		return result.getUpsertedId() != null;
+	}
+
+	private Bson insertUpdate(List<Document> messages, Date updatedAt) {
+		List<Bson> updates = new ArrayList<>(List.of(
+				Updates.setOnInsert(MongoDBChatMemoryRepository.MESSAGES_FIELD, messages),
+				Updates.setOnInsert(MongoDBChatMemoryRepository.VERSION_FIELD, 0L),
+				Updates.setOnInsert(MongoDBChatMemoryRepository.UPDATED_AT_FIELD, updatedAt)));
+		if (conversationTtl != null) {
+			updates.add(Updates.setOnInsert(MongoDBChatMemoryRepository.EXPIRE_AT_FIELD,
+					new Date(updatedAt.getTime() + conversationTtl.toMillis())));
+		}
+		return Updates.combine(updates);
+	}
+
+}
@@ -15,13 +15,21 @@
  */
 package com.alibaba.cloud.ai.memory.mongodb;
 
+import com.alibaba.cloud.ai.memory.common.ConversationDiff;
+
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
 import com.mongodb.client.*;
+import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.PushOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
 import io.micrometer.common.util.StringUtils;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -31,16 +39,31 @@ import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.*;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Sorts.orderBy;
 
 /**
  * MongoDB implementation of ChatMemoryRepository
+ *
+ * <p>
+ * With {@link Layout#MESSAGE} every message is a document of {@value #COLLECTION_NAME}.
+ * With {@link Layout#CONVERSATION} every conversation is a document of
+ * {@value #CONVERSATION_COLLECTION_NAME} holding its messages in an array, and a save
+ * that continues the stored conversation is a single {@code $push} with {@code $each} and
+ * {@code $slice}. {@link MongoDBChatMemoryMigration} moves conversations from the first
+ * layout to the second.
  */
 public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCloseable {
 
@@ -56,6 +79,37 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 	private static final String TIMESTAMP_FIELD = "timestamp";
 
+	static final String CONVERSATION_COLLECTION_NAME = "chat_memory_conversation";
+
+	static final String ID_FIELD = "_id";
+
+	static final String MESSAGES_FIELD = "messages";
+
+	static final String HASH_FIELD = "hash";
+
+	static final String VERSION_FIELD = "version";
+
+	static final String UPDATED_AT_FIELD = "updatedAt";
+
+	static final String EXPIRE_AT_FIELD = "expireAt";
+
+	/**
+	 * How the messages are stored.
+	 */
+	public enum Layout {
+
+		/**
+		 * A document per message.
+		 */
+		MESSAGE,
+
+		/**
+		 * A document per conversation, with the messages in an array.
+		 */
+		CONVERSATION
+
+	}
+
 	private final MongoClient mongoClient;
 
 	private final MongoCollection<Document> collection;
@@ -64,14 +118,34 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 	private final String databaseName;
 
+	private final Layout layout;
+
+	private final MongoCollection<Document> conversations;
+
+	private final Duration conversationTtl;
+
 	public MongoDBChatMemoryRepository(MongoClient mongoClient, String databaseName) {
+		this(mongoClient, databaseName, Layout.MESSAGE, null);
+	}
+
+	/**
+	 * @param layout how the messages are stored
+	 * @param conversationTtl with {@link Layout#CONVERSATION}, how long a conversation
+	 * is kept after its last update, null to keep it
+	 */
+	public MongoDBChatMemoryRepository(MongoClient mongoClient, String databaseName, Layout layout,
+			Duration conversationTtl) {
+		Assert.notNull(layout, "layout cannot be null");
 		this.databaseName = databaseName;
+		this.layout = layout;
+		this.conversationTtl = conversationTtl != null && conversationTtl.toMillis() > 0 ? conversationTtl : null;
 		this.objectMapper = new ObjectMapper();
 		this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 		try {
 			this.mongoClient = mongoClient;
 			MongoDatabase database = mongoClient.getDatabase(databaseName);
 			this.collection = database.getCollection(COLLECTION_NAME);
+			this.conversations = database.getCollection(CONVERSATION_COLLECTION_NAME);
 			createIndexesIfNotExists();
 		}
 		catch (Exception e) {
@@ -84,22 +158,36 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 	}
 
 	private void createIndexesIfNotExists() {
+		if (layout == Layout.CONVERSATION) {
+			conversations.createIndex(Indexes.descending(UPDATED_AT_FIELD));
+			// expires the documents when their expireAt is reached
+			conversations.createIndex(Indexes.ascending(EXPIRE_AT_FIELD),
+					new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+			return;
+		}
 		collection.createIndex(Indexes.ascending(CONVERSATION_ID_FIELD, TIMESTAMP_FIELD));
 		collection.createIndex(Indexes.ascending(CONVERSATION_ID_FIELD));
 	}
 
 	public void recreateCollection() {
 		MongoDatabase database = mongoClient.getDatabase(databaseName);
-		if (database.listCollectionNames().into(new ArrayList<>()).contains(COLLECTION_NAME)) {
-			collection.drop();
+		String name = layout == Layout.CONVERSATION ? CONVERSATION_COLLECTION_NAME : COLLECTION_NAME;
+		if (database.listCollectionNames().into(new ArrayList<>()).contains(name)) {
+			database.getCollection(name).drop();
 		}
-		database.createCollection(COLLECTION_NAME);
+		database.createCollection(name);
 		createIndexesIfNotExists();
 	}
 
 	@Override
 	public List<String> findConversationIds() {
 		try {
+			if (layout == Layout.CONVERSATION) {
+				return conversations.find()
+					.projection(include(ID_FIELD))
+					.map(doc -> doc.getString(ID_FIELD))
+					.into(new ArrayList<>());
+			}
 			DistinctIterable<String> distinctIds = collection.distinct(CONVERSATION_ID_FIELD, String.class);
 			return distinctIds.into(new ArrayList<>());
 		}
@@ -108,11 +196,44 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		}
 	}
 
+	/**
+	 * The IDs of the most recently updated conversations, most recent first. Requires
+	 * {@link Layout#CONVERSATION}.
+	 */
+	public List<String> findRecentConversationIds(int limit) {
+		Assert.state(layout == Layout.CONVERSATION, "Recent conversations require the CONVERSATION layout");
+		Assert.isTrue(limit > 0, "limit must be positive");
+		try {
+			return conversations.find()
+				.sort(Sorts.descending(UPDATED_AT_FIELD))
+				.limit(limit)
+				.projection(include(ID_FIELD))
+				.map(doc -> doc.getString(ID_FIELD))
+				.into(new ArrayList<>());
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Error finding conversation IDs", e);
+		}
+	}
+
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
 			logger.info("Finding messages for conversation: {}", conversationId);
+			if (layout == Layout.CONVERSATION) {
+				Document conversation = conversations.find(eq(ID_FIELD, conversationId))
+					.projection(include(MESSAGES_FIELD))
+					.first();
+				if (conversation == null) {
+					return new ArrayList<>();
+				}
+				return conversation.getList(MESSAGES_FIELD, Document.class, List.of())
+					.stream()
+					.map(this::documentToMessage)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			}
 			Bson filter = eq(CONVERSATION_ID_FIELD, conversationId);
 			FindIterable<Document> documents = collection.find(filter).sort(orderBy(ascending(TIMESTAMP_FIELD)));
 
@@ -138,6 +259,10 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
 		try {
+			if (layout == Layout.CONVERSATION) {
+				saveConversation(conversationId, messages);
+				return;
+			}
 			deleteByConversationId(conversationId);
 			List<Document> documents = messages.stream()
 				.map(message -> messageToDocument(conversationId, message))
@@ -157,6 +282,10 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
+			if (layout == Layout.CONVERSATION) {
+				conversations.deleteOne(eq(ID_FIELD, conversationId));
+				return;
+			}
 			Bson filter = eq(CONVERSATION_ID_FIELD, conversationId);
 			collection.deleteMany(filter);
 		}
@@ -168,6 +297,14 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
+			if (layout == Layout.CONVERSATION) {
+				// drops the head in place, for conversations of at least maxLimit messages
+				Bson filter = maxLimit > 0
+						? and(eq(ID_FIELD, conversationId), exists(MESSAGES_FIELD + "." + (maxLimit - 1)))
+						: eq(ID_FIELD, conversationId);
+				conversations.updateOne(filter, clearOverLimitUpdate(deleteSize));
+				return;
+			}
 			Bson filter = eq(CONVERSATION_ID_FIELD, conversationId);
 			FindIterable<Document> documents = collection.find(filter).sort(orderBy(ascending(TIMESTAMP_FIELD)));
 			List<Document> messages = documents.into(new ArrayList<>());
@@ -186,6 +323,126 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		}
 	}
 
+	/**
+	 * Append messages to a conversation and keep at most {@code maxMessages} of them,
+	 * the most recent ones. With {@link Layout#CONVERSATION} this is a single atomic
+	 * update.
+	 * @param maxMessages the maximum number of messages to keep, 0 for no maximum
+	 */
+	public void append(String conversationId, List<Message> messages, int maxMessages) {
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		Assert.notNull(messages, "messages cannot be null");
+		Assert.noNullElements(messages, "messages cannot contain null elements");
+		Assert.isTrue(maxMessages >= 0, "maxMessages cannot be negative");
+		if (layout == Layout.MESSAGE) {
+			List<Message> all = findByConversationId(conversationId);
+			all.addAll(messages);
+			saveAll(conversationId,
+					maxMessages > 0 && all.size() > maxMessages ? all.subList(all.size() - maxMessages, all.size())
+							: all);
+			return;
+		}
+		try {
+			conversations.updateOne(eq(ID_FIELD, conversationId),
+					appendUpdate(messageDocuments(messages), maxMessages, new Date(), conversationTtl),
+					new UpdateOptions().upsert(true));
+		}
+		catch (Exception e) {
+			logger.error("Error appending messages", e);
+			throw new RuntimeException("Error appending messages", e);
+		}
+	}
+
+	/**
+	 * Continue the stored conversation with a {@code $push} when its messages are a
+	 * prefix of the new ones, minus a dropped head, and rewrite it otherwise. The push
+	 * only applies to the version that was read.
+	 */
+	private void saveConversation(String conversationId, List<Message> messages) {
+		if (messages.isEmpty()) {
+			conversations.deleteOne(eq(ID_FIELD, conversationId));
+			return;
+		}
+		List<Document> documents = messageDocuments(messages);
+		Document stored = conversations.find(eq(ID_FIELD, conversationId))
+			.projection(include(MESSAGES_FIELD + "." + HASH_FIELD, VERSION_FIELD))
+			.first();
+		if (stored != null) {
+			List<Long> storedHashes = stored.getList(MESSAGES_FIELD, Document.class, List.of())
+				.stream()
+				.map(doc -> doc.getLong(HASH_FIELD))
+				.toList();
+			int head = ConversationDiff.storedHead(storedHashes,
+					documents.stream().map(doc -> doc.getLong(HASH_FIELD)).toList());
+			if (head >= 0) {
+				List<Document> tail = documents.subList(storedHashes.size() - head, documents.size());
+				UpdateResult result = conversations.updateOne(
+						and(eq(ID_FIELD, conversationId), eq(VERSION_FIELD, stored.get(VERSION_FIELD))),
+						appendUpdate(tail, documents.size(), new Date(), conversationTtl));
+				if (result.getMatchedCount() > 0) {
+					logger.debug("Appended {} messages to conversation {}", tail.size(), conversationId);
+					return;
+				}
+			}
+		}
+		conversations.updateOne(eq(ID_FIELD, conversationId), rewriteUpdate(documents, new Date(), conversationTtl),
+				new UpdateOptions().upsert(true));
+		logger.debug("Rewrote conversation {} with {} messages", conversationId, documents.size());
+	}
+
+	/**
+	 * Push the messages and keep the last {@code maxMessages}, 0 for all.
+	 */
+	static Bson appendUpdate(List<Document> messages, int maxMessages, Date now, Duration conversationTtl) {
+		PushOptions options = new PushOptions();
+		if (maxMessages > 0) {
+			options.slice(-maxMessages);
+		}
+		return touch(Updates.pushEach(MESSAGES_FIELD, messages, options), now, conversationTtl);
+	}
+
+	static Bson rewriteUpdate(List<Document> messages, Date now, Duration conversationTtl) {
+		return touch(Updates.set(MESSAGES_FIELD, messages), now, conversationTtl);
+	}
+
+	private static Bson touch(Bson update, Date now, Duration conversationTtl) {
+		List<Bson> updates = new ArrayList<>(List.of(update, Updates.inc(VERSION_FIELD, 1L),
+				Updates.set(UPDATED_AT_FIELD, now)));
+		if (conversationTtl != null) {
+			updates.add(Updates.set(EXPIRE_AT_FIELD, new Date(now.getTime() + conversationTtl.toMillis())));
+		}
+		return Updates.combine(updates);
+	}
+
+	/**
+	 * Pipeline dropping the first {@code deleteSize} messages.
+	 */
+	static List<Bson> clearOverLimitUpdate(int deleteSize) {
+		String messages = "$" + MESSAGES_FIELD;
+		Document sliced = new Document("$slice", List.of(messages, Math.max(deleteSize, 0),
+				new Document("$max", List.of(new Document("$size", messages), 1))));
+		return List.of(new Document("$set",
+				new Document(MESSAGES_FIELD, sliced).append(UPDATED_AT_FIELD, "$$NOW")
+					.append(VERSION_FIELD, new Document("$add", List.of(new Document("$ifNull",
+							List.of("$" + VERSION_FIELD, 0L)), 1L)))));
+	}
+
+	/**
+	 * The array element of a message with {@link Layout#CONVERSATION}.
+	 */
+	static Document messageElement(String messageType, String messageText, long timestamp) {
+		return new Document(MESSAGE_TYPE_FIELD, messageType).append(MESSAGE_TEXT_FIELD, messageText)
+			.append(TIMESTAMP_FIELD, timestamp)
+			.append(HASH_FIELD, ConversationDiff.hash(messageType, messageText));
+	}
+
+	private static List<Document> messageDocuments(List<Message> messages) {
+		long now = System.currentTimeMillis();
+		return messages.stream()
+			.map(message -> messageElement(message.getMessageType().toString(), message.getText(), now))
+			.collect(Collectors.toList());
+	}
+
 	@Override
 	public void close() {
 		if (mongoClient != null) {
@@ -241,6 +498,10 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 		private String databaseName = "spring_ai";
 
+		private Layout layout = Layout.MESSAGE;
+
+		private Duration conversationTtl;
+
 		public MongoDBBuilder host(String host) {
 			this.host = host;
 			return this;
@@ -271,6 +532,20 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 			return this;
 		}
 
+		public MongoDBBuilder layout(Layout layout) {
+			this.layout = layout;
+			return this;
+		}
+
+		/**
+		 * How long a conversation is kept after its last update, with
+		 * {@link Layout#CONVERSATION}.
+		 */
+		public MongoDBBuilder conversationTtl(Duration conversationTtl) {
+			this.conversationTtl = conversationTtl;
+			return this;
+		}
+
 		public MongoDBChatMemoryRepository build() {
 			ServerAddress serverAddress = new ServerAddress(host, port);
 			MongoClientSettings.Builder build = MongoClientSettings.builder();
@@ -283,7 +558,7 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 				.applyToClusterSettings(builder -> builder.hosts(List.of(serverAddress)))
 				.build();
 			MongoClient mongoClient = MongoClients.create(settings);
-			return new MongoDBChatMemoryRepository(mongoClient, databaseName);
+			return new MongoDBChatMemoryRepository(mongoClient, databaseName, layout, conversationTtl);
 		}
 
 	}
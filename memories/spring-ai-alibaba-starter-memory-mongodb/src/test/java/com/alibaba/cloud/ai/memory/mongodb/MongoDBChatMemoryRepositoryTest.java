@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mongodb;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the updates of the conversation layout of
+ * {@link MongoDBChatMemoryRepository}.
+ */
+class MongoDBChatMemoryRepositoryTest {
+
+	private static BsonDocument render(Bson bson) {
+		return bson.toBsonDocument();
+	}
+
+	@Test
+	void appendPushesAndSlicesInOneUpdate() {
+		Document message = MongoDBChatMemoryRepository.messageElement("USER", "hello", 1L);
+		BsonDocument update = render(MongoDBChatMemoryRepository.appendUpdate(List.of(message), 3, new Date(1000L),
+				Duration.ofSeconds(10)));
+
+		BsonDocument push = update.getDocument("$push").getDocument("messages");
+		assertThat(push.getArray("$each")).hasSize(1);
+		assertThat(push.getInt32("$slice").getValue()).isEqualTo(-3);
+		assertThat(update.getDocument("$inc").getInt64("version").getValue()).isEqualTo(1L);
+		assertThat(update.getDocument("$set").getDateTime("updatedAt").getValue()).isEqualTo(1000L);
+		assertThat(update.getDocument("$set").getDateTime("expireAt").getValue()).isEqualTo(11000L);
+	}
+
+	@Test
+	void appendWithoutMaximumKeepsAllMessages() {
+		BsonDocument update = render(
+				MongoDBChatMemoryRepository.appendUpdate(List.of(), 0, new Date(1000L), null));
+
+		assertThat(update.getDocument("$push").getDocument("messages").containsKey("$slice")).isFalse();
+		assertThat(update.getDocument("$set").containsKey("expireAt")).isFalse();
+	}
+
+	@Test
+	void clearOverLimitDropsHeadInPipeline() {
+		List<Bson> pipeline = MongoDBChatMemoryRepository.clearOverLimitUpdate(2);
+
+		assertThat(pipeline).hasSize(1);
+		BsonDocument slice = render(pipeline.get(0)).getDocument("$set").getDocument("messages");
+		assertThat(slice.getArray("$slice").get(1).asInt32().getValue()).isEqualTo(2);
+	}
+
+	@Test
+	void messageElementCarriesHashOfTypeAndText() {
+		Document user = MongoDBChatMemoryRepository.messageElement("USER", "a", 1L);
+		Document assistant = MongoDBChatMemoryRepository.messageElement("ASSISTANT", "a", 2L);
+
+		assertThat(user.getLong("hash"))
+			.isEqualTo(MongoDBChatMemoryRepository.messageElement("USER", "a", 5L).getLong("hash"));
+		assertThat(user.getLong("hash")).isNotEqualTo(assistant.getLong("hash"));
+	}
+
+}
@@ -28,9 +28,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 /**
  * Base class for Redis-based chat memory repositories
  *
+ * <p>
+ * Conversation IDs are listed from a sorted set scored by the time of the last save,
+ * so listing never walks the keyspace. Keys written before the index existed are
+ * picked up once with {@code SCAN}.
+ *
  * @author benym
  * @since 2025/7/31 0:05
  */
@@ -42,9 +58,150 @@ public abstract class BaseRedisChatMemoryRepository implements ChatMemoryReposit
 
     protected static String CUSTOM_KEY_PREFIX;
 
+	/**
+	 * Suffix of the sorted set indexing the conversation IDs. The conversation keys and
+	 * the index are different keys, the index is maintained with separate commands so
+	 * that it also works on a cluster.
+	 */
+	protected static final String INDEX_KEY_SUFFIX = "__conversation_index__";
+
+	/**
+	 * Suffix of the key that marks the keyspace as migrated to the index.
+	 */
+	private static final String MIGRATED_KEY_SUFFIX = ":migrated";
+
+	/**
+	 * Pushes {@code ARGV[from..]} in chunks that stay below Lua's unpack limit, then
+	 * applies the over-limit trim of {@code ARGV[limitArg]} and {@code ARGV[limitArg + 1]}
+	 * and returns the resulting length.
+	 */
+	private static final String SCRIPT_FUNCTIONS = """
+			local function push(key, from)
+			  for i = from, #ARGV, 1000 do
+			    redis.call('RPUSH', key, unpack(ARGV, i, math.min(i + 999, #ARGV)))
+			  end
+			end
+			local function trim(key, limitArg)
+			  local len = redis.call('LLEN', key)
+			  local maxLimit = tonumber(ARGV[limitArg])
+			  if maxLimit > 0 and len >= maxLimit then
+			    redis.call('LTRIM', key, tonumber(ARGV[limitArg + 1]), -1)
+			    len = redis.call('LLEN', key)
+			  end
+			  return len
+			end
+			local function expire(key, ttlArg)
+			  local ttl = tonumber(ARGV[ttlArg])
+			  if ttl > 0 then
+			    redis.call('PEXPIRE', key, ttl)
+			  end
+			end
+			""";
+
+	/**
+	 * Appends {@code ARGV[6..]} if the list still has the length {@code ARGV[1]} and ends
+	 * with {@code ARGV[2]}, otherwise returns -1. {@code ARGV[3]} and {@code ARGV[4]} are
+	 * the max limit and delete size of the trim, {@code ARGV[5]} the TTL in milliseconds.
+	 */
+	protected static final String APPEND_SCRIPT = SCRIPT_FUNCTIONS + """
+			local expected = tonumber(ARGV[1])
+			if redis.call('LLEN', KEYS[1]) ~= expected then
+			  return -1
+			end
+			if expected > 0 and redis.call('LINDEX', KEYS[1], -1) ~= ARGV[2] then
+			  return -1
+			end
+			push(KEYS[1], 6)
+			expire(KEYS[1], 5)
+			return trim(KEYS[1], 3)
+			""";
+
+	/**
+	 * Replaces the list with {@code ARGV[4..]}. {@code ARGV[1]} and {@code ARGV[2]} are the
+	 * max limit and delete size of the trim, {@code ARGV[3]} the TTL in milliseconds.
+	 */
+	protected static final String REWRITE_SCRIPT = SCRIPT_FUNCTIONS + """
+			redis.call('DEL', KEYS[1])
+			push(KEYS[1], 4)
+			expire(KEYS[1], 3)
+			return trim(KEYS[1], 1)
+			""";
+
+	/**
+	 * Drops the first {@code ARGV[2]} messages once the list holds {@code ARGV[1]} or more.
+	 * Unlike the trim of a save, a limit of zero or less trims on every call.
+	 */
+	protected static final String TRIM_SCRIPT = """
+			local len = redis.call('LLEN', KEYS[1])
+			if len >= tonumber(ARGV[1]) then
+			  redis.call('LTRIM', KEYS[1], tonumber(ARGV[2]), -1)
+			  len = redis.call('LLEN', KEYS[1])
+			end
+			return len
+			""";
+
+	protected static final String EXISTS_SCRIPT = "return redis.call('EXISTS', KEYS[1])";
+
+	protected static final String MARK_SCRIPT = "redis.call('SET', KEYS[1], ARGV[1]) return 1";
+
+	private static final int MAX_SAVED_STATES = 10_000;
+
+	private static final int LIST_PAGE_SIZE = 1000;
+
 	protected final ObjectMapper objectMapper;
 
+	private final boolean incremental;
+
+	private final long ttlMillis;
+
+	private final ScheduledExecutorService sweeper;
+
+	private volatile boolean migrated;
+
+	/**
+	 * What this instance last wrote per conversation, used to append only the messages
+	 * that were added since.
+	 */
+	private final Map<String, SavedState> savedStates = Collections
+		.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SavedState> eldest) {
+				return size() > MAX_SAVED_STATES;
+			}
+		});
+
 	public BaseRedisChatMemoryRepository() {
+		this(false);
+	}
+
+	protected BaseRedisChatMemoryRepository(boolean incremental) {
+		this(incremental, null, null);
+	}
+
+	/**
+	 * @param incremental whether {@link #saveAll} appends only the messages added since the
+	 * last save instead of rewriting the conversation
+	 * @param conversationTtl how long a conversation is kept after its last save, null or
+	 * zero to keep it forever
+	 * @param indexSweepInterval how often idle conversations are removed from the index,
+	 * null or zero to never sweep; only used with a TTL
+	 */
+	protected BaseRedisChatMemoryRepository(boolean incremental, Duration conversationTtl,
+			Duration indexSweepInterval) {
+		this.incremental = incremental;
+		this.ttlMillis = conversationTtl != null && conversationTtl.toMillis() > 0 ? conversationTtl.toMillis() : 0;
+		if (this.ttlMillis > 0 && indexSweepInterval != null && indexSweepInterval.toMillis() > 0) {
+			this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "redis-chat-memory-index-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long interval = indexSweepInterval.toMillis();
+			this.sweeper.scheduleWithFixedDelay(this::sweepIndex, interval, interval, TimeUnit.MILLISECONDS);
+		}
+		else {
+			this.sweeper = null;
+		}
 		this.objectMapper = JsonMapper.builder()
 			.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
 			.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
@@ -77,4 +234,279 @@ public abstract class BaseRedisChatMemoryRepository implements ChatMemoryReposit
     protected String getKeyPrefix() {
         return CUSTOM_KEY_PREFIX != null ? CUSTOM_KEY_PREFIX : DEFAULT_KEY_PREFIX;
     }
+
+	protected String getIndexKey() {
+		return getKeyPrefix() + INDEX_KEY_SUFFIX;
+	}
+
+	/**
+	 * Evaluate one of the Lua scripts of this class against a single key.
+	 * @return the integer reply of the script
+	 */
+	protected abstract long eval(String script, String key, List<String> args);
+
+	/**
+	 * {@code ZADD indexKey lastActivity conversationId}
+	 */
+	protected abstract void indexAdd(String indexKey, String conversationId, long lastActivity);
+
+	/**
+	 * {@code ZADD indexKey NX lastActivity conversationId}
+	 */
+	protected abstract void indexAddIfAbsent(String indexKey, String conversationId, long lastActivity);
+
+	/**
+	 * {@code ZREM indexKey conversationId}
+	 */
+	protected abstract void indexRemove(String indexKey, String conversationId);
+
+	/**
+	 * {@code ZRANGE indexKey minActivity +inf BYSCORE WITHSCORES LIMIT offset count}
+	 */
+	protected abstract List<IndexEntry> indexRange(String indexKey, long minActivity, int offset, int count);
+
+	/**
+	 * {@code ZREMRANGEBYSCORE indexKey -inf (maxActivity}
+	 * @return the number of removed conversation IDs
+	 */
+	protected abstract long indexRemoveBefore(String indexKey, long maxActivity);
+
+	/**
+	 * Iterate the keys matching {@code pattern} with {@code SCAN}, on every master of a
+	 * cluster.
+	 */
+	protected abstract void scanKeys(String pattern, Consumer<String> consumer);
+
+	@Override
+	public List<String> findConversationIds() {
+		List<String> conversationIds = new ArrayList<>();
+		String cursor = null;
+		do {
+			ConversationIdPage page = findConversationIds(cursor, LIST_PAGE_SIZE);
+			conversationIds.addAll(page.conversationIds());
+			cursor = page.nextCursor();
+		}
+		while (cursor != null);
+		return conversationIds;
+	}
+
+	/**
+	 * Page through the conversation IDs, least recently saved first. A conversation saved
+	 * while paging moves to the end and may be returned again, but none is skipped.
+	 * @param cursor the {@link ConversationIdPage#nextCursor()} of the previous page, null
+	 * for the first page
+	 * @param limit maximum number of IDs of the page
+	 */
+	public ConversationIdPage findConversationIds(String cursor, int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		migrateIfNecessary();
+		long floor = this.ttlMillis > 0 ? System.currentTimeMillis() - this.ttlMillis : Long.MIN_VALUE;
+		long min = floor;
+		int skip = 0;
+		if (cursor != null && !cursor.isEmpty()) {
+			int separator = cursor.indexOf(':');
+			try {
+				long score = Long.parseLong(cursor.substring(0, separator));
+				if (score >= floor) {
+					min = score;
+					skip = Integer.parseInt(cursor.substring(separator + 1));
+				}
+			}
+			catch (RuntimeException e) {
+				throw new IllegalArgumentException("Invalid conversation cursor: " + cursor, e);
+			}
+		}
+		List<IndexEntry> entries = indexRange(getIndexKey(), min, skip, limit);
+		List<String> conversationIds = entries.stream().map(IndexEntry::conversationId).toList();
+		if (entries.size() < limit) {
+			return new ConversationIdPage(conversationIds, null);
+		}
+		// resume after the entries already returned with the last score
+		long last = entries.get(entries.size() - 1).lastActivity();
+		int sameScore = 0;
+		for (int i = entries.size() - 1; i >= 0 && entries.get(i).lastActivity() == last; i--) {
+			sameScore++;
+		}
+		int nextSkip = last == min ? skip + sameScore : sameScore;
+		return new ConversationIdPage(conversationIds, last + ":" + nextSkip);
+	}
+
+	/**
+	 * Remove the conversations that were not saved within the TTL from the index, their
+	 * keys have expired by then.
+	 * @return the number of removed conversation IDs
+	 */
+	protected long sweepIndex() {
+		if (this.ttlMillis <= 0) {
+			return 0;
+		}
+		try {
+			long removed = indexRemoveBefore(getIndexKey(), System.currentTimeMillis() - this.ttlMillis);
+			if (removed > 0) {
+				logger.debug("Removed {} idle conversations from the index", removed);
+			}
+			return removed;
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to sweep the conversation index", e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Index the conversation keys written before the index existed, once per keyspace.
+	 */
+	private void migrateIfNecessary() {
+		if (this.migrated) {
+			return;
+		}
+		synchronized (this) {
+			if (this.migrated) {
+				return;
+			}
+			String indexKey = getIndexKey();
+			String migratedKey = indexKey + MIGRATED_KEY_SUFFIX;
+			if (eval(EXISTS_SCRIPT, migratedKey, List.of()) == 0) {
+				String prefix = getKeyPrefix();
+				long now = System.currentTimeMillis();
+				long[] count = new long[1];
+				scanKeys(prefix + "*", key -> {
+					if (!key.startsWith(indexKey)) {
+						indexAddIfAbsent(indexKey, key.substring(prefix.length()), now);
+						count[0]++;
+					}
+				});
+				eval(MARK_SCRIPT, migratedKey, List.of(String.valueOf(now)));
+				logger.info("Indexed {} existing conversations under {}", count[0], prefix);
+			}
+			this.migrated = true;
+		}
+	}
+
+	/**
+	 * Store the messages of a conversation, atomically, and trim it once it holds
+	 * {@code maxLimit} or more messages.
+	 *
+	 * <p>
+	 * In incremental mode only the messages added since the last save of this instance
+	 * are sent. The script verifies that the stored list still has the length and the
+	 * last message that were written then, and the conversation is rewritten as a whole
+	 * when it does not, e.g. because another instance saved or trimmed it.
+	 * @param maxLimit trim threshold, zero or less to never trim
+	 * @param deleteSize number of messages to drop from the head when trimming
+	 */
+	protected void save(String conversationId, List<Message> messages, int maxLimit, int deleteSize) {
+		String key = getKeyPrefix() + conversationId;
+		List<String> messageJsons = messages.stream().map(this::serializeMessage).toList();
+		String limit = String.valueOf(maxLimit);
+		String delete = String.valueOf(deleteSize);
+		String ttl = String.valueOf(this.ttlMillis);
+		if (this.incremental) {
+			SavedState state = this.savedStates.get(conversationId);
+			if (state != null && state.count() <= messageJsons.size()
+					&& state.hash() == hash(messageJsons, 0, state.count())) {
+				List<String> args = new ArrayList<>(5 + messageJsons.size() - state.count());
+				args.add(String.valueOf(state.count()));
+				args.add(state.count() > 0 ? messageJsons.get(state.count() - 1) : "");
+				args.add(limit);
+				args.add(delete);
+				args.add(ttl);
+				args.addAll(messageJsons.subList(state.count(), messageJsons.size()));
+				long length = eval(APPEND_SCRIPT, key, args);
+				if (length >= 0) {
+					remember(conversationId, messageJsons, length);
+					touch(conversationId, length);
+					return;
+				}
+				logger.debug("Conversation {} diverged from the last save, rewriting it", conversationId);
+			}
+		}
+		List<String> args = new ArrayList<>(3 + messageJsons.size());
+		args.add(limit);
+		args.add(delete);
+		args.add(ttl);
+		args.addAll(messageJsons);
+		long length = eval(REWRITE_SCRIPT, key, args);
+		if (this.incremental) {
+			remember(conversationId, messageJsons, length);
+		}
+		touch(conversationId, length);
+	}
+
+	private void touch(String conversationId, long length) {
+		if (length > 0) {
+			indexAdd(getIndexKey(), conversationId, System.currentTimeMillis());
+		}
+		else {
+			indexRemove(getIndexKey(), conversationId);
+		}
+	}
+
+	/**
+	 * Atomically drop the first {@code deleteSize} messages once the conversation holds
+	 * {@code maxLimit} or more, so a {@code maxLimit} of zero or less always trims.
+	 */
+	protected void trim(String conversationId, int maxLimit, int deleteSize) {
+		this.savedStates.remove(conversationId);
+		eval(TRIM_SCRIPT, getKeyPrefix() + conversationId,
+				List.of(String.valueOf(maxLimit), String.valueOf(deleteSize)));
+	}
+
+	/**
+	 * Drop what is known about a deleted conversation, including its index entry.
+	 */
+	protected void forget(String conversationId) {
+		this.savedStates.remove(conversationId);
+		indexRemove(getIndexKey(), conversationId);
+	}
+
+	/**
+	 * Stop the index sweeper, subclasses release their connections after calling this.
+	 */
+	@Override
+	public void close() {
+		if (this.sweeper != null) {
+			this.sweeper.shutdownNow();
+		}
+	}
+
+	/**
+	 * The stored list is the tail of {@code messageJsons} after the trim.
+	 */
+	private void remember(String conversationId, List<String> messageJsons, long length) {
+		int from = messageJsons.size() - (int) length;
+		this.savedStates.put(conversationId,
+				new SavedState((int) length, hash(messageJsons, from, messageJsons.size())));
+	}
+
+	private static long hash(List<String> values, int from, int to) {
+		long hash = 1;
+		for (int i = from; i < to; i++) {
+			String value = values.get(i);
+			hash = hash * 1_000_003L + value.hashCode();
+			hash ^= (long) value.length() << 32;
+		}
+		return hash;
+	}
+
+	private record SavedState(int count, long hash) {
+	}
+
+	/**
+	 * A conversation ID of the index and the time of its last save in epoch milliseconds.
+	 */
+	protected record IndexEntry(String conversationId, long lastActivity) {
+	}
+
+	/**
+	 * A page of conversation IDs.
+	 *
+	 * @param conversationIds the IDs, least recently saved first
+	 * @param nextCursor the cursor of the next page, null on the last page
+	 */
+	public record ConversationIdPage(List<String> conversationIds, String nextCursor) {
+	}
+
 }
@@ -18,10 +18,14 @@ package com.alibaba.cloud.ai.memory.redis;
 import com.alibaba.cloud.ai.memory.redis.builder.RedisChatMemoryBuilder;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.SocketOptions;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
@@ -33,8 +37,13 @@ import org.springframework.data.redis.connection.*;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -55,8 +64,16 @@ public class LettuceRedisChatMemoryRepository extends BaseRedisChatMemoryReposit
 
   private final RedisTemplate<String, String> redisTemplate;
 
-  private LettuceRedisChatMemoryRepository(RedisConnectionFactory connectionFactory) {
-    super();
+  private final Map<String, RedisScript<Long>> scripts = new ConcurrentHashMap<>();
+
+  private static final int SCAN_COUNT = 1000;
+
+  private LettuceRedisChatMemoryRepository(
+      RedisConnectionFactory connectionFactory,
+      boolean incremental,
+      Duration conversationTtl,
+      Duration indexSweepInterval) {
+    super(incremental, conversationTtl, indexSweepInterval);
     Assert.notNull(connectionFactory, "ConnectionFactory cannot be null");
     this.connectionFactory = connectionFactory;
     this.redisTemplate = createRedisTemplate(connectionFactory);
@@ -127,7 +144,8 @@ public class LettuceRedisChatMemoryRepository extends BaseRedisChatMemoryReposit
       }
       lettuceConnectionFactory.setShareNativeConnection(false);
       lettuceConnectionFactory.afterPropertiesSet();
-      return new LettuceRedisChatMemoryRepository(lettuceConnectionFactory);
+      return new LettuceRedisChatMemoryRepository(
+          lettuceConnectionFactory, incremental, conversationTtl, indexSweepInterval);
     }
 
     private LettuceClientConfiguration applyConfiguration() {
@@ -184,14 +202,6 @@ public class LettuceRedisChatMemoryRepository extends BaseRedisChatMemoryReposit
     }
   }
 
-  @Override
-  public List<String> findConversationIds() {
-    Set<String> keys = redisTemplate.keys(getKeyPrefix() + "*");
-    return keys.stream()
-        .map(key -> key.substring(getKeyPrefix().length()))
-        .collect(Collectors.toList());
-  }
-
   @Override
   public List<Message> findByConversationId(String conversationId) {
     Assert.hasText(conversationId, "conversationId cannot be null or empty");
@@ -205,26 +215,30 @@ public class LettuceRedisChatMemoryRepository extends BaseRedisChatMemoryReposit
 
   @Override
   public void saveAll(String conversationId, List<Message> messages) {
+    saveAll(conversationId, messages, 0, 0);
+  }
+
+  /**
+   * Save the messages of a conversation and, in the same atomic script, clear the messages over
+   * the limit as {@link #clearOverLimit} does.
+   *
+   * @param conversationId the conversation ID
+   * @param messages the messages of the conversation
+   * @param maxLimit maximum number of messages to keep, zero or less for no limit
+   * @param deleteSize number of messages to delete when over limit
+   */
+  public void saveAll(
+      String conversationId, List<Message> messages, int maxLimit, int deleteSize) {
     Assert.hasText(conversationId, "conversationId cannot be null or empty");
     Assert.notNull(messages, "messages cannot be null");
     Assert.noNullElements(messages, "messages cannot contain null elements");
-    String key = getKeyPrefix() + conversationId;
-    List<String> messageJsons = messages.stream().map(this::serializeMessage).toList();
-    try (RedisConnection connection = redisTemplate.getConnectionFactory().getConnection()) {
-      connection.keyCommands().del(key.getBytes());
-      if (!messageJsons.isEmpty()) {
-        byte[][] values = new byte[messageJsons.size()][];
-        for (int i = 0; i < messageJsons.size(); i++) {
-          values[i] = messageJsons.get(i).getBytes();
-        }
-        connection.listCommands().rPush(key.getBytes(), values);
-      }
-    }
+    save(conversationId, messages, maxLimit, deleteSize);
   }
 
   @Override
   public void deleteByConversationId(String conversationId) {
     Assert.hasText(conversationId, "conversationId cannot be null or empty");
+    forget(conversationId);
     redisTemplate.delete(getKeyPrefix() + conversationId);
   }
 
@@ -237,16 +251,84 @@ public class LettuceRedisChatMemoryRepository extends BaseRedisChatMemoryReposit
    */
   public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
     Assert.hasText(conversationId, "conversationId cannot be null or empty");
-    String key = getKeyPrefix() + conversationId;
-    Long size = redisTemplate.opsForList().size(key);
-    if (size < maxLimit) {
-      return;
+    trim(conversationId, maxLimit, deleteSize);
+  }
+
+  @Override
+  protected long eval(String script, String key, List<String> args) {
+    RedisScript<Long> redisScript =
+        scripts.computeIfAbsent(script, s -> RedisScript.of(s, Long.class));
+    return redisTemplate.execute(redisScript, List.of(key), args.toArray());
+  }
+
+  @Override
+  protected void indexAdd(String indexKey, String conversationId, long lastActivity) {
+    redisTemplate.opsForZSet().add(indexKey, conversationId, lastActivity);
+  }
+
+  @Override
+  protected void indexAddIfAbsent(String indexKey, String conversationId, long lastActivity) {
+    redisTemplate.opsForZSet().addIfAbsent(indexKey, conversationId, lastActivity);
+  }
+
+  @Override
+  protected void indexRemove(String indexKey, String conversationId) {
+    redisTemplate.opsForZSet().remove(indexKey, conversationId);
+  }
+
+  @Override
+  protected List<IndexEntry> indexRange(
+      String indexKey, long minActivity, int offset, int count) {
+    Set<ZSetOperations.TypedTuple<String>> tuples =
+        redisTemplate
+            .opsForZSet()
+            .rangeByScoreWithScores(
+                indexKey, minActivity, Double.POSITIVE_INFINITY, offset, count);
+    if (CollectionUtils.isEmpty(tuples)) {
+      return Collections.emptyList();
     }
-    redisTemplate.opsForList().trim(key, deleteSize, -1);
+    return tuples.stream()
+        .map(tuple -> new IndexEntry(tuple.getValue(), tuple.getScore().longValue()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  protected long indexRemoveBefore(String indexKey, long maxActivity) {
+    Long removed =
+        redisTemplate
+            .opsForZSet()
+            .removeRangeByScore(indexKey, Double.NEGATIVE_INFINITY, maxActivity - 1);
+    return removed != null ? removed : 0;
+  }
+
+  @Override
+  protected void scanKeys(String pattern, Consumer<String> consumer) {
+    ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+    redisTemplate.execute(
+        (RedisCallback<Void>)
+            connection -> {
+              if (connection instanceof RedisClusterConnection clusterConnection) {
+                for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                  if (node.isMaster()) {
+                    try (Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+                      cursor.forEachRemaining(
+                          key -> consumer.accept(new String(key, StandardCharsets.UTF_8)));
+                    }
+                  }
+                }
+              } else {
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                  cursor.forEachRemaining(
+                      key -> consumer.accept(new String(key, StandardCharsets.UTF_8)));
+                }
+              }
+              return null;
+            });
   }
 
   @Override
   public void close() {
+    super.close();
     if (connectionFactory instanceof LettuceConnectionFactory) {
       ((LettuceConnectionFactory) connectionFactory).destroy();
       logger.info("Lettuce Redis connection pool closed");
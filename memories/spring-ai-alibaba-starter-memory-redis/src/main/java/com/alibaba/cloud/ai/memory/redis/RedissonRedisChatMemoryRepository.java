@@ -19,6 +19,8 @@ import com.alibaba.cloud.ai.memory.redis.builder.RedisChatMemoryBuilder;
 import org.redisson.Redisson;
 import org.redisson.api.RKeys;
 import org.redisson.api.RList;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.options.KeysScanOptions;
 import org.redisson.client.codec.StringCodec;
@@ -31,10 +33,11 @@ import org.springframework.boot.ssl.SslManagerBundle;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Redis implementation of ChatMemoryRepository using Redisson
@@ -48,8 +51,11 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 
 	private final RedissonClient redissonClient;
 
-	private RedissonRedisChatMemoryRepository(RedissonClient redissonClient) {
-		super();
+	private static final int SCAN_COUNT = 1000;
+
+	private RedissonRedisChatMemoryRepository(RedissonClient redissonClient, boolean incremental,
+			Duration conversationTtl, Duration indexSweepInterval) {
+		super(incremental, conversationTtl, indexSweepInterval);
 		Assert.notNull(redissonClient, "redissonClient cannot be null");
 		this.redissonClient = redissonClient;
 	}
@@ -87,7 +93,8 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 				if (redissonConfig.getCodec() == null) {
 					redissonConfig.setCodec(new StringCodec());
 				}
-				return new RedissonRedisChatMemoryRepository(Redisson.create(redissonConfig));
+				return new RedissonRedisChatMemoryRepository(Redisson.create(redissonConfig), incremental,
+						conversationTtl, indexSweepInterval);
 			}
 			Config config = new Config();
 			config.setCodec(new StringCodec());
@@ -135,22 +142,13 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 					config.useSingleServer().setPassword(password);
 				}
 			}
-			return new RedissonRedisChatMemoryRepository(Redisson.create(config));
+			return new RedissonRedisChatMemoryRepository(Redisson.create(config), incremental, conversationTtl,
+					indexSweepInterval);
 
 		}
 
 	}
 
-	@Override
-	public List<String> findConversationIds() {
-		RKeys keys = redissonClient.getKeys();
-		KeysScanOptions scanOptions = KeysScanOptions.defaults().pattern(getKeyPrefix() + "*");
-		Iterable<String> keysIter = keys.getKeys(scanOptions);
-		return StreamSupport.stream(keysIter.spliterator(), false)
-			.map(key -> key.substring(getKeyPrefix().length()))
-			.collect(Collectors.toList());
-	}
-
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
@@ -164,18 +162,28 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
+		saveAll(conversationId, messages, 0, 0);
+	}
+
+	/**
+	 * Save the messages of a conversation and, in the same atomic script, clear the
+	 * messages over the limit as {@link #clearOverLimit} does.
+	 * @param conversationId the conversation ID
+	 * @param messages the messages of the conversation
+	 * @param maxLimit maximum number of messages to keep, zero or less for no limit
+	 * @param deleteSize number of messages to delete when over limit
+	 */
+	public void saveAll(String conversationId, List<Message> messages, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		RList<String> redisList = redissonClient.getList(getKeyPrefix() + conversationId);
-		redisList.delete();
-		List<String> serializedMessages = messages.stream().map(this::serializeMessage).toList();
-		redisList.addAll(serializedMessages);
+		save(conversationId, messages, maxLimit, deleteSize);
 	}
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		forget(conversationId);
 		RList<String> redisList = redissonClient.getList(getKeyPrefix() + conversationId);
 		redisList.delete();
 	}
@@ -188,17 +196,57 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 	 */
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		String key = getKeyPrefix() + conversationId;
-		RList<Object> list = redissonClient.getList(key);
-		int size = list.size();
-		if (size < maxLimit) {
-			return;
-		}
-		list.trim(deleteSize, -1);
+		trim(conversationId, maxLimit, deleteSize);
+	}
+
+	@Override
+	protected long eval(String script, String key, List<String> args) {
+		Long length = redissonClient.getScript(StringCodec.INSTANCE)
+			.eval(key, RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, List.of(key), args.toArray());
+		return length;
+	}
+
+	@Override
+	protected void indexAdd(String indexKey, String conversationId, long lastActivity) {
+		index(indexKey).add(lastActivity, conversationId);
+	}
+
+	@Override
+	protected void indexAddIfAbsent(String indexKey, String conversationId, long lastActivity) {
+		index(indexKey).addIfAbsent(lastActivity, conversationId);
+	}
+
+	@Override
+	protected void indexRemove(String indexKey, String conversationId) {
+		index(indexKey).remove(conversationId);
+	}
+
+	@Override
+	protected List<IndexEntry> indexRange(String indexKey, long minActivity, int offset, int count) {
+		return index(indexKey).entryRange(minActivity, true, Double.POSITIVE_INFINITY, true, offset, count)
+			.stream()
+			.map(entry -> new IndexEntry(entry.getValue(), entry.getScore().longValue()))
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	protected long indexRemoveBefore(String indexKey, long maxActivity) {
+		return index(indexKey).removeRangeByScore(Double.NEGATIVE_INFINITY, true, maxActivity, false);
+	}
+
+	@Override
+	protected void scanKeys(String pattern, Consumer<String> consumer) {
+		RKeys keys = redissonClient.getKeys();
+		keys.getKeys(KeysScanOptions.defaults().pattern(pattern).chunkSize(SCAN_COUNT)).forEach(consumer);
+	}
+
+	private RScoredSortedSet<String> index(String indexKey) {
+		return redissonClient.getScoredSortedSet(indexKey, StringCodec.INSTANCE);
 	}
 
 	@Override
 	public void close() {
+		super.close();
 		if (redissonClient != null && !redissonClient.isShutdown()) {
 			try {
 				int activeConnections = redissonClient.getConfig().getNettyThreads();
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.memory.redis.builder;
 
 import org.springframework.boot.ssl.SslBundles;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -50,6 +51,22 @@ public abstract class RedisChatMemoryBuilder<T extends RedisChatMemoryBuilder<T>
 
 	protected boolean useSsl = false;
 
+	/**
+	 * Append only the messages added since the last save instead of rewriting the whole
+	 * conversation on every save.
+	 */
+	protected boolean incremental = false;
+
+	/**
+	 * How long a conversation is kept after its last save, null to keep it forever.
+	 */
+	protected Duration conversationTtl;
+
+	/**
+	 * How often conversations idle for longer than the TTL are removed from the index.
+	 */
+	protected Duration indexSweepInterval = Duration.ofMinutes(1);
+
 	protected String bundle;
 
 	protected SslBundles sslBundles;
@@ -97,6 +114,21 @@ public abstract class RedisChatMemoryBuilder<T extends RedisChatMemoryBuilder<T>
         return self();
     }
 
+	public T incremental(boolean incremental) {
+		this.incremental = incremental;
+		return self();
+	}
+
+	public T conversationTtl(Duration conversationTtl) {
+		this.conversationTtl = conversationTtl;
+		return self();
+	}
+
+	public T indexSweepInterval(Duration indexSweepInterval) {
+		this.indexSweepInterval = indexSweepInterval;
+		return self();
+	}
+
 	public T useSsl(boolean useSsl) {
 		this.useSsl = useSsl;
 		return self();
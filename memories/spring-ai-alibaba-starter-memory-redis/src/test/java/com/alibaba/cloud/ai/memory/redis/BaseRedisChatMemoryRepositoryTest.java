@@ -0,0 +1,339 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the incremental save and the conversation index of
+ * {@link BaseRedisChatMemoryRepository}, against an in-memory stand-in for the Lua
+ * scripts and the sorted set.
+ */
+class BaseRedisChatMemoryRepositoryTest {
+
+	private final InMemoryRedisChatMemoryRepository repository = new InMemoryRedisChatMemoryRepository(true);
+
+	@Test
+	void appendsOnlyNewMessages() {
+		List<Message> messages = new ArrayList<>(List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+		repository.saveAll("c1", messages);
+		assertThat(repository.scripts).containsExactly("rewrite");
+
+		messages.add(new UserMessage("q2"));
+		messages.add(new AssistantMessage("a2"));
+		repository.saveAll("c1", messages);
+
+		assertThat(repository.scripts).containsExactly("rewrite", "append");
+		assertThat(repository.lastPushed).isEqualTo(2);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText)
+			.containsExactly("q1", "a1", "q2", "a2");
+	}
+
+	@Test
+	void rewritesWhenStoredConversationDiverged() {
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+		// another instance appended in the meantime
+		repository.lists.get(repository.key("c1")).add(repository.serialize(new UserMessage("other")));
+
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+
+		assertThat(repository.scripts).containsExactly("rewrite", "append", "rewrite");
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText)
+			.containsExactly("q1", "a1", "q2");
+	}
+
+	@Test
+	void rewritesWhenCallerChangedThePrefix() {
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+
+		repository.saveAll("c1", List.of(new AssistantMessage("a1"), new UserMessage("q2")));
+
+		assertThat(repository.scripts).containsExactly("rewrite", "rewrite");
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("a1", "q2");
+	}
+
+	@Test
+	void keepsAppendingAfterTrimInSameScript() {
+		List<Message> messages = new ArrayList<>(List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+		repository.saveAll("c1", messages, 3, 2);
+		messages.add(new UserMessage("q2"));
+		repository.saveAll("c1", messages, 3, 2);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q2");
+
+		List<Message> next = new ArrayList<>(repository.findByConversationId("c1"));
+		next.add(new AssistantMessage("a2"));
+		repository.saveAll("c1", next, 3, 2);
+
+		assertThat(repository.scripts).containsExactly("rewrite", "append", "append");
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q2", "a2");
+	}
+
+	@Test
+	void clearOverLimitTrimsOnEveryCallWithoutPositiveLimit() {
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q2")));
+
+		repository.trim("c1", 4, 1);
+		assertThat(repository.findByConversationId("c1")).hasSize(3);
+		repository.trim("c1", 3, 1);
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("a1", "q2");
+		repository.trim("c1", 0, 1);
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("q2");
+	}
+
+	@Test
+	void rewritesEveryTimeWhenNotIncremental() {
+		InMemoryRedisChatMemoryRepository repository = new InMemoryRedisChatMemoryRepository(false);
+		repository.saveAll("c1", List.of(new UserMessage("q1")));
+		repository.saveAll("c1", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+
+		assertThat(repository.scripts).containsExactly("rewrite", "rewrite");
+		assertThat(repository.findByConversationId("c1")).hasSize(2);
+	}
+
+	@Test
+	void pagesConversationsByLastActivity() {
+		repository.saveAll("c1", List.of(new UserMessage("q1")));
+		repository.saveAll("c2", List.of(new UserMessage("q1")));
+		repository.saveAll("c3", List.of(new UserMessage("q1")));
+		repository.index.putAll(Map.of("c1", 30L, "c2", 10L, "c3", 20L));
+
+		BaseRedisChatMemoryRepository.ConversationIdPage first = repository.findConversationIds(null, 2);
+		assertThat(first.conversationIds()).containsExactly("c2", "c3");
+		BaseRedisChatMemoryRepository.ConversationIdPage second = repository.findConversationIds(first.nextCursor(),
+				2);
+		assertThat(second.conversationIds()).containsExactly("c1");
+		assertThat(second.nextCursor()).isNull();
+		assertThat(repository.findConversationIds()).containsExactly("c2", "c3", "c1");
+	}
+
+	@Test
+	void pagesThroughConversationsSavedAtTheSameTime() {
+		for (int i = 0; i < 5; i++) {
+			repository.index.put("c" + i, 42L);
+		}
+		repository.lists.put(repository.getIndexKey() + ":migrated", new ArrayList<>(List.of("1")));
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			BaseRedisChatMemoryRepository.ConversationIdPage page = repository.findConversationIds(cursor, 2);
+			seen.addAll(page.conversationIds());
+			cursor = page.nextCursor();
+		}
+		while (cursor != null);
+
+		assertThat(seen).containsExactly("c0", "c1", "c2", "c3", "c4");
+	}
+
+	@Test
+	void indexesExistingKeysOnceWithScan() {
+		repository.lists.put(repository.key("old1"), new ArrayList<>(List.of("m")));
+		repository.lists.put(repository.key("old2"), new ArrayList<>(List.of("m")));
+
+		assertThat(repository.findConversationIds()).containsExactlyInAnyOrder("old1", "old2");
+		repository.deleteByConversationId("old1");
+		assertThat(repository.findConversationIds()).containsExactly("old2");
+		assertThat(repository.scans).isEqualTo(1);
+
+		InMemoryRedisChatMemoryRepository other = new InMemoryRedisChatMemoryRepository(false);
+		other.lists.putAll(repository.lists);
+		other.findConversationIds();
+		assertThat(other.scans).isZero();
+	}
+
+	@Test
+	void expiresAndSweepsIdleConversations() {
+		InMemoryRedisChatMemoryRepository repository = new InMemoryRedisChatMemoryRepository(false,
+				Duration.ofMinutes(10));
+		repository.saveAll("c1", List.of(new UserMessage("q1")));
+		repository.saveAll("c2", List.of(new UserMessage("q1")));
+		assertThat(repository.ttls).containsEntry(repository.key("c1"), Duration.ofMinutes(10).toMillis());
+
+		repository.index.put("c1", System.currentTimeMillis() - Duration.ofMinutes(11).toMillis());
+		assertThat(repository.findConversationIds()).containsExactly("c2");
+		assertThat(repository.sweepIndex()).isEqualTo(1);
+		assertThat(repository.index).containsOnlyKeys("c2");
+	}
+
+	/**
+	 * Emulates the Lua scripts of the base class on in-memory lists.
+	 */
+	static class InMemoryRedisChatMemoryRepository extends BaseRedisChatMemoryRepository {
+
+		final Map<String, List<String>> lists = new HashMap<>();
+
+		final List<String> scripts = new ArrayList<>();
+
+		final Map<String, Long> index = new HashMap<>();
+
+		final Map<String, Long> ttls = new HashMap<>();
+
+		int lastPushed;
+
+		int scans;
+
+		InMemoryRedisChatMemoryRepository(boolean incremental) {
+			super(incremental);
+		}
+
+		InMemoryRedisChatMemoryRepository(boolean incremental, Duration conversationTtl) {
+			super(incremental, conversationTtl, null);
+		}
+
+		String key(String conversationId) {
+			return getKeyPrefix() + conversationId;
+		}
+
+		String serialize(Message message) {
+			return serializeMessage(message);
+		}
+
+		void saveAll(String conversationId, List<Message> messages, int maxLimit, int deleteSize) {
+			save(conversationId, messages, maxLimit, deleteSize);
+		}
+
+		@Override
+		protected long eval(String script, String key, List<String> args) {
+			if (EXISTS_SCRIPT.equals(script)) {
+				return lists.containsKey(key) ? 1 : 0;
+			}
+			if (MARK_SCRIPT.equals(script)) {
+				lists.put(key, new ArrayList<>(args));
+				return 1;
+			}
+			List<String> list = lists.computeIfAbsent(key, k -> new ArrayList<>());
+			if (APPEND_SCRIPT.equals(script)) {
+				scripts.add("append");
+				int expected = Integer.parseInt(args.get(0));
+				if (list.size() != expected || expected > 0 && !list.get(expected - 1).equals(args.get(1))) {
+					return -1;
+				}
+				expire(key, args.get(4));
+				return push(list, args.subList(5, args.size()), args.get(2), args.get(3));
+			}
+			if (REWRITE_SCRIPT.equals(script)) {
+				scripts.add("rewrite");
+				list.clear();
+				expire(key, args.get(2));
+				return push(list, args.subList(3, args.size()), args.get(0), args.get(1));
+			}
+			scripts.add("trim");
+			if (list.size() >= Integer.parseInt(args.get(0))) {
+				list.subList(0, Math.min(Integer.parseInt(args.get(1)), list.size())).clear();
+			}
+			return list.size();
+		}
+
+		private long push(List<String> list, List<String> values, String maxLimit, String deleteSize) {
+			lastPushed = values.size();
+			list.addAll(values);
+			int limit = Integer.parseInt(maxLimit);
+			if (limit > 0 && list.size() >= limit) {
+				list.subList(0, Math.min(Integer.parseInt(deleteSize), list.size())).clear();
+			}
+			return list.size();
+		}
+
+		private void expire(String key, String ttl) {
+			if (Long.parseLong(ttl) > 0) {
+				ttls.put(key, Long.parseLong(ttl));
+			}
+		}
+
+		@Override
+		protected void indexAdd(String indexKey, String conversationId, long lastActivity) {
+			index.put(conversationId, lastActivity);
+		}
+
+		@Override
+		protected void indexAddIfAbsent(String indexKey, String conversationId, long lastActivity) {
+			index.putIfAbsent(conversationId, lastActivity);
+		}
+
+		@Override
+		protected void indexRemove(String indexKey, String conversationId) {
+			index.remove(conversationId);
+		}
+
+		@Override
+		protected List<IndexEntry> indexRange(String indexKey, long minActivity, int offset, int count) {
+			return index.entrySet()
+				.stream()
+				.filter(entry -> entry.getValue() >= minActivity)
+				.map(entry -> new IndexEntry(entry.getKey(), entry.getValue()))
+				.sorted(Comparator.comparingLong(IndexEntry::lastActivity).thenComparing(IndexEntry::conversationId))
+				.skip(offset)
+				.limit(count)
+				.toList();
+		}
+
+		@Override
+		protected long indexRemoveBefore(String indexKey, long maxActivity) {
+			int size = index.size();
+			index.values().removeIf(lastActivity -> lastActivity < maxActivity);
+			return size - index.size();
+		}
+
+		@Override
+		protected void scanKeys(String pattern, Consumer<String> consumer) {
+			scans++;
+			String prefix = pattern.substring(0, pattern.length() - 1);
+			lists.keySet().stream().filter(key -> key.startsWith(prefix)).toList().forEach(consumer);
+		}
+
+		@Override
+		public List<Message> findByConversationId(String conversationId) {
+			return lists.getOrDefault(key(conversationId), List.of()).stream().map(this::deserializeMessage).toList();
+		}
+
+		@Override
+		public void saveAll(String conversationId, List<Message> messages) {
+			save(conversationId, messages, 0, 0);
+		}
+
+		@Override
+		public void deleteByConversationId(String conversationId) {
+			forget(conversationId);
+			lists.remove(key(conversationId));
+		}
+
+		@Override
+		public String getIndexKey() {
+			return super.getIndexKey();
+		}
+
+		@Override
+		public long sweepIndex() {
+			return super.sweepIndex();
+		}
+
+	}
+
+}
@@ -15,25 +15,65 @@
  */
 package com.alibaba.cloud.ai.memory.tablestore;
 
+import com.alibaba.cloud.ai.memory.common.ConversationDiff;
+
 import com.alicloud.openservices.tablestore.SyncClient;
-import com.aliyun.openservices.tablestore.agent.memory.MemoryStore;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeResponse;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RangeRowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
 import com.aliyun.openservices.tablestore.agent.memory.MemoryStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.MetaType;
 import com.aliyun.openservices.tablestore.agent.model.Session;
 import com.aliyun.openservices.tablestore.agent.util.Pair;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
+import com.aliyun.openservices.tablestore.agent.util.TimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Tablestore implementation of ChatMemoryRepository
+ *
+ * <p>
+ * A save compares the new messages with the stored ones, and only writes the messages
+ * that are new and deletes the ones dropped from the head of the conversation, in
+ * {@code BatchWriteRow} requests of at most {@value #BATCH_WRITE_SIZE} rows. The session
+ * row is updated in place.
  */
 public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
+	private static final Logger logger = LoggerFactory.getLogger(TablestoreChatMemoryRepository.class);
+
+	/**
+	 * Maximum number of rows of a {@code BatchWriteRow} request.
+	 */
+	static final int BATCH_WRITE_SIZE = 200;
+
+	private static final int BATCH_WRITE_RETRIES = 3;
+
+	private static final int LIST_PAGE_SIZE = 1000;
+
+	private static final String MESSAGES_COUNT = "messagesCount";
+
 	private SyncClient client;
 
 	private String sessionTableName = "session";
@@ -88,17 +128,47 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
 	@Override
 	public List<String> findConversationIds() {
-		MemoryStore store = getStore();
-		Iterator<Session> iterator = store.listAllSessions();
 		List<String> list = new ArrayList<>();
-		while (iterator != null && iterator.hasNext() && list.size() < 10000) {
-			Session next = iterator.next();
-			String sessionId = next.getSessionId();
-			list.add(sessionId);
+		String nextToken = null;
+		do {
+			ConversationIdPage page = findConversationIds(nextToken, LIST_PAGE_SIZE);
+			list.addAll(page.conversationIds());
+			nextToken = page.nextToken();
 		}
+		while (nextToken != null);
 		return list;
 	}
 
+	/**
+	 * Page through the conversation IDs, in the order of the session table.
+	 * @param nextToken the {@link ConversationIdPage#nextToken()} of the previous page,
+	 * null for the first page
+	 * @param limit maximum number of IDs of the page
+	 */
+	public ConversationIdPage findConversationIds(String nextToken, int limit) {
+		Assert.isTrue(limit > 0, "limit must be positive");
+		MemoryStoreImpl store = getStore();
+		PrimaryKey start = nextToken != null ? TablestoreHelper.decodeNextPrimaryKeyToken(nextToken)
+				: sessionKey(PrimaryKeyValue.INF_MIN, PrimaryKeyValue.INF_MIN);
+		List<String> conversationIds = new ArrayList<>();
+		while (start != null && conversationIds.size() < limit) {
+			RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(store.getSessionTableName());
+			criteria.setInclusiveStartPrimaryKey(start);
+			criteria.setExclusiveEndPrimaryKey(sessionKey(PrimaryKeyValue.INF_MAX, PrimaryKeyValue.INF_MAX));
+			criteria.setMaxVersions(1);
+			criteria.setLimit(limit - conversationIds.size());
+			criteria.addColumnsToGet(Session.SESSION_UPDATE_TIME);
+			GetRangeResponse response = store.getClient().getRange(new GetRangeRequest(criteria));
+			for (Row row : response.getRows()) {
+				conversationIds
+					.add(row.getPrimaryKey().getPrimaryKeyColumn(Session.SESSION_SESSION_ID).getValue().asString());
+			}
+			start = response.getNextStartPrimaryKey();
+		}
+		return new ConversationIdPage(conversationIds,
+				start != null ? TablestoreHelper.encodeNextPrimaryKeyToken(start) : null);
+	}
+
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Iterator<com.aliyun.openservices.tablestore.agent.model.Message> iterator = getStore()
@@ -114,16 +184,111 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
-		deleteByConversationId(conversationId);
-		String md5UserId = MessageUtils.getMD5UserId(conversationId);
-		Session session = new Session(md5UserId, conversationId);
-		getStore().putSession(session);
-		session.getMetadata().put("messagesCount", messages.size());
-		for (Message message : messages) {
-			com.aliyun.openservices.tablestore.agent.model.Message tablestoreMessage = MessageUtils
-				.toTablestoreMessage(conversationId, message);
-			getStore().putMessage(tablestoreMessage);
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		Assert.notNull(messages, "messages cannot be null");
+		if (messages.isEmpty()) {
+			deleteByConversationId(conversationId);
+			return;
+		}
+		MemoryStoreImpl store = getStore();
+		List<com.aliyun.openservices.tablestore.agent.model.Message> stored = new ArrayList<>();
+		Iterator<com.aliyun.openservices.tablestore.agent.model.Message> iterator = store.listMessages(conversationId);
+		while (iterator != null && iterator.hasNext()) {
+			stored.add(iterator.next());
+		}
+		List<com.aliyun.openservices.tablestore.agent.model.Message> converted = messages.stream()
+			.map(message -> MessageUtils.toTablestoreMessage(conversationId, message))
+			.toList();
+		batchWrite(store.getClient(), saveChanges(store.getMessageTableName(), stored, converted,
+				TimeUtils.currentTimeMicroseconds()));
+
+		Session session = new Session(MessageUtils.getMD5UserId(conversationId), conversationId);
+		session.getMetadata().put(MESSAGES_COUNT, messages.size());
+		store.updateSession(session);
+	}
+
+	/**
+	 * The row changes turning the stored messages into the new ones: the stored messages
+	 * that are kept stay, the new ones get create times after the last stored one, and
+	 * the rest is deleted. Puts come first, so that a failure half way through does not
+	 * lose messages.
+	 */
+	static List<RowChange> saveChanges(String messageTableName,
+			List<com.aliyun.openservices.tablestore.agent.model.Message> stored,
+			List<com.aliyun.openservices.tablestore.agent.model.Message> messages, long now) {
+		int head = ConversationDiff.storedHead(stored.stream().map(TablestoreChatMemoryRepository::contentKey).toList(),
+				messages.stream().map(TablestoreChatMemoryRepository::contentKey).toList());
+		int kept = head < 0 ? 0 : stored.size() - head;
+		long createTime = now;
+		if (kept > 0) {
+			createTime = Math.max(createTime, stored.get(stored.size() - 1).getCreateTime() + 1);
+		}
+		List<RowChange> changes = new ArrayList<>();
+		for (com.aliyun.openservices.tablestore.agent.model.Message message : messages.subList(kept, messages.size())) {
+			message.setCreateTime(createTime++);
+			RowPutChange put = new RowPutChange(messageTableName, messageKey(message));
+			List<Column> columns = TablestoreHelper.metadataToColumns(message.getMetadata());
+			if (message.getContent() != null) {
+				columns.add(new Column(com.aliyun.openservices.tablestore.agent.model.Message.MESSAGE_CONTENT,
+						ColumnValue.fromString(message.getContent())));
+			}
+			put.addColumns(columns);
+			changes.add(put);
 		}
+		for (com.aliyun.openservices.tablestore.agent.model.Message message : stored.subList(0,
+				head < 0 ? stored.size() : head)) {
+			changes.add(new RowDeleteChange(messageTableName, messageKey(message)));
+		}
+		return changes;
+	}
+
+	/**
+	 * What identifies a message when comparing the stored conversation with a new one.
+	 */
+	private static String contentKey(com.aliyun.openservices.tablestore.agent.model.Message message) {
+		return String.join("\u0000", Objects.toString(message.getMetadata().getString(MessageUtils.MESSAGE_TYPE), ""),
+				Objects.toString(message.getContent(), ""),
+				Objects.toString(message.getMetadata().getString(MessageUtils.MESSAGE_TOOL_CALLS), ""),
+				Objects.toString(message.getMetadata().getString(MessageUtils.MESSAGE_TOOL_RESPONSE), ""));
+	}
+
+	/**
+	 * Write the changes in requests of at most {@value #BATCH_WRITE_SIZE} rows, retrying
+	 * the rows that failed.
+	 */
+	static void batchWrite(SyncClient client, List<RowChange> changes) {
+		for (int from = 0; from < changes.size(); from += BATCH_WRITE_SIZE) {
+			BatchWriteRowRequest request = new BatchWriteRowRequest();
+			changes.subList(from, Math.min(from + BATCH_WRITE_SIZE, changes.size())).forEach(request::addRowChange);
+			BatchWriteRowResponse response = client.batchWriteRow(request);
+			for (int retry = 0; !response.isAllSucceed(); retry++) {
+				if (retry == BATCH_WRITE_RETRIES) {
+					throw new IllegalStateException("Failed to write " + response.getFailedRows().size()
+							+ " rows to Tablestore: " + response.getFailedRows().get(0).getError());
+				}
+				logger.warn("Retrying {} rows that failed to be written", response.getFailedRows().size());
+				request = request.createRequestForRetry(response.getFailedRows());
+				response = client.batchWriteRow(request);
+			}
+		}
+	}
+
+	private static PrimaryKey messageKey(com.aliyun.openservices.tablestore.agent.model.Message message) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Message.MESSAGE_SESSION_ID,
+					PrimaryKeyValue.fromString(message.getSessionId()))
+			.addPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Message.MESSAGE_CREATE_TIME,
+					PrimaryKeyValue.fromLong(message.getCreateTime()))
+			.addPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Message.MESSAGE_MESSAGE_ID,
+					PrimaryKeyValue.fromString(message.getMessageId()))
+			.build();
+	}
+
+	private static PrimaryKey sessionKey(PrimaryKeyValue userId, PrimaryKeyValue sessionId) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(Session.SESSION_USER_ID, userId)
+			.addPrimaryKeyColumn(Session.SESSION_SESSION_ID, sessionId)
+			.build();
 	}
 
 	@Override
@@ -156,4 +321,13 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 		return messageSecondaryIndexName;
 	}
 
+	/**
+	 * A page of conversation IDs.
+	 *
+	 * @param conversationIds the IDs
+	 * @param nextToken the token of the next page, null on the last page
+	 */
+	public record ConversationIdPage(List<String> conversationIds, String nextToken) {
+	}
+
 }
@@ -0,0 +1,173 @@
+/*
+* Copyright 2024-2026 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      https://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package com.alibaba.cloud.ai.memory.tablestore;
+
+import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeResponse;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.memory.MemoryStoreImpl;
+import com.aliyun.openservices.tablestore.agent.model.Session;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the batched writes and paged listing of
+ * {@link TablestoreChatMemoryRepository}.
+ */
+class TablestoreChatMemoryRepositoryUnitTest {
+
+	private static final String TABLE = "message";
+
+	private static List<com.aliyun.openservices.tablestore.agent.model.Message> convert(String... texts) {
+		List<com.aliyun.openservices.tablestore.agent.model.Message> messages = new ArrayList<>();
+		for (String text : texts) {
+			messages.add(MessageUtils.toTablestoreMessage("c1", new UserMessage(text)));
+		}
+		return messages;
+	}
+
+	private static List<com.aliyun.openservices.tablestore.agent.model.Message> stored(long firstCreateTime,
+			String... texts) {
+		List<com.aliyun.openservices.tablestore.agent.model.Message> messages = convert(texts);
+		for (int i = 0; i < messages.size(); i++) {
+			messages.get(i).setCreateTime(firstCreateTime + i);
+		}
+		return messages;
+	}
+
+	private static long createTime(RowChange change) {
+		return change.getPrimaryKey()
+			.getPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Message.MESSAGE_CREATE_TIME)
+			.getValue()
+			.asLong();
+	}
+
+	@Test
+	void appendPutsOnlyNewMessagesAfterTheStoredOnes() {
+		List<RowChange> changes = TablestoreChatMemoryRepository.saveChanges(TABLE, stored(100, "a", "b"),
+				convert("a", "b", "c"), 50);
+
+		assertThat(changes).hasSize(1);
+		assertThat(changes.get(0)).isInstanceOf(RowPutChange.class);
+		assertThat(createTime(changes.get(0))).isEqualTo(102);
+	}
+
+	@Test
+	void droppedHeadIsDeleted() {
+		List<RowChange> changes = TablestoreChatMemoryRepository.saveChanges(TABLE, stored(100, "a", "b", "c"),
+				convert("b", "c", "d"), 500);
+
+		assertThat(changes).hasSize(2);
+		assertThat(changes.get(0)).isInstanceOf(RowPutChange.class);
+		assertThat(createTime(changes.get(0))).isEqualTo(500);
+		assertThat(changes.get(1)).isInstanceOf(RowDeleteChange.class);
+		assertThat(createTime(changes.get(1))).isEqualTo(100);
+	}
+
+	@Test
+	void divergedConversationIsRewritten() {
+		List<RowChange> changes = TablestoreChatMemoryRepository.saveChanges(TABLE, stored(100, "a", "b"),
+				convert("x", "y"), 500);
+
+		assertThat(changes).extracting(change -> change.getClass().getSimpleName())
+			.containsExactly("RowPutChange", "RowPutChange", "RowDeleteChange", "RowDeleteChange");
+		assertThat(createTime(changes.get(1))).isEqualTo(501);
+	}
+
+	@Test
+	void typeIsPartOfTheComparison() {
+		List<com.aliyun.openservices.tablestore.agent.model.Message> stored = stored(100, "a");
+		List<com.aliyun.openservices.tablestore.agent.model.Message> messages = List
+			.of(MessageUtils.toTablestoreMessage("c1", new AssistantMessage("a")));
+
+		assertThat(TablestoreChatMemoryRepository.saveChanges(TABLE, stored, messages, 500)).hasSize(2);
+	}
+
+	@Test
+	void batchWriteSplitsIntoRequestsOfAtMost200Rows() {
+		SyncClient client = mock(SyncClient.class);
+		BatchWriteRowResponse ok = mock(BatchWriteRowResponse.class);
+		when(ok.isAllSucceed()).thenReturn(true);
+		when(client.batchWriteRow(any())).thenReturn(ok);
+		List<RowChange> changes = new ArrayList<>();
+		for (int i = 0; i < 450; i++) {
+			changes.add(new RowDeleteChange(TABLE, PrimaryKeyBuilder.createPrimaryKeyBuilder()
+				.addPrimaryKeyColumn("session_id", PrimaryKeyValue.fromString("c1"))
+				.addPrimaryKeyColumn("create_time", PrimaryKeyValue.fromLong(i))
+				.addPrimaryKeyColumn("message_id", PrimaryKeyValue.fromString("m" + i))
+				.build()));
+		}
+
+		TablestoreChatMemoryRepository.batchWrite(client, changes);
+
+		ArgumentCaptor<BatchWriteRowRequest> requests = ArgumentCaptor.forClass(BatchWriteRowRequest.class);
+		verify(client, times(3)).batchWriteRow(requests.capture());
+		assertThat(requests.getAllValues()).extracting(BatchWriteRowRequest::getRowsCount).containsExactly(200, 200, 50);
+	}
+
+	@Test
+	void conversationIdsArePagedWithToken() {
+		MemoryStoreImpl store = mock(MemoryStoreImpl.class);
+		SyncClient client = mock(SyncClient.class);
+		when(store.getClient()).thenReturn(client);
+		when(store.getSessionTableName()).thenReturn("session");
+		GetRangeResponse first = mock(GetRangeResponse.class);
+		when(first.getRows()).thenReturn(List.of(sessionRow("s1"), sessionRow("s2")));
+		when(first.getNextStartPrimaryKey()).thenReturn(sessionRow("s3").getPrimaryKey());
+		GetRangeResponse second = mock(GetRangeResponse.class);
+		when(second.getRows()).thenReturn(List.of(sessionRow("s3")));
+		when(client.getRange(any(GetRangeRequest.class))).thenReturn(first, second);
+		TablestoreChatMemoryRepository repository = new TablestoreChatMemoryRepository(store);
+
+		TablestoreChatMemoryRepository.ConversationIdPage page = repository.findConversationIds(null, 2);
+		assertThat(page.conversationIds()).containsExactly("s1", "s2");
+		assertThat(page.nextToken()).isNotNull();
+
+		page = repository.findConversationIds(page.nextToken(), 2);
+		assertThat(page.conversationIds()).containsExactly("s3");
+		assertThat(page.nextToken()).isNull();
+	}
+
+	private static Row sessionRow(String sessionId) {
+		PrimaryKey key = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(Session.SESSION_USER_ID, PrimaryKeyValue.fromString(MessageUtils.getMD5UserId(sessionId)))
+			.addPrimaryKeyColumn(Session.SESSION_SESSION_ID, PrimaryKeyValue.fromString(sessionId))
+			.build();
+		return new Row(key, List.of());
+	}
+
+}
@@ -17,6 +17,8 @@ package com.alibaba.cloud.ai.toolcalling.memcached;
 
 import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
 import net.spy.memcached.MemcachedClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,12 @@ public class MemcachedService {
 
 	private final MemcachedServiceAppender appender;
 
+	private final MemcachedServiceAdder adder;
+
+	private final MemcachedServiceCasGetter casGetter;
+
+	private final MemcachedServiceCasSetter casSetter;
+
 	public MemcachedService(MemcachedClient memcachedClient) {
 		this.memcachedClient = memcachedClient;
 		setter = new MemcachedServiceSetter();
@@ -49,6 +57,9 @@ public class MemcachedService {
 		deleter = new MemcachedServiceDeleter();
 		replacer = new MemcachedServiceReplacer();
 		appender = new MemcachedServiceAppender();
+		adder = new MemcachedServiceAdder();
+		casGetter = new MemcachedServiceCasGetter();
+		casSetter = new MemcachedServiceCasSetter();
 	}
 
 	public class MemcachedServiceSetter implements Function<MemcachedServiceSetter.Request, Boolean> {
@@ -155,6 +166,70 @@ public class MemcachedService {
 
 	}
 
+	public class MemcachedServiceAdder implements Function<MemcachedServiceAdder.Request, Boolean> {
+
+		@Override
+		public Boolean apply(MemcachedServiceAdder.Request request) {
+			try {
+				return memcachedClient.add(request.key(), request.ttl(), request.value()).get();
+			}
+			catch (Exception e) {
+				logger.error("Add data to memcached failed. key {} size {} exception {}", request.key(),
+						sizeOf(request.value()), e.getMessage(), e);
+			}
+			return false;
+		}
+
+		@JsonClassDescription("add data to memcached api, only if the key is absent")
+		public record Request(@JsonPropertyDescription("key to memcached") String key,
+				@JsonPropertyDescription("value to memcached") Object value,
+				@JsonPropertyDescription("key ttl") int ttl) {
+		}
+
+	}
+
+	public class MemcachedServiceCasGetter implements Function<MemcachedServiceCasGetter.Request, CASValue<Object>> {
+
+		@Override
+		public CASValue<Object> apply(MemcachedServiceCasGetter.Request request) {
+			try {
+				return memcachedClient.gets(request.key());
+			}
+			catch (Exception e) {
+				logger.error("Gets data from memcached failed. key {} exception {}", request.key(), e.getMessage(), e);
+			}
+			return null;
+		}
+
+		@JsonClassDescription("get data and its cas id from memcached api")
+		public record Request(@JsonPropertyDescription("key to memcached") String key) {
+		}
+
+	}
+
+	public class MemcachedServiceCasSetter implements Function<MemcachedServiceCasSetter.Request, CASResponse> {
+
+		@Override
+		public CASResponse apply(MemcachedServiceCasSetter.Request request) {
+			try {
+				return memcachedClient.cas(request.key(), request.casId(), request.ttl(), request.value());
+			}
+			catch (Exception e) {
+				logger.error("Cas data to memcached failed. key {} size {} exception {}", request.key(),
+						sizeOf(request.value()), e.getMessage(), e);
+			}
+			return null;
+		}
+
+		@JsonClassDescription("set data to memcached api if it was not changed since its cas id was read")
+		public record Request(@JsonPropertyDescription("key to memcached") String key,
+				@JsonPropertyDescription("cas id read with the value") long casId,
+				@JsonPropertyDescription("value to memcached") Object value,
+				@JsonPropertyDescription("key ttl") int ttl) {
+		}
+
+	}
+
 	public MemcachedServiceSetter setter() {
 		return setter;
 	}
@@ -175,10 +250,29 @@ public class MemcachedService {
 		return appender;
 	}
 
+	public MemcachedServiceAdder adder() {
+		return adder;
+	}
+
+	public MemcachedServiceCasGetter casGetter() {
+		return casGetter;
+	}
+
+	public MemcachedServiceCasSetter casSetter() {
+		return casSetter;
+	}
+
 	public void close() {
 		if (this.memcachedClient != null) {
 			this.memcachedClient.shutdown();
 		}
 	}
 
+	/**
+	 * Size of a value for logs, which should not print binary values.
+	 */
+	private static int sizeOf(Object value) {
+		return value instanceof byte[] data ? data.length : String.valueOf(value).length();
+	}
+
 }
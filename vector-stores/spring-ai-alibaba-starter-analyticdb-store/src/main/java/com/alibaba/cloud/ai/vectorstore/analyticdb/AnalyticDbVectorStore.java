@@ -20,8 +20,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import com.aliyun.gpdb20160503.Client;
 import com.aliyun.gpdb20160503.models.CreateCollectionRequest;
@@ -81,6 +79,26 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 	private static final Double DEFAULT_SIMILARITY_THRESHOLD = 0.0;
 
+	/**
+	 * Default maximum number of rows sent in one UpsertCollectionData request.
+	 */
+	public static final int DEFAULT_UPSERT_BATCH_SIZE = 500;
+
+	/**
+	 * Default maximum estimated size of one UpsertCollectionData request, well below the
+	 * request body limit of the OpenAPI gateway.
+	 */
+	public static final long DEFAULT_UPSERT_BATCH_BYTES = 4L * 1024 * 1024;
+
+	/**
+	 * Default maximum number of ids matched by the filter of one DeleteCollectionData
+	 * request.
+	 */
+	public static final int DEFAULT_DELETE_BATCH_SIZE = 500;
+
+	// field names, braces, quotes and separators of one serialized row
+	private static final int ROW_OVERHEAD_BYTES = 128;
+
 	public final FilterExpressionConverter filterExpressionConverter = new AdVectorFilterExpressionConverter();
 
 	private final boolean initializeSchema;
@@ -97,6 +115,12 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 	private final Double defaultSimilarityThreshold;
 
+	private final int upsertBatchSize;
+
+	private final long upsertBatchBytes;
+
+	private final int deleteBatchSize;
+
 	protected AnalyticDbVectorStore(Builder builder) throws Exception {
 		super(builder);
 		// collection_name must be updated every time
@@ -107,6 +131,9 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		this.defaultSimilarityThreshold = builder.defaultSimilarityThreshold;
 		this.defaultTopK = builder.defaultTopK;
 		this.initializeSchema = builder.initializeSchema;
+		this.upsertBatchSize = builder.upsertBatchSize;
+		this.upsertBatchBytes = builder.upsertBatchBytes;
+		this.deleteBatchSize = builder.deleteBatchSize;
 	}
 
 	public static Builder builder(String collectionName, AnalyticDbConfig config, Client client,
@@ -210,46 +237,73 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
 				this.batchingStrategy);
 
-		List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows = new ArrayList<>(10);
+		for (UpsertCollectionDataRequest request : buildUpsertRequests(documents, embeddings)) {
+			try {
+				this.client.upsertCollectionData(request);
+			}
+			catch (Exception e) {
+				throw new RuntimeException("Failed to add collection data by IDs: " + e.getMessage(), e);
+			}
+			logger.debug("upserted {} rows into collection {}", request.getRows().size(), this.collectionName);
+		}
+	}
+
+	/**
+	 * Packs the documents, in order, into upsert requests of at most
+	 * {@code upsertBatchSize} rows and {@code upsertBatchBytes} estimated bytes. A row
+	 * larger than the byte limit is sent on its own.
+	 */
+	List<UpsertCollectionDataRequest> buildUpsertRequests(List<Document> documents, List<float[]> embeddings) {
+		List<UpsertCollectionDataRequest> requests = new ArrayList<>();
+		List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows = new ArrayList<>();
+		long batchBytes = 0;
 		for (int i = 0; i < documents.size(); i++) {
 			Document doc = documents.get(i);
-			logger.info("Processing document id = {}", doc.getId());
+			float[] embedding = embeddings.get(i);
 
-			Map<String, String> metadata = new HashMap<>();
+			Map<String, String> metadata = new HashMap<>(4);
 			String refDocId;
 			Map<String, Object> docMetadata = doc.getMetadata();
 			String docName = (String) docMetadata.get(DOC_NAME);
 			refDocId = docName != null && !docName.isEmpty() ? docName : doc.getId();
 			metadata.put(REF_DOC_NAME, refDocId);
 			metadata.put(CONTENT_FIELD_NAME, doc.getText());
+			String metadataJson;
 			try {
-				metadata.put(METADATA_FIELD_NAME, objectMapper.writeValueAsString(doc.getMetadata()));
+				metadataJson = objectMapper.writeValueAsString(docMetadata);
 			}
 			catch (JsonProcessingException e) {
 				throw new RuntimeException("Failed to serialize metadata for document id = " + doc.getId(), e);
 			}
-
-			float[] floatEmbeddings = embeddings.get(i);
-			List<Double> embedding = IntStream.range(0, floatEmbeddings.length)
-				.mapToObj(j -> (double) floatEmbeddings[j])
-				.toList();
-
-			rows.add(new UpsertCollectionDataRequest.UpsertCollectionDataRequestRows().setVector(embedding)
+			metadata.put(METADATA_FIELD_NAME, metadataJson);
+
+			long rowBytes = ROW_OVERHEAD_BYTES + AnalyticDbVectors.estimateBytes(embedding) + estimateBytes(refDocId)
+					+ estimateBytes(doc.getText()) + estimateBytes(metadataJson);
+			if (!rows.isEmpty()
+					&& (rows.size() >= this.upsertBatchSize || batchBytes + rowBytes > this.upsertBatchBytes)) {
+				requests.add(upsertRequest(rows));
+				rows = new ArrayList<>();
+				batchBytes = 0;
+			}
+			rows.add(new UpsertCollectionDataRequest.UpsertCollectionDataRequestRows()
+				.setVector(AnalyticDbVectors.asDoubleList(embedding))
 				.setMetadata(metadata));
+			batchBytes += rowBytes;
 		}
-		UpsertCollectionDataRequest request = new UpsertCollectionDataRequest()
-			.setDBInstanceId(this.config.getDbInstanceId())
+		if (!rows.isEmpty()) {
+			requests.add(upsertRequest(rows));
+		}
+		return requests;
+	}
+
+	private UpsertCollectionDataRequest upsertRequest(
+			List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows) {
+		return new UpsertCollectionDataRequest().setDBInstanceId(this.config.getDbInstanceId())
 			.setRegionId(this.config.getRegionId())
 			.setNamespace(this.config.getNamespace())
 			.setNamespacePassword(this.config.getNamespacePassword())
 			.setCollection(this.collectionName)
 			.setRows(rows);
-		try {
-			this.client.upsertCollectionData(request);
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to add collection data by IDs: " + e.getMessage(), e);
-		}
 	}
 
 	@Override
@@ -257,22 +311,97 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		if (ids.isEmpty()) {
 			return;
 		}
-		String idsStr = ids.stream().map(id -> "'" + id + "'").collect(Collectors.joining(", ", "(", ")"));
-		DeleteCollectionDataRequest request = new DeleteCollectionDataRequest()
-			.setDBInstanceId(this.config.getDbInstanceId())
-			.setRegionId(this.config.getRegionId())
-			.setNamespace(this.config.getNamespace())
-			.setNamespacePassword(this.config.getNamespacePassword())
-			.setCollection(this.collectionName)
-			.setCollectionData(null)
-			.setCollectionDataFilter("refDocId IN " + idsStr);
-		try {
-			DeleteCollectionDataResponse deleteCollectionDataResponse = this.client.deleteCollectionData(request);
-			logger.debug("delete collection data response:{}", deleteCollectionDataResponse.getBody());
+		for (String filter : buildDeleteFilters(ids)) {
+			DeleteCollectionDataRequest request = new DeleteCollectionDataRequest()
+				.setDBInstanceId(this.config.getDbInstanceId())
+				.setRegionId(this.config.getRegionId())
+				.setNamespace(this.config.getNamespace())
+				.setNamespacePassword(this.config.getNamespacePassword())
+				.setCollection(this.collectionName)
+				.setCollectionData(null)
+				.setCollectionDataFilter(filter);
+			try {
+				DeleteCollectionDataResponse deleteCollectionDataResponse = this.client.deleteCollectionData(request);
+				logger.debug("delete collection data response:{}", deleteCollectionDataResponse.getBody());
+			}
+			catch (Exception e) {
+				throw new RuntimeException("Failed to delete collection data by IDs: " + e.getMessage(), e);
+			}
 		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to delete collection data by IDs: " + e.getMessage(), e);
+	}
+
+	/**
+	 * Filters matching the given ids, at most {@code deleteBatchSize} ids each. The API
+	 * takes no bind parameters, so every id is written as a quoted string literal.
+	 */
+	List<String> buildDeleteFilters(List<String> ids) {
+		List<String> filters = new ArrayList<>((ids.size() + this.deleteBatchSize - 1) / this.deleteBatchSize);
+		StringBuilder filter = new StringBuilder();
+		for (int from = 0; from < ids.size(); from += this.deleteBatchSize) {
+			int to = Math.min(from + this.deleteBatchSize, ids.size());
+			filter.setLength(0);
+			filter.append(REF_DOC_NAME).append(" IN (");
+			for (int i = from; i < to; i++) {
+				String id = ids.get(i);
+				Assert.notNull(id, "Document id must not be null");
+				if (i > from) {
+					filter.append(", ");
+				}
+				appendLiteral(id, filter);
+			}
+			filters.add(filter.append(')').toString());
 		}
+		return filters;
+	}
+
+	/**
+	 * Appends the value as a SQL string literal, doubling embedded quotes.
+	 */
+	private static void appendLiteral(String value, StringBuilder sql) {
+		if (value.indexOf('\0') >= 0) {
+			throw new IllegalArgumentException("Document id must not contain NUL characters");
+		}
+		sql.append('\'');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\'') {
+				sql.append('\'');
+			}
+			sql.append(c);
+		}
+		sql.append('\'');
+	}
+
+	/**
+	 * Upper estimate of the size of a string value in the serialized request: JSON
+	 * escaping followed by percent-encoding of the form body.
+	 */
+	static long estimateBytes(String value) {
+		if (value == null) {
+			return 4;
+		}
+		long bytes = 2;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+				bytes += 1;
+			}
+			else if (c < 0x20 || c == '"' || c == '\\') {
+				// escaped with a backslash or as a unicode escape, then percent-encoded
+				bytes += 18;
+			}
+			else if (c < 0x80) {
+				bytes += 3;
+			}
+			else if (c < 0x800 || Character.isSurrogate(c)) {
+				// two UTF-8 bytes, or half of a four byte code point
+				bytes += 6;
+			}
+			else {
+				bytes += 9;
+			}
+		}
+		return bytes;
 	}
 
 	@Override
@@ -317,9 +446,7 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		}
 
         float[] embeddings = this.embeddingModel.embed(query);
-        List<Double> vector = IntStream.range(0, embeddings.length)
-                .mapToObj(i -> (double) embeddings[i])
-                .toList();
+		List<Double> vector = AnalyticDbVectors.asDoubleList(embeddings);
 
 		QueryCollectionDataRequest request = new QueryCollectionDataRequest()
 			.setDBInstanceId(this.config.getDbInstanceId())
@@ -400,6 +527,12 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 		private boolean initializeSchema = false;
 
+		private int upsertBatchSize = DEFAULT_UPSERT_BATCH_SIZE;
+
+		private long upsertBatchBytes = DEFAULT_UPSERT_BATCH_BYTES;
+
+		private int deleteBatchSize = DEFAULT_DELETE_BATCH_SIZE;
+
 		private Builder(String collectionName, AnalyticDbConfig config, Client client, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 			Assert.notNull(client, "Client must not be null");
@@ -441,6 +574,39 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of rows sent in one upsert request.
+		 * @param upsertBatchSize the maximum number of rows
+		 * @return the builder instance
+		 */
+		public Builder upsertBatchSize(int upsertBatchSize) {
+			Assert.isTrue(upsertBatchSize > 0, "The upsertBatchSize must be positive.");
+			this.upsertBatchSize = upsertBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum estimated size of one upsert request.
+		 * @param upsertBatchBytes the maximum size in bytes
+		 * @return the builder instance
+		 */
+		public Builder upsertBatchBytes(long upsertBatchBytes) {
+			Assert.isTrue(upsertBatchBytes > 0, "The upsertBatchBytes must be positive.");
+			this.upsertBatchBytes = upsertBatchBytes;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of ids deleted by one delete request.
+		 * @param deleteBatchSize the maximum number of ids
+		 * @return the builder instance
+		 */
+		public Builder deleteBatchSize(int deleteBatchSize) {
+			Assert.isTrue(deleteBatchSize > 0, "The deleteBatchSize must be positive.");
+			this.deleteBatchSize = deleteBatchSize;
+			return this;
+		}
+
 		@Override
 		public AnalyticDbVectorStore build() {
 			try {
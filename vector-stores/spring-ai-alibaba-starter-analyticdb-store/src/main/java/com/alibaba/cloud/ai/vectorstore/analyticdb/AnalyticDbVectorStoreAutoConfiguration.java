@@ -82,6 +82,15 @@ public class AnalyticDbVectorStoreAutoConfiguration {
 			.batchingStrategy(batchingStrategy)
 			.observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
 			.customObservationConvention(customObservationConvention.getIfAvailable());
+		if (properties.getUpsertBatchSize() != null) {
+			builder.upsertBatchSize(properties.getUpsertBatchSize());
+		}
+		if (properties.getUpsertBatchBytes() != null) {
+			builder.upsertBatchBytes(properties.getUpsertBatchBytes());
+		}
+		if (properties.getDeleteBatchSize() != null) {
+			builder.deleteBatchSize(properties.getDeleteBatchSize());
+		}
 		if (properties.getDefaultTopK() >= 0) {
 			builder.defaultTopK(properties.getDefaultTopK());
 		}
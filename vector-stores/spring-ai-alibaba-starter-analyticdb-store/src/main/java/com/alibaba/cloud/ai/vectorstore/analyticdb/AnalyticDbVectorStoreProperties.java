@@ -57,6 +57,12 @@ public class AnalyticDbVectorStoreProperties extends CommonVectorStoreProperties
 
 	private Double defaultSimilarityThreshold = -1.0;
 
+	private Integer upsertBatchSize = AnalyticDbVectorStore.DEFAULT_UPSERT_BATCH_SIZE;
+
+	private Long upsertBatchBytes = AnalyticDbVectorStore.DEFAULT_UPSERT_BATCH_BYTES;
+
+	private Integer deleteBatchSize = AnalyticDbVectorStore.DEFAULT_DELETE_BATCH_SIZE;
+
 	public String getCollectName() {
 		return collectName;
 	}
@@ -169,6 +175,30 @@ public class AnalyticDbVectorStoreProperties extends CommonVectorStoreProperties
 		this.defaultSimilarityThreshold = defaultSimilarityThreshold;
 	}
 
+	public Integer getUpsertBatchSize() {
+		return upsertBatchSize;
+	}
+
+	public void setUpsertBatchSize(Integer upsertBatchSize) {
+		this.upsertBatchSize = upsertBatchSize;
+	}
+
+	public Long getUpsertBatchBytes() {
+		return upsertBatchBytes;
+	}
+
+	public void setUpsertBatchBytes(Long upsertBatchBytes) {
+		this.upsertBatchBytes = upsertBatchBytes;
+	}
+
+	public Integer getDeleteBatchSize() {
+		return deleteBatchSize;
+	}
+
+	public void setDeleteBatchSize(Integer deleteBatchSize) {
+		this.deleteBatchSize = deleteBatchSize;
+	}
+
 	public Map<String, Object> toAnalyticDbClientParams() {
 		Map<String, Object> params = new HashMap<>();
 		params.put("accessKeyId", this.accessKeyId);
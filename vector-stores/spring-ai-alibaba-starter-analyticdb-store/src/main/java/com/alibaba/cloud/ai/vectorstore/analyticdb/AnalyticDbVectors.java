@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.analyticdb;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Hands embeddings to the AnalyticDB SDK, whose request models take vectors as
+ * {@code List<Double>}.
+ * <p>
+ * Instead of copying every embedding into a list of boxed doubles, the SDK gets a
+ * read-only view over the {@code float[]} returned by the embedding model. An element is
+ * only boxed when the SDK reads it to serialize the request, so no boxed copy of the
+ * vector is kept alive while a batch of rows is built.
+ *
+ * @since 1.1.0
+ */
+final class AnalyticDbVectors {
+
+	// widened floats print up to 17 significant digits, a sign, a point, an exponent and
+	// a separator, which may be percent-encoded in the form body
+	static final int BYTES_PER_ELEMENT = 28;
+
+	private AnalyticDbVectors() {
+	}
+
+	/**
+	 * A read-only {@code List<Double>} backed by the given array.
+	 * @param vector the embedding, which must not be modified while the list is in use
+	 * @return the list view
+	 */
+	static List<Double> asDoubleList(float[] vector) {
+		return new FloatVectorList(vector);
+	}
+
+	/**
+	 * Upper estimate of the size of the vector in the serialized request.
+	 */
+	static long estimateBytes(float[] vector) {
+		return 2L + (long) vector.length * BYTES_PER_ELEMENT;
+	}
+
+	private static final class FloatVectorList extends AbstractList<Double> implements RandomAccess {
+
+		private final float[] vector;
+
+		FloatVectorList(float[] vector) {
+			this.vector = vector;
+		}
+
+		@Override
+		public Double get(int index) {
+			return (double) this.vector[index];
+		}
+
+		@Override
+		public int size() {
+			return this.vector.length;
+		}
+
+	}
+
+}
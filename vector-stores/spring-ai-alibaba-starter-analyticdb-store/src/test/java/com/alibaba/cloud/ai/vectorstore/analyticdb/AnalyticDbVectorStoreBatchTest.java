@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.analyticdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.aliyun.gpdb20160503.Client;
+import com.aliyun.gpdb20160503.models.DeleteCollectionDataRequest;
+import com.aliyun.gpdb20160503.models.DeleteCollectionDataResponse;
+import com.aliyun.gpdb20160503.models.UpsertCollectionDataRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the batched upserts and deletes of {@link AnalyticDbVectorStore}.
+ */
+class AnalyticDbVectorStoreBatchTest {
+
+	private final Client client = mock(Client.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	@Test
+	void viewsFloatVectorsAsDoubles() {
+		List<Double> vector = AnalyticDbVectors.asDoubleList(new float[] { 0.5f, -1f, 0.1f });
+
+		assertThat(vector).containsExactly(0.5, -1.0, (double) 0.1f);
+		assertThat(vector).isEqualTo(List.of(0.5, -1.0, (double) 0.1f));
+		assertThatThrownBy(() -> vector.add(1.0)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void upsertsInBatchesOfUpsertBatchSize() throws Exception {
+		List<Document> documents = documents(5, "text");
+		when(embeddingModel.embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenReturn(IntStream.range(0, 5).mapToObj(i -> new float[] { i, 1f }).toList());
+		List<UpsertCollectionDataRequest> sent = new ArrayList<>();
+		when(client.upsertCollectionData(any())).thenAnswer(invocation -> {
+			sent.add(invocation.getArgument(0));
+			return null;
+		});
+		AnalyticDbVectorStore store = store().upsertBatchSize(2).build();
+
+		store.add(documents);
+
+		assertThat(sent).extracting(request -> request.getRows().size()).containsExactly(2, 2, 1);
+		UpsertCollectionDataRequest.UpsertCollectionDataRequestRows row = sent.get(1).getRows().get(1);
+		assertThat(row.getVector()).containsExactly(3.0, 1.0);
+		assertThat(row.getMetadata()).containsEntry("refDocId", "doc-3").containsEntry("content", "text");
+		assertThat(sent.get(0).getCollection()).isEqualTo("docs");
+	}
+
+	@Test
+	void startsNewRequestBeforeExceedingUpsertBatchBytes() {
+		String text = "x".repeat(1000);
+		List<float[]> embeddings = IntStream.range(0, 5).mapToObj(i -> new float[16]).toList();
+		long rowBytes = AnalyticDbVectors.estimateBytes(new float[16]) + AnalyticDbVectorStore.estimateBytes(text);
+		AnalyticDbVectorStore store = store().upsertBatchBytes(rowBytes * 2 + 1024).build();
+
+		List<UpsertCollectionDataRequest> requests = store.buildUpsertRequests(documents(5, text), embeddings);
+
+		assertThat(requests).extracting(request -> request.getRows().size()).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void estimatesEncodedStringSizes() {
+		assertThat(AnalyticDbVectorStore.estimateBytes("ab")).isEqualTo(4);
+		assertThat(AnalyticDbVectorStore.estimateBytes("a b")).isEqualTo(2 + 1 + 3 + 1);
+		assertThat(AnalyticDbVectorStore.estimateBytes("中")).isEqualTo(2 + 9);
+		assertThat(AnalyticDbVectorStore.estimateBytes("😀")).isEqualTo(2 + 12);
+	}
+
+	@Test
+	void deletesInBatchesWithQuotedIds() throws Exception {
+		List<DeleteCollectionDataRequest> sent = new ArrayList<>();
+		when(client.deleteCollectionData(any())).thenAnswer(invocation -> {
+			sent.add(invocation.getArgument(0));
+			return new DeleteCollectionDataResponse();
+		});
+		AnalyticDbVectorStore store = store().deleteBatchSize(2).build();
+
+		store.delete(List.of("a", "b", "x') OR ('1'='1"));
+
+		assertThat(sent).extracting(DeleteCollectionDataRequest::getCollectionDataFilter)
+			.containsExactly("refDocId IN ('a', 'b')", "refDocId IN ('x'') OR (''1''=''1')");
+	}
+
+	@Test
+	void rejectsIdsWithNulCharacters() {
+		AnalyticDbVectorStore store = store().build();
+
+		assertThatThrownBy(() -> store.buildDeleteFilters(List.of("a\0b")))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private AnalyticDbVectorStore.Builder store() {
+		return AnalyticDbVectorStore.builder("docs", new AnalyticDbConfig().setNamespace("ns"), client, embeddingModel);
+	}
+
+	private static List<Document> documents(int count, String text) {
+		return IntStream.range(0, count).mapToObj(i -> new Document("doc-" + i, text, Map.of())).toList();
+	}
+
+}
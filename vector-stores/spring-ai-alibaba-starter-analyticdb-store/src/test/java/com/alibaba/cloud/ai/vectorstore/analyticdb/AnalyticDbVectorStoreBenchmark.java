@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.analyticdb;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import com.aliyun.gpdb20160503.Client;
+import com.aliyun.gpdb20160503.models.UpsertCollectionDataRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of handing embeddings to the AnalyticDB SDK: converting one vector the way the
+ * store used to, by boxing every element into a new list, against the list view over the
+ * float array, and building the upsert requests for a batch of documents. Every vector is
+ * read once, as the SDK does when it serializes the request.
+ *
+ * <p>
+ * Not run by the build; run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class AnalyticDbVectorStoreBenchmark {
+
+	@Param({ "768", "1536" })
+	public int dimensions;
+
+	@Param({ "100" })
+	public int documents;
+
+	private float[] vector;
+
+	private List<Document> batch;
+
+	private List<float[]> embeddings;
+
+	private AnalyticDbVectorStore store;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		vector = embedding(random);
+		batch = IntStream.range(0, documents)
+			.mapToObj(i -> new Document("doc-" + i, "Spring AI Alibaba document " + i, Map.of("page", i)))
+			.toList();
+		embeddings = IntStream.range(0, documents).mapToObj(i -> embedding(random)).toList();
+		store = AnalyticDbVectorStore
+			.builder("bench", new AnalyticDbConfig(), mock(Client.class), mock(EmbeddingModel.class))
+			.build();
+	}
+
+	@Benchmark
+	public double boxedConversion() {
+		float[] source = vector;
+		List<Double> converted = IntStream.range(0, source.length).mapToObj(i -> (double) source[i]).toList();
+		return sum(converted);
+	}
+
+	@Benchmark
+	public double viewConversion() {
+		return sum(AnalyticDbVectors.asDoubleList(vector));
+	}
+
+	@Benchmark
+	public double upsertRequests() {
+		double sum = 0;
+		for (UpsertCollectionDataRequest request : store.buildUpsertRequests(batch, embeddings)) {
+			for (UpsertCollectionDataRequest.UpsertCollectionDataRequestRows row : request.getRows()) {
+				sum += sum(row.getVector());
+			}
+		}
+		return sum;
+	}
+
+	private float[] embedding(Random random) {
+		float[] embedding = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			embedding[i] = random.nextFloat() * 2 - 1;
+		}
+		return embedding;
+	}
+
+	private static double sum(List<Double> vector) {
+		double sum = 0;
+		for (Double value : vector) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AnalyticDbVectorStoreBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
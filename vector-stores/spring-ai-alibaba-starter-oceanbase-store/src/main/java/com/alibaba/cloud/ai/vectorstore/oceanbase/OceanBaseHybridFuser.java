@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the vector and fulltext results of a hybrid search into one ranking.
+ * <p>
+ * Each result list comes with its raw scores, higher meaning more relevant. Scores are
+ * normalized per list according to the {@link OceanBaseHybridFusion} strategy, and a
+ * document missing from one list gets that list's lowest normalized score. The fused
+ * score becomes the score of the returned document.
+ */
+final class OceanBaseHybridFuser {
+
+	private OceanBaseHybridFuser() {
+	}
+
+	/**
+	 * Results of one side of a hybrid search, in the order the database returned them.
+	 * @param documents the documents
+	 * @param scores the raw score of each document, higher is better, NaN when unknown
+	 */
+	record Leg(List<Document> documents, double[] scores) {
+
+		static final Leg EMPTY = new Leg(List.of(), new double[0]);
+
+		int size() {
+			return documents.size();
+		}
+
+	}
+
+	static List<Document> fuse(OceanBaseHybridFusion fusion, Leg vector, Leg fulltext, double vectorWeight, int rrfK,
+			int topK) {
+		int capacity = vector.size() + fulltext.size();
+		Map<String, Integer> slots = new HashMap<>(capacity * 2);
+		Document[] documents = new Document[capacity];
+		double[] fused = new double[capacity];
+		double[] vectorNormalized = normalize(fusion, vector.scores(), rrfK);
+		double[] fulltextNormalized = normalize(fusion, fulltext.scores(), rrfK);
+		double vectorFloor = floor(vectorNormalized);
+		double fulltextFloor = floor(fulltextNormalized);
+		double fulltextWeight = 1.0 - vectorWeight;
+		double base = vectorWeight * vectorFloor + fulltextWeight * fulltextFloor;
+
+		int count = 0;
+		for (int i = 0; i < vector.size(); i++) {
+			Document document = vector.documents().get(i);
+			Integer slot = slots.putIfAbsent(document.getId(), count);
+			if (slot == null) {
+				slot = count++;
+				documents[slot] = document;
+				fused[slot] = base + vectorWeight * (vectorNormalized[i] - vectorFloor);
+			}
+		}
+		for (int i = 0; i < fulltext.size(); i++) {
+			Document document = fulltext.documents().get(i);
+			Integer slot = slots.putIfAbsent(document.getId(), count);
+			if (slot == null) {
+				slot = count++;
+				documents[slot] = document;
+				fused[slot] = base;
+			}
+			fused[slot] += fulltextWeight * (fulltextNormalized[i] - fulltextFloor);
+		}
+
+		// stable, documents with the same score keep the order of the legs
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(fused[b], fused[a]));
+
+		int limit = Math.min(topK, count);
+		List<Document> results = new ArrayList<>(limit);
+		for (int i = 0; i < limit; i++) {
+			int slot = order[i];
+			results.add(documents[slot].mutate().score(fused[slot]).build());
+		}
+		return results;
+	}
+
+	/**
+	 * Normalized score of each entry; unknown raw scores stay NaN.
+	 */
+	static double[] normalize(OceanBaseHybridFusion fusion, double[] scores, int rrfK) {
+		int n = scores.length;
+		double[] normalized = new double[n];
+		switch (fusion) {
+			case RANK -> {
+				for (int i = 0; i < n; i++) {
+					normalized[i] = 1.0 - i / (double) n;
+				}
+			}
+			case RRF -> {
+				for (int i = 0; i < n; i++) {
+					normalized[i] = 1.0 / (rrfK + i + 1);
+				}
+			}
+			case MIN_MAX -> {
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				for (double score : scores) {
+					if (!Double.isNaN(score)) {
+						min = Math.min(min, score);
+						max = Math.max(max, score);
+					}
+				}
+				double range = max - min;
+				for (int i = 0; i < n; i++) {
+					normalized[i] = range > 0 ? (scores[i] - min) / range : (Double.isNaN(scores[i]) ? Double.NaN : 1.0);
+				}
+			}
+			case Z_SCORE -> {
+				int known = 0;
+				double sum = 0;
+				double sumOfSquares = 0;
+				for (double score : scores) {
+					if (!Double.isNaN(score)) {
+						known++;
+						sum += score;
+						sumOfSquares += score * score;
+					}
+				}
+				double mean = known > 0 ? sum / known : 0;
+				double deviation = known > 0 ? Math.sqrt(Math.max(0, sumOfSquares / known - mean * mean)) : 0;
+				for (int i = 0; i < n; i++) {
+					normalized[i] = deviation > 0 ? (scores[i] - mean) / deviation : (Double.isNaN(scores[i]) ? Double.NaN : 0.0);
+				}
+			}
+			default -> throw new IllegalArgumentException("Fusion " + fusion + " is not computed on the client");
+		}
+		return normalized;
+	}
+
+	/**
+	 * The score given to documents missing from a list: its lowest normalized score for
+	 * z-scores, zero otherwise. Unknown scores are replaced by the floor in place.
+	 */
+	private static double floor(double[] normalized) {
+		double floor = 0;
+		for (double value : normalized) {
+			if (!Double.isNaN(value)) {
+				floor = Math.min(floor, value);
+			}
+		}
+		for (int i = 0; i < normalized.length; i++) {
+			if (Double.isNaN(normalized[i])) {
+				normalized[i] = floor;
+			}
+		}
+		return floor;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+/**
+ * How a fulltext hybrid search merges the vector and the fulltext results. Every
+ * strategy except {@link #SINGLE_SQL} runs both queries concurrently and weights the
+ * vector side with the configured vector weight and the fulltext side with the rest.
+ */
+public enum OceanBaseHybridFusion {
+
+	/**
+	 * Score each result by its position in its list, ignoring distances and relevance.
+	 */
+	RANK,
+
+	/**
+	 * Reciprocal rank fusion: each list contributes {@code 1 / (k + rank)}.
+	 */
+	RRF,
+
+	/**
+	 * Rescale the vector distances and the fulltext relevance scores to [0, 1] before
+	 * adding them.
+	 */
+	MIN_MAX,
+
+	/**
+	 * Standardize the vector distances and the fulltext relevance scores to z-scores
+	 * before adding them.
+	 */
+	Z_SCORE,
+
+	/**
+	 * Let the database fuse both sides in one statement with
+	 * {@code DBMS_HYBRID_SEARCH.SEARCH}. The scores are its own boosted sums and cannot be
+	 * compared with the scores of the other strategies. Filtered searches, and versions
+	 * without {@code DBMS_HYBRID_SEARCH}, use {@link #MIN_MAX} instead.
+	 */
+	SINGLE_SQL
+
+}
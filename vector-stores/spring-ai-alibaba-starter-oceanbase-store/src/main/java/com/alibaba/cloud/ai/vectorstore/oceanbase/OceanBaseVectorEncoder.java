@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+/**
+ * Encodes embeddings as OceanBase vector literals ({@code [0.1,0.2,...]}).
+ * <p>
+ * The floats are appended to one pre-sized builder, without boxing them or creating a
+ * string per element, and are written with the shortest representation that reads back
+ * to the same float, so nothing is lost in the round trip.
+ */
+final class OceanBaseVectorEncoder {
+
+	// sign, up to 9 significant digits, point, exponent and separator
+	private static final int CHARS_PER_ELEMENT = 16;
+
+	private OceanBaseVectorEncoder() {
+	}
+
+	static String encode(float[] vector) {
+		StringBuilder literal = new StringBuilder(2 + vector.length * CHARS_PER_ELEMENT);
+		literal.append('[');
+		for (int i = 0; i < vector.length; i++) {
+			if (i > 0) {
+				literal.append(',');
+			}
+			float value = vector[i];
+			if (value == (int) value) {
+				// integral values such as 0 are written without the fraction
+				literal.append((int) value);
+			}
+			else {
+				literal.append(value);
+			}
+		}
+		return literal.append(']').toString();
+	}
+
+}
@@ -17,8 +17,11 @@ package com.alibaba.cloud.ai.vectorstore.oceanbase;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +35,7 @@ import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -43,9 +47,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.springframework.ai.vectorstore.SearchRequest.DEFAULT_TOP_K;
 
@@ -53,7 +62,7 @@ import static org.springframework.ai.vectorstore.SearchRequest.DEFAULT_TOP_K;
  * OceanBase Vector Store implementation with hybrid search support.
  * Supports vector similarity search, vector+fulltext hybrid search, and vector+filter search.
  */
-public class OceanBaseVectorStore extends AbstractObservationVectorStore implements InitializingBean {
+public class OceanBaseVectorStore extends AbstractObservationVectorStore implements InitializingBean, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(OceanBaseVectorStore.class);
 
@@ -64,10 +73,21 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	private static final String DOCUMENT_FIELD = "document";
 	private static final String METADATA_FIELD = "metadata";
 	private static final String TIMESTAMP_FIELD = "timestamp";
+	private static final String TEXT_SCORE_FIELD = "text_score";
 
 	private static final Double DEFAULT_SIMILARITY_THRESHOLD = 0.0;
 	private static final int DEFAULT_DIMENSION = 384;
 
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	/**
+	 * Default maximum estimated size of one INSERT statement, below the default
+	 * {@code max_allowed_packet}.
+	 */
+	public static final long DEFAULT_BATCH_BYTES = 4L * 1024 * 1024;
+	public static final double DEFAULT_VECTOR_WEIGHT = 0.7;
+	public static final int DEFAULT_RRF_K = 60;
+	public static final int DEFAULT_SEARCH_PARALLELISM = 4;
+
 	public static final String HYBRID_SEARCH_TYPE_FULLTEXT = "fulltext";
 
 	public static final String INDEX_TYPE_HNSW = "HNSW";
@@ -97,6 +117,18 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	private final String fulltextIndexName;
 	private final boolean enableFulltext;
 	private final boolean initializeSchema;
+	private final int batchSize;
+	private final long batchBytes;
+	private final boolean upsert;
+	private final int writeParallelism;
+	private final OceanBaseHybridFusion hybridFusion;
+	private final double vectorWeight;
+	private final int rrfK;
+	private final int searchParallelism;
+	private volatile ExecutorService writeExecutor;
+	private volatile ExecutorService searchExecutor;
+	private volatile Boolean approximateLimit;
+	private volatile Boolean nativeHybridSearch;
 
 	protected OceanBaseVectorStore(Builder builder) {
 		super(builder);
@@ -115,6 +147,14 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		this.fulltextIndexName = generateFulltextIndexName(builder.tableName);
 		this.enableFulltext = HYBRID_SEARCH_TYPE_FULLTEXT.equalsIgnoreCase(hybridSearchType);
 		this.initializeSchema = builder.initializeSchema;
+		this.batchSize = builder.batchSize;
+		this.batchBytes = builder.batchBytes;
+		this.upsert = builder.upsert;
+		this.writeParallelism = builder.writeParallelism;
+		this.hybridFusion = builder.hybridFusion;
+		this.vectorWeight = builder.vectorWeight;
+		this.rrfK = builder.rrfK;
+		this.searchParallelism = builder.searchParallelism;
 	}
 
 	public static Builder builder(String tableName, DataSource dataSource, EmbeddingModel embeddingModel) {
@@ -145,6 +185,15 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		initializeDatabase();
 	}
 
+	@Override
+	public void destroy() {
+		for (ExecutorService executor : new ExecutorService[] { this.writeExecutor, this.searchExecutor }) {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
 	private void initializeDatabase() {
 		int vectorDimension = dimension != null ? dimension :
 			(this.embeddingModel != null ? this.embeddingModel.dimensions() : DEFAULT_DIMENSION);
@@ -152,6 +201,7 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		String createTableSql = buildCreateTableSql(vectorDimension);
 		executeUpdate(createTableSql);
 		createVectorIndex(vectorDimension);
+		this.approximateLimit = null;
 
 		if (enableFulltext) {
 			createFulltextIndex();
@@ -163,7 +213,13 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	private String buildCreateTableSql(int vectorDimension) {
 		StringBuilder sql = new StringBuilder();
 		sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (");
-		sql.append(ID_FIELD).append(" BIGINT AUTO_INCREMENT PRIMARY KEY, ");
+		if (upsert) {
+			// upserts are keyed by the document id
+			sql.append(ID_FIELD).append(" VARCHAR(255) PRIMARY KEY, ");
+		}
+		else {
+			sql.append(ID_FIELD).append(" BIGINT AUTO_INCREMENT PRIMARY KEY, ");
+		}
 		sql.append(EMBEDDING_FIELD).append(" VECTOR(").append(vectorDimension).append(") NOT NULL, ");
 		sql.append(DOCUMENT_FIELD).append(" LONGTEXT, ");
 		sql.append(METADATA_FIELD).append(" JSON, ");
@@ -338,6 +394,11 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		}
 	}
 
+	/**
+	 * Every batch is committed on its own. When one fails, the batches written before it,
+	 * or beside it with a write parallelism above one, stay in the table; in upsert mode
+	 * the add can be repeated to complete it.
+	 */
 	@Override
 	public void doAdd(List<Document> documents) {
 		Assert.notNull(documents, "The document list should not be null.");
@@ -347,31 +408,209 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 
 		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
 				this.batchingStrategy);
+		List<InsertRow> rows = new ArrayList<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			Document doc = documents.get(i);
+			rows.add(new InsertRow(doc.getId(), OceanBaseVectorEncoder.encode(embeddings.get(i)), doc.getText(),
+					serializeMetadata(doc.getMetadata())));
+		}
+		List<List<InsertRow>> chunks = chunk(rows);
 
-		String sql = buildInsertSql();
-		try (Connection connection = dataSource.getConnection();
-				PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			for (int i = 0; i < documents.size(); i++) {
-				Document doc = documents.get(i);
-				String vectorString = convertEmbeddingToString(embeddings.get(i));
-				String metadataJson = serializeMetadata(doc.getMetadata());
-
-				pstmt.setString(1, vectorString);
-				pstmt.setString(2, doc.getText());
-				pstmt.setString(3, metadataJson);
-				pstmt.addBatch();
+		AtomicInteger written = new AtomicInteger();
+		try {
+			if (writeParallelism <= 1 || chunks.size() == 1) {
+				for (List<InsertRow> chunk : chunks) {
+					insertChunk(chunk);
+					written.addAndGet(chunk.size());
+				}
+				return;
+			}
+			ExecutorService executor = writeExecutor();
+			List<Future<?>> futures = new ArrayList<>(chunks.size());
+			for (List<InsertRow> chunk : chunks) {
+				futures.add(executor.submit(() -> {
+					insertChunk(chunk);
+					written.addAndGet(chunk.size());
+					return null;
+				}));
+			}
+			Throwable failure = null;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (ExecutionException e) {
+					failure = failure != null ? failure : e.getCause();
+				}
+			}
+			if (failure instanceof Error error) {
+				throw error;
 			}
-			pstmt.executeBatch();
+			if (failure != null) {
+				throw (Exception) failure;
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while adding documents to OceanBase", e);
 		}
 		catch (Exception e) {
 			logger.error("Failed to add documents", e);
-			throw new RuntimeException("Failed to add documents to OceanBase", e);
+			throw new RuntimeException(String.format(
+					"Failed to add documents to OceanBase, %d of %d documents were written before the failure",
+					written.get(), documents.size()), e);
 		}
 	}
 
-	private String buildInsertSql() {
-		return String.format("INSERT INTO %s (%s, %s, %s) VALUES (?, ?, ?)",
-			tableName, EMBEDDING_FIELD, DOCUMENT_FIELD, METADATA_FIELD);
+	/**
+	 * A document prepared for the INSERT statement.
+	 */
+	record InsertRow(String id, String vector, String text, String metadata) {
+
+		/**
+		 * Estimated size of the values in the statement: their UTF-8 bytes, quotes and
+		 * separators.
+		 */
+		long bytes() {
+			return utf8Length(id) + utf8Length(vector) + utf8Length(text) + utf8Length(metadata) + 16;
+		}
+
+		private static long utf8Length(String value) {
+			if (value == null) {
+				return 4;
+			}
+			long length = value.length();
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c >= 0x800) {
+					// three bytes, or four for a surrogate pair of two chars
+					length += 2;
+				}
+				else if (c >= 0x80) {
+					length += 1;
+				}
+			}
+			return length;
+		}
+
+	}
+
+	/**
+	 * Pack the rows in order into chunks of at most {@code batchSize} rows and
+	 * {@code batchBytes} estimated bytes; a row larger than the byte limit is written on
+	 * its own.
+	 */
+	List<List<InsertRow>> chunk(List<InsertRow> rows) {
+		List<List<InsertRow>> chunks = new ArrayList<>();
+		List<InsertRow> current = new ArrayList<>();
+		long currentBytes = 0;
+		for (InsertRow row : rows) {
+			long bytes = row.bytes();
+			if (!current.isEmpty() && (current.size() >= batchSize || currentBytes + bytes > batchBytes)) {
+				chunks.add(current);
+				current = new ArrayList<>();
+				currentBytes = 0;
+			}
+			current.add(row);
+			currentBytes += bytes;
+		}
+		if (!current.isEmpty()) {
+			chunks.add(current);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Insert one chunk with a single multi-row statement.
+	 */
+	private void insertChunk(List<InsertRow> chunk) throws SQLException {
+		String sql = buildInsertSql(chunk.size());
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement pstmt = connection.prepareStatement(sql)) {
+			boolean autoCommit = connection.getAutoCommit();
+			try {
+				if (!autoCommit) {
+					connection.setAutoCommit(true);
+				}
+				int index = 1;
+				for (InsertRow row : chunk) {
+					if (upsert) {
+						pstmt.setString(index++, row.id());
+					}
+					pstmt.setString(index++, row.vector());
+					pstmt.setString(index++, row.text());
+					pstmt.setString(index++, row.metadata());
+				}
+				pstmt.executeUpdate();
+			}
+			finally {
+				if (!autoCommit) {
+					connection.setAutoCommit(false);
+				}
+			}
+		}
+	}
+
+	private ExecutorService writeExecutor() {
+		ExecutorService executor = this.writeExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.writeExecutor;
+				if (executor == null) {
+					executor = newExecutor("oceanbase-writer-", writeParallelism);
+					this.writeExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	private ExecutorService searchExecutor() {
+		ExecutorService executor = this.searchExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.searchExecutor;
+				if (executor == null) {
+					executor = newExecutor("oceanbase-search-", searchParallelism);
+					this.searchExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	private static ExecutorService newExecutor(String threadPrefix, int threads) {
+		AtomicInteger count = new AtomicInteger();
+		// a full queue makes the calling thread run the task itself
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(threads * 2), runnable -> {
+					Thread thread = new Thread(runnable, threadPrefix + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	String buildInsertSql(int rows) {
+		String columns = upsert ? String.join(", ", ID_FIELD, EMBEDDING_FIELD, DOCUMENT_FIELD, METADATA_FIELD)
+				: String.join(", ", EMBEDDING_FIELD, DOCUMENT_FIELD, METADATA_FIELD);
+		String placeholders = upsert ? "(?, ?, ?, ?)" : "(?, ?, ?)";
+		StringBuilder sql = new StringBuilder(64 + rows * (placeholders.length() + 2));
+		sql.append("INSERT INTO ").append(tableName).append(" (").append(columns).append(") VALUES ");
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(placeholders);
+		}
+		if (upsert) {
+			sql.append(" ON DUPLICATE KEY UPDATE ");
+			sql.append(EMBEDDING_FIELD).append(" = VALUES(").append(EMBEDDING_FIELD).append("), ");
+			sql.append(DOCUMENT_FIELD).append(" = VALUES(").append(DOCUMENT_FIELD).append("), ");
+			sql.append(METADATA_FIELD).append(" = VALUES(").append(METADATA_FIELD).append(")");
+		}
+		return sql.toString();
 	}
 
 	private String serializeMetadata(Map<String, Object> metadata) {
@@ -387,12 +626,6 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		}
 	}
 
-	private String convertEmbeddingToString(float[] embedding) {
-		return Arrays.toString(IntStream.range(0, embedding.length)
-			.mapToObj(i -> embedding[i])
-			.toArray());
-	}
-
 	@Override
 	public void doDelete(List<String> ids) {
 		if (CollectionUtils.isEmpty(ids)) {
@@ -425,47 +658,48 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		if (enableFulltext && searchRequest.getQuery() != null) {
 			return doHybridSearchWithFulltext(searchRequest);
 		}
-		return doVectorSimilaritySearch(searchRequest);
+		return doVectorSimilaritySearch(searchRequest, convertQueryToVectorBytes(searchRequest.getQuery()),
+				searchRequest.getTopK());
 	}
 
-	private List<Document> doVectorSimilaritySearch(SearchRequest searchRequest) {
-		boolean indexExists = checkIndexExists(indexName) || hasVectorIndexOnColumn();
-		boolean useApproximateLimit = indexExists;
-
-		try {
-			return executeVectorSimilaritySearch(searchRequest, useApproximateLimit);
+	private List<Document> doVectorSimilaritySearch(SearchRequest searchRequest, String vector, int limit) {
+		Boolean useApproximateLimit = this.approximateLimit;
+		if (useApproximateLimit == null) {
+			// the index is looked up once instead of on every search
+			useApproximateLimit = checkIndexExists(indexName) || hasVectorIndexOnColumn();
+			this.approximateLimit = useApproximateLimit;
 		}
-		catch (Exception e) {
-			if (useApproximateLimit) {
+
+		if (useApproximateLimit) {
+			try {
+				return executeVectorSimilaritySearch(searchRequest, vector, limit, true);
+			}
+			catch (Exception e) {
 				logger.info("APPROXIMATE LIMIT failed (index may not exist), retrying with regular LIMIT: {}", e.getMessage());
-				return executeVectorSimilaritySearch(searchRequest, false);
 			}
-			logger.error("Failed to perform similarity search", e);
-			throw new RuntimeException("Failed to perform similarity search in OceanBase", e);
 		}
+		return executeVectorSimilaritySearch(searchRequest, vector, limit, false);
 	}
 
-
-	private List<Document> executeVectorSimilaritySearch(SearchRequest searchRequest, boolean useApproximateLimit) {
+	private List<Document> executeVectorSimilaritySearch(SearchRequest searchRequest, String vector, int limit,
+			boolean useApproximateLimit) {
 		String distanceFunc = getDistanceFunctionName(indexMetricType);
 		StringBuilder sql = buildVectorSimilaritySearchSql(searchRequest, distanceFunc, useApproximateLimit);
 
 		List<Document> similarDocuments = new ArrayList<>();
 		try (Connection connection = dataSource.getConnection();
 				PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-			String vector = convertQueryToVectorBytes(searchRequest.getQuery());
 			pstmt.setString(1, vector);
 			pstmt.setString(2, vector);
-			pstmt.setInt(3, searchRequest.getTopK());
+			pstmt.setInt(3, limit);
 
-			String limitType = useApproximateLimit ? "APPROXIMATE LIMIT" : "LIMIT";
-			logger.info("Executing similarity search SQL with {}: {}", limitType, sql.toString());
+			logger.debug("Executing similarity search SQL: {}", sql);
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
 				Document doc = extractDocumentFromResultSet(rs);
 				similarDocuments.add(doc);
 			}
-			logger.info("Found {} documents in similarity search", similarDocuments.size());
+			logger.debug("Found {} documents in similarity search", similarDocuments.size());
 		}
 		catch (Exception e) {
 			logger.error("Failed to perform similarity search", e);
@@ -476,7 +710,7 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 
 	private StringBuilder buildVectorSimilaritySearchSql(SearchRequest searchRequest, String distanceFunc, boolean useApproximateLimit) {
 		StringBuilder sql = new StringBuilder();
-		sql.append("SELECT ").append(ID_FIELD).append(", ").append(EMBEDDING_FIELD).append(", ");
+		sql.append("SELECT ").append(ID_FIELD).append(", ");
 		sql.append(DOCUMENT_FIELD).append(", ").append(METADATA_FIELD).append(", ").append(TIMESTAMP_FIELD).append(", ");
 		sql.append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) as distance ");
 		sql.append("FROM ").append(tableName);
@@ -487,97 +721,194 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		}
 
 		sql.append(" ORDER BY ").append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) ASC ");
-
-		if (useApproximateLimit) {
-			sql.append("APPROXIMATE LIMIT ?");
-			logger.info("Using APPROXIMATE LIMIT for similarity search");
-		}
-		else {
-			sql.append("LIMIT ?");
-			logger.info("Using regular LIMIT for similarity search");
-		}
-
+		sql.append(useApproximateLimit ? "APPROXIMATE LIMIT ?" : "LIMIT ?");
 		return sql;
 	}
 
+	/**
+	 * Run the vector and the fulltext query concurrently, each on its own connection, and
+	 * fuse their results, or let the database do both in one statement.
+	 */
 	private List<Document> doHybridSearchWithFulltext(SearchRequest searchRequest) {
-		List<Document> vectorResults = doVectorSimilaritySearch(SearchRequest.builder()
-			.query(searchRequest.getQuery())
-			.topK(searchRequest.getTopK() * 2)
-			.filterExpression(searchRequest.getFilterExpression())
-			.build());
+		float[] embedding = this.embeddingModel.embed(searchRequest.getQuery());
+		if (hybridFusion == OceanBaseHybridFusion.SINGLE_SQL) {
+			return doSingleSqlHybridSearch(searchRequest, embedding);
+		}
+		return doFusedHybridSearch(searchRequest, embedding, hybridFusion);
+	}
+
+	private List<Document> doFusedHybridSearch(SearchRequest searchRequest, float[] embedding,
+			OceanBaseHybridFusion fusion) {
+		String vector = OceanBaseVectorEncoder.encode(embedding);
+		int candidates = searchRequest.getTopK() * 2;
+		Future<List<Document>> vectorSearch = searchExecutor()
+			.submit(() -> doVectorSimilaritySearch(searchRequest, vector, candidates));
+		OceanBaseHybridFuser.Leg fulltext = doFulltextSearch(searchRequest, vector, candidates);
 
-		List<Document> fulltextResults = doFulltextSearch(searchRequest);
-		return combineHybridResults(vectorResults, fulltextResults, searchRequest.getTopK());
+		List<Document> vectorResults;
+		try {
+			vectorResults = vectorSearch.get();
+		}
+		catch (InterruptedException e) {
+			vectorSearch.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while searching OceanBase", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new RuntimeException("Failed to perform similarity search in OceanBase", e.getCause());
+		}
+
+		double[] vectorScores = new double[vectorResults.size()];
+		for (int i = 0; i < vectorScores.length; i++) {
+			// a smaller distance is a better match
+			Double distance = vectorResults.get(i).getScore();
+			vectorScores[i] = distance != null ? -distance : Double.NaN;
+		}
+		return OceanBaseHybridFuser.fuse(fusion, new OceanBaseHybridFuser.Leg(vectorResults, vectorScores),
+				fulltext, vectorWeight, rrfK, searchRequest.getTopK());
 	}
 
-	private List<Document> doFulltextSearch(SearchRequest searchRequest) {
+	/**
+	 * Fulltext matches ordered by their relevance score, which is kept for the fusion.
+	 */
+	private OceanBaseHybridFuser.Leg doFulltextSearch(SearchRequest searchRequest, String vector, int limit) {
 		String distanceFunc = getDistanceFunctionName(indexMetricType);
+		String match = "MATCH(" + DOCUMENT_FIELD + ") AGAINST(? IN NATURAL LANGUAGE MODE)";
 		StringBuilder sql = new StringBuilder();
-		sql.append("SELECT ").append(ID_FIELD).append(", ").append(EMBEDDING_FIELD).append(", ");
+		sql.append("SELECT ").append(ID_FIELD).append(", ");
 		sql.append(DOCUMENT_FIELD).append(", ").append(METADATA_FIELD).append(", ").append(TIMESTAMP_FIELD).append(", ");
-		sql.append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) as distance ");
+		sql.append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) as distance, ");
+		sql.append(match).append(" as ").append(TEXT_SCORE_FIELD).append(" ");
 		sql.append("FROM ").append(tableName);
-		sql.append(" WHERE MATCH(").append(DOCUMENT_FIELD).append(") AGAINST(? IN NATURAL LANGUAGE MODE)");
+		sql.append(" WHERE ").append(match);
 
 		if (searchRequest.getFilterExpression() != null) {
 			String filterExpr = filterExpressionConverter.convertExpression(searchRequest.getFilterExpression());
 			sql.append(" AND ").append(filterExpr);
 		}
 
-		sql.append(" ORDER BY ").append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) ASC ");
+		sql.append(" ORDER BY ").append(TEXT_SCORE_FIELD).append(" DESC ");
 		sql.append("LIMIT ?");
 
 		List<Document> results = new ArrayList<>();
+		double[] scores = new double[limit];
 		try (Connection connection = dataSource.getConnection();
 				PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-			String vector = convertQueryToVectorBytes(searchRequest.getQuery());
 			pstmt.setString(1, vector);
 			pstmt.setString(2, searchRequest.getQuery());
-			pstmt.setString(3, vector);
-			pstmt.setInt(4, searchRequest.getTopK() * 2);
+			pstmt.setString(3, searchRequest.getQuery());
+			pstmt.setInt(4, limit);
 
+			logger.debug("Executing fulltext search SQL: {}", sql);
 			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				Document doc = extractDocumentFromResultSet(rs);
-				results.add(doc);
+			while (rs.next() && results.size() < limit) {
+				double score = rs.getDouble(TEXT_SCORE_FIELD);
+				scores[results.size()] = rs.wasNull() ? Double.NaN : score;
+				results.add(extractDocumentFromResultSet(rs));
 			}
 		}
 		catch (Exception e) {
 			logger.error("Failed to perform fulltext search", e);
+			return OceanBaseHybridFuser.Leg.EMPTY;
 		}
-		return results;
+		return new OceanBaseHybridFuser.Leg(results, Arrays.copyOf(scores, results.size()));
 	}
 
-	private List<Document> combineHybridResults(List<Document> vectorResults, List<Document> fulltextResults, int topK) {
-		Map<String, Document> docMap = new LinkedHashMap<>();
-		Map<String, Double> scores = new HashMap<>();
+	/**
+	 * Let {@code DBMS_HYBRID_SEARCH} fuse both sides. Filtered searches, which it cannot
+	 * express, and versions without it fall back to the concurrent queries with
+	 * {@link OceanBaseHybridFusion#MIN_MAX}, the fusion closest to its weighted sum, as
+	 * both of those queries read only their candidates.
+	 */
+	private List<Document> doSingleSqlHybridSearch(SearchRequest searchRequest, float[] embedding) {
+		Boolean nativeSupported = this.nativeHybridSearch;
+		if (searchRequest.getFilterExpression() == null && !Boolean.FALSE.equals(nativeSupported)) {
+			try {
+				List<Document> results = doNativeHybridSearch(searchRequest, embedding);
+				this.nativeHybridSearch = true;
+				return results;
+			}
+			catch (Exception e) {
+				if (Boolean.TRUE.equals(nativeSupported)) {
+					logger.error("Failed to perform hybrid search", e);
+					throw new RuntimeException("Failed to perform hybrid search in OceanBase", e);
+				}
+				logger.info("DBMS_HYBRID_SEARCH is not available, fusing the vector and fulltext results instead: {}",
+						getErrorMessage(e));
+				this.nativeHybridSearch = false;
+			}
+		}
+		return doFusedHybridSearch(searchRequest, embedding, OceanBaseHybridFusion.MIN_MAX);
+	}
 
-		for (int i = 0; i < vectorResults.size(); i++) {
-			Document doc = vectorResults.get(i);
-			String id = doc.getId();
-			docMap.put(id, doc);
-			double score = 1.0 - (i / (double) Math.max(vectorResults.size(), 1));
-			scores.put(id, scores.getOrDefault(id, 0.0) + score * 0.7);
+	private List<Document> doNativeHybridSearch(SearchRequest searchRequest, float[] embedding) throws Exception {
+		String params = buildNativeHybridSearchParams(searchRequest.getQuery(), embedding, searchRequest.getTopK());
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement pstmt = connection.prepareStatement("SELECT DBMS_HYBRID_SEARCH.SEARCH(?, ?)")) {
+			pstmt.setString(1, tableName);
+			pstmt.setString(2, params);
+			logger.debug("Executing DBMS_HYBRID_SEARCH with: {}", params);
+			ResultSet rs = pstmt.executeQuery();
+			return rs.next() ? parseNativeHybridSearchResult(rs.getString(1)) : List.of();
 		}
+	}
 
-		for (int i = 0; i < fulltextResults.size(); i++) {
-			Document doc = fulltextResults.get(i);
-			String id = doc.getId();
-			if (!docMap.containsKey(id)) {
-				docMap.put(id, doc);
-			}
-			double score = 1.0 - (i / (double) Math.max(fulltextResults.size(), 1));
-			scores.put(id, scores.getOrDefault(id, 0.0) + score * 0.3);
+	/**
+	 * Search parameters of {@code DBMS_HYBRID_SEARCH.SEARCH}: a match query on the
+	 * document and a knn query on the embedding, boosted by the fusion weights.
+	 */
+	String buildNativeHybridSearchParams(String query, float[] embedding, int topK) throws JsonProcessingException {
+		ObjectNode params = objectMapper.createObjectNode();
+		params.putObject("query")
+			.putObject("match")
+			.putObject(DOCUMENT_FIELD)
+			.put("query", query)
+			.put("boost", 1.0 - vectorWeight);
+		ObjectNode knn = params.putObject("knn")
+			.put("field", EMBEDDING_FIELD)
+			.put("k", topK)
+			.put("num_candidates", topK * 2)
+			.put("boost", vectorWeight);
+		ArrayNode queryVector = knn.putArray("query_vector");
+		for (float value : embedding) {
+			queryVector.add(value);
 		}
+		params.put("size", topK);
+		params.putArray("_source").add(ID_FIELD).add(DOCUMENT_FIELD).add(METADATA_FIELD);
+		return objectMapper.writeValueAsString(params);
+	}
 
-		return docMap.values().stream()
-			.sorted((d1, d2) -> Double.compare(
-				scores.getOrDefault(d2.getId(), 0.0),
-				scores.getOrDefault(d1.getId(), 0.0)
-			))
-			.limit(topK)
-			.toList();
+	List<Document> parseNativeHybridSearchResult(String json) throws JsonProcessingException {
+		if (!StringUtils.hasText(json)) {
+			return List.of();
+		}
+		JsonNode root = objectMapper.readTree(json);
+		JsonNode hits = root.isArray() ? root : root.path("hits").path("hits");
+		if (!hits.isArray()) {
+			throw new IllegalStateException("Unexpected DBMS_HYBRID_SEARCH result: " + json);
+		}
+		List<Document> results = new ArrayList<>(hits.size());
+		for (JsonNode hit : hits) {
+			JsonNode source = hit.path("_source");
+			String id = hit.hasNonNull("_id") ? hit.get("_id").asText() : source.path(ID_FIELD).asText(null);
+			JsonNode metadataNode = source.path(METADATA_FIELD);
+			Map<String, Object> metadata = metadataNode.isObject()
+					? objectMapper.convertValue(metadataNode, new TypeReference<Map<String, Object>>() {})
+					: parseMetadata(metadataNode.asText(null));
+			results.add(Document.builder()
+				.id(id)
+				.text(source.path(DOCUMENT_FIELD).asText(null))
+				.metadata(metadata)
+				.score(hit.path("_score").asDouble())
+				.build());
+		}
+		return results;
 	}
 
 	private String getDistanceFunctionName(String metricType) {
@@ -638,7 +969,7 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	}
 
 	private String convertQueryToVectorBytes(String query) {
-		return Arrays.toString(this.embeddingModel.embed(query));
+		return OceanBaseVectorEncoder.encode(this.embeddingModel.embed(query));
 	}
 
 	private void executeUpdate(String sql) {
@@ -712,6 +1043,15 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		private String indexType = INDEX_TYPE_HNSW;
 		private String indexMetricType = METRIC_TYPE_L2;
 		private boolean initializeSchema = false;
+		private int batchSize = DEFAULT_BATCH_SIZE;
+
+		private long batchBytes = DEFAULT_BATCH_BYTES;
+		private boolean upsert = false;
+		private int writeParallelism = 1;
+		private OceanBaseHybridFusion hybridFusion = OceanBaseHybridFusion.RANK;
+		private double vectorWeight = DEFAULT_VECTOR_WEIGHT;
+		private int rrfK = DEFAULT_RRF_K;
+		private int searchParallelism = DEFAULT_SEARCH_PARALLELISM;
 
 		private Builder(String tableName, DataSource dataSource, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
@@ -749,6 +1089,82 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 			return this;
 		}
 
+		/**
+		 * Number of documents written by one multi-row INSERT statement.
+		 */
+		public Builder batchSize(int batchSize) {
+			Assert.isTrue(batchSize > 0, "The batch size must be positive.");
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Maximum estimated size of one multi-row INSERT statement, in bytes. Keep it below
+		 * the {@code max_allowed_packet} of the server.
+		 */
+		public Builder batchBytes(long batchBytes) {
+			Assert.isTrue(batchBytes > 0, "The batch bytes must be positive.");
+			this.batchBytes = batchBytes;
+			return this;
+		}
+
+		/**
+		 * Store documents under their own id and replace the row of an id that is added
+		 * again. The id column must be a string, as created by {@link #initializeSchema}
+		 * in this mode; tables with the default auto-increment id are not supported.
+		 */
+		public Builder upsert(boolean upsert) {
+			this.upsert = upsert;
+			return this;
+		}
+
+		/**
+		 * Number of batches written concurrently by a large add.
+		 */
+		public Builder writeParallelism(int writeParallelism) {
+			Assert.isTrue(writeParallelism > 0, "The write parallelism must be positive.");
+			this.writeParallelism = writeParallelism;
+			return this;
+		}
+
+		/**
+		 * How a fulltext hybrid search merges the vector and the fulltext results.
+		 */
+		public Builder hybridFusion(OceanBaseHybridFusion hybridFusion) {
+			Assert.notNull(hybridFusion, "The hybrid fusion must not be null.");
+			this.hybridFusion = hybridFusion;
+			return this;
+		}
+
+		/**
+		 * Weight of the vector results in a hybrid search, the fulltext results get the
+		 * rest.
+		 */
+		public Builder vectorWeight(double vectorWeight) {
+			Assert.isTrue(vectorWeight >= 0.0 && vectorWeight <= 1.0, "The vector weight must be in range [0.0:1.0].");
+			this.vectorWeight = vectorWeight;
+			return this;
+		}
+
+		/**
+		 * Rank constant of {@link OceanBaseHybridFusion#RRF}.
+		 */
+		public Builder rrfK(int rrfK) {
+			Assert.isTrue(rrfK > 0, "The RRF rank constant must be positive.");
+			this.rrfK = rrfK;
+			return this;
+		}
+
+		/**
+		 * Threads that run the vector query of a hybrid search beside its fulltext
+		 * query. When they and their queue are busy, the calling thread runs both.
+		 */
+		public Builder searchParallelism(int searchParallelism) {
+			Assert.isTrue(searchParallelism > 0, "The search parallelism must be positive.");
+			this.searchParallelism = searchParallelism;
+			return this;
+		}
+
 		@Override
 		public OceanBaseVectorStore build() {
 			try {
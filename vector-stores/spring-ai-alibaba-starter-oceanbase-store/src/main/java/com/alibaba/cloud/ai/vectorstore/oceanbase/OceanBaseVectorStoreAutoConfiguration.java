@@ -28,8 +28,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 
 import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariDataSource;
 import io.micrometer.observation.ObservationRegistry;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 /**
  * OceanBase Vector Store Auto Configuration
@@ -46,12 +46,14 @@ public class OceanBaseVectorStoreAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(DataSource.class)
-	@ConditionalOnClass(DriverManagerDataSource.class)
+	@ConditionalOnClass(HikariDataSource.class)
 	public DataSource oceanbaseDataSource(OceanBaseVectorStoreProperties properties) {
-		DriverManagerDataSource dataSource = new DriverManagerDataSource();
-		dataSource.setUrl(properties.getUrl());
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("oceanbase-vector-store");
+		dataSource.setJdbcUrl(properties.getUrl());
 		dataSource.setUsername(properties.getUsername());
 		dataSource.setPassword(properties.getPassword());
+		dataSource.setMaximumPoolSize(properties.getMaxPoolSize());
 		return dataSource;
 	}
 
@@ -89,7 +91,16 @@ public class OceanBaseVectorStoreAutoConfiguration {
 			builder.hybridSearchType(properties.getHybridSearchType());
 		}
 
-		return builder.initializeSchema(properties.isInitializeSchema()).build();
+		return builder.batchSize(properties.getBatchSize())
+			.batchBytes(properties.getBatchBytes())
+			.upsert(properties.isUpsert())
+			.writeParallelism(properties.getWriteParallelism())
+			.hybridFusion(properties.getHybridFusion())
+			.vectorWeight(properties.getVectorWeight())
+			.rrfK(properties.getRrfK())
+			.searchParallelism(properties.getSearchParallelism())
+			.initializeSchema(properties.isInitializeSchema())
+			.build();
 	}
 
 }
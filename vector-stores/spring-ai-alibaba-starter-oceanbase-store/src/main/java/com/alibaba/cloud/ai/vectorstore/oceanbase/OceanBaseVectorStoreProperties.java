@@ -43,6 +43,54 @@ public class OceanBaseVectorStoreProperties extends CommonVectorStoreProperties
 	private Integer dimension;
 
 	private String hybridSearchType;
+
+	/**
+	 * Documents written by one multi-row INSERT statement.
+	 */
+	private int batchSize = OceanBaseVectorStore.DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Maximum estimated size of one multi-row INSERT statement, in bytes. Keep it below
+	 * the max_allowed_packet of the server.
+	 */
+	private long batchBytes = OceanBaseVectorStore.DEFAULT_BATCH_BYTES;
+
+	/**
+	 * Store documents under their own id and replace existing rows with the same id.
+	 * Requires a table created in this mode.
+	 */
+	private boolean upsert = false;
+
+	/**
+	 * Batches written concurrently by a large add.
+	 */
+	private int writeParallelism = 1;
+
+	/**
+	 * How a fulltext hybrid search merges the vector and the fulltext results.
+	 */
+	private OceanBaseHybridFusion hybridFusion = OceanBaseHybridFusion.RANK;
+
+	/**
+	 * Weight of the vector results in a hybrid search, the fulltext results get the rest.
+	 */
+	private double vectorWeight = OceanBaseVectorStore.DEFAULT_VECTOR_WEIGHT;
+
+	/**
+	 * Rank constant of the RRF hybrid fusion.
+	 */
+	private int rrfK = OceanBaseVectorStore.DEFAULT_RRF_K;
+
+	/**
+	 * Threads that run the vector query of a hybrid search beside its fulltext query.
+	 */
+	private int searchParallelism = OceanBaseVectorStore.DEFAULT_SEARCH_PARALLELISM;
+
+	/**
+	 * Maximum connections of the data source created when the application defines none.
+	 */
+	private int maxPoolSize = 10;
+
 	public String getUrl() {
 		return url;
 	}
@@ -107,4 +155,76 @@ public class OceanBaseVectorStoreProperties extends CommonVectorStoreProperties
 		this.hybridSearchType = hybridSearchType;
 	}
 
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public long getBatchBytes() {
+		return batchBytes;
+	}
+
+	public void setBatchBytes(long batchBytes) {
+		this.batchBytes = batchBytes;
+	}
+
+	public boolean isUpsert() {
+		return upsert;
+	}
+
+	public void setUpsert(boolean upsert) {
+		this.upsert = upsert;
+	}
+
+	public int getWriteParallelism() {
+		return writeParallelism;
+	}
+
+	public void setWriteParallelism(int writeParallelism) {
+		this.writeParallelism = writeParallelism;
+	}
+
+	public OceanBaseHybridFusion getHybridFusion() {
+		return hybridFusion;
+	}
+
+	public void setHybridFusion(OceanBaseHybridFusion hybridFusion) {
+		this.hybridFusion = hybridFusion;
+	}
+
+	public double getVectorWeight() {
+		return vectorWeight;
+	}
+
+	public void setVectorWeight(double vectorWeight) {
+		this.vectorWeight = vectorWeight;
+	}
+
+	public int getRrfK() {
+		return rrfK;
+	}
+
+	public void setRrfK(int rrfK) {
+		this.rrfK = rrfK;
+	}
+
+	public int getSearchParallelism() {
+		return searchParallelism;
+	}
+
+	public void setSearchParallelism(int searchParallelism) {
+		this.searchParallelism = searchParallelism;
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+	}
+
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the fulltext hybrid search of {@link OceanBaseVectorStore}, against an
+ * in-memory stand-in for the database.
+ */
+class OceanBaseHybridSearchTest {
+
+	private static final OceanBaseHybridFuser.Leg VECTOR = leg(new String[] { "a", "b", "c" },
+			new double[] { -0.2, -0.4, -1.0 });
+
+	private static final OceanBaseHybridFuser.Leg FULLTEXT = leg(new String[] { "c", "b", "d" },
+			new double[] { 8.0, 4.0, 0.0 });
+
+	@Test
+	void fusesReciprocalRanks() {
+		List<Document> fused = OceanBaseHybridFuser.fuse(OceanBaseHybridFusion.RRF, VECTOR,
+				leg(new String[] { "c", "d" }, new double[] { 2.0, 1.0 }), 0.5, 60, 10);
+
+		assertThat(fused).extracting(Document::getId).containsExactly("c", "a", "b", "d");
+		assertThat(fused.get(0).getScore()).isCloseTo(0.5 / 63 + 0.5 / 61, within(1e-9));
+	}
+
+	@Test
+	void fusesMinMaxNormalizedScores() {
+		List<Document> fused = OceanBaseHybridFuser.fuse(OceanBaseHybridFusion.MIN_MAX, VECTOR, FULLTEXT, 0.7, 60, 3);
+
+		assertThat(fused).extracting(Document::getId).containsExactly("a", "b", "c");
+		assertThat(fused).extracting(Document::getScore)
+			.satisfiesExactly(a -> assertThat(a).isCloseTo(0.7, within(1e-9)),
+					b -> assertThat(b).isCloseTo(0.525 + 0.15, within(1e-9)),
+					c -> assertThat(c).isCloseTo(0.3, within(1e-9)));
+	}
+
+	@Test
+	void givesMissingDocumentsTheLowestZScore() {
+		List<Document> fused = OceanBaseHybridFuser.fuse(OceanBaseHybridFusion.Z_SCORE, VECTOR, FULLTEXT, 0.7, 60, 10);
+
+		assertThat(fused).extracting(Document::getId).containsExactly("a", "b", "c", "d");
+		double[] vectorZ = OceanBaseHybridFuser.normalize(OceanBaseHybridFusion.Z_SCORE, VECTOR.scores(), 60);
+		double[] fulltextZ = OceanBaseHybridFuser.normalize(OceanBaseHybridFusion.Z_SCORE, FULLTEXT.scores(), 60);
+		assertThat(fused.get(3).getScore()).isCloseTo(0.7 * vectorZ[2] + 0.3 * fulltextZ[2], within(1e-9));
+	}
+
+	@Test
+	void givesUnknownScoresTheLowestKnownScore() {
+		OceanBaseHybridFuser.Leg fulltext = leg(new String[] { "c", "b", "d" }, new double[] { 8.0, Double.NaN, 0.0 });
+
+		List<Document> fused = OceanBaseHybridFuser.fuse(OceanBaseHybridFusion.Z_SCORE, VECTOR, fulltext, 0.7, 60, 10);
+
+		assertThat(fused).extracting(Document::getId).containsExactly("a", "b", "c", "d");
+		assertThat(fused).extracting(Document::getScore).noneMatch(score -> score.isNaN());
+		double[] vectorZ = OceanBaseHybridFuser.normalize(OceanBaseHybridFusion.Z_SCORE, VECTOR.scores(), 60);
+		assertThat(fused.get(1).getScore()).isCloseTo(0.7 * vectorZ[1] + 0.3 * -1.0, within(1e-9));
+	}
+
+	@Test
+	void runsVectorAndFulltextQueriesConcurrently() throws Exception {
+		CyclicBarrier bothRunning = new CyclicBarrier(2);
+		StandInDatabase database = new StandInDatabase();
+		database.route("ORDER BY l2_distance", sql -> {
+			bothRunning.await(5, TimeUnit.SECONDS);
+			return List.of(row("a", 0.2, null), row("b", 0.4, null));
+		});
+		database.route("ORDER BY text_score DESC", sql -> {
+			bothRunning.await(5, TimeUnit.SECONDS);
+			return List.of(row("c", 0.9, 3.0), row("b", 0.4, 2.0));
+		});
+		EmbeddingModel embeddingModel = embeddingModel();
+		OceanBaseVectorStore store = OceanBaseVectorStore.builder("docs", database.dataSource(), embeddingModel)
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.hybridFusion(OceanBaseHybridFusion.RRF)
+			.build();
+		try {
+			List<Document> results = store.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+
+			assertThat(results).extracting(Document::getId).containsExactly("b", "a");
+			verify(embeddingModel, times(1)).embed("spring");
+		}
+		finally {
+			store.destroy();
+		}
+	}
+
+	@Test
+	void fallsBackToMinMaxFusionWithoutNativeHybridSearch() throws Exception {
+		StandInDatabase database = new StandInDatabase();
+		database.route("DBMS_HYBRID_SEARCH", sql -> {
+			throw new SQLException("FUNCTION DBMS_HYBRID_SEARCH.SEARCH does not exist");
+		});
+		database.route("ORDER BY l2_distance",
+				sql -> List.of(row("a", 0.2, null), row("b", 0.3, null), row("d", 0.6, null)));
+		database.route("ORDER BY text_score DESC", sql -> List.of(row("b", 0.3, 4.0), row("c", 0.9, 2.0)));
+		OceanBaseVectorStore store = OceanBaseVectorStore.builder("docs", database.dataSource(), embeddingModel())
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.hybridFusion(OceanBaseHybridFusion.SINGLE_SQL)
+			.vectorWeight(0.5)
+			.build();
+		try {
+			store.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+			List<Document> results = store.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+
+			assertThat(results).extracting(Document::getId).containsExactly("b", "a");
+			assertThat(results.get(0).getScore()).isCloseTo(0.5 * 0.75 + 0.5 * 1.0, within(1e-9));
+			assertThat(database.statements()).filteredOn(sql -> sql.contains("DBMS_HYBRID_SEARCH")).hasSize(1);
+			// the fulltext query reads only the matching rows
+			assertThat(database.statements()).filteredOn(sql -> sql.contains("ORDER BY text_score DESC"))
+				.allSatisfy(sql -> assertThat(sql).contains("WHERE MATCH"));
+			assertThat(database.statements()).noneSatisfy(sql -> assertThat(sql).contains("ORDER BY ? *"));
+		}
+		finally {
+			store.destroy();
+		}
+	}
+
+	@Test
+	void usesNativeHybridSearchWhenAvailable() throws Exception {
+		StandInDatabase database = new StandInDatabase();
+		database.route("DBMS_HYBRID_SEARCH", sql -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("result", "{\"hits\":{\"hits\":[{\"_id\":\"a\",\"_score\":1.5,"
+					+ "\"_source\":{\"document\":\"text a\",\"metadata\":{\"n\":1}}}]}}");
+			return List.of(row);
+		});
+		OceanBaseVectorStore store = OceanBaseVectorStore.builder("docs", database.dataSource(), embeddingModel())
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.hybridFusion(OceanBaseHybridFusion.SINGLE_SQL)
+			.build();
+
+		List<Document> results = store.similaritySearch(SearchRequest.builder().query("spring").topK(3).build());
+
+		assertThat(results).singleElement().satisfies(doc -> {
+			assertThat(doc.getId()).isEqualTo("a");
+			assertThat(doc.getText()).isEqualTo("text a");
+			assertThat(doc.getMetadata()).containsEntry("n", 1);
+			assertThat(doc.getScore()).isEqualTo(1.5);
+		});
+		assertThat(store.buildNativeHybridSearchParams("spring", new float[] { 1f, 0f }, 3))
+			.contains("\"match\":{\"document\":{\"query\":\"spring\"")
+			.contains("\"knn\":{\"field\":\"embedding\",\"k\":3")
+			.contains("\"query_vector\":[1.0,0.0]");
+	}
+
+	private static OceanBaseHybridFuser.Leg leg(String[] ids, double[] scores) {
+		List<Document> documents = new ArrayList<>();
+		for (String id : ids) {
+			documents.add(new Document(id, "text " + id, Map.of()));
+		}
+		return new OceanBaseHybridFuser.Leg(documents, scores);
+	}
+
+	private static Map<String, Object> row(String id, double distance, Double textScore) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", id);
+		row.put("document", "text " + id);
+		row.put("metadata", "{}");
+		row.put("distance", distance);
+		row.put("text_score", textScore);
+		return row;
+	}
+
+	private static EmbeddingModel embeddingModel() {
+		EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+		when(embeddingModel.embed(anyString())).thenReturn(new float[] { 1f, 0f });
+		return embeddingModel;
+	}
+
+	@FunctionalInterface
+	private interface Query {
+
+		List<Map<String, Object>> rows(String sql) throws Exception;
+
+	}
+
+	/**
+	 * Answers each statement with the rows of the first route whose marker the SQL
+	 * contains, and with no rows otherwise.
+	 */
+	private static final class StandInDatabase {
+
+		private final Map<String, Query> routes = new LinkedHashMap<>();
+
+		private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+		void route(String marker, Query query) {
+			this.routes.put(marker, query);
+		}
+
+		List<String> statements() {
+			return this.statements;
+		}
+
+		DataSource dataSource() throws SQLException {
+			DataSource dataSource = mock(DataSource.class);
+			when(dataSource.getConnection()).thenAnswer(invocation -> connection());
+			return dataSource;
+		}
+
+		private Connection connection() throws SQLException {
+			Connection connection = mock(Connection.class);
+			when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+				String sql = invocation.getArgument(0);
+				this.statements.add(sql);
+				PreparedStatement statement = mock(PreparedStatement.class);
+				when(statement.executeQuery()).thenAnswer(executed -> resultSet(rows(sql)));
+				return statement;
+			});
+			return connection;
+		}
+
+		private List<Map<String, Object>> rows(String sql) throws Exception {
+			for (Map.Entry<String, Query> route : this.routes.entrySet()) {
+				if (sql.contains(route.getKey())) {
+					return route.getValue().rows(sql);
+				}
+			}
+			return List.of();
+		}
+
+		private static ResultSet resultSet(List<Map<String, Object>> rows) throws SQLException {
+			ResultSet resultSet = mock(ResultSet.class);
+			int[] cursor = { -1 };
+			Object[] last = new Object[1];
+			when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rows.size());
+			when(resultSet.getString(anyString())).thenAnswer(invocation -> {
+				last[0] = rows.get(cursor[0]).get(invocation.<String>getArgument(0));
+				return last[0] != null ? last[0].toString() : null;
+			});
+			when(resultSet.getString(anyInt())).thenAnswer(invocation -> {
+				last[0] = new ArrayList<>(rows.get(cursor[0]).values()).get(invocation.<Integer>getArgument(0) - 1);
+				return last[0] != null ? last[0].toString() : null;
+			});
+			when(resultSet.getDouble(anyString())).thenAnswer(invocation -> {
+				last[0] = rows.get(cursor[0]).get(invocation.<String>getArgument(0));
+				return last[0] != null ? ((Number) last[0]).doubleValue() : 0.0;
+			});
+			when(resultSet.wasNull()).thenAnswer(invocation -> last[0] == null);
+			return resultSet;
+		}
+
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the write path of {@link OceanBaseVectorStore}, without a database.
+ */
+class OceanBaseVectorStoreWriteTest {
+
+	@Test
+	void encodesVectorsWithoutLosingPrecision() {
+		Random random = new Random(42);
+		float[] vector = new float[256];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = random.nextFloat() * 2 - 1;
+		}
+		vector[0] = 0f;
+		vector[1] = 1.0e-7f;
+
+		String literal = OceanBaseVectorEncoder.encode(vector);
+
+		assertThat(literal).startsWith("[0,").endsWith("]");
+		String[] elements = literal.substring(1, literal.length() - 1).split(",");
+		assertThat(elements).hasSize(vector.length);
+		for (int i = 0; i < vector.length; i++) {
+			assertThat(Float.parseFloat(elements[i])).isEqualTo(vector[i]);
+		}
+	}
+
+	@Test
+	void buildsMultiRowInsertAndUpsertStatements() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+
+		OceanBaseVectorStore insert = OceanBaseVectorStore.builder("docs", dataSource, mock(EmbeddingModel.class))
+			.build();
+		assertThat(insert.buildInsertSql(2))
+			.isEqualTo("INSERT INTO docs (embedding, document, metadata) VALUES (?, ?, ?), (?, ?, ?)");
+
+		OceanBaseVectorStore upsert = OceanBaseVectorStore.builder("docs", dataSource, mock(EmbeddingModel.class))
+			.upsert(true)
+			.build();
+		assertThat(upsert.buildInsertSql(1)).isEqualTo("INSERT INTO docs (id, embedding, document, metadata) "
+				+ "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE embedding = VALUES(embedding), "
+				+ "document = VALUES(document), metadata = VALUES(metadata)");
+	}
+
+	@Test
+	void writesDocumentsInBatches() throws Exception {
+		List<String> statements = Collections.synchronizedList(new ArrayList<>());
+		PreparedStatement statement = mock(PreparedStatement.class);
+		OceanBaseVectorStore store = OceanBaseVectorStore
+			.builder("docs", dataSource(statements, statement), embeddingModel())
+			.batchSize(2)
+			.upsert(true)
+			.build();
+
+		store.add(documents(5));
+
+		assertThat(statements).hasSize(3);
+		assertThat(statements.get(0)).isEqualTo(store.buildInsertSql(2));
+		assertThat(statements.get(2)).isEqualTo(store.buildInsertSql(1));
+		verify(statement).setString(1, "doc-0");
+		verify(statement).setString(2, "[0,1]");
+		verify(statement).setString(5, "doc-1");
+	}
+
+	@Test
+	void startsNewBatchBeforeExceedingBatchBytes() {
+		List<OceanBaseVectorStore.InsertRow> rows = IntStream.range(0, 5)
+			.mapToObj(i -> new OceanBaseVectorStore.InsertRow("doc-" + i, "[0,1]", "x".repeat(1000), "{}"))
+			.toList();
+		long rowBytes = rows.get(0).bytes();
+		OceanBaseVectorStore store = OceanBaseVectorStore
+			.builder("docs", mock(DataSource.class), mock(EmbeddingModel.class))
+			.batchBytes(rowBytes * 2 + rowBytes / 2)
+			.build();
+
+		assertThat(store.chunk(rows)).extracting(List::size).containsExactly(2, 2, 1);
+		assertThat(new OceanBaseVectorStore.InsertRow("a", "[]", "中", null).bytes())
+			.isLessThan(new OceanBaseVectorStore.InsertRow("a", "[]", "中中", null).bytes());
+	}
+
+	@Test
+	void reportsTheDocumentsWrittenBeforeAFailure() throws Exception {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeUpdate()).thenReturn(2).thenThrow(new SQLException("Packet too large"));
+		OceanBaseVectorStore store = OceanBaseVectorStore
+			.builder("docs", dataSource(new ArrayList<>(), statement), embeddingModel())
+			.batchSize(2)
+			.build();
+
+		assertThatThrownBy(() -> store.add(documents(5)))
+			.hasMessageContaining("2 of 5 documents were written before the failure")
+			.hasRootCauseMessage("Packet too large");
+	}
+
+	@Test
+	void writesBatchesInParallel() throws Exception {
+		List<String> statements = Collections.synchronizedList(new ArrayList<>());
+		OceanBaseVectorStore store = OceanBaseVectorStore
+			.builder("docs", dataSource(statements, mock(PreparedStatement.class)), embeddingModel())
+			.batchSize(10)
+			.writeParallelism(3)
+			.build();
+		try {
+			store.add(documents(95));
+
+			assertThat(statements).hasSize(10);
+			assertThat(statements).filteredOn(store.buildInsertSql(5)::equals).hasSize(1);
+		}
+		finally {
+			store.destroy();
+		}
+	}
+
+	private static DataSource dataSource(List<String> statements, PreparedStatement statement) throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.getAutoCommit()).thenReturn(true);
+		when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+			statements.add(invocation.getArgument(0));
+			return statement;
+		});
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		return dataSource;
+	}
+
+	private static EmbeddingModel embeddingModel() {
+		EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+		when(embeddingModel.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			return IntStream.range(0, documents.size()).mapToObj(i -> new float[] { i, 1f }).toList();
+		});
+		return embeddingModel;
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> new Document("doc-" + i, "text " + i, Map.of("n", i)))
+			.toList();
+	}
+
+}
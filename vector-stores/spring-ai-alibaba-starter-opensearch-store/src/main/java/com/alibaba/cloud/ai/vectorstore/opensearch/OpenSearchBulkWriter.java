@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.opensearch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pushes document operations to OpenSearch in batches.
+ * <p>
+ * Operations are packed in order into batches of at most {@code maxBatchDocuments}
+ * operations and {@code maxBatchBytes} estimated request bytes; an operation larger than
+ * the byte limit is pushed on its own. Batches run on a pool of {@code writeParallelism}
+ * threads shared by every call of the writer, so at most that many batches of the store
+ * are in flight at a time and concurrent calls queue behind each other. A failed batch is
+ * retried with exponential backoff while the other batches carry on, and the call fails
+ * once every batch has finished, reporting the operations that could not be pushed.
+ *
+ * @since 1.1.0
+ */
+class OpenSearchBulkWriter implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(OpenSearchBulkWriter.class);
+
+	private final OpenSearchVectorStoreOptions options;
+
+	private volatile ExecutorService executor;
+
+	OpenSearchBulkWriter(OpenSearchVectorStoreOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * A document operation with its estimated size in the push request.
+	 * @param body the operation, with its {@code cmd} and {@code fields}
+	 * @param bytes the estimated size in bytes
+	 */
+	record Operation(Map<String, ?> body, int bytes) {
+	}
+
+	/**
+	 * Push the operations.
+	 * @param operations the operations, pushed in this order within each batch
+	 * @param push pushes one batch and throws if OpenSearch rejects it
+	 * @return completes once every batch is pushed, or exceptionally if some batches
+	 * still failed after their retries
+	 */
+	CompletableFuture<Void> write(List<Operation> operations, Consumer<List<Map<String, ?>>> push) {
+		List<List<Map<String, ?>>> batches = batch(operations);
+		if (batches.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		AtomicInteger failedOperations = new AtomicInteger();
+		int workers = Math.min(this.options.getWriteParallelism(), batches.size());
+		CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+		for (int i = 0; i < workers; i++) {
+			// each worker pushes one batch after the other, which bounds the requests in flight
+			running[i] = CompletableFuture.runAsync(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < batches.size()) {
+					List<Map<String, ?>> batch = batches.get(index);
+					try {
+						pushWithRetry(batch, push);
+					}
+					catch (RuntimeException e) {
+						failedOperations.addAndGet(batch.size());
+						failures.add(e);
+					}
+				}
+			}, executor());
+		}
+
+		return CompletableFuture.allOf(running).thenRun(() -> {
+			if (!failures.isEmpty()) {
+				Throwable cause = failures.peek();
+				RuntimeException exception = new RuntimeException(
+						String.format("OpenSearch push failed for %d of %d documents. Error message: %s",
+								failedOperations.get(), operations.size(), cause.getMessage()),
+						cause);
+				failures.stream().skip(1).forEach(exception::addSuppressed);
+				throw exception;
+			}
+		});
+	}
+
+	List<List<Map<String, ?>>> batch(List<Operation> operations) {
+		int maxDocuments = this.options.getMaxBatchDocuments();
+		long maxBytes = this.options.getMaxBatchBytes();
+		List<List<Map<String, ?>>> batches = new ArrayList<>();
+		List<Map<String, ?>> current = new ArrayList<>();
+		long currentBytes = 0;
+		for (Operation operation : operations) {
+			if (!current.isEmpty()
+					&& (current.size() >= maxDocuments || currentBytes + operation.bytes() > maxBytes)) {
+				batches.add(current);
+				current = new ArrayList<>();
+				currentBytes = 0;
+			}
+			current.add(operation.body());
+			currentBytes += operation.bytes();
+		}
+		if (!current.isEmpty()) {
+			batches.add(current);
+		}
+		return batches;
+	}
+
+	private void pushWithRetry(List<Map<String, ?>> batch, Consumer<List<Map<String, ?>>> push) {
+		long backoff = this.options.getRetryBackoff().toMillis();
+		int maxAttempts = this.options.getMaxAttempts();
+		for (int attempt = 1;; attempt++) {
+			try {
+				push.accept(batch);
+				return;
+			}
+			catch (RuntimeException e) {
+				if (attempt >= maxAttempts) {
+					throw e;
+				}
+				logger.warn("OpenSearch push of {} documents failed, attempt {} of {}, retrying in {} ms: {}",
+						batch.size(), attempt, maxAttempts, backoff, e.getMessage());
+			}
+			try {
+				Thread.sleep(backoff);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while retrying an OpenSearch push", e);
+			}
+			backoff = Math.min(backoff * 2, this.options.getMaxRetryBackoff().toMillis());
+		}
+	}
+
+	private ExecutorService executor() {
+		ExecutorService executor = this.executor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.executor;
+				if (executor == null) {
+					AtomicInteger threads = new AtomicInteger();
+					executor = Executors.newFixedThreadPool(this.options.getWriteParallelism(), runnable -> {
+						Thread thread = new Thread(runnable, "opensearch-writer-" + threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+					this.executor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	@Override
+	public void close() {
+		ExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -33,11 +33,14 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationConvention;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.util.Assert;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -48,7 +51,8 @@ import java.util.stream.Collectors;
  * @author fuyou.lxm
  * @since 1.0.0-M3
  */
-public class OpenSearchVectorStore extends AbstractObservationVectorStore implements InitializingBean {
+public class OpenSearchVectorStore extends AbstractObservationVectorStore
+		implements InitializingBean, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(OpenSearchVectorStore.class);
 
@@ -67,6 +71,11 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 	 */
 	private static final String METADATA_FIELD_NAME = "metadata";
 
+	/**
+	 * Estimated bytes of an operation besides its field values: keys, cmd and quoting.
+	 */
+	private static final int OPERATION_OVERHEAD_BYTES = 64;
+
 	/**
 	 * The API client used to interact with OpenSearch.
 	 */
@@ -100,6 +109,11 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
+	/**
+	 * Pushes document operations in batches.
+	 */
+	private final OpenSearchBulkWriter bulkWriter;
+
 	/**
 	 * Constructs a new instance of OpenSearchVectorStore with the specified parameters.
 	 * @param openSearchApi The API client used to interact with OpenSearch.
@@ -137,12 +151,17 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 		Assert.notNull(builder.openSearchApi, "The openSearchApi cannot be null");
 		Assert.notNull(builder.options.getPrimaryKeyField(), "The primaryKeyField cannot be null");
 		Assert.notNull(builder.options.getTableName(), "The tableName cannot be null");
+		Assert.isTrue(builder.options.getMaxBatchDocuments() > 0, "The maxBatchDocuments must be positive");
+		Assert.isTrue(builder.options.getMaxBatchBytes() > 0, "The maxBatchBytes must be positive");
+		Assert.isTrue(builder.options.getWriteParallelism() > 0, "The writeParallelism must be positive");
+		Assert.isTrue(builder.options.getMaxAttempts() > 0, "The maxAttempts must be positive");
 
 		this.options = builder.options;
 		this.initializeSchema = builder.initializeSchema;
 		this.openSearchApi = builder.openSearchApi;
 		this.embeddingModel = builder.getEmbeddingModel();
 		this.batchingStrategy = builder.batchingStrategy;
+		this.bulkWriter = new OpenSearchBulkWriter(builder.options);
 	}
 
 	/**
@@ -157,55 +176,130 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		for (Document document : documents) {
-			/*
-			 * Document push outer structure, can add document operation structures. The
-			 * structure supports one or more document operations.
-			 */
-			List<Map<String, ?>> documentToAdd = new ArrayList<>();
-			Map<String, Object> documentMap = new HashMap<>();
-			Map<String, Object> documentFields = new HashMap<>();
+		ingest(addAsync(documents), "add", documents.size());
+	}
 
-			// Insert document content information, key-value pairs matching.
-			// The field_pk field must be consistent with the pkField configuration.
-			documentFields.put(ID_FIELD_NAME, document.getId());
-			documentFields.put(CONTENT_FIELD_NAME, document.getText());
+	/**
+	 * Delete documents from the vector store.
+	 */
+	@Override
+	public void doDelete(List<String> idList) {
+		ingest(deleteAsync(idList), "delete", idList.size());
+	}
+
+	/**
+	 * Add documents in batches without waiting for OpenSearch. Unlike
+	 * {@link #add(List)}, the call is not observed.
+	 * @param documents the documents to add
+	 * @return completes once every document is pushed, or exceptionally with the number
+	 * of documents that could not be pushed
+	 */
+	public CompletableFuture<Void> addAsync(List<Document> documents) {
+		List<OpenSearchBulkWriter.Operation> operations = new ArrayList<>(documents.size());
+		for (Document document : documents) {
+			String metadata;
 			// Convert metadata to JSON
 			try {
-				documentFields.put(METADATA_FIELD_NAME, objectMapper.writeValueAsString(document.getMetadata()));
+				metadata = objectMapper.writeValueAsString(document.getMetadata());
 			}
 			catch (JsonProcessingException e) {
 				throw new RuntimeException("Failed to serialize JSON", e);
 			}
 
-			// Add document content to documentEntry structure.
-			documentMap.put("fields", documentFields);
+			// Insert document content information, key-value pairs matching.
+			// The field_pk field must be consistent with the pkField configuration.
+			Map<String, Object> documentFields = new HashMap<>();
+			documentFields.put(ID_FIELD_NAME, document.getId());
+			documentFields.put(CONTENT_FIELD_NAME, document.getText());
+			documentFields.put(METADATA_FIELD_NAME, metadata);
+
 			// New document command: add
+			Map<String, Object> documentMap = new HashMap<>();
+			documentMap.put("fields", documentFields);
 			documentMap.put("cmd", "add");
-			documentToAdd.add(documentMap);
-
-			openSearchApi.uploadDocument(this.options.getTableName(), this.options.getPrimaryKeyField(), documentToAdd);
+			operations.add(new OpenSearchBulkWriter.Operation(documentMap,
+					estimateBytes(document.getId()) + estimateBytes(document.getText()) + estimateBytes(metadata)
+							+ OPERATION_OVERHEAD_BYTES));
 		}
+		return bulkWriter.write(operations, batch -> openSearchApi.uploadDocument(this.options.getTableName(),
+				this.options.getPrimaryKeyField(), batch));
 	}
 
 	/**
-	 * Delete documents from the vector store.
+	 * Delete documents in batches without waiting for OpenSearch. Unlike
+	 * {@link #delete(List)}, the call is not observed.
+	 * @param idList the ids of the documents to delete
+	 * @return completes once every delete is pushed, or exceptionally with the number of
+	 * documents that could not be deleted
 	 */
-	@Override
-	public void doDelete(List<String> idList) {
+	public CompletableFuture<Void> deleteAsync(List<String> idList) {
+		List<OpenSearchBulkWriter.Operation> operations = new ArrayList<>(idList.size());
 		for (String id : idList) {
-			List<Map<String, ?>> documentToDelete = new ArrayList<>();
-			Map<String, Object> documentMap = new HashMap<>();
 			Map<String, Object> documentFields = new HashMap<>();
-
 			documentFields.put(this.options.getPrimaryKeyField(), id);
+
+			Map<String, Object> documentMap = new HashMap<>();
 			documentMap.put("fields", documentFields);
 			documentMap.put("cmd", "delete");
-			documentToDelete.add(documentMap);
+			operations.add(new OpenSearchBulkWriter.Operation(documentMap,
+					estimateBytes(id) + OPERATION_OVERHEAD_BYTES));
+		}
+		return bulkWriter.write(operations, batch -> openSearchApi.deleteDocument(this.options.getTableName(),
+				this.options.getPrimaryKeyField(), batch));
+	}
+
+	/**
+	 * Wait for the pushes, or only log their failures in async ingestion mode.
+	 */
+	private void ingest(CompletableFuture<Void> pushed, String operation, int count) {
+		if (this.options.isAsyncIngestion()) {
+			pushed.whenComplete((result, error) -> {
+				if (error != null) {
+					logger.error("OpenSearch async {} of {} documents failed", operation, count, error);
+				}
+			});
+			return;
+		}
+		try {
+			pushed.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
 
-			openSearchApi.deleteDocument(this.options.getTableName(), this.options.getPrimaryKeyField(),
-					documentToDelete);
+	/**
+	 * Estimate the UTF-8 bytes of a value in the JSON request, including the escapes of
+	 * quotes, backslashes and control characters.
+	 */
+	static int estimateBytes(String value) {
+		if (value == null) {
+			return 4;
+		}
+		int bytes = 2;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				bytes += 2;
+			}
+			else if (c < 0x20) {
+				bytes += 6;
+			}
+			else if (c < 0x80) {
+				bytes += 1;
+			}
+			else if (c < 0x800 || Character.isSurrogate(c)) {
+				// a surrogate pair takes four bytes, two per char
+				bytes += 2;
+			}
+			else {
+				bytes += 3;
+			}
 		}
+		return bytes;
 	}
 
 	/**
@@ -266,6 +360,11 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 		return this.options.getSimilarityFunction();
 	}
 
+	@Override
+	public void destroy() {
+		this.bulkWriter.close();
+	}
+
 	public boolean exists(String tableName) throws Exception {
 		List<Object> indexList = openSearchApi.getIndexList(tableName);
 		return indexList.contains("saa_default_index");
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.vectorstore.opensearch;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -101,6 +102,45 @@ public class OpenSearchVectorStoreOptions {
 	 */
 	private int dimensions = 1536;
 
+	/**
+	 * The maximum number of documents pushed by one request.
+	 */
+	private int maxBatchDocuments = 1000;
+
+	/**
+	 * The maximum estimated size of one push request, in bytes. Keep it below the push
+	 * size limit of the instance.
+	 */
+	private long maxBatchBytes = 1024 * 1024;
+
+	/**
+	 * The number of push requests of the store that run concurrently, shared by concurrent
+	 * adds and deletes.
+	 */
+	private int writeParallelism = 4;
+
+	/**
+	 * The number of times a push request is tried before its documents are reported as
+	 * failed.
+	 */
+	private int maxAttempts = 3;
+
+	/**
+	 * The wait before the first retry of a push request, doubled on every further retry.
+	 */
+	private Duration retryBackoff = Duration.ofMillis(200);
+
+	/**
+	 * The longest wait between two tries of a push request.
+	 */
+	private Duration maxRetryBackoff = Duration.ofSeconds(5);
+
+	/**
+	 * Whether add and delete return as soon as the documents are handed to the push
+	 * workers. Failures are then only logged.
+	 */
+	private boolean asyncIngestion = false;
+
 	public String getIndex() {
 		return index;
 	}
@@ -142,4 +182,60 @@ public class OpenSearchVectorStoreOptions {
 		this.dimensions = dims;
 	}
 
+	public int getMaxBatchDocuments() {
+		return this.maxBatchDocuments;
+	}
+
+	public void setMaxBatchDocuments(int maxBatchDocuments) {
+		this.maxBatchDocuments = maxBatchDocuments;
+	}
+
+	public long getMaxBatchBytes() {
+		return this.maxBatchBytes;
+	}
+
+	public void setMaxBatchBytes(long maxBatchBytes) {
+		this.maxBatchBytes = maxBatchBytes;
+	}
+
+	public int getWriteParallelism() {
+		return this.writeParallelism;
+	}
+
+	public void setWriteParallelism(int writeParallelism) {
+		this.writeParallelism = writeParallelism;
+	}
+
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public Duration getRetryBackoff() {
+		return this.retryBackoff;
+	}
+
+	public void setRetryBackoff(Duration retryBackoff) {
+		this.retryBackoff = retryBackoff;
+	}
+
+	public Duration getMaxRetryBackoff() {
+		return this.maxRetryBackoff;
+	}
+
+	public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+	public boolean isAsyncIngestion() {
+		return this.asyncIngestion;
+	}
+
+	public void setAsyncIngestion(boolean asyncIngestion) {
+		this.asyncIngestion = asyncIngestion;
+	}
+
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.opensearch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the batched writes of {@link OpenSearchVectorStore}.
+ */
+class OpenSearchVectorStoreBulkTest {
+
+	private final OpenSearchApi openSearchApi = mock(OpenSearchApi.class);
+
+	private final List<List<Map<String, ?>>> pushed = Collections.synchronizedList(new ArrayList<>());
+
+	private final OpenSearchVectorStoreOptions options = new OpenSearchVectorStoreOptions();
+
+	private OpenSearchVectorStore store;
+
+	@BeforeEach
+	void setUp() {
+		options.setWriteParallelism(1);
+		options.setRetryBackoff(Duration.ofMillis(1));
+		doAnswer(invocation -> {
+			pushed.add(invocation.getArgument(2));
+			return null;
+		}).when(openSearchApi).uploadDocument(anyString(), anyString(), anyList());
+		doAnswer(invocation -> {
+			pushed.add(invocation.getArgument(2));
+			return null;
+		}).when(openSearchApi).deleteDocument(anyString(), anyString(), anyList());
+		store = OpenSearchVectorStore.builder(openSearchApi, mock(EmbeddingModel.class)).options(options).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.destroy();
+	}
+
+	@Test
+	void pushesDocumentsInBatchesOfMaxDocuments() {
+		options.setMaxBatchDocuments(3);
+
+		store.add(documents(7, "text"));
+
+		assertThat(pushed).extracting(List::size).containsExactly(3, 3, 1);
+		assertThat(pushed.get(0).get(0).get("cmd")).isEqualTo("add");
+	}
+
+	@Test
+	void startsNewBatchBeforeExceedingMaxBytes() {
+		String text = "x".repeat(200);
+		int bytes = OpenSearchVectorStore.estimateBytes(text);
+		options.setMaxBatchBytes(bytes * 2 + 400);
+
+		store.add(documents(5, text));
+
+		assertThat(pushed).extracting(List::size).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void estimatesEscapedAndMultiByteCharacters() {
+		assertThat(OpenSearchVectorStore.estimateBytes("ab")).isEqualTo(4);
+		assertThat(OpenSearchVectorStore.estimateBytes("\"\n")).isEqualTo(2 + 2 + 6);
+		assertThat(OpenSearchVectorStore.estimateBytes("中文")).isEqualTo(2 + 6);
+		assertThat(OpenSearchVectorStore.estimateBytes("😀")).isEqualTo(2 + 4);
+	}
+
+	@Test
+	void retriesOnlyTheFailedBatch() {
+		options.setMaxBatchDocuments(2);
+		AtomicInteger calls = new AtomicInteger();
+		doAnswer(invocation -> {
+			List<Map<String, ?>> batch = invocation.getArgument(2);
+			if (calls.incrementAndGet() == 2) {
+				throw new RuntimeException("throttled");
+			}
+			pushed.add(batch);
+			return null;
+		}).when(openSearchApi).uploadDocument(anyString(), anyString(), anyList());
+
+		store.add(documents(5, "text"));
+
+		assertThat(calls).hasValue(4);
+		assertThat(pushed).extracting(List::size).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void reportsDocumentsThatStillFailAfterRetries() {
+		options.setMaxBatchDocuments(2);
+		options.setMaxAttempts(2);
+		doAnswer(invocation -> {
+			List<Map<String, ?>> batch = invocation.getArgument(2);
+			if (batch.size() == 1) {
+				throw new RuntimeException("rejected");
+			}
+			pushed.add(batch);
+			return null;
+		}).when(openSearchApi).uploadDocument(anyString(), anyString(), anyList());
+
+		assertThatThrownBy(() -> store.add(documents(5, "text"))).isInstanceOf(RuntimeException.class)
+			.hasMessageContaining("failed for 1 of 5 documents")
+			.hasRootCauseMessage("rejected");
+		assertThat(pushed).hasSize(2);
+	}
+
+	@Test
+	void addsAsynchronouslyWithBoundedParallelism() throws Exception {
+		options.setMaxBatchDocuments(1);
+		options.setWriteParallelism(3);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(3);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		doAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			inFlight.decrementAndGet();
+			pushed.add(invocation.getArgument(2));
+			return null;
+		}).when(openSearchApi).uploadDocument(anyString(), anyString(), anyList());
+
+		CompletableFuture<Void> added = store.addAsync(documents(10, "text"));
+
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(added).isNotDone();
+		assertThat(maxInFlight.get()).isEqualTo(3);
+		release.countDown();
+		added.get(5, TimeUnit.SECONDS);
+		assertThat(pushed).hasSize(10);
+		assertThat(maxInFlight.get()).isEqualTo(3);
+	}
+
+	@Test
+	void deletesInBatches() {
+		options.setMaxBatchDocuments(2);
+
+		store.delete(List.of("a", "b", "c"));
+
+		assertThat(pushed).extracting(List::size).containsExactly(2, 1);
+		Map<String, ?> operation = pushed.get(1).get(0);
+		assertThat(operation.get("cmd")).isEqualTo("delete");
+		assertThat(operation.get("fields")).isEqualTo(Map.of("id", "c"));
+	}
+
+	private static List<Document> documents(int count, String text) {
+		return IntStream.range(0, count).mapToObj(i -> new Document("doc-" + i, text, Map.of())).toList();
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tablestore;
+
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.core.ErrorCode;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes row changes to Tablestore with BatchWriteRow.
+ * <p>
+ * Tablestore rejects a request that changes the same row twice, so only the last change of
+ * each row is kept. Changes are then packed in order into requests of at most
+ * {@code maxBatchRows} rows and {@code maxBatchBytes} bytes; a row larger than the byte
+ * limit is sent on its own. Requests run on a pool of {@code writeParallelism} threads
+ * shared by every call of the writer, so at most that many requests of the store are in
+ * flight at a time and concurrent calls queue behind each other. When only some rows of a
+ * request fail with a transient error, only those rows are sent again, with exponential
+ * backoff. Errors of the whole request are left to the retry strategy of the client. The
+ * call fails once every request has finished, reporting the rows that could not be
+ * written.
+ *
+ * @since 1.1.0
+ */
+class TablestoreBatchWriter implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TablestoreBatchWriter.class);
+
+	/**
+	 * The row errors worth sending the row again for, the same the client retries whole
+	 * requests for. Puts and deletes are idempotent, so timeouts are included.
+	 */
+	private static final Set<String> TRANSIENT_ERRORS = Set.of(ErrorCode.ROW_OPERATION_CONFLICT,
+			ErrorCode.NOT_ENOUGH_CAPACITY_UNIT, ErrorCode.TABLE_NOT_READY, ErrorCode.PARTITION_UNAVAILABLE,
+			ErrorCode.SERVER_BUSY, ErrorCode.QUOTA_EXHAUSTED, ErrorCode.STORAGE_TIMEOUT,
+			ErrorCode.INTERNAL_SERVER_ERROR, ErrorCode.SERVER_UNAVAILABLE);
+
+	private final SyncClientInterface client;
+
+	private final int maxBatchRows;
+
+	private final long maxBatchBytes;
+
+	private final int writeParallelism;
+
+	private final int maxAttempts;
+
+	private final Duration retryBackoff;
+
+	private final Duration maxRetryBackoff;
+
+	private volatile ExecutorService executor;
+
+	TablestoreBatchWriter(SyncClientInterface client, int maxBatchRows, long maxBatchBytes, int writeParallelism,
+			int maxAttempts, Duration retryBackoff, Duration maxRetryBackoff) {
+		this.client = client;
+		this.maxBatchRows = maxBatchRows;
+		this.maxBatchBytes = maxBatchBytes;
+		this.writeParallelism = writeParallelism;
+		this.maxAttempts = maxAttempts;
+		this.retryBackoff = retryBackoff;
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+	/**
+	 * Write the row changes.
+	 * @param changes the changes, sent in this order within each request
+	 * @return completes once every row is written, or exceptionally if some rows still
+	 * failed after their retries
+	 */
+	CompletableFuture<Void> write(List<? extends RowChange> changes) {
+		List<RowChange> latest = lastChangePerRow(changes);
+		List<List<RowChange>> batches = batch(latest);
+		if (batches.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		Queue<String> failedRows = new ConcurrentLinkedQueue<>();
+		Queue<RuntimeException> failedRequests = new ConcurrentLinkedQueue<>();
+		AtomicInteger failed = new AtomicInteger();
+		int workers = Math.min(this.writeParallelism, batches.size());
+		CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+		for (int i = 0; i < workers; i++) {
+			// each worker sends one request after the other, which bounds the requests in
+			// flight
+			running[i] = CompletableFuture.runAsync(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < batches.size()) {
+					List<RowChange> batch = batches.get(index);
+					try {
+						List<String> rows = writeWithRetry(batch);
+						failed.addAndGet(rows.size());
+						failedRows.addAll(rows);
+					}
+					catch (RuntimeException e) {
+						failed.addAndGet(batch.size());
+						failedRequests.add(e);
+					}
+				}
+			}, executor());
+		}
+
+		return CompletableFuture.allOf(running).thenRun(() -> {
+			if (failed.get() > 0) {
+				RuntimeException cause = failedRequests.peek();
+				String firstFailure = !failedRows.isEmpty() ? failedRows.peek() : cause.getMessage();
+				RuntimeException exception = new RuntimeException(
+						String.format("Tablestore batch write failed for %d of %d rows. First failure: %s",
+								failed.get(), latest.size(), firstFailure),
+						cause);
+				failedRequests.stream().skip(1).forEach(exception::addSuppressed);
+				throw exception;
+			}
+		});
+	}
+
+	/**
+	 * The last change of every row, in the order of those changes.
+	 */
+	static List<RowChange> lastChangePerRow(List<? extends RowChange> changes) {
+		Map<List<Object>, RowChange> last = new LinkedHashMap<>();
+		for (RowChange change : changes) {
+			List<Object> row = List.of(change.getTableName(), change.getPrimaryKey());
+			// removing first moves the row to the position of its last change
+			last.remove(row);
+			last.put(row, change);
+		}
+		return new ArrayList<>(last.values());
+	}
+
+	List<List<RowChange>> batch(List<? extends RowChange> changes) {
+		List<List<RowChange>> batches = new ArrayList<>();
+		List<RowChange> current = new ArrayList<>();
+		long currentBytes = 0;
+		for (RowChange change : changes) {
+			int bytes = change.getDataSize();
+			if (!current.isEmpty()
+					&& (current.size() >= this.maxBatchRows || currentBytes + bytes > this.maxBatchBytes)) {
+				batches.add(current);
+				current = new ArrayList<>();
+				currentBytes = 0;
+			}
+			current.add(change);
+			currentBytes += bytes;
+		}
+		if (!current.isEmpty()) {
+			batches.add(current);
+		}
+		return batches;
+	}
+
+	/**
+	 * Send one request, then only its rows that failed with a transient error until they
+	 * succeed or run out of attempts.
+	 * @return a description of each row that could not be written
+	 */
+	private List<String> writeWithRetry(List<RowChange> batch) {
+		BatchWriteRowRequest request = new BatchWriteRowRequest();
+		batch.forEach(request::addRowChange);
+		List<String> failedRows = new ArrayList<>();
+		long backoff = this.retryBackoff.toMillis();
+		for (int attempt = 1;; attempt++) {
+			BatchWriteRowResponse response = this.client.batchWriteRow(request);
+			if (response.isAllSucceed()) {
+				return failedRows;
+			}
+			List<BatchWriteRowResponse.RowResult> retry = new ArrayList<>();
+			for (BatchWriteRowResponse.RowResult row : response.getFailedRows()) {
+				if (attempt < this.maxAttempts && TRANSIENT_ERRORS.contains(row.getError().getCode())) {
+					retry.add(row);
+				}
+				else {
+					failedRows.add(request.getRowChange(row.getTableName(), row.getIndex()).getPrimaryKey() + ": "
+							+ row.getError());
+				}
+			}
+			if (retry.isEmpty()) {
+				return failedRows;
+			}
+			logger.warn("Tablestore batch write of {} rows failed for {}, attempt {} of {}, retrying in {} ms",
+					request.getRowsCount(), retry.size(), attempt, this.maxAttempts, backoff);
+			request = request.createRequestForRetry(retry);
+			try {
+				Thread.sleep(backoff);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while retrying a Tablestore batch write", e);
+			}
+			backoff = Math.min(backoff * 2, this.maxRetryBackoff.toMillis());
+		}
+	}
+
+	/**
+	 * The threads the writes run on, also used for the work that prepares them.
+	 */
+	Executor executor() {
+		ExecutorService executor = this.executor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.executor;
+				if (executor == null) {
+					AtomicInteger threads = new AtomicInteger();
+					executor = Executors.newFixedThreadPool(this.writeParallelism, runnable -> {
+						Thread thread = new Thread(runnable, "tablestore-writer-" + threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+					this.executor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	@Override
+	public void close() {
+		ExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+}
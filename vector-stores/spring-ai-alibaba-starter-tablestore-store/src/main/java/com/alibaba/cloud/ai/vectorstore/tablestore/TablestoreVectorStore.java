@@ -15,6 +15,15 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tablestore;
 
+import com.alicloud.openservices.tablestore.model.Direction;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeResponse;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RangeRowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
 import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.DocumentHit;
 import com.aliyun.openservices.tablestore.agent.model.Response;
@@ -26,48 +35,159 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Tablestore Vector Store.
  */
-public class TablestoreVectorStore extends AbstractObservationVectorStore implements InitializingBean {
+public class TablestoreVectorStore extends AbstractObservationVectorStore
+		implements InitializingBean, DisposableBean {
+
+	/**
+	 * Default maximum number of rows in one BatchWriteRow request, the Tablestore limit.
+	 */
+	public static final int DEFAULT_MAX_BATCH_ROWS = 200;
+
+	/**
+	 * Default maximum size of one BatchWriteRow request, the Tablestore limit.
+	 */
+	public static final long DEFAULT_MAX_BATCH_BYTES = 4L * 1024 * 1024;
+
+	public static final int DEFAULT_WRITE_PARALLELISM = 4;
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+	public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofMillis(200);
+
+	public static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofSeconds(5);
 
 	private final KnowledgeStoreImpl knowledgeStore;
 
 	private final boolean initializeTable;
 
+	private final TablestoreBatchWriter batchWriter;
+
 	protected TablestoreVectorStore(Builder builder) {
 		super(builder);
 		this.knowledgeStore = builder.knowledgeStore;
 		this.initializeTable = builder.initializeTable;
+		this.batchWriter = new TablestoreBatchWriter(builder.knowledgeStore.getClient(), builder.maxBatchRows,
+				builder.maxBatchBytes, builder.writeParallelism, builder.maxAttempts, builder.retryBackoff,
+				builder.maxRetryBackoff);
 	}
 
 	@Override
 	public void doAdd(List<Document> documents) {
 		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
 				this.batchingStrategy);
-
-		for (int i = 0; i < documents.size(); i++) {
-			Document document = documents.get(i);
-			float[] embedding = embeddings.get(i);
-			knowledgeStore
-				.putDocument(Utils.toTablestoreDocument(knowledgeStore.enableMultiTenant(), embedding, document));
-		}
+		await(write(documents, embeddings));
 	}
 
 	@Override
 	public void doDelete(List<String> idList) {
+		await(deleteAsync(idList));
+	}
+
+	/**
+	 * Embed and add documents without waiting for them to be written, for bulk indexing.
+	 * Unlike {@link #add(List)}, the call is not observed.
+	 * @param documents the documents to add
+	 * @return completes once every document is written, or exceptionally with the number
+	 * of rows that could not be written
+	 */
+	public CompletableFuture<Void> addAsync(List<Document> documents) {
+		return CompletableFuture
+			.supplyAsync(() -> this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
+					this.batchingStrategy), this.batchWriter.executor())
+			.thenCompose(embeddings -> write(documents, embeddings));
+	}
+
+	/**
+	 * Delete documents without waiting for them to be deleted. Unlike
+	 * {@link #delete(List)}, the call is not observed.
+	 * @param idList the ids of the documents to delete
+	 * @return completes once every document is deleted, or exceptionally with the number
+	 * of rows that could not be deleted
+	 */
+	public CompletableFuture<Void> deleteAsync(List<String> idList) {
+		String tableName = knowledgeStore.getTableName();
+		if (!knowledgeStore.enableMultiTenant()) {
+			List<RowDeleteChange> deletes = new ArrayList<>(idList.size());
+			for (String id : idList) {
+				deletes.add(Utils.toRowDeleteChange(tableName, Utils.primaryKey(id)));
+			}
+			return this.batchWriter.write(deletes);
+		}
+		// the tenants of an id are only known from its rows
+		List<CompletableFuture<List<PrimaryKey>>> lookups = new ArrayList<>(idList.size());
 		for (String id : idList) {
-			knowledgeStore.deleteDocument(id);
+			lookups.add(CompletableFuture.supplyAsync(() -> primaryKeys(id), this.batchWriter.executor()));
+		}
+		return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).thenCompose(found -> {
+			List<RowDeleteChange> deletes = new ArrayList<>();
+			for (CompletableFuture<List<PrimaryKey>> lookup : lookups) {
+				for (PrimaryKey primaryKey : lookup.join()) {
+					deletes.add(Utils.toRowDeleteChange(tableName, primaryKey));
+				}
+			}
+			return this.batchWriter.write(deletes);
+		});
+	}
+
+	private CompletableFuture<Void> write(List<Document> documents, List<float[]> embeddings) {
+		List<RowChange> puts = new ArrayList<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			puts.add(Utils.toRowPutChange(knowledgeStore,
+					Utils.toTablestoreDocument(knowledgeStore.enableMultiTenant(), embeddings.get(i), documents.get(i))));
+		}
+		return this.batchWriter.write(puts);
+	}
+
+	/**
+	 * The primary keys of the rows of the document, one per tenant.
+	 */
+	private List<PrimaryKey> primaryKeys(String documentId) {
+		RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(knowledgeStore.getTableName());
+		criteria.setInclusiveStartPrimaryKey(Utils.primaryKey(documentId, PrimaryKeyValue.INF_MIN));
+		criteria.setExclusiveEndPrimaryKey(Utils.primaryKey(documentId, PrimaryKeyValue.INF_MAX));
+		criteria.setDirection(Direction.FORWARD);
+		criteria.setMaxVersions(1);
+		// reading only the primary key columns leaves out the text and the embedding
+		criteria.addColumnsToGet(Utils.PRIMARY_KEY_COLUMNS);
+		List<PrimaryKey> primaryKeys = new ArrayList<>(1);
+		while (true) {
+			GetRangeResponse response = knowledgeStore.getClient().getRange(new GetRangeRequest(criteria));
+			for (Row row : response.getRows()) {
+				primaryKeys.add(row.getPrimaryKey());
+			}
+			if (response.getNextStartPrimaryKey() == null) {
+				return primaryKeys;
+			}
+			criteria.setInclusiveStartPrimaryKey(response.getNextStartPrimaryKey());
+		}
+	}
+
+	private static void await(CompletableFuture<Void> written) {
+		try {
+			written.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
 		}
 	}
 
@@ -113,6 +233,11 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 		return builder;
 	}
 
+	@Override
+	public void destroy() {
+		this.batchWriter.close();
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		if (!initializeTable) {
@@ -131,6 +256,18 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 
 		private boolean initializeTable = false;
 
+		private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+
+		private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+		private int writeParallelism = DEFAULT_WRITE_PARALLELISM;
+
+		private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+		private Duration retryBackoff = DEFAULT_RETRY_BACKOFF;
+
+		private Duration maxRetryBackoff = DEFAULT_MAX_RETRY_BACKOFF;
+
 		public Builder(KnowledgeStoreImpl knowledgeStore, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 			this.knowledgeStore = knowledgeStore;
@@ -141,6 +278,59 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 			return this;
 		}
 
+		/**
+		 * Maximum number of rows written by one BatchWriteRow request, at most 200.
+		 */
+		public Builder maxBatchRows(int maxBatchRows) {
+			Assert.isTrue(maxBatchRows > 0 && maxBatchRows <= DEFAULT_MAX_BATCH_ROWS,
+					"maxBatchRows must be between 1 and " + DEFAULT_MAX_BATCH_ROWS);
+			this.maxBatchRows = maxBatchRows;
+			return this;
+		}
+
+		/**
+		 * Maximum size of one BatchWriteRow request, at most 4 MiB.
+		 */
+		public Builder maxBatchBytes(long maxBatchBytes) {
+			Assert.isTrue(maxBatchBytes > 0 && maxBatchBytes <= DEFAULT_MAX_BATCH_BYTES,
+					"maxBatchBytes must be between 1 and " + DEFAULT_MAX_BATCH_BYTES);
+			this.maxBatchBytes = maxBatchBytes;
+			return this;
+		}
+
+		/**
+		 * Maximum number of BatchWriteRow requests of the store in flight at a time,
+		 * shared by concurrent calls.
+		 */
+		public Builder writeParallelism(int writeParallelism) {
+			Assert.isTrue(writeParallelism > 0, "writeParallelism must be positive");
+			this.writeParallelism = writeParallelism;
+			return this;
+		}
+
+		/**
+		 * Number of times a row failing with a transient error is written before giving
+		 * up, including the first.
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Wait before the first retry of failed rows, doubled for every further retry up
+		 * to {@code maxRetryBackoff}.
+		 */
+		public Builder retryBackoff(Duration retryBackoff, Duration maxRetryBackoff) {
+			Assert.isTrue(retryBackoff != null && !retryBackoff.isNegative(), "retryBackoff must not be negative");
+			Assert.isTrue(maxRetryBackoff != null && maxRetryBackoff.compareTo(retryBackoff) >= 0,
+					"maxRetryBackoff must not be less than retryBackoff");
+			this.retryBackoff = retryBackoff;
+			this.maxRetryBackoff = maxRetryBackoff;
+			return this;
+		}
+
 		@Override
 		public TablestoreVectorStore build() {
 			return new TablestoreVectorStore(this);
@@ -15,14 +15,28 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tablestore;
 
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.Condition;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowExistenceExpectation;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.Document;
 import com.aliyun.openservices.tablestore.agent.model.DocumentHit;
 import com.aliyun.openservices.tablestore.agent.model.Metadata;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
 
+import java.util.List;
 import java.util.Map;
 
 class Utils {
 
+	static final String[] PRIMARY_KEY_COLUMNS = { Document.DOCUMENT_DOCUMENT_ID, Document.DOCUMENT_TENANT_ID };
+
 	static Document toTablestoreDocument(boolean enableMultiTenant, float[] embedding,
 			org.springframework.ai.document.Document springAiDocument) {
 		if (springAiDocument.getMedia() != null) {
@@ -44,6 +58,57 @@ class Utils {
 		return new Document(documentId, tenantId, text, embedding, metadata);
 	}
 
+	/**
+	 * The row {@link KnowledgeStoreImpl#putDocument(Document)} writes for the document,
+	 * for writing it as part of a batch.
+	 */
+	static RowPutChange toRowPutChange(KnowledgeStoreImpl knowledgeStore, Document document) {
+		float[] embedding = document.getEmbedding();
+		if (embedding != null && embedding.length != knowledgeStore.getEmbeddingDimension()) {
+			throw new IllegalArgumentException(String.format(
+					"document's embedding length:%s is not the same as the knowledge store dimension:%s, document id:%s",
+					embedding.length, knowledgeStore.getEmbeddingDimension(), document.getDocumentId()));
+		}
+		RowPutChange change = new RowPutChange(knowledgeStore.getTableName(),
+				primaryKey(document.getDocumentId(), document.getTenantId()));
+		List<Column> columns = TablestoreHelper.metadataToColumns(document.getMetadata());
+		if (document.getText() != null) {
+			columns.add(new Column(knowledgeStore.getTextField(), ColumnValue.fromString(document.getText())));
+		}
+		if (embedding != null) {
+			columns.add(new Column(knowledgeStore.getEmbeddingField(),
+					ColumnValue.fromString(TablestoreHelper.encodeEmbedding(embedding))));
+		}
+		return change.addColumns(columns);
+	}
+
+	/**
+	 * A delete of the row of the document that succeeds whether the row exists or not.
+	 */
+	static RowDeleteChange toRowDeleteChange(String tableName, PrimaryKey primaryKey) {
+		RowDeleteChange change = new RowDeleteChange(tableName, primaryKey);
+		change.setCondition(new Condition(RowExistenceExpectation.IGNORE));
+		return change;
+	}
+
+	static PrimaryKey primaryKey(String documentId, PrimaryKeyValue tenantId) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(Document.DOCUMENT_DOCUMENT_ID, PrimaryKeyValue.fromString(documentId))
+			.addPrimaryKeyColumn(Document.DOCUMENT_TENANT_ID, tenantId)
+			.build();
+	}
+
+	static PrimaryKey primaryKey(String documentId, String tenantId) {
+		return primaryKey(documentId, PrimaryKeyValue.fromString(tenantId));
+	}
+
+	/**
+	 * The primary key of the document when multi-tenant is disabled.
+	 */
+	static PrimaryKey primaryKey(String documentId) {
+		return primaryKey(documentId, Document.DOCUMENT_DEFAULT_TENANT_ID);
+	}
+
 	static org.springframework.ai.document.Document toSpringAIDocument(DocumentHit documentHit) {
 		Document tsDocument = documentHit.getDocument();
 		Double score = documentHit.getScore();
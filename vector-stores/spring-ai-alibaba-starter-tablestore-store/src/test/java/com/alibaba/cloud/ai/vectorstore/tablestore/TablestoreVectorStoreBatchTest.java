@@ -0,0 +1,279 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tablestore;
+
+import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.core.ErrorCode;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.CapacityUnit;
+import com.alicloud.openservices.tablestore.model.ConsumedCapacity;
+import com.alicloud.openservices.tablestore.model.Error;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeResponse;
+import com.alicloud.openservices.tablestore.model.Response;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the batched writes of {@link TablestoreVectorStore}.
+ */
+class TablestoreVectorStoreBatchTest {
+
+	private static final String TABLE = "knowledge";
+
+	private final SyncClient client = mock(SyncClient.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	private final List<List<RowChange>> written = Collections.synchronizedList(new ArrayList<>());
+
+	private TablestoreVectorStore store;
+
+	@AfterEach
+	void tearDown() {
+		if (store != null) {
+			store.destroy();
+		}
+	}
+
+	@Test
+	void addsInBatchesOfMaxBatchRows() {
+		answerWrites(request -> succeeded(request));
+		store = builder(false).maxBatchRows(2).writeParallelism(1).build();
+
+		store.add(documents(5));
+
+		assertThat(written).extracting(List::size).containsExactly(2, 2, 1);
+		RowPutChange put = (RowPutChange) written.get(0).get(1);
+		assertThat(put.getPrimaryKey()).isEqualTo(Utils.primaryKey("doc-1"));
+		assertThat(put.getColumnsToPut("text")).singleElement()
+			.satisfies(column -> assertThat(column.getValue().asString()).isEqualTo("text 1"));
+	}
+
+	@Test
+	void startsNewBatchBeforeExceedingMaxBatchBytes() {
+		answerWrites(request -> succeeded(request));
+		List<Document> documents = documents(5);
+		int rowBytes = Utils.toRowPutChange(knowledgeStore(false), Utils.toTablestoreDocument(false, new float[4],
+				documents.get(0)))
+			.getDataSize();
+		store = builder(false).maxBatchBytes(rowBytes * 2L + rowBytes / 2).writeParallelism(1).build();
+
+		store.add(documents);
+
+		assertThat(written).extracting(List::size).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void retriesOnlyTheFailedRows() {
+		AtomicInteger calls = new AtomicInteger();
+		answerWrites(request -> calls.incrementAndGet() == 1 ? failing(request, 1, ErrorCode.SERVER_BUSY)
+				: succeeded(request));
+		store = builder(false).build();
+
+		store.add(documents(3));
+
+		assertThat(written).extracting(List::size).containsExactly(3, 1);
+		assertThat(written.get(1).get(0).getPrimaryKey()).isEqualTo(Utils.primaryKey("doc-1"));
+	}
+
+	@Test
+	void reportsRowsFailingWithPermanentErrors() {
+		answerWrites(request -> failing(request, 0, ErrorCode.INVALID_PARAMETER));
+		store = builder(false).build();
+
+		assertThatThrownBy(() -> store.add(documents(3))).hasMessageContaining("failed for 1 of 3 rows")
+			.hasMessageContaining("doc-0")
+			.hasMessageContaining(ErrorCode.INVALID_PARAMETER);
+		assertThat(written).hasSize(1);
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		answerWrites(request -> failing(request, 0, ErrorCode.SERVER_BUSY));
+		store = builder(false).maxAttempts(2).build();
+
+		assertThatThrownBy(() -> store.add(documents(2))).hasMessageContaining("failed for 1 of 2 rows");
+		assertThat(written).extracting(List::size).containsExactly(2, 1);
+	}
+
+	@Test
+	void addsAsynchronouslyWithBoundedParallelism() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(3);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		answerWrites(request -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			return succeeded(request);
+		});
+		store = builder(false).maxBatchRows(1).writeParallelism(3).build();
+
+		CompletableFuture<Void> added = store.addAsync(documents(10));
+
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(added).isNotDone();
+		assertThat(maxInFlight.get()).isEqualTo(3);
+		release.countDown();
+		added.get(5, TimeUnit.SECONDS);
+		assertThat(written).hasSize(10);
+		assertThat(maxInFlight.get()).isEqualTo(3);
+	}
+
+	@Test
+	void deletesInBatches() {
+		answerWrites(request -> succeeded(request));
+		store = builder(false).maxBatchRows(2).writeParallelism(1).build();
+
+		store.delete(List.of("a", "b", "c"));
+
+		assertThat(written).extracting(List::size).containsExactly(2, 1);
+		assertThat(written.get(1).get(0)).isInstanceOf(RowDeleteChange.class);
+		assertThat(written.get(1).get(0).getPrimaryKey()).isEqualTo(Utils.primaryKey("c"));
+	}
+
+	@Test
+	void keepsOnlyTheLastChangeOfEachRow() {
+		answerWrites(request -> succeeded(request));
+		store = builder(false).build();
+
+		store.add(List.of(new Document("a", "first", Map.of()), new Document("b", "text", Map.of()),
+				new Document("a", "second", Map.of())));
+
+		assertThat(written).singleElement()
+			.satisfies(batch -> assertThat(batch).extracting(RowChange::getPrimaryKey)
+				.containsExactly(Utils.primaryKey("b"), Utils.primaryKey("a")));
+		RowPutChange put = (RowPutChange) written.get(0).get(1);
+		assertThat(put.getColumnsToPut("text")).singleElement()
+			.satisfies(column -> assertThat(column.getValue().asString()).isEqualTo("second"));
+	}
+
+	@Test
+	void deletesTheRowsOfEveryTenant() {
+		answerWrites(request -> succeeded(request));
+		when(client.getRange(any(GetRangeRequest.class))).thenAnswer(invocation -> {
+			GetRangeRequest request = invocation.getArgument(0);
+			String id = request.getRangeRowQueryCriteria()
+				.getInclusiveStartPrimaryKey()
+				.getPrimaryKeyColumn(0)
+				.getValue()
+				.asString();
+			GetRangeResponse response = new GetRangeResponse(new Response(), new ConsumedCapacity(new CapacityUnit()));
+			response.setRows(List.of(new Row(Utils.primaryKey(id, "user1"), List.of()),
+					new Row(Utils.primaryKey(id, "user2"), List.of())));
+			return response;
+		});
+		store = builder(true).build();
+
+		store.delete(List.of("a", "b"));
+
+		assertThat(written).singleElement()
+			.satisfies(batch -> assertThat(batch).extracting(RowChange::getPrimaryKey)
+				.containsExactly(Utils.primaryKey("a", "user1"), Utils.primaryKey("a", "user2"),
+						Utils.primaryKey("b", "user1"), Utils.primaryKey("b", "user2")));
+	}
+
+	private TablestoreVectorStore.Builder builder(boolean multiTenant) {
+		when(embeddingModel.embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenAnswer(invocation -> {
+				List<Document> documents = invocation.getArgument(0);
+				return documents.stream().map(document -> new float[4]).toList();
+			});
+		return TablestoreVectorStore.builder(knowledgeStore(multiTenant), embeddingModel)
+			.retryBackoff(Duration.ofMillis(1), Duration.ofMillis(1));
+	}
+
+	private KnowledgeStoreImpl knowledgeStore(boolean multiTenant) {
+		return KnowledgeStoreImpl.builder()
+			.client(client)
+			.tableName(TABLE)
+			.textField("text")
+			.embeddingField("embedding")
+			.embeddingDimension(4)
+			.enableMultiTenant(multiTenant)
+			.build();
+	}
+
+	private void answerWrites(Function<BatchWriteRowRequest, BatchWriteRowResponse> answer) {
+		when(client.batchWriteRow(any(BatchWriteRowRequest.class))).thenAnswer(invocation -> {
+			BatchWriteRowRequest request = invocation.getArgument(0);
+			written.add(new ArrayList<>(request.getRowChange().get(TABLE)));
+			return answer.apply(request);
+		});
+	}
+
+	private static BatchWriteRowResponse succeeded(BatchWriteRowRequest request) {
+		return failing(request, -1, null);
+	}
+
+	private static BatchWriteRowResponse failing(BatchWriteRowRequest request, int failedIndex, String errorCode) {
+		BatchWriteRowResponse response = new BatchWriteRowResponse(new Response());
+		int rows = request.getRowChange().get(TABLE).size();
+		for (int i = 0; i < rows; i++) {
+			response.addRowResult(i == failedIndex
+					? new BatchWriteRowResponse.RowResult(TABLE, null, new Error(errorCode, "rejected"), i)
+					: new BatchWriteRowResponse.RowResult(TABLE, null, new ConsumedCapacity(new CapacityUnit()), i));
+		}
+		return response;
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count).mapToObj(i -> {
+			Map<String, Object> metadata = new HashMap<>();
+			metadata.put("n", i);
+			return new Document("doc-" + i, "text " + i, metadata);
+		}).toList();
+	}
+
+}
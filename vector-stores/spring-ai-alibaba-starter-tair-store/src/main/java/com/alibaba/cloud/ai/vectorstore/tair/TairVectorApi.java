@@ -16,9 +16,12 @@
 package com.alibaba.cloud.ai.vectorstore.tair;
 
 import com.aliyun.tair.tairvector.TairVector;
+import com.aliyun.tair.tairvector.TairVectorPipeline;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import java.util.function.Function;
+
 /**
  * Provides an API for interacting with Tair Vector, extending the functionality of the
  * {@link TairVector} class. This class is designed to manage vector operations using a
@@ -37,6 +40,10 @@ import redis.clients.jedis.JedisPool;
  */
 public class TairVectorApi extends TairVector {
 
+	private final Jedis jedis;
+
+	private final JedisPool jedisPool;
+
 	/**
 	 * Constructs a new instance of the {@link TairVectorApi} class using a single Jedis
 	 * instance.
@@ -44,6 +51,8 @@ public class TairVectorApi extends TairVector {
 	 */
 	public TairVectorApi(Jedis jedis) {
 		super(jedis);
+		this.jedis = jedis;
+		this.jedisPool = null;
 	}
 
 	/**
@@ -54,6 +63,37 @@ public class TairVectorApi extends TairVector {
 	 */
 	public TairVectorApi(JedisPool jedisPool) {
 		super(jedisPool);
+		this.jedis = null;
+		this.jedisPool = jedisPool;
+	}
+
+	/**
+	 * Sends the commands queued by {@code commands} on one connection in a single round
+	 * trip. The responses returned by the pipeline methods can be read once this method
+	 * returns; reading a failed response throws its error.
+	 * @param commands queues the commands on the pipeline and returns what the caller
+	 * needs from it, usually the responses
+	 * @param <T> the type of the returned value
+	 * @return the value returned by {@code commands}
+	 */
+	public <T> T pipelined(Function<TairVectorPipeline, T> commands) {
+		if (this.jedisPool == null) {
+			return pipelined(this.jedis, commands);
+		}
+		try (Jedis connection = this.jedisPool.getResource()) {
+			return pipelined(connection, commands);
+		}
+	}
+
+	private static <T> T pipelined(Jedis connection, Function<TairVectorPipeline, T> commands) {
+		TairVectorPipeline pipeline = new TairVectorPipeline(connection);
+		try {
+			return commands.apply(pipeline);
+		}
+		finally {
+			// read every reply, so that the connection goes back to the pool clean
+			pipeline.sync();
+		}
 	}
 
 }
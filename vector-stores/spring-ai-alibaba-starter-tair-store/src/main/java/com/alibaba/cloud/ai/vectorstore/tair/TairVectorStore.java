@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.vectorstore.tair;
 
 import com.aliyun.tair.tairvector.factory.VectorBuilderFactory;
+import com.aliyun.tair.tairvector.factory.VectorBuilderFactory.KnnFieldItem;
 import com.aliyun.tair.tairvector.factory.VectorBuilderFactory.KnnItem;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -26,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
 import org.springframework.ai.vectorstore.SearchRequest;
@@ -34,6 +36,8 @@ import org.springframework.ai.vectorstore.observation.VectorStoreObservationCont
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationConvention;
 import org.springframework.util.Assert;
 import org.springframework.beans.factory.InitializingBean;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 import java.util.*;
 
@@ -85,6 +89,12 @@ public class TairVectorStore extends AbstractObservationVectorStore implements I
 
 	private final boolean initializeSchema;
 
+	/**
+	 * Whether the server answers TVS.KNNSEARCHFIELD, which returns the stored fields with
+	 * the hits. Unknown until the first search.
+	 */
+	private volatile Boolean knnSearchFieldSupported;
+
 	/**
 	 * Constructs a new instance of TairVectorStore with the specified parameters.
 	 * @param tairVectorApi The API client used to interact with Tair.
@@ -119,6 +129,7 @@ public class TairVectorStore extends AbstractObservationVectorStore implements I
 		super(builder);
 
 		Assert.notNull(builder.tairVectorApi, "The tairVectorClient cannot be null");
+		Assert.isTrue(builder.options.getWriteBatchSize() > 0, "The writeBatchSize must be positive");
 
 		this.options = builder.options;
 		this.tairVectorApi = builder.tairVectorApi;
@@ -177,75 +188,170 @@ public class TairVectorStore extends AbstractObservationVectorStore implements I
 			throw new IllegalArgumentException("Documents list cannot be empty");
 		}
 
-		for (Document document : documents) {
-			logger.info("Calling EmbeddingModel for document id = {}", document.getId());
-			float[] embedding = this.embeddingModel.embed(document);
-			String embeddingString = null;
-			try {
-				embeddingString = objectMapper.writeValueAsString(embedding);
-
-				List<String> params = new ArrayList<>();
-				params.add(ID_FIELD_NAME);
-				params.add(document.getId());
-				params.add(CONTENT_FIELD_NAME);
-				params.add(document.getText());
-				params.add(METADATA_FIELD_NAME);
-				params.add(objectMapper.writeValueAsString(document.getMetadata()));
-				this.tairVectorApi.tvshset(options.getIndexName(), document.getId(), embeddingString,
-						params.toArray(new String[0]));
-			}
-			catch (JsonProcessingException e) {
-				throw new RuntimeException("Error serializing message", e);
-			}
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
+				this.batchingStrategy);
+
+		int batchSize = options.getWriteBatchSize();
+		for (int from = 0; from < documents.size(); from += batchSize) {
+			int to = Math.min(from + batchSize, documents.size());
+			List<Document> batch = documents.subList(from, to);
+			List<float[]> batchEmbeddings = embeddings.subList(from, to);
+			List<Response<Long>> responses = this.tairVectorApi.pipelined(pipeline -> {
+				List<Response<Long>> pending = new ArrayList<>(batch.size());
+				for (int i = 0; i < batch.size(); i++) {
+					Document document = batch.get(i);
+					pending.add(pipeline.tvshset(options.getIndexName(), document.getId(),
+							TairVectorEncoder.encode(batchEmbeddings.get(i)), ID_FIELD_NAME, document.getId(),
+							CONTENT_FIELD_NAME, document.getText(), METADATA_FIELD_NAME,
+							serializeMetadata(document.getMetadata())));
+				}
+				return pending;
+			});
+			// reading the replies surfaces the first failed write
+			responses.forEach(Response::get);
 		}
 	}
 
 	@Override
 	public void doDelete(List<String> idList) {
-		throw new UnsupportedOperationException("delete is not supported");
+		if (idList.isEmpty()) {
+			return;
+		}
+		int batchSize = options.getWriteBatchSize();
+		List<Response<Long>> responses = this.tairVectorApi.pipelined(pipeline -> {
+			List<Response<Long>> pending = new ArrayList<>();
+			for (int from = 0; from < idList.size(); from += batchSize) {
+				List<String> ids = idList.subList(from, Math.min(from + batchSize, idList.size()));
+				pending.add(pipeline.tvsdel(options.getIndexName(), ids.toArray(new String[0])));
+			}
+			return pending;
+		});
+		responses.forEach(Response::get);
 	}
 
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
 		float[] userQueryEmbedding = getUserQueryEmbedding(request.getQuery());
-		String embeddingString = null;
-		try {
-			embeddingString = objectMapper.writeValueAsString(userQueryEmbedding);
-		}
-		catch (JsonProcessingException e) {
-			throw new RuntimeException("Failed to serialize JSON", e);
+		String embeddingString = TairVectorEncoder.encode(userQueryEmbedding);
+
+		if (!Boolean.FALSE.equals(this.knnSearchFieldSupported)) {
+			try {
+				List<Document> documents = searchWithFields(request, embeddingString);
+				this.knnSearchFieldSupported = true;
+				return documents;
+			}
+			catch (JedisDataException e) {
+				if (this.knnSearchFieldSupported != null || !isUnknownCommand(e)) {
+					throw e;
+				}
+				logger.info("Tair does not support TVS.KNNSEARCHFIELD, fetching the fields of the hits separately");
+				this.knnSearchFieldSupported = false;
+			}
 		}
+
 		VectorBuilderFactory.Knn<String> result = this.tairVectorApi.tvsknnsearch(options.getIndexName(),
 				(long) request.getTopK(), embeddingString);
-
-		return result.getKnnResults()
+		List<KnnItem<String>> hits = result.getKnnResults()
 			.stream()
 			.filter(item -> item.getScore() >= request.getSimilarityThreshold())
-			.map(this::mapToDocument)
 			.limit(request.getTopK())
 			.toList();
+		return mapToDocuments(hits);
 	}
 
 	/**
-	 * Retrieves a document from the vector store based on a KnnItem.
-	 * @param item The KnnItem containing the document ID.
-	 * @return The document corresponding to the KnnItem.
+	 * Search and read the fields of the hits with one command.
 	 */
-	protected Document mapToDocument(KnnItem<String> item) {
-		List<String> detail = this.tairVectorApi.tvshmget(options.getIndexName(), item.getId(), ID_FIELD_NAME,
-				CONTENT_FIELD_NAME, METADATA_FIELD_NAME);
-		String id = detail.get(0);
-		String content = detail.get(1);
-		String metadataStr = detail.get(2);
-		Map<String, Object> metaData = null;
+	private List<Document> searchWithFields(SearchRequest request, String embeddingString) {
+		VectorBuilderFactory.KnnField<String> result = this.tairVectorApi.tvsknnsearchfield(options.getIndexName(),
+				(long) request.getTopK(), embeddingString, List.of(ID_FIELD_NAME, CONTENT_FIELD_NAME, METADATA_FIELD_NAME));
+		List<Document> documents = new ArrayList<>();
+		for (KnnFieldItem<String> item : result.getKnnResults()) {
+			if (documents.size() >= request.getTopK()) {
+				break;
+			}
+			if (item.getScore() < request.getSimilarityThreshold()) {
+				continue;
+			}
+			Map<String, String> fields = item.getFields();
+			String id = fields.get(ID_FIELD_NAME);
+			documents.add(toDocument(id != null ? id : item.getId(), fields.get(CONTENT_FIELD_NAME),
+					fields.get(METADATA_FIELD_NAME)));
+		}
+		return documents;
+	}
+
+	private static boolean isUnknownCommand(JedisDataException e) {
+		String message = e.getMessage();
+		return message != null && message.toLowerCase(Locale.ROOT).contains("unknown command");
+	}
+
+	/**
+	 * The score is left unset: Tair returns a distance, lower meaning closer, while
+	 * {@link Document#getScore()} is higher for closer documents.
+	 */
+	private Document toDocument(String id, String content, String metadataStr) {
+		return new Document(id, content, parseMetadata(metadataStr));
+	}
+
+	private String serializeMetadata(Map<String, Object> metadata) {
+		try {
+			return objectMapper.writeValueAsString(metadata);
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException("Error serializing message", e);
+		}
+	}
+
+	private Map<String, Object> parseMetadata(String metadataStr) {
+		if (metadataStr == null) {
+			return new HashMap<>();
+		}
 		try {
-			metaData = objectMapper.readValue(metadataStr, new TypeReference<Map<String, Object>>() {
+			return objectMapper.readValue(metadataStr, new TypeReference<Map<String, Object>>() {
 			});
 		}
 		catch (JsonProcessingException e) {
 			throw new RuntimeException("Failed to parse JSON", e);
 		}
-		return new Document(id, content, metaData);
+	}
+
+	/**
+	 * Retrieves the documents of KnnItems from the vector store, reading the fields of all
+	 * items in one round trip.
+	 * @param items The KnnItems containing the document IDs and scores.
+	 * @return The documents corresponding to the KnnItems, in the same order.
+	 */
+	protected List<Document> mapToDocuments(List<KnnItem<String>> items) {
+		if (items.isEmpty()) {
+			return List.of();
+		}
+		List<Response<List<String>>> details = this.tairVectorApi.pipelined(pipeline -> {
+			List<Response<List<String>>> pending = new ArrayList<>(items.size());
+			for (KnnItem<String> item : items) {
+				pending.add(pipeline.tvshmget(options.getIndexName(), item.getId(), ID_FIELD_NAME, CONTENT_FIELD_NAME,
+						METADATA_FIELD_NAME));
+			}
+			return pending;
+		});
+		List<Document> documents = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			List<String> detail = details.get(i).get();
+			documents.add(toDocument(detail.get(0), detail.get(1), detail.get(2)));
+		}
+		return documents;
+	}
+
+	/**
+	 * Retrieves a document from the vector store based on a KnnItem.
+	 * @param item The KnnItem containing the document ID.
+	 * @return The document corresponding to the KnnItem.
+	 * @deprecated costs one round trip per item; use {@link #mapToDocuments(List)} for all
+	 * the items of a search
+	 */
+	@Deprecated
+	protected Document mapToDocument(KnnItem<String> item) {
+		return mapToDocuments(List.of(item)).get(0);
 	}
 
 	/**
@@ -76,6 +76,12 @@ public class TairVectorStoreOptions {
 	 */
 	private Integer expireSeconds = 600;
 
+	/**
+	 * The maximum number of commands sent in one pipelined round trip when documents are
+	 * added or deleted.
+	 */
+	private int writeBatchSize = 500;
+
 	/**
 	 * The expiration time for the index, in seconds.
 	 */
@@ -171,4 +177,20 @@ public class TairVectorStoreOptions {
 		this.expireSeconds = expireSeconds;
 	}
 
+	/**
+	 * Returns the maximum number of commands sent in one pipelined round trip.
+	 * @return the write batch size
+	 */
+	public int getWriteBatchSize() {
+		return writeBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of commands sent in one pipelined round trip.
+	 * @param writeBatchSize the write batch size to set
+	 */
+	public void setWriteBatchSize(int writeBatchSize) {
+		this.writeBatchSize = writeBatchSize;
+	}
+
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.aliyun.tair.tairvector.TairVectorPipeline;
+import com.aliyun.tair.tairvector.factory.VectorBuilderFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.SearchRequest;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the batched embedding, pipelined writes and search hydration of
+ * {@link TairVectorStore}.
+ */
+class TairVectorStorePipelineTest {
+
+	private static final String INDEX = TairVectorStoreOptions.DEFAULT_INDEX_NAME;
+
+	private final TairVectorApi tairVectorApi = mock(TairVectorApi.class);
+
+	private final TairVectorPipeline pipeline = mock(TairVectorPipeline.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	private final TairVectorStoreOptions options = new TairVectorStoreOptions();
+
+	private TairVectorStore store;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(tairVectorApi.pipelined(any())).thenAnswer(
+				invocation -> invocation.<Function<TairVectorPipeline, Object>>getArgument(0).apply(pipeline));
+		when(embeddingModel.embed(anyString())).thenReturn(new float[] { 1f, 0.5f });
+		store = TairVectorStore.builder(tairVectorApi, embeddingModel).options(options).build();
+	}
+
+	@Test
+	void embedsInOneBatchAndWritesInPipelinedChunks() {
+		options.setWriteBatchSize(2);
+		List<Document> documents = IntStream.range(0, 5)
+			.mapToObj(i -> new Document("doc-" + i, "text " + i, Map.of("n", i)))
+			.toList();
+		when(embeddingModel.embed(eq(documents), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenReturn(IntStream.range(0, 5).mapToObj(i -> new float[] { i, 0.25f }).toList());
+		Response<Long> ok = response(1L);
+		when(pipeline.tvshset(anyString(), anyString(), anyString(), any(String[].class))).thenReturn(ok);
+
+		store.add(documents);
+
+		verify(embeddingModel, never()).embed(any(Document.class));
+		verify(tairVectorApi, times(3)).pipelined(any());
+		verify(pipeline).tvshset(INDEX, "doc-3", "[3,0.25]", "id", "doc-3", "content", "text 3", "metadata",
+				"{\"n\":3}");
+		verify(ok, times(5)).get();
+	}
+
+	@Test
+	void surfacesFailedWrites() {
+		Document document = new Document("doc", "text", Map.of());
+		when(embeddingModel.embed(eq(List.of(document)), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenReturn(List.of(new float[] { 1f }));
+		Response<Long> failed = response(null);
+		when(failed.get()).thenThrow(new JedisDataException("ERR dimension mismatch"));
+		when(pipeline.tvshset(anyString(), anyString(), anyString(), any(String[].class))).thenReturn(failed);
+
+		assertThatThrownBy(() -> store.add(List.of(document))).hasMessageContaining("dimension mismatch");
+	}
+
+	@Test
+	void deletesInOnePipeline() {
+		options.setWriteBatchSize(2);
+		Response<Long> deleted = response(2L);
+		when(pipeline.tvsdel(anyString(), any(String[].class))).thenReturn(deleted);
+
+		store.delete(List.of("a", "b", "c"));
+
+		verify(tairVectorApi, times(1)).pipelined(any());
+		verify(pipeline).tvsdel(INDEX, "a", "b");
+		verify(pipeline).tvsdel(INDEX, new String[] { "c" });
+		verify(deleted, times(2)).get();
+	}
+
+	@Test
+	void readsFieldsWithTheSearch() {
+		VectorBuilderFactory.KnnField<String> result = new VectorBuilderFactory.KnnField<>();
+		result.add(new VectorBuilderFactory.KnnFieldItem<>("a", 0.9, INDEX,
+				Map.of("id", "a", "content", "text a", "metadata", "{\"n\":1}")));
+		result.add(new VectorBuilderFactory.KnnFieldItem<>("b", 0.1, INDEX, Map.of("id", "b", "content", "text b")));
+		when(tairVectorApi.tvsknnsearchfield(eq(INDEX), eq(2L), eq("[1,0.5]"), anyCollection())).thenReturn(result);
+
+		List<Document> documents = store
+			.similaritySearch(SearchRequest.builder().query("spring").topK(2).similarityThreshold(0.5).build());
+
+		assertThat(documents).singleElement().satisfies(document -> {
+			assertThat(document.getId()).isEqualTo("a");
+			assertThat(document.getText()).isEqualTo("text a");
+			assertThat(document.getMetadata()).containsEntry("n", 1);
+			assertThat(document.getScore()).isNull();
+		});
+		verify(tairVectorApi, never()).pipelined(any());
+		verify(tairVectorApi, never()).tvshmget(anyString(), anyString(), any(String[].class));
+	}
+
+	@Test
+	void fetchesFieldsOfAllHitsInOnePipelineWithoutKnnSearchField() {
+		when(tairVectorApi.tvsknnsearchfield(anyString(), anyLong(), anyString(), anyCollection()))
+			.thenThrow(new JedisDataException("ERR unknown command 'TVS.KNNSEARCHFIELD'"));
+		VectorBuilderFactory.Knn<String> result = new VectorBuilderFactory.Knn<>();
+		result.add(new VectorBuilderFactory.KnnItem<>("a", 0.9));
+		result.add(new VectorBuilderFactory.KnnItem<>("b", 0.8));
+		when(tairVectorApi.tvsknnsearch(anyString(), anyLong(), anyString())).thenReturn(result);
+		Response<List<String>> a = response(List.of("a", "text a", "{}"));
+		Response<List<String>> b = response(List.of("b", "text b", "{}"));
+		when(pipeline.tvshmget(eq(INDEX), eq("a"), any(String[].class))).thenReturn(a);
+		when(pipeline.tvshmget(eq(INDEX), eq("b"), any(String[].class))).thenReturn(b);
+
+		SearchRequest request = SearchRequest.builder().query("spring").topK(2).build();
+		store.similaritySearch(request);
+		List<Document> documents = store.similaritySearch(request);
+
+		assertThat(documents).extracting(Document::getText).containsExactly("text a", "text b");
+		verify(tairVectorApi, times(1)).tvsknnsearchfield(anyString(), anyLong(), anyString(), anyCollection());
+		verify(tairVectorApi, times(2)).pipelined(any());
+	}
+
+	@Test
+	void encodesVectorsCompactly() {
+		assertThat(TairVectorEncoder.encode(new float[] { 1f, -2f, 0.125f, 1.0E-5f })).isEqualTo("[1,-2,0.125,1.0E-5]");
+		assertThat(TairVectorEncoder.encode(new float[0])).isEqualTo("[]");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Response<T> response(T value) {
+		Response<T> response = mock(Response.class);
+		when(response.get()).thenReturn(value);
+		return response;
+	}
+
+}